@@ -0,0 +1,41 @@
+package org.biopax.paxtools.benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks (accepts the standard JMH command line options, e.g., a benchmark name regexp,
+ * -p size=10000) with the allocation rate (gc) and peak heap profilers, and saves the results
+ * to jmh-result.json (unless -rf/-rff is given), so that they can be compared release to release.
+ */
+public final class BenchmarkRunner
+{
+	private BenchmarkRunner()
+	{
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams()
+			|| cmd.shouldListProfilers() || cmd.shouldListResultFormats())
+		{
+			Main.main(args);
+			return;
+		}
+
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd)
+			.addProfiler(GCProfiler.class)
+			.addProfiler(PeakHeapProfiler.class);
+		if (!cmd.getResultFormat().hasValue())
+		{
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		new Runner(options.build()).run();
+	}
+}
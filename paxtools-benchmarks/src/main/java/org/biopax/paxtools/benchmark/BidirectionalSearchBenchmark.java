@@ -0,0 +1,103 @@
+package org.biopax.paxtools.benchmark;
+
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.query.QueryExecuter;
+import org.biopax.paxtools.query.algorithm.LimitType;
+import org.biopax.paxtools.query.algorithm.PathsBetweenQuery;
+import org.biopax.paxtools.query.algorithm.PathsFromToQuery;
+import org.biopax.paxtools.query.model.GraphObject;
+import org.biopax.paxtools.query.model.Node;
+import org.biopax.paxtools.query.wrapperL3.GraphL3;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paths queries with and without the bidirectional search, on the synthetic reaction chain,
+ * with no hubs and with a few hub molecules shared by all the reactions (see
+ * {@link SyntheticModels#create(int, int)}). The from-to ones go from CHEM10 to CHEM13, within
+ * the limit of 10 or the shortest path + 1, and from CHEM300 to CHEM10, which has no path along
+ * the chain; the paths between ones are between CHEM10, CHEM13 and CHEM300.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = SyntheticModels.MAX_HEAP)
+public class BidirectionalSearchBenchmark
+{
+	@Param({SyntheticModels.SMALL, SyntheticModels.MEDIUM, SyntheticModels.LARGE})
+	public int size;
+
+	@Param({"0", "10"})
+	public int hubs;
+
+	@Param({"false", "true"})
+	public boolean bidirectional;
+
+	private Set<Node> source;
+
+	private Set<Node> target;
+
+	private Set<Node> far;
+
+	private List<Set<Node>> sets;
+
+	@Setup
+	public void setUp()
+	{
+		Model model = SyntheticModels.create(size, hubs);
+		GraphL3 graph = new GraphL3(model).prebuild();
+		source = nodes(graph, model, "CHEM10");
+		target = nodes(graph, model, "CHEM13");
+		far = nodes(graph, model, "CHEM300");
+		sets = new ArrayList<Set<Node>>();
+		sets.add(source);
+		sets.add(target);
+		sets.add(far);
+	}
+
+	private static Set<Node> nodes(GraphL3 graph, Model model, String name)
+	{
+		Set<BioPAXElement> elements = SyntheticModels.named(model, name);
+		return QueryExecuter.prepareSingleNodeSet(elements, graph);
+	}
+
+	@Benchmark
+	public Set<GraphObject> pathsFromTo()
+	{
+		PathsFromToQuery query = new PathsFromToQuery(source, target, LimitType.NORMAL, 10, true);
+		query.setBidirectional(bidirectional);
+		return query.run();
+	}
+
+	@Benchmark
+	public Set<GraphObject> pathsFromToShortestPlusK()
+	{
+		PathsFromToQuery query = new PathsFromToQuery(source, target, LimitType.SHORTEST_PLUS_K, 1,
+			true);
+		query.setBidirectional(bidirectional);
+		return query.run();
+	}
+
+	@Benchmark
+	public Set<GraphObject> pathsFromToNoPath()
+	{
+		PathsFromToQuery query = new PathsFromToQuery(far, source, LimitType.NORMAL, 10, true);
+		query.setBidirectional(bidirectional);
+		return query.run();
+	}
+
+	@Benchmark
+	public Set<GraphObject> pathsBetween()
+	{
+		PathsBetweenQuery query = new PathsBetweenQuery(sets, 10);
+		query.setBidirectional(bidirectional);
+		return query.run();
+	}
+}
@@ -0,0 +1,54 @@
+package org.biopax.paxtools.benchmark;
+
+import org.biopax.paxtools.io.BinaryIOHandler;
+import org.biopax.paxtools.io.SimpleIOHandler;
+import org.biopax.paxtools.model.Model;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the same synthetic model from a binary snapshot ({@link BinaryIOHandler}) and from
+ * BioPAX RDF/XML ({@link SimpleIOHandler}, in the default mode), both from memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = SyntheticModels.MAX_HEAP)
+public class BinaryIOHandlerBenchmark
+{
+	@Param({SyntheticModels.SMALL, SyntheticModels.MEDIUM, SyntheticModels.LARGE})
+	public int size;
+
+	private byte[] owl;
+
+	private byte[] binary;
+
+	@Setup
+	public void setUp()
+	{
+		Model model = SyntheticModels.create(size);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SimpleIOHandler().convertToOWL(model, out);
+		owl = out.toByteArray();
+		out = new ByteArrayOutputStream();
+		new BinaryIOHandler().convertToOWL(model, out);
+		binary = out.toByteArray();
+	}
+
+	@Benchmark
+	public Model readOwl()
+	{
+		return new SimpleIOHandler().convertFromOWL(new ByteArrayInputStream(owl));
+	}
+
+	@Benchmark
+	public Model readBinary()
+	{
+		return new BinaryIOHandler().convertFromOWL(new ByteArrayInputStream(binary));
+	}
+}
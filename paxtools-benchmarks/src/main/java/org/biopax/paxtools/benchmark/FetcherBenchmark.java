@@ -0,0 +1,72 @@
+package org.biopax.paxtools.benchmark;
+
+import org.biopax.paxtools.controller.Fetcher;
+import org.biopax.paxtools.controller.SimpleEditorMap;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.Pathway;
+import org.biopax.paxtools.model.level3.Process;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetching the sub-graph of the top pathway (the whole model) and of every other pathway;
+ * counting the sub-processes of every process, one by one and in a batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = SyntheticModels.MAX_HEAP)
+public class FetcherBenchmark
+{
+	@Param({SyntheticModels.SMALL, SyntheticModels.MEDIUM, SyntheticModels.LARGE})
+	public int size;
+
+	private Model model;
+
+	@Setup
+	public void setUp()
+	{
+		model = SyntheticModels.create(size);
+	}
+
+	@Benchmark
+	public Set<BioPAXElement> fetchTopPathway()
+	{
+		return new Fetcher(SimpleEditorMap.L3).fetch(model.getByID(SyntheticModels.TOP_PATHWAY));
+	}
+
+	@Benchmark
+	public void fetchEachPathway(Blackhole blackhole)
+	{
+		Fetcher fetcher = new Fetcher(SimpleEditorMap.L3);
+		fetcher.setSkipSubPathways(true);
+		for (Pathway pathway : model.getObjects(Pathway.class))
+		{
+			blackhole.consume(fetcher.fetch(pathway));
+		}
+	}
+
+	@Benchmark
+	public void countEachProcess(Blackhole blackhole)
+	{
+		Fetcher fetcher = new Fetcher(SimpleEditorMap.L3, Fetcher.nextStepFilter);
+		for (Process process : model.getObjects(Process.class))
+		{
+			blackhole.consume(fetcher.fetch(process, Process.class).size());
+		}
+	}
+
+	@Benchmark
+	public Map<BioPAXElement, Integer> countEachProcessBatch()
+	{
+		return new Fetcher(SimpleEditorMap.L3, Fetcher.nextStepFilter)
+			.count(model.getObjects(Process.class), Process.class);
+	}
+}
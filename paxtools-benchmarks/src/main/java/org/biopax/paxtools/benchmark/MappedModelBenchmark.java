@@ -0,0 +1,119 @@
+package org.biopax.paxtools.benchmark;
+
+import org.biopax.paxtools.controller.PropertyEditor;
+import org.biopax.paxtools.controller.SimpleEditorMap;
+import org.biopax.paxtools.impl.MappedModel;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.level3.Pathway;
+import org.biopax.paxtools.model.level3.Process;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory used by a {@link MappedModel} with a bounded cache: each call visits every object of the
+ * synthetic model of the given size, and the property values of each, and then gets the top pathway
+ * and its components (the whole model). The retained heap after the call, less that of the model
+ * just opened, is reported as the "retainedBytes" counter (the mean over the calls of the
+ * iteration). Only the cache keeps property values, so this is bounded by the cache size, but
+ * not by a constant: the cached records of the pathways, read last, keep the views of their
+ * components (about 200 each), so the more pathways there are, the more views are kept. It is
+ * measured after a lookup, which drops the references to the views just garbage collected
+ * (and enqueued).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 1, time = 5)
+@Fork(value = 1, jvmArgsAppend = SyntheticModels.MAX_HEAP)
+public class MappedModelBenchmark
+{
+	private static final int CACHE_SIZE = 10000;
+
+	@Param({SyntheticModels.SMALL, SyntheticModels.MEDIUM, SyntheticModels.LARGE})
+	public int size;
+
+	private File file;
+
+	private MappedModel model;
+
+	private long opened;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Retained
+	{
+		public double retainedBytes;
+
+		private long bytes;
+
+		private long calls;
+
+		@Setup(Level.Iteration)
+		public void reset()
+		{
+			bytes = 0;
+			calls = 0;
+		}
+
+		void add(long bytes)
+		{
+			this.bytes += bytes;
+			calls++;
+			retainedBytes = this.bytes / (double) calls;
+		}
+	}
+
+	@Setup
+	public void setUp() throws IOException
+	{
+		file = File.createTempFile("paxtools-benchmark", ".bpxm");
+		MappedModel.save(SyntheticModels.create(size), file);
+	}
+
+	/**
+	 * Opens the model, with an empty cache, for each iteration.
+	 */
+	@Setup(Level.Iteration)
+	public void open()
+	{
+		model = null;
+		model = new MappedModel(file, CACHE_SIZE);
+		opened = ModelFootprintBenchmark.usedHeap();
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		model = null;
+		file.delete();
+	}
+
+	@Benchmark
+	public int visit(Retained retained) throws InterruptedException
+	{
+		int values = 0;
+		for (BioPAXElement bpe : model.getObjects())
+		{
+			for (PropertyEditor editor : SimpleEditorMap.L3.getEditorsOf(bpe))
+			{
+				values += editor.getValueFromBean(bpe).size();
+			}
+		}
+
+		Pathway top = (Pathway) model.getByID(SyntheticModels.TOP_PATHWAY);
+		for (Process process : top.getPathwayComponent())
+		{
+			values += process.getXref().size();
+		}
+
+		ModelFootprintBenchmark.usedHeap();
+		Thread.sleep(100); // for the collected references to be enqueued
+		model.getByID(SyntheticModels.TOP_PATHWAY);
+		retained.add(ModelFootprintBenchmark.usedHeap() - opened);
+		return values;
+	}
+}
@@ -0,0 +1,130 @@
+package org.biopax.paxtools.benchmark;
+
+import org.biopax.paxtools.io.SimpleIOHandler;
+import org.biopax.paxtools.model.Model;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory footprint of a model: builds the models of about "size" elements in total and reports
+ * the retained heap per element (the heap used after a full GC, less that before), as the
+ * "bytesPerElement" counter: the mean over the calls of the iteration. JMH adds such counters up
+ * over the iterations, hence a single, longer measurement iteration.
+ *
+ * The "synthetic" source is the synthetic model, whose data properties are all populated by the
+ * MockFactory. The "reactome" source is a real Reactome pathway (raf_map_kinase_cascade_reactome.owl),
+ * read as many times as needed, where most of the multiple cardinality properties are not set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 1, time = 5)
+@Fork(value = 1, jvmArgsAppend = SyntheticModels.MAX_HEAP)
+public class ModelFootprintBenchmark
+{
+	private static final String REAL_MODEL = "/raf_map_kinase_cascade_reactome.owl";
+
+	@Param({SyntheticModels.SMALL, SyntheticModels.MEDIUM, SyntheticModels.LARGE})
+	public int size;
+
+	@Param({"synthetic", "reactome"})
+	public String source;
+
+	private byte[] owl;
+
+	/**
+	 * Models built by the last call; kept here rather than returned, so that the previous models
+	 * are surely unreachable when the next call measures the heap.
+	 */
+	private List<Model> models;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint
+	{
+		public double bytesPerElement;
+
+		private long bytes;
+
+		private long elements;
+
+		@Setup(Level.Iteration)
+		public void reset()
+		{
+			bytes = 0;
+			elements = 0;
+		}
+
+		void add(long bytes, int elements)
+		{
+			this.bytes += bytes;
+			this.elements += elements;
+			bytesPerElement = this.bytes / (double) this.elements;
+		}
+	}
+
+	@Setup
+	public void setUp() throws IOException
+	{
+		InputStream in = getClass().getResourceAsStream(REAL_MODEL);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		for (int n; (n = in.read(buffer)) > 0; )
+		{
+			out.write(buffer, 0, n);
+		}
+		in.close();
+		owl = out.toByteArray();
+	}
+
+	@Benchmark
+	public void create(Footprint footprint)
+	{
+		models = null;
+		long before = usedHeap();
+		models = new ArrayList<Model>();
+		int elements = 0;
+		if ("synthetic".equals(source))
+		{
+			models.add(SyntheticModels.create(size));
+			elements = models.get(0).getObjects().size();
+		}
+		else
+		{
+			// copies of the same pathway, each in its own model (so the URIs do not clash)
+			while (elements < size)
+			{
+				Model model = new SimpleIOHandler().convertFromOWL(new ByteArrayInputStream(owl));
+				models.add(model);
+				elements += model.getObjects().size();
+			}
+		}
+		footprint.add(usedHeap() - before, elements);
+	}
+
+	static long usedHeap()
+	{
+		Runtime runtime = Runtime.getRuntime();
+		long used = Long.MAX_VALUE;
+		// repeat until a GC does not free any more memory
+		for (int i = 0; i < 10; i++)
+		{
+			System.gc();
+			long now = runtime.totalMemory() - runtime.freeMemory();
+			if (now >= used)
+			{
+				break;
+			}
+			used = now;
+		}
+		return used;
+	}
+}
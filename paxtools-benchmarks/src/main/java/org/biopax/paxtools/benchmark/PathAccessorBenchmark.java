@@ -0,0 +1,64 @@
+package org.biopax.paxtools.benchmark;
+
+import org.biopax.paxtools.controller.PathAccessor;
+import org.biopax.paxtools.controller.PathPlan;
+import org.biopax.paxtools.model.Model;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluating a path over the whole model with {@link PathAccessor}
+ * versus its compiled {@link PathPlan}, sequentially and in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = SyntheticModels.MAX_HEAP)
+public class PathAccessorBenchmark
+{
+	@Param({SyntheticModels.SMALL, SyntheticModels.MEDIUM, SyntheticModels.LARGE})
+	public int size;
+
+	@Param({"ProteinReference/xref:UnificationXref", "Catalysis/controller/entityReference/xref/id",
+		"Pathway/pathwayComponent*:Conversion/left/name"})
+	public String path;
+
+	@Param({"4"})
+	public int parallelism;
+
+	private Model model;
+
+	private PathAccessor accessor;
+
+	private PathPlan plan;
+
+	@Setup
+	public void setUp()
+	{
+		model = SyntheticModels.create(size);
+		accessor = new PathAccessor(path);
+		plan = accessor.compile();
+	}
+
+	@Benchmark
+	public Set pathAccessor()
+	{
+		return accessor.getValueFromModel(model);
+	}
+
+	@Benchmark
+	public Set pathPlan()
+	{
+		return plan.getValueFromModel(model);
+	}
+
+	@Benchmark
+	public Set pathPlanParallel()
+	{
+		return plan.getValueFromModel(model, parallelism);
+	}
+}
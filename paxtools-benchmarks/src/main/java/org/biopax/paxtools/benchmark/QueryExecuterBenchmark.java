@@ -0,0 +1,135 @@
+package org.biopax.paxtools.benchmark;
+
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.query.QueryExecuter;
+import org.biopax.paxtools.query.algorithm.Direction;
+import org.biopax.paxtools.query.algorithm.LimitType;
+import org.biopax.paxtools.query.wrapperL3.GraphL3;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Graph queries from the synthetic reaction chain: neighborhood of a few molecules,
+ * paths between and paths from-to molecules a few reactions apart; each on a new graph,
+ * and on a graph prebuilt once and shared by all the queries. The deep ones traverse hundreds of
+ * reactions along the chain, so the BFS labeling dominates. The many-seeds ones find the paths
+ * between sixty molecules along the chain, running the searches from the seeds one by one and in
+ * parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = SyntheticModels.MAX_HEAP)
+public class QueryExecuterBenchmark
+{
+	@Param({SyntheticModels.SMALL, SyntheticModels.MEDIUM, SyntheticModels.LARGE})
+	public int size;
+
+	private Model model;
+
+	private GraphL3 graph;
+
+	private Set<BioPAXElement> seeds;
+
+	private Set<BioPAXElement> sources;
+
+	private Set<BioPAXElement> targets;
+
+	private Set<BioPAXElement> farTargets;
+
+	private Set<BioPAXElement> manySeeds;
+
+	private ExecutorService executor;
+
+	@Setup
+	public void setUp()
+	{
+		model = SyntheticModels.create(size);
+		graph = new GraphL3(model).prebuild();
+		seeds = SyntheticModels.named(model, "CHEM10", "GENE20", "CHEM30", "GENE40");
+		sources = SyntheticModels.named(model, "CHEM10");
+		targets = SyntheticModels.named(model, "CHEM13");
+		farTargets = SyntheticModels.named(model, "CHEM300");
+
+		String[] names = new String[60];
+		for (int i = 0; i < names.length; i++)
+		{
+			names[i] = "CHEM" + (5 * i);
+		}
+		manySeeds = SyntheticModels.named(model, names);
+		executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		executor.shutdown();
+	}
+
+	@Benchmark
+	public Set<BioPAXElement> neighborhood()
+	{
+		return QueryExecuter.runNeighborhood(seeds, model, 3, Direction.BOTHSTREAM);
+	}
+
+	@Benchmark
+	public Set<BioPAXElement> pathsBetween()
+	{
+		return QueryExecuter.runPathsBetween(seeds, model, 10);
+	}
+
+	@Benchmark
+	public Set<BioPAXElement> pathsFromTo()
+	{
+		return QueryExecuter.runPathsFromTo(sources, targets, model, LimitType.NORMAL, 10);
+	}
+
+	@Benchmark
+	public Set<BioPAXElement> neighborhoodPrebuilt()
+	{
+		return QueryExecuter.runNeighborhood(seeds, graph, 3, Direction.BOTHSTREAM);
+	}
+
+	@Benchmark
+	public Set<BioPAXElement> pathsBetweenPrebuilt()
+	{
+		return QueryExecuter.runPathsBetween(seeds, graph, 10);
+	}
+
+	@Benchmark
+	public Set<BioPAXElement> pathsFromToPrebuilt()
+	{
+		return QueryExecuter.runPathsFromTo(sources, targets, graph, LimitType.NORMAL, 10);
+	}
+
+	@Benchmark
+	public Set<BioPAXElement> neighborhoodDeep()
+	{
+		return QueryExecuter.runNeighborhood(sources, graph, 1000, Direction.DOWNSTREAM);
+	}
+
+	@Benchmark
+	public Set<BioPAXElement> pathsFromToDeep()
+	{
+		return QueryExecuter.runPathsFromTo(sources, farTargets, graph, LimitType.NORMAL, 300);
+	}
+
+	@Benchmark
+	public Set<BioPAXElement> pathsBetweenManySeeds()
+	{
+		return QueryExecuter.runPathsBetween(manySeeds, graph, 10);
+	}
+
+	@Benchmark
+	public Set<BioPAXElement> pathsBetweenManySeedsParallel()
+	{
+		return QueryExecuter.runPathsBetween(manySeeds, graph, 10, executor);
+	}
+}
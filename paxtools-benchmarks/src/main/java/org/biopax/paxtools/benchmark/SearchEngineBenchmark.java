@@ -0,0 +1,122 @@
+package org.biopax.paxtools.benchmark;
+
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.Protein;
+import org.biopax.paxtools.search.SearchCursor;
+import org.biopax.paxtools.search.SearchEngine;
+import org.biopax.paxtools.search.SearchResult;
+import org.biopax.paxtools.search.Searcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-text search (a name, a name prefix, a filtered by type query) over an index of the model,
+ * with and without the result cache, paging through all the hits versus a cursor, 
+ * and (re-)indexing the whole model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = SyntheticModels.MAX_HEAP)
+public class SearchEngineBenchmark
+{
+	@Param({SyntheticModels.SMALL, SyntheticModels.MEDIUM, SyntheticModels.LARGE})
+	public int size;
+
+	@Param({"0", "1000"})
+	public int resultCacheSize;
+
+	private File indexDir;
+
+	private SearchEngine engine;
+
+	private Searcher searcher;
+
+	@Setup
+	public void setUp() throws IOException
+	{
+		Model model = SyntheticModels.create(size);
+		indexDir = File.createTempFile("paxtools-benchmark", ".index");
+		indexDir.delete();
+		engine = new SearchEngine(model, indexDir.getPath());
+		engine.setResultCacheSize(resultCacheSize);
+		engine.index();
+		searcher = engine;
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		delete(indexDir);
+	}
+
+	@Benchmark
+	public SearchResult searchName()
+	{
+		return searcher.search("GENE42", 0, null, null, null);
+	}
+
+	@Benchmark
+	public SearchResult searchPrefix()
+	{
+		return searcher.search("CHEM1*", 0, null, null, null);
+	}
+
+	@Benchmark
+	public SearchResult searchByType()
+	{
+		return searcher.search("GENE*", 0, Protein.class, null, null);
+	}
+
+	@Benchmark
+	public int pageAll()
+	{
+		int n = 0;
+		for (int page = 0; ; page++)
+		{
+			int hits = searcher.search("*", page, null, null, null).getHits().size();
+			n += hits;
+			if (hits < engine.getMaxHitsPerPage())
+				return n;
+		}
+	}
+
+	@Benchmark
+	public int cursorAll()
+	{
+		int n = 0;
+		SearchCursor cursor = engine.cursor("*", null, null, null, false);
+		while (cursor.hasNext())
+		{
+			cursor.next();
+			n++;
+		}
+		return n;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void index()
+	{
+		engine.index();
+	}
+
+	private static void delete(File file)
+	{
+		File[] files = file.listFiles();
+		if (files != null)
+		{
+			for (File f : files)
+			{
+				delete(f);
+			}
+		}
+		file.delete();
+	}
+}
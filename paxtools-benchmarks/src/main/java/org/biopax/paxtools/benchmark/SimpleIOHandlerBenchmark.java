@@ -0,0 +1,77 @@
+package org.biopax.paxtools.benchmark;
+
+import org.biopax.paxtools.io.SimpleIOHandler;
+import org.biopax.paxtools.model.Model;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading (in the default, streaming bind and parallel modes) and writing BioPAX RDF/XML.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = SyntheticModels.MAX_HEAP)
+public class SimpleIOHandlerBenchmark
+{
+	@Param({SyntheticModels.SMALL, SyntheticModels.MEDIUM, SyntheticModels.LARGE})
+	public int size;
+
+	private Model model;
+
+	private byte[] owl;
+
+	@Setup
+	public void setUp()
+	{
+		model = SyntheticModels.create(size);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SimpleIOHandler().convertToOWL(model, out);
+		owl = out.toByteArray();
+	}
+
+	@Benchmark
+	public Model read()
+	{
+		return new SimpleIOHandler().convertFromOWL(new ByteArrayInputStream(owl));
+	}
+
+	@Benchmark
+	public Model readStreamingBind()
+	{
+		SimpleIOHandler handler = new SimpleIOHandler();
+		handler.streamingBind(true);
+		return handler.convertFromOWL(new ByteArrayInputStream(owl));
+	}
+
+	@Benchmark
+	public Model readParallel()
+	{
+		SimpleIOHandler handler = new SimpleIOHandler();
+		handler.parallelism(Runtime.getRuntime().availableProcessors());
+		return handler.convertFromOWL(new ByteArrayInputStream(owl));
+	}
+
+	@Benchmark
+	public void write()
+	{
+		new SimpleIOHandler().convertToOWL(model, new OutputStream()
+		{
+			@Override
+			public void write(int b)
+			{
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len)
+			{
+			}
+		});
+	}
+}
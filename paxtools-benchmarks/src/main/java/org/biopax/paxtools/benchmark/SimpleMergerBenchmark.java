@@ -0,0 +1,51 @@
+package org.biopax.paxtools.benchmark;
+
+import org.biopax.paxtools.controller.SimpleEditorMap;
+import org.biopax.paxtools.controller.SimpleMerger;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merging a model into a new empty model and into a model that already has all its elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = SyntheticModels.MAX_HEAP)
+public class SimpleMergerBenchmark
+{
+	@Param({SyntheticModels.SMALL, SyntheticModels.MEDIUM, SyntheticModels.LARGE})
+	public int size;
+
+	private Model model;
+
+	private Model merged;
+
+	@Setup
+	public void setUp()
+	{
+		model = SyntheticModels.create(size);
+		merged = BioPAXLevel.L3.getDefaultFactory().createModel();
+		new SimpleMerger(SimpleEditorMap.L3).merge(merged, model);
+	}
+
+	@Benchmark
+	public Model mergeIntoEmptyModel()
+	{
+		Model target = BioPAXLevel.L3.getDefaultFactory().createModel();
+		new SimpleMerger(SimpleEditorMap.L3).merge(target, model);
+		return target;
+	}
+
+	@Benchmark
+	public Model mergeIntoSameElements()
+	{
+		new SimpleMerger(SimpleEditorMap.L3).merge(merged, model);
+		return merged;
+	}
+}
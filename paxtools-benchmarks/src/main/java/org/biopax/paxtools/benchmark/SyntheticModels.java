@@ -0,0 +1,197 @@
+package org.biopax.paxtools.benchmark;
+
+import org.biopax.paxtools.impl.MockFactory;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates BioPAX Level3 models of a given size for the benchmarks.
+ *
+ * The model is made of similar units: a catalysed biochemical reaction converting
+ * the product of the previous unit's reaction into a new small molecule, with their entity
+ * references, xrefs and a publication, grouped by a hundred into sub-pathways of one top pathway.
+ * So the reactions form a chain, CHEM0 to CHEM1 (catalysed by GENE0), CHEM1 to CHEM2 (by GENE1), etc.
+ * All the data properties are populated by the {@link MockFactory}, and the proteins and small
+ * molecules are also named as above. Models are reproducible: the same size gives the same
+ * URIs and values.
+ */
+public final class SyntheticModels
+{
+	public static final String BASE = "http://biopax.org/benchmark/";
+
+	/**
+	 * URI of the top pathway, which contains all the others.
+	 */
+	public static final String TOP_PATHWAY = BASE + "top";
+
+	/**
+	 * Sizes used by the benchmarks (as the "size" parameter).
+	 */
+	public static final String SMALL = "10000", MEDIUM = "100000", LARGE = "1000000";
+
+	/**
+	 * Heap size option for the forked benchmark JVMs, enough for the largest model.
+	 */
+	public static final String MAX_HEAP = "-Xmx8g";
+
+	private static final int UNITS_PER_PATHWAY = 100;
+
+	private SyntheticModels()
+	{
+	}
+
+	/**
+	 * Creates a new model.
+	 * @param size approximate number of elements
+	 * @return new model
+	 */
+	public static Model create(int size)
+	{
+		return create(size, 0);
+	}
+
+	/**
+	 * Creates a new model whose reactions also share a few hub molecules, named HUB0, HUB1, etc.,
+	 * like the cofactors (ATP, ADP...) in real pathways: each reaction consumes a hub and produces
+	 * the next one. So every molecule is a few reactions away from most of the model.
+	 * @param size approximate number of elements
+	 * @param hubs number of hub molecules, or 0 for none
+	 * @return new model
+	 */
+	public static Model create(int size, int hubs)
+	{
+		Generator generator = new Generator();
+		for (int i = 0; i < hubs; i++)
+		{
+			SmallMolecule hub = generator.create(SmallMolecule.class, "hub");
+			hub.addName("HUB" + i);
+			generator.hubs.add(hub);
+		}
+		Model model = generator.model;
+		Pathway top = generator.factory.create(Pathway.class, TOP_PATHWAY);
+		model.add(top);
+		Pathway pathway = null;
+		int units = 0;
+		while (model.getObjects().size() < size)
+		{
+			if (units % UNITS_PER_PATHWAY == 0)
+			{
+				pathway = generator.create(Pathway.class, "pathway");
+				pathway.setOrganism(generator.organism);
+				pathway.addDataSource(generator.dataSource);
+				top.addPathwayComponent(pathway);
+			}
+			generator.addUnit(pathway, units++);
+		}
+		return model;
+	}
+
+
+	/**
+	 * Finds the physical entities by name.
+	 * @param model model created by {@link #create(int)}
+	 * @param names e.g., GENE0, CHEM5
+	 * @return physical entities named so
+	 */
+	public static Set<BioPAXElement> named(Model model, String... names)
+	{
+		Set<String> set = new HashSet<String>(Arrays.asList(names));
+		Set<BioPAXElement> result = new HashSet<BioPAXElement>();
+		for (PhysicalEntity pe : model.getObjects(PhysicalEntity.class))
+		{
+			if (!Collections.disjoint(set, pe.getName()))
+			{
+				result.add(pe);
+			}
+		}
+		return result;
+	}
+
+
+	private static final class Generator
+	{
+		final MockFactory factory = new MockFactory(BioPAXLevel.L3);
+		final Model model = BioPAXLevel.L3.getDefaultFactory().createModel();
+		final BioSource organism;
+		final Provenance dataSource;
+		int id = 0;
+		SmallMolecule product;
+		final List<SmallMolecule> hubs = new ArrayList<SmallMolecule>();
+
+		Generator()
+		{
+			model.setXmlBase(BASE);
+			organism = create(BioSource.class, "organism");
+			dataSource = create(Provenance.class, "datasource");
+		}
+
+		<T extends BioPAXElement> T create(Class<T> type, String name)
+		{
+			T bpe = factory.create(type, BASE + name + "_" + (id++));
+			model.add(bpe);
+			return bpe;
+		}
+
+		void addUnit(Pathway pathway, int unit)
+		{
+			PublicationXref publication = create(PublicationXref.class, "pub");
+
+			ProteinReference pr = create(ProteinReference.class, "pr");
+			pr.setOrganism(organism);
+			pr.addXref(create(UnificationXref.class, "uniprot"));
+			pr.addXref(publication);
+			Protein protein = create(Protein.class, "protein");
+			protein.setEntityReference(pr);
+			protein.addName("GENE" + unit);
+			pr.addName("GENE" + unit);
+			protein.addDataSource(dataSource);
+
+			SmallMolecule sm1 = product;
+			if (sm1 == null)
+			{
+				sm1 = createSmallMolecule(unit);
+			}
+			SmallMolecule sm2 = createSmallMolecule(unit + 1);
+			product = sm2;
+
+			BiochemicalReaction reaction = create(BiochemicalReaction.class, "reaction");
+			reaction.addLeft(sm1);
+			reaction.addRight(sm2);
+			if (!hubs.isEmpty())
+			{
+				reaction.addLeft(hubs.get(unit % hubs.size()));
+				reaction.addRight(hubs.get((unit + 1) % hubs.size()));
+			}
+			reaction.addXref(publication);
+			reaction.addDataSource(dataSource);
+
+			Catalysis catalysis = create(Catalysis.class, "catalysis");
+			catalysis.addController(protein);
+			catalysis.addControlled(reaction);
+			catalysis.addDataSource(dataSource);
+
+			pathway.addPathwayComponent(reaction);
+			pathway.addPathwayComponent(catalysis);
+		}
+
+		SmallMolecule createSmallMolecule(int unit)
+		{
+			SmallMoleculeReference smr = create(SmallMoleculeReference.class, "smr");
+			smr.addXref(create(UnificationXref.class, "chebi"));
+			SmallMolecule sm = create(SmallMolecule.class, "sm");
+			sm.setEntityReference(smr);
+			sm.addName("CHEM" + unit);
+			sm.addDataSource(dataSource);
+			return sm;
+		}
+	}
+}
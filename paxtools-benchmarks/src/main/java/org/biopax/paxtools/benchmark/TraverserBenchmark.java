@@ -0,0 +1,90 @@
+package org.biopax.paxtools.benchmark;
+
+import org.biopax.paxtools.controller.PropertyEditor;
+import org.biopax.paxtools.controller.SimpleEditorMap;
+import org.biopax.paxtools.controller.Traverser;
+import org.biopax.paxtools.controller.Visitor;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.Model;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-model traversal: visits every property value of every element, with a {@link Traverser}
+ * and by calling the property editors directly, with the property accessors compiled (default)
+ * and with Java Reflection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TraverserBenchmark
+{
+	@Param({SyntheticModels.SMALL, SyntheticModels.MEDIUM, SyntheticModels.LARGE})
+	public int size;
+
+	private Model model;
+
+	@Setup
+	public void setUp()
+	{
+		model = SyntheticModels.create(size);
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsAppend = SyntheticModels.MAX_HEAP)
+	public void traverseCompiled(Blackhole blackhole)
+	{
+		traverse(blackhole);
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsAppend = {SyntheticModels.MAX_HEAP, "-Dpaxtools.compiledAccessors=false"})
+	public void traverseReflection(Blackhole blackhole)
+	{
+		traverse(blackhole);
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsAppend = SyntheticModels.MAX_HEAP)
+	public void getValuesCompiled(Blackhole blackhole)
+	{
+		getValues(blackhole);
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsAppend = {SyntheticModels.MAX_HEAP, "-Dpaxtools.compiledAccessors=false"})
+	public void getValuesReflection(Blackhole blackhole)
+	{
+		getValues(blackhole);
+	}
+
+	private void getValues(Blackhole blackhole)
+	{
+		for (BioPAXElement bpe : model.getObjects())
+		{
+			for (PropertyEditor editor : SimpleEditorMap.L3.getEditorsOf(bpe))
+			{
+				blackhole.consume(editor.getValueFromBean(bpe));
+			}
+		}
+	}
+
+	private void traverse(final Blackhole blackhole)
+	{
+		Traverser traverser = new Traverser(SimpleEditorMap.L3, new Visitor()
+		{
+			public void visit(BioPAXElement domain, Object range, Model model, PropertyEditor<?, ?> editor)
+			{
+				blackhole.consume(range);
+			}
+		});
+		for (BioPAXElement bpe : model.getObjects())
+		{
+			traverser.traverse(bpe, model);
+		}
+	}
+}
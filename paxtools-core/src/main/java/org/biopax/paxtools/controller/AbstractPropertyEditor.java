@@ -43,6 +43,12 @@ public abstract class AbstractPropertyEditor<D extends BioPAXElement, R>
 	 */
 	protected Method removeMethod;
 
+	/**
+	 * The set, add and remove methods compiled to direct calls, or null where reflection is used.
+	 * @see CompiledMethods
+	 */
+	private CompiledMethod compiledSetMethod, compiledAddMethod, compiledRemoveMethod;
+
 	/**
 	 * Local OWL name of the property
 	 */
@@ -237,9 +243,12 @@ public abstract class AbstractPropertyEditor<D extends BioPAXElement, R>
 
 			this.addMethod = domain.getMethod("add" + javaName, range);
 			this.removeMethod = domain.getMethod("remove" + javaName, range);
+			this.compiledAddMethod = CompiledMethods.compile(addMethod);
+			this.compiledRemoveMethod = CompiledMethods.compile(removeMethod);
 		} else
 		{
 			this.setMethod = domain.getMethod("set" + javaName, range);
+			this.compiledSetMethod = CompiledMethods.compile(setMethod);
 		}
 	}
 
@@ -389,7 +398,14 @@ public abstract class AbstractPropertyEditor<D extends BioPAXElement, R>
 		assert bean != null;
 		try
 		{
-			method.invoke(domain.cast(bean), value);
+			CompiledMethod compiled = compiled(method);
+			if (compiled != null)
+			{
+				compiled.invoke(domain.cast(bean), value);
+			} else
+			{
+				method.invoke(domain.cast(bean), value);
+			}
 		}
 		catch (ClassCastException e)
 		{
@@ -416,6 +432,14 @@ public abstract class AbstractPropertyEditor<D extends BioPAXElement, R>
 		}
 	}
 
+	private CompiledMethod compiled(Method method)
+	{
+		if (method == setMethod) return compiledSetMethod;
+		else if (method == addMethod) return compiledAddMethod;
+		else if (method == removeMethod) return compiledRemoveMethod;
+		else return null;
+	}
+
 	protected R parseValueFromString(String value)
 	{
 		throw new IllegalBioPAXArgumentException();
@@ -0,0 +1,19 @@
+package org.biopax.paxtools.controller;
+
+/**
+ * A bean property accessor (getter, setter, add or remove method) compiled at runtime
+ * to call the method directly rather than via {@link java.lang.reflect.Method#invoke(Object, Object...)}.
+ *
+ * Implementations are generated by the property editors; this interface has to be public
+ * so that the generated classes can implement it.
+ */
+public interface CompiledMethod
+{
+	/**
+	 * Calls the method on the bean.
+	 * @param bean the object whose method is called
+	 * @param value the argument (ignored by getters); primitive values are boxed
+	 * @return the result (boxed if primitive), or null for void methods
+	 */
+	Object invoke(Object bean, Object value);
+}
@@ -0,0 +1,374 @@
+package org.biopax.paxtools.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Generates {@link CompiledMethod} classes, each calling one bean method directly,
+ * so that property editors (and readers, such as the binary snapshot one) do not use
+ * Java Reflection to get or set property values. A method is compiled once; the same
+ * compiled method is returned for it after that.
+ *
+ * This is enabled by default; set the system property paxtools.compiledAccessors=false
+ * to always use {@link Method#invoke(Object, Object...)} instead.
+ * Methods that cannot be compiled (e.g., not public or with more than one parameter)
+ * are not, and the property editors use reflection for them.
+ */
+public final class CompiledMethods
+{
+	private static final Logger log = LoggerFactory.getLogger(CompiledMethods.class);
+
+	static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("paxtools.compiledAccessors"));
+
+	private static final String INTERFACE = CompiledMethod.class.getName().replace('.', '/');
+
+	private static final String INVOKE_DESCRIPTOR = "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;";
+
+	private static final Map<Class, Class> BOXES = new HashMap<Class, Class>();
+
+	static
+	{
+		BOXES.put(boolean.class, Boolean.class);
+		BOXES.put(byte.class, Byte.class);
+		BOXES.put(char.class, Character.class);
+		BOXES.put(short.class, Short.class);
+		BOXES.put(int.class, Integer.class);
+		BOXES.put(long.class, Long.class);
+		BOXES.put(float.class, Float.class);
+		BOXES.put(double.class, Double.class);
+	}
+
+	private static final Loader loader = new Loader(CompiledMethods.class.getClassLoader());
+
+	private static final Map<Method, CompiledMethod> compiled = new HashMap<Method, CompiledMethod>();
+
+	private static int counter = 0;
+
+	private CompiledMethods()
+	{
+	}
+
+	/**
+	 * Compiles the method.
+	 * @param method a public getter or one-parameter method of a public class or interface
+	 * @return the compiled method or null if the feature is disabled or the method is not supported
+	 */
+	public static CompiledMethod compile(Method method)
+	{
+		if (!ENABLED || method == null)
+		{
+			return null;
+		}
+
+		synchronized (compiled)
+		{
+			CompiledMethod c = compiled.get(method);
+			if (c == null)
+			{
+				c = compileNew(method);
+				if (c != null) compiled.put(method, c);
+			}
+			return c;
+		}
+	}
+
+	private static CompiledMethod compileNew(Method method)
+	{
+		Class owner = method.getDeclaringClass();
+		Class[] params = method.getParameterTypes();
+		if (params.length > 1 || !Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers())
+			|| !Modifier.isPublic(owner.getModifiers()) || !isVisible(owner) || !isVisible(method.getReturnType())
+			|| (params.length == 1 && !isVisible(params[0])))
+		{
+			return null;
+		}
+
+		try
+		{
+			String name;
+			synchronized (CompiledMethods.class)
+			{
+				name = CompiledMethods.class.getName() + "$Compiled" + (counter++);
+			}
+			byte[] bytes = generate(name.replace('.', '/'), method);
+			return (CompiledMethod) loader.define(name, bytes).newInstance();
+		}
+		catch (Throwable t)
+		{
+			log.info("Could not compile " + method + "; will use reflection. " + t);
+			return null;
+		}
+	}
+
+	private static boolean isVisible(Class c)
+	{
+		while (c.isArray())
+		{
+			c = c.getComponentType();
+		}
+		if (c.isPrimitive())
+		{
+			return true;
+		}
+		try
+		{
+			return Class.forName(c.getName(), false, loader) == c;
+		}
+		catch (ClassNotFoundException e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Generates the class file (version 49, no stack map frames required) that implements
+	 * {@link CompiledMethod#invoke(Object, Object)} by casting the arguments, un-boxing a primitive argument,
+	 * calling the method and boxing a primitive result.
+	 */
+	private static byte[] generate(String className, Method method) throws IOException
+	{
+		ConstantPool cp = new ConstantPool();
+		int thisClass = cp.classRef(className);
+		int superClass = cp.classRef("java/lang/Object");
+		int iface = cp.classRef(INTERFACE);
+		int objectInit = cp.methodRef("java/lang/Object", "<init>", "()V", false);
+		int codeName = cp.utf8("Code");
+		int initName = cp.utf8("<init>");
+		int initDesc = cp.utf8("()V");
+		int invokeName = cp.utf8("invoke");
+		int invokeDesc = cp.utf8(INVOKE_DESCRIPTOR);
+
+		Class owner = method.getDeclaringClass();
+		String ownerName = owner.getName().replace('.', '/');
+		Class[] params = method.getParameterTypes();
+		Class returnType = method.getReturnType();
+
+		ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+		DataOutputStream code = new DataOutputStream(codeBytes);
+		code.writeByte(0x2B); // aload_1
+		code.writeByte(0xC0); // checkcast
+		code.writeShort(cp.classRef(ownerName));
+		int argSlots = 0;
+		if (params.length == 1)
+		{
+			Class param = params[0];
+			code.writeByte(0x2C); // aload_2
+			if (param.isPrimitive())
+			{
+				Class box = BOXES.get(param);
+				code.writeByte(0xC0); // checkcast
+				code.writeShort(cp.classRef(internalName(box)));
+				code.writeByte(0xB6); // invokevirtual
+				code.writeShort(cp.methodRef(internalName(box), param.getName() + "Value",
+					"()" + descriptor(param), false));
+				argSlots = (param == long.class || param == double.class) ? 2 : 1;
+			} else
+			{
+				if (param != Object.class)
+				{
+					code.writeByte(0xC0); // checkcast
+					code.writeShort(cp.classRef(param.isArray() ? descriptor(param) : internalName(param)));
+				}
+				argSlots = 1;
+			}
+		}
+
+		int target = cp.methodRef(ownerName, method.getName(), descriptor(method), owner.isInterface());
+		if (owner.isInterface())
+		{
+			code.writeByte(0xB9); // invokeinterface
+			code.writeShort(target);
+			code.writeByte(1 + argSlots);
+			code.writeByte(0);
+		} else
+		{
+			code.writeByte(0xB6); // invokevirtual
+			code.writeShort(target);
+		}
+
+		if (returnType == void.class)
+		{
+			code.writeByte(0x01); // aconst_null
+		} else if (returnType.isPrimitive())
+		{
+			Class box = BOXES.get(returnType);
+			code.writeByte(0xB8); // invokestatic
+			code.writeShort(cp.methodRef(internalName(box), "valueOf",
+				"(" + descriptor(returnType) + ")" + descriptor(box), false));
+		}
+		code.writeByte(0xB0); // areturn
+		code.flush();
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0xCAFEBABE);
+		out.writeShort(0);
+		out.writeShort(49);
+		cp.write(out);
+		out.writeShort(0x0001 | 0x0010 | 0x0020); // public final super
+		out.writeShort(thisClass);
+		out.writeShort(superClass);
+		out.writeShort(1);
+		out.writeShort(iface);
+		out.writeShort(0); // fields
+		out.writeShort(2); // methods
+
+		// constructor
+		out.writeShort(0x0001);
+		out.writeShort(initName);
+		out.writeShort(initDesc);
+		out.writeShort(1);
+		out.writeShort(codeName);
+		out.writeInt(12 + 5);
+		out.writeShort(1); // max stack
+		out.writeShort(1); // max locals
+		out.writeInt(5);
+		out.writeByte(0x2A); // aload_0
+		out.writeByte(0xB7); // invokespecial
+		out.writeShort(objectInit);
+		out.writeByte(0xB1); // return
+		out.writeShort(0);
+		out.writeShort(0);
+
+		// invoke
+		out.writeShort(0x0001);
+		out.writeShort(invokeName);
+		out.writeShort(invokeDesc);
+		out.writeShort(1);
+		out.writeShort(codeName);
+		out.writeInt(12 + codeBytes.size());
+		out.writeShort(4); // max stack
+		out.writeShort(3); // max locals
+		out.writeInt(codeBytes.size());
+		codeBytes.writeTo(out);
+		out.writeShort(0);
+		out.writeShort(0);
+
+		out.writeShort(0); // class attributes
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static String internalName(Class c)
+	{
+		return c.getName().replace('.', '/');
+	}
+
+	private static String descriptor(Method method)
+	{
+		StringBuilder sb = new StringBuilder("(");
+		for (Class param : method.getParameterTypes())
+		{
+			sb.append(descriptor(param));
+		}
+		return sb.append(')').append(descriptor(method.getReturnType())).toString();
+	}
+
+	private static String descriptor(Class c)
+	{
+		if (c.isArray()) return "[" + descriptor(c.getComponentType());
+		if (c == void.class) return "V";
+		if (c == boolean.class) return "Z";
+		if (c == byte.class) return "B";
+		if (c == char.class) return "C";
+		if (c == short.class) return "S";
+		if (c == int.class) return "I";
+		if (c == long.class) return "J";
+		if (c == float.class) return "F";
+		if (c == double.class) return "D";
+		return "L" + internalName(c) + ";";
+	}
+
+
+	/**
+	 * Class file constant pool builder.
+	 */
+	private static final class ConstantPool
+	{
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		private final DataOutputStream out = new DataOutputStream(bytes);
+		private final Map<String, Integer> entries = new HashMap<String, Integer>();
+		private int count = 1;
+
+		int utf8(String s) throws IOException
+		{
+			Integer i = entries.get("U" + s);
+			if (i == null)
+			{
+				out.writeByte(1);
+				out.writeUTF(s);
+				i = add("U" + s);
+			}
+			return i;
+		}
+
+		int classRef(String internalName) throws IOException
+		{
+			Integer i = entries.get("C" + internalName);
+			if (i == null)
+			{
+				int name = utf8(internalName);
+				out.writeByte(7);
+				out.writeShort(name);
+				i = add("C" + internalName);
+			}
+			return i;
+		}
+
+		int methodRef(String owner, String name, String descriptor, boolean isInterface) throws IOException
+		{
+			String key = "M" + owner + "." + name + descriptor;
+			Integer i = entries.get(key);
+			if (i == null)
+			{
+				int ownerClass = classRef(owner);
+				int nameIndex = utf8(name);
+				int descIndex = utf8(descriptor);
+				out.writeByte(12); // name and type
+				out.writeShort(nameIndex);
+				out.writeShort(descIndex);
+				int nameAndType = add("N" + name + descriptor);
+				out.writeByte(isInterface ? 11 : 10);
+				out.writeShort(ownerClass);
+				out.writeShort(nameAndType);
+				i = add(key);
+			}
+			return i;
+		}
+
+		private int add(String key)
+		{
+			entries.put(key, count);
+			return count++;
+		}
+
+		void write(DataOutputStream to) throws IOException
+		{
+			out.flush();
+			to.writeShort(count);
+			bytes.writeTo(to);
+		}
+	}
+
+
+	private static final class Loader extends ClassLoader
+	{
+		Loader(ClassLoader parent)
+		{
+			super(parent);
+		}
+
+		Class define(String name, byte[] bytes)
+		{
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
@@ -1,7 +1,6 @@
 package org.biopax.paxtools.controller;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang.ArrayUtils;
@@ -29,6 +28,14 @@ public class Fetcher {
 
 	private boolean skipSubPathways;
 
+	private int cacheSize;
+
+	/**
+	 * Default max. number of elements whose descendants the batch methods keep in memory.
+	 * @see #setCacheSize(int)
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 10000;
+
 	/**
 	 * This property filter can be used to ignore 'nextStep' ('NEXT-STEP' in L2) 
 	 * property when fetching a sub-graph of child biopax elements, because
@@ -87,6 +94,7 @@ public class Fetcher {
         this.editorMap = editorMap;
         this.filters = (Filter<PropertyEditor>[])ArrayUtils.add(filters, objectPropertiesOnlyFilter);
 		this.skipSubPathways = false;
+		this.cacheSize = DEFAULT_CACHE_SIZE;
     }
 
 
@@ -106,6 +114,24 @@ public class Fetcher {
 		return skipSubPathways;
 	}
 
+	/**
+	 * Sets the max. number of elements for which the batch methods,
+	 * {@link #fetch(Collection, Class)} and {@link #count(Collection, Class)},
+	 * cache the descendants to reuse when other roots share those elements
+	 * (the least recently used are evicted and, if another root needs them, computed again).
+	 *
+	 * @param cacheSize positive number
+	 */
+	public void setCacheSize(int cacheSize) {
+		if(cacheSize <= 0)
+			throw new IllegalArgumentException("Not a positive cache size: " + cacheSize);
+		this.cacheSize = cacheSize;
+	}
+
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
 	/**
      * Adds the element and all its children
 	 * (found via traversing into object properties that
@@ -255,6 +281,54 @@ public class Fetcher {
 	}
     
     
+    /**
+     * Collects the child objects of the given type of many root elements at once,
+     * i.e., returns the same as {@link #fetch(BioPAXElement, Class)} for each root,
+     * but shares the results for sub-graphs common to several roots
+     * (e.g., sub-pathways, complexes), which are traversed only once
+     * while they remain in the cache (see {@link #setCacheSize(int)}).
+     *
+     * Note: unlike the other fetch methods, it tells objects apart by identity,
+     * not URI (no difference in a self-consistent model).
+     *
+     * @param roots biopax objects to fetch child objects from
+     * @param filterByType biopax type filter
+     * @param <T> biopax type
+     * @return a new map of each root to the set of its child objects
+     */
+    public <T extends BioPAXElement> Map<BioPAXElement, Set<T>> fetch(
+    		final Collection<? extends BioPAXElement> roots, final Class<T> filterByType)
+	{
+    	Batch<T> batch = new Batch<T>(filterByType);
+    	Map<BioPAXElement, Set<T>> result = new HashMap<BioPAXElement, Set<T>>();
+    	for(BioPAXElement root : roots) {
+    		result.put(root, batch.toSet(batch.descendants(root)));
+    	}
+    	return result;
+	}
+
+
+    /**
+     * Counts the child objects of the given type of many root elements at once;
+     * the same as the size of {@link #fetch(BioPAXElement, Class)} for each root.
+     *
+     * @param roots biopax objects to fetch child objects from
+     * @param filterByType biopax type filter
+     * @return a new map of each root to the number of its child objects
+     * @see #fetch(Collection, Class)
+     */
+    public Map<BioPAXElement, Integer> count(
+    		final Collection<? extends BioPAXElement> roots, final Class<? extends BioPAXElement> filterByType)
+	{
+    	Batch<BioPAXElement> batch = new Batch<BioPAXElement>((Class<BioPAXElement>) filterByType);
+    	Map<BioPAXElement, Integer> result = new HashMap<BioPAXElement, Integer>();
+    	for(BioPAXElement root : roots) {
+    		result.put(root, batch.descendants(root).cardinality());
+    	}
+    	return result;
+	}
+
+
     /**
      * Iterates over child objects of the given biopax element, 
      * using BioPAX object-type properties, until the element 
@@ -292,4 +366,205 @@ public class Fetcher {
     	
     	return found.get();
 	}
+
+
+	/**
+	 * A batch fetch of the objects of the given type. The objects of that type are given
+	 * dense indices, and the descendants (and self) of every element are a bitset of those.
+	 * These are computed for the strongly connected components of the object graph,
+	 * in reverse topological order (Tarjan's algorithm, iterative), and cached.
+	 * A run also keeps the bitsets it computes or finds in the cache until it returns,
+	 * so that it never computes them again, however small the cache.
+	 */
+	private final class Batch<T extends BioPAXElement>
+	{
+		private final Class<T> type;
+		private final Map<BioPAXElement, Integer> ids = new IdentityHashMap<BioPAXElement, Integer>();
+		private final List<T> elements = new ArrayList<T>();
+		private final BitSet empty = new BitSet(0);
+		private final Map<BioPAXElement, BitSet> cache;
+
+		Batch(Class<T> type) {
+			this.type = type;
+			this.cache = new LinkedHashMap<BioPAXElement, BitSet>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<BioPAXElement, BitSet> eldest) {
+					return size() > cacheSize;
+				}
+			};
+		}
+
+		// child objects of the root (not including itself, unless it's in a loop)
+		BitSet descendants(BioPAXElement root) {
+			List<BioPAXElement> children = new ArrayList<BioPAXElement>();
+			children(root, children);
+			BitSet bits = new BitSet();
+			for(BioPAXElement child : children) {
+				bits.or(inclusive(child));
+			}
+			return bits;
+		}
+
+		Set<T> toSet(BitSet bits) {
+			Set<T> set = new HashSet<T>();
+			for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+				set.add(elements.get(i));
+			}
+			return set;
+		}
+
+		// the element (if of the type) and its descendants; must not be modified
+		private BitSet inclusive(BioPAXElement bpe) {
+			BitSet bits = cache.get(bpe);
+			return (bits != null) ? bits : run(bpe);
+		}
+
+		private void children(BioPAXElement bpe, List<BioPAXElement> children) {
+			Set<PropertyEditor> editors = editorMap.getEditorsOf(bpe);
+			if (editors == null)
+				return;
+			for (PropertyEditor editor : editors) {
+				if (filter(editor)) {
+					for (Object value : editor.getValueFromBean(bpe))
+						children.add((BioPAXElement) value);
+				}
+			}
+		}
+
+		private boolean filter(PropertyEditor editor) {
+			for (Filter<PropertyEditor> filter : filters) {
+				if (!filter.filter(editor))
+					return false;
+			}
+			return true;
+		}
+
+		private BitSet run(BioPAXElement start) {
+			Map<BioPAXElement, Node> open = new IdentityHashMap<BioPAXElement, Node>();
+			// bitsets of the components done (in this run or before), whether cached or evicted
+			Map<BioPAXElement, BitSet> done = new IdentityHashMap<BioPAXElement, BitSet>();
+			Deque<Node> path = new ArrayDeque<Node>();
+			Deque<Node> component = new ArrayDeque<Node>();
+			int counter = 0;
+			BitSet result = null;
+
+			Node startNode = new Node(start, counter++);
+			open.put(start, startNode);
+			path.push(startNode);
+			component.push(startNode);
+
+			while (!path.isEmpty()) {
+				Node v = path.peek();
+				if (v.pos < v.next.size()) {
+					BioPAXElement w = v.next.get(v.pos++);
+					if (done.containsKey(w))
+						continue;
+					BitSet cached = cache.get(w);
+					if (cached != null) {
+						done.put(w, cached); //done before
+						continue;
+					}
+					Node wn = open.get(w);
+					if (wn == null) {
+						wn = new Node(w, counter++);
+						open.put(w, wn);
+						path.push(wn);
+						component.push(wn);
+					} else {
+						v.low = Math.min(v.low, wn.index);
+					}
+					continue;
+				}
+
+				path.pop();
+				if (!path.isEmpty())
+					path.peek().low = Math.min(path.peek().low, v.low);
+
+				if (v.low == v.index) {
+					List<Node> members = new ArrayList<Node>();
+					Node m;
+					do {
+						m = component.pop();
+						open.remove(m.bpe);
+						members.add(m);
+					} while (m != v);
+
+					BitSet bits = union(members, done);
+					for (Node member : members) {
+						done.put(member.bpe, bits);
+						cache.put(member.bpe, bits);
+					}
+					if (v == startNode)
+						result = bits;
+				}
+			}
+
+			return result;
+		}
+
+		// own and descendants bits of a strongly connected component
+		private BitSet union(List<Node> members, Map<BioPAXElement, BitSet> done) {
+			Set<BioPAXElement> inComponent = (members.size() > 1)
+				? Collections.newSetFromMap(new IdentityHashMap<BioPAXElement, Boolean>())
+				: Collections.singleton(members.get(0).bpe);
+			if (members.size() > 1) {
+				for (Node member : members)
+					inComponent.add(member.bpe);
+			}
+
+			BitSet bits = null;
+			boolean copy = false;
+			for (Node member : members) {
+				for (BioPAXElement w : member.next) {
+					if (inComponent.contains(w))
+						continue;
+					// a component done before this one (it cannot reach this one)
+					BitSet other = done.get(w);
+					if (bits == null || bits == other) {
+						bits = other;
+					} else {
+						if (!copy) {
+							bits = (BitSet) bits.clone();
+							copy = true;
+						}
+						bits.or(other);
+					}
+				}
+				if (type.isInstance(member.bpe)) {
+					if (!copy) {
+						bits = (bits == null) ? new BitSet() : (BitSet) bits.clone();
+						copy = true;
+					}
+					bits.set(id(member.bpe));
+				}
+			}
+			return (bits == null) ? empty : bits;
+		}
+
+		private int id(BioPAXElement bpe) {
+			Integer id = ids.get(bpe);
+			if (id == null) {
+				id = elements.size();
+				ids.put(bpe, id);
+				elements.add((T) bpe);
+			}
+			return id;
+		}
+
+		private final class Node {
+			final BioPAXElement bpe;
+			final int index;
+			int low;
+			int pos;
+			final List<BioPAXElement> next = new ArrayList<BioPAXElement>();
+
+			Node(BioPAXElement bpe, int index) {
+				this.bpe = bpe;
+				this.index = this.low = index;
+				// does not go into sub-pathways, if set so
+				if (!(skipSubPathways && bpe instanceof Pathway))
+					children(bpe, next);
+			}
+		}
+	}
 }
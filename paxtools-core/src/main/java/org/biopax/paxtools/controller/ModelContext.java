@@ -0,0 +1,320 @@
+package org.biopax.paxtools.controller;
+
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.*;
+import org.biopax.paxtools.model.level3.Process;
+
+import java.util.*;
+
+/**
+ * Memoized context of the elements of a BioPAX L3 model: their parent pathways,
+ * inherited data sources and organisms, i.e., the same values that
+ * {@link ModelUtils#getParentPathways(BioPAXElement)}, {@link ModelUtils#getDatasources(BioPAXElement)}
+ * and {@link ModelUtils#getOrganisms(BioPAXElement)} return.
+ *
+ * Each of these is computed for all the objects of the model at once, on first use, in a
+ * single pass over the model where elements reuse the results of their parents (or children),
+ * and then looked up in constant time. Equal results share the same (unmodifiable) set.
+ * Objects that are not in the model are handled by the ModelUtils methods.
+ *
+ * The context does not follow later changes in the model; create a new one then.
+ * It is thread-safe.
+ */
+public class ModelContext
+{
+	private final Model model;
+
+	private final Closure<Pathway> parentPathways = new Closure<Pathway>()
+	{
+		@Override
+		void own(BioPAXElement bpe, Collection<Pathway> values)
+		{
+			if (bpe instanceof Pathway)
+				values.add((Pathway) bpe);
+		}
+
+		@Override
+		void next(BioPAXElement bpe, Collection<BioPAXElement> next)
+		{
+			if (bpe instanceof Process) {
+				next.addAll(((Process) bpe).getPathwayComponentOf());
+				next.addAll(((Process) bpe).getParticipantOf());
+				next.addAll(((Process) bpe).getStepProcessOf());
+			} else if (bpe instanceof PathwayStep) {
+				next.add(((PathwayStep) bpe).getPathwayOrderOf());
+			} else if (bpe instanceof PhysicalEntity) {
+				next.addAll(((PhysicalEntity) bpe).getMemberPhysicalEntityOf());
+				next.addAll(((PhysicalEntity) bpe).getParticipantOf());
+				next.addAll(((PhysicalEntity) bpe).getComponentOf());
+			} else if (bpe instanceof EntityReference) {
+				next.addAll(((EntityReference) bpe).getMemberEntityReferenceOf());
+				next.addAll(((EntityReference) bpe).getEntityReferenceOf());
+			} else if (bpe instanceof Gene) {
+				next.addAll(((Gene) bpe).getParticipantOf());
+			}
+		}
+
+		@Override
+		Set<Pathway> compute(BioPAXElement bpe)
+		{
+			return ModelUtils.getParentPathways(bpe);
+		}
+	};
+
+	private final Closure<Provenance> datasources = new Closure<Provenance>()
+	{
+		@Override
+		void own(BioPAXElement bpe, Collection<Provenance> values)
+		{
+			if (bpe instanceof Provenance)
+				values.add((Provenance) bpe);
+			else if (bpe instanceof Entity)
+				values.addAll(((Entity) bpe).getDataSource());
+		}
+
+		@Override
+		void next(BioPAXElement bpe, Collection<BioPAXElement> next)
+		{
+			if (bpe instanceof EntityReference) {
+				next.addAll(((EntityReference) bpe).getEntityReferenceOf());
+				next.addAll(((EntityReference) bpe).getMemberEntityReferenceOf());
+			} else if (bpe instanceof PathwayStep) {
+				next.add(((PathwayStep) bpe).getPathwayOrderOf());
+			}
+		}
+
+		@Override
+		Set<Provenance> compute(BioPAXElement bpe)
+		{
+			return ModelUtils.getDatasources(bpe);
+		}
+	};
+
+	// all the organisms found in the sub-graph of an element (as the Fetcher does)
+	private final Closure<BioSource> childOrganisms = new Closure<BioSource>()
+	{
+		@Override
+		void own(BioPAXElement bpe, Collection<BioSource> values)
+		{
+			if (bpe instanceof BioSource)
+				values.add((BioSource) bpe);
+		}
+
+		@Override
+		void next(BioPAXElement bpe, Collection<BioPAXElement> next)
+		{
+			Set<PropertyEditor> editors = SimpleEditorMap.L3.getEditorsOf(bpe);
+			if (editors == null)
+				return;
+			for (PropertyEditor editor : editors)
+			{
+				if (editor instanceof ObjectPropertyEditor && Fetcher.nextStepFilter.filter(editor))
+					next.addAll(editor.getValueFromBean(bpe));
+			}
+		}
+
+		@Override
+		Set<BioSource> compute(BioPAXElement bpe)
+		{
+			return new Fetcher(SimpleEditorMap.L3, Fetcher.nextStepFilter).fetch(bpe, BioSource.class);
+		}
+	};
+
+	/**
+	 * @param model BioPAX Level3 model
+	 */
+	public ModelContext(Model model)
+	{
+		this.model = model;
+	}
+
+	/**
+	 * @param bpe biopax object
+	 * @return inferred parent pathways (incl. itself, if it is a pathway)
+	 * @see ModelUtils#getParentPathways(BioPAXElement)
+	 */
+	public Set<Pathway> getParentPathways(BioPAXElement bpe)
+	{
+		return parentPathways.get(bpe);
+	}
+
+	/**
+	 * @param bpe biopax object
+	 * @return data sources of the element or its parents
+	 * @see ModelUtils#getDatasources(BioPAXElement)
+	 */
+	public Set<Provenance> getDatasources(BioPAXElement bpe)
+	{
+		return datasources.get(bpe);
+	}
+
+	/**
+	 * @param bpe biopax object
+	 * @return organisms of the element, or of its parent pathway or children
+	 * @see ModelUtils#getOrganisms(BioPAXElement)
+	 */
+	public Set<BioSource> getOrganisms(BioPAXElement bpe)
+	{
+		if (bpe == null) {
+			return Collections.emptySet();
+		} else if (bpe instanceof BioSource) {
+			return Collections.singleton((BioSource) bpe);
+		} else if (bpe instanceof Pathway) {
+			return organism(((Pathway) bpe).getOrganism());
+		} else if (bpe instanceof Gene) {
+			return organism(((Gene) bpe).getOrganism());
+		} else if (bpe instanceof PathwayStep) {
+			Pathway pw = ((PathwayStep) bpe).getPathwayOrderOf();
+			return organism((pw != null) ? pw.getOrganism() : null);
+		} else if (bpe instanceof Interaction || bpe instanceof EntityReference || bpe instanceof PhysicalEntity) {
+			return childOrganisms.get(bpe);
+		} else {
+			return Collections.emptySet();
+		}
+	}
+
+	private static Set<BioSource> organism(BioSource organism)
+	{
+		return (organism != null) ? Collections.singleton(organism) : Collections.<BioSource>emptySet();
+	}
+
+	/**
+	 * Values that an element gets from itself and the next (parent or child) elements,
+	 * recursively. They are computed for the strongly connected components of the graph
+	 * of next elements, in reverse topological order (Tarjan's algorithm, iterative),
+	 * so that every element gets the union of its own values and of those of its next elements.
+	 */
+	private abstract class Closure<T>
+	{
+		private volatile Map<BioPAXElement, Set<T>> index;
+
+		abstract void own(BioPAXElement bpe, Collection<T> values);
+
+		abstract void next(BioPAXElement bpe, Collection<BioPAXElement> next);
+
+		// for an object that is not in the model
+		abstract Set<T> compute(BioPAXElement bpe);
+
+		Set<T> get(BioPAXElement bpe)
+		{
+			if (bpe == null)
+				return Collections.emptySet();
+			Map<BioPAXElement, Set<T>> map = index;
+			if (map == null)
+			{
+				synchronized (this)
+				{
+					if (index == null)
+						index = build();
+					map = index;
+				}
+			}
+			Set<T> values = map.get(bpe);
+			return (values != null) ? values : compute(bpe);
+		}
+
+		private Map<BioPAXElement, Set<T>> build()
+		{
+			Map<BioPAXElement, Set<T>> result = new IdentityHashMap<BioPAXElement, Set<T>>();
+			Map<Set<T>, Set<T>> shared = new HashMap<Set<T>, Set<T>>();
+			Map<BioPAXElement, Node> nodes = new IdentityHashMap<BioPAXElement, Node>();
+			Deque<Node> path = new ArrayDeque<Node>();
+			Deque<Node> component = new ArrayDeque<Node>();
+			int counter = 0;
+
+			for (BioPAXElement root : model.getObjects())
+			{
+				if (nodes.containsKey(root))
+					continue;
+				Node rootNode = new Node(root, counter++);
+				nodes.put(root, rootNode);
+				path.push(rootNode);
+				component.push(rootNode);
+
+				while (!path.isEmpty())
+				{
+					Node v = path.peek();
+					if (v.pos < v.next.size())
+					{
+						BioPAXElement w = v.next.get(v.pos++);
+						if (w == null)
+							continue;
+						Node wn = nodes.get(w);
+						if (wn == null)
+						{
+							wn = new Node(w, counter++);
+							nodes.put(w, wn);
+							path.push(wn);
+							component.push(wn);
+						}
+						else if (wn.onStack)
+						{
+							v.low = Math.min(v.low, wn.index);
+						}
+						continue;
+					}
+
+					path.pop();
+					if (!path.isEmpty())
+						path.peek().low = Math.min(path.peek().low, v.low);
+
+					if (v.low == v.index)
+					{
+						// v is the root of a strongly connected component
+						List<Node> members = new ArrayList<Node>();
+						Node m;
+						do {
+							m = component.pop();
+							m.onStack = false;
+							members.add(m);
+						} while (m != v);
+
+						Set<T> values = new HashSet<T>();
+						for (Node member : members)
+						{
+							own(member.bpe, values);
+							for (BioPAXElement w : member.next)
+							{
+								Set<T> nextValues = (w != null) ? result.get(w) : null;
+								if (nextValues != null)
+									values.addAll(nextValues);
+							}
+						}
+
+						Set<T> s = shared.get(values);
+						if (s == null)
+						{
+							s = (values.isEmpty()) ? Collections.<T>emptySet() : Collections.unmodifiableSet(values);
+							shared.put(values, s);
+						}
+						for (Node member : members)
+						{
+							result.put(member.bpe, s);
+							member.next = null; //not needed anymore
+						}
+					}
+				}
+			}
+
+			return result;
+		}
+
+		private final class Node
+		{
+			final BioPAXElement bpe;
+			final int index;
+			int low;
+			int pos;
+			boolean onStack = true;
+			List<BioPAXElement> next = new ArrayList<BioPAXElement>();
+
+			Node(BioPAXElement bpe, int index)
+			{
+				this.bpe = bpe;
+				this.index = this.low = index;
+				next(bpe, next);
+			}
+		}
+	}
+}
@@ -0,0 +1,342 @@
+package org.biopax.paxtools.controller;
+
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.util.Filter;
+
+import java.util.*;
+
+/**
+ * A frozen, compact graph of the objects of a model, for whole-model algorithms that
+ * would otherwise keep their state in hash maps and sets of BioPAX objects.
+ *
+ * The objects are numbered 0..n-1, and the object property values between them are
+ * stored in primitive arrays, in the compressed sparse row format, both forward
+ * (from an object to its property values) and inverse (from a value to the objects
+ * that have it), each edge labeled by the index of its property editor. So algorithms
+ * can use int arrays and bitsets as their state, e.g.:
+ * <pre>
+ * ModelSnapshot graph = new ModelSnapshot(model);
+ * int v = graph.getId(pathway);
+ * for (int e = graph.edgeStart(v); e &lt; graph.edgeEnd(v); e++) {
+ *   int child = graph.target(e);
+ *   PropertyEditor editor = graph.getEditor(graph.label(e));
+ *   ...
+ * }
+ * </pre>
+ *
+ * Only the values that are objects of the model are included (edges to other objects are dropped).
+ * The snapshot does not follow later changes in the model. It is immutable and thread-safe.
+ */
+public final class ModelSnapshot
+{
+	private final BioPAXElement[] elements;
+
+	private final ObjectPropertyEditor[] editors;
+
+	// identity hash table: element -> id
+	private final BioPAXElement[] keys;
+	private final int[] values;
+
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] labels;
+
+	private final int[] inverseOffsets;
+	private final int[] sources;
+	private final int[] inverseLabels;
+
+	/**
+	 * Creates the snapshot using all the object properties.
+	 * @param model BioPAX model
+	 */
+	public ModelSnapshot(Model model)
+	{
+		this(model, SimpleEditorMap.get(model.getLevel()));
+	}
+
+	/**
+	 * Creates the snapshot using the object properties that pass all the filters.
+	 * @param model BioPAX model
+	 * @param editorMap property editors map
+	 * @param filters optional, object property filters (e.g., {@link Fetcher#nextStepFilter})
+	 */
+	public ModelSnapshot(Model model, EditorMap editorMap, Filter<PropertyEditor>... filters)
+	{
+		elements = model.getObjects().toArray(new BioPAXElement[0]);
+		int n = elements.length;
+
+		int capacity = Integer.highestOneBit(Math.max(2, n) * 2 - 1) << 1;
+		keys = new BioPAXElement[capacity];
+		values = new int[capacity];
+		for (int i = 0; i < n; i++)
+		{
+			int slot = slot(elements[i]);
+			keys[slot] = elements[i];
+			values[slot] = i;
+		}
+
+		// forward edges, in the order of ids
+		Map<PropertyEditor, Integer> labelIds = new HashMap<PropertyEditor, Integer>();
+		List<ObjectPropertyEditor> labelList = new ArrayList<ObjectPropertyEditor>();
+		IntList targetList = new IntList(2 * n);
+		IntList labelOfEdge = new IntList(2 * n);
+		offsets = new int[n + 1];
+		for (int v = 0; v < n; v++)
+		{
+			offsets[v] = targetList.size;
+			Set<PropertyEditor> editorsOf = editorMap.getEditorsOf(elements[v]);
+			if (editorsOf == null)
+				continue;
+			for (PropertyEditor editor : editorsOf)
+			{
+				if (!(editor instanceof ObjectPropertyEditor) || !accept(editor, filters))
+					continue;
+				Integer label = null;
+				for (Object value : editor.getValueFromBean(elements[v]))
+				{
+					int t = getId((BioPAXElement) value);
+					if (t < 0)
+						continue;
+					if (label == null)
+					{
+						label = labelIds.get(editor);
+						if (label == null)
+						{
+							label = labelList.size();
+							labelIds.put(editor, label);
+							labelList.add((ObjectPropertyEditor) editor);
+						}
+					}
+					targetList.add(t);
+					labelOfEdge.add(label);
+				}
+			}
+		}
+		offsets[n] = targetList.size;
+		targets = targetList.toArray();
+		labels = labelOfEdge.toArray();
+		editors = labelList.toArray(new ObjectPropertyEditor[labelList.size()]);
+
+		// inverse edges, by counting sort of the forward ones by target
+		inverseOffsets = new int[n + 1];
+		for (int t : targets)
+			inverseOffsets[t + 1]++;
+		for (int v = 0; v < n; v++)
+			inverseOffsets[v + 1] += inverseOffsets[v];
+		sources = new int[targets.length];
+		inverseLabels = new int[targets.length];
+		int[] fill = Arrays.copyOf(inverseOffsets, n);
+		for (int v = 0; v < n; v++)
+		{
+			for (int e = offsets[v]; e < offsets[v + 1]; e++)
+			{
+				int i = fill[targets[e]]++;
+				sources[i] = v;
+				inverseLabels[i] = labels[e];
+			}
+		}
+	}
+
+	private static boolean accept(PropertyEditor editor, Filter<PropertyEditor>[] filters)
+	{
+		for (Filter<PropertyEditor> filter : filters)
+		{
+			if (!filter.filter(editor))
+				return false;
+		}
+		return true;
+	}
+
+	private int slot(BioPAXElement bpe)
+	{
+		int mask = keys.length - 1;
+		int slot = System.identityHashCode(bpe) & mask;
+		while (keys[slot] != null && keys[slot] != bpe)
+			slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	/**
+	 * @return number of objects (n)
+	 */
+	public int size()
+	{
+		return elements.length;
+	}
+
+	/**
+	 * @return number of (forward or inverse) edges
+	 */
+	public int edgeCount()
+	{
+		return targets.length;
+	}
+
+	/**
+	 * @param id 0..n-1
+	 * @return the object
+	 */
+	public BioPAXElement getElement(int id)
+	{
+		return elements[id];
+	}
+
+	/**
+	 * @param bpe BioPAX object
+	 * @return its id, or -1 if it was not in the model (the same object)
+	 */
+	public int getId(BioPAXElement bpe)
+	{
+		int slot = slot(bpe);
+		return (keys[slot] == bpe) ? values[slot] : -1;
+	}
+
+	/**
+	 * @param label edge label
+	 * @return the object property editor of the edges with this label
+	 */
+	public ObjectPropertyEditor getEditor(int label)
+	{
+		return editors[label];
+	}
+
+	/**
+	 * @return number of different edge labels
+	 */
+	public int labelCount()
+	{
+		return editors.length;
+	}
+
+	/**
+	 * @param id object id
+	 * @return index of its first forward edge
+	 */
+	public int edgeStart(int id)
+	{
+		return offsets[id];
+	}
+
+	/**
+	 * @param id object id
+	 * @return index after its last forward edge
+	 */
+	public int edgeEnd(int id)
+	{
+		return offsets[id + 1];
+	}
+
+	/**
+	 * @param edge forward edge index
+	 * @return id of the property value
+	 */
+	public int target(int edge)
+	{
+		return targets[edge];
+	}
+
+	/**
+	 * @param edge forward edge index
+	 * @return edge label (property editor index)
+	 */
+	public int label(int edge)
+	{
+		return labels[edge];
+	}
+
+	/**
+	 * @param id object id
+	 * @return index of its first inverse edge
+	 */
+	public int inverseEdgeStart(int id)
+	{
+		return inverseOffsets[id];
+	}
+
+	/**
+	 * @param id object id
+	 * @return index after its last inverse edge
+	 */
+	public int inverseEdgeEnd(int id)
+	{
+		return inverseOffsets[id + 1];
+	}
+
+	/**
+	 * @param edge inverse edge index
+	 * @return id of the object that has this property value
+	 */
+	public int source(int edge)
+	{
+		return sources[edge];
+	}
+
+	/**
+	 * @param edge inverse edge index
+	 * @return edge label (property editor index)
+	 */
+	public int inverseLabel(int edge)
+	{
+		return inverseLabels[edge];
+	}
+
+	/**
+	 * Finds the objects reachable from the given ones (breadth-first).
+	 *
+	 * @param from ids of the objects to start from
+	 * @param forward true - go along forward edges (to child objects); false - along inverse ones (to parents)
+	 * @return ids of the objects reachable in one or more steps
+	 */
+	public BitSet reachable(int[] from, boolean forward)
+	{
+		int[] start = forward ? offsets : inverseOffsets;
+		int[] next = forward ? targets : sources;
+		BitSet visited = new BitSet(elements.length);
+		// every object is queued at most once, after the start ones
+		int[] queue = new int[from.length + elements.length];
+		int head = 0, tail = 0;
+		for (int v : from)
+			queue[tail++] = v;
+		while (head < tail)
+		{
+			int v = queue[head++];
+			for (int e = start[v]; e < start[v + 1]; e++)
+			{
+				int w = next[e];
+				if (!visited.get(w))
+				{
+					visited.set(w);
+					queue[tail++] = w;
+				}
+			}
+		}
+		return visited;
+	}
+
+	/**
+	 * A growable int array.
+	 */
+	private static final class IntList
+	{
+		int[] data;
+		int size;
+
+		IntList(int capacity)
+		{
+			data = new int[Math.max(16, capacity)];
+		}
+
+		void add(int value)
+		{
+			if (size == data.length)
+				data = Arrays.copyOf(data, data.length * 2);
+			data[size++] = value;
+		}
+
+		int[] toArray()
+		{
+			return Arrays.copyOf(data, size);
+		}
+	}
+}
@@ -77,9 +77,13 @@ public final class ModelUtils
 	 * the same 'subs' map)
 	 * 
 	 * This does visit all object properties of each "explicit" element
-	 * in the model, but does not traverse deeper into one's sub-properties
+	 * in the model that refers to a replaced object, but does not traverse deeper into one's sub-properties
 	 * to replace something there as well (e.g., nested member entity references
-	 * are not replaced unless parent entity reference present in the model)
+	 * are not replaced unless parent entity reference present in the model).
+	 * Such elements are found via the inverse properties of the replaced objects, and,
+	 * for the properties having no inverse (e.g., dataSource, organism), among the model
+	 * objects of the property's domain; so the cost does not depend on the model size
+	 * when only a few objects, of the types that have all the inverse properties, are replaced.
 	 * 
 	 * This does not automatically move/migrate old (replaced) object's
 	 * children to new objects (the replacement ones are supposed to have
@@ -129,7 +133,7 @@ public final class ModelUtils
 		};
 
 		Traverser traverser = new Traverser(em, visitor);
-		for (BioPAXElement bpe : new HashSet<BioPAXElement>(model.getObjects()))
+		for (BioPAXElement bpe : findReferrers(model, subs.keySet()))
 		{
 			// update object properties and clear inverse properties using 'subs' map	
 			traverser.traverse(bpe, null); //model is not needed
@@ -137,6 +141,84 @@ public final class ModelUtils
 	}
 
 
+	/**
+	 * Finds the model objects that have any of the given objects
+	 * as an object property value (direct parents).
+	 *
+	 * These are found via the inverse properties of the given objects, and,
+	 * for the properties having no inverse (e.g., dataSource, organism), among the model
+	 * objects of the property's domain (there, equal objects match as well).
+	 * Referrers of an equal but not identical object are not in its inverse properties;
+	 * so, if any of the given objects is not the very one in the model, all the object
+	 * properties, with or without inverse, are checked in the domain objects.
+	 *
+	 * @param model BioPAX model
+	 * @param values BioPAX objects (property values)
+	 * @return the objects of the model that refer to the values
+	 */
+	public static Set<BioPAXElement> findReferrers(Model model, Set<? extends BioPAXElement> values)
+	{
+		Set<BioPAXElement> referrers = Collections.newSetFromMap(new IdentityHashMap<BioPAXElement, Boolean>());
+		Set<Class<? extends BioPAXElement>> types = new HashSet<Class<? extends BioPAXElement>>();
+		// whether the model has (or may refer to) other objects equal to some of the values
+		boolean copies = false;
+
+		// via the inverse properties
+		for (BioPAXElement value : values)
+		{
+			types.add(value.getModelInterface());
+			if (model.getByID(value.getUri()) != value)
+				copies = true;
+			Set<ObjectPropertyEditor> inverseEditors = em.getInverseEditorsOf(value);
+			if (inverseEditors == null)
+				continue;
+			for (ObjectPropertyEditor editor : inverseEditors)
+			{
+				for (Object referrer : editor.getInverseAccessor().getValueFromBean(value))
+				{
+					if (model.contains((BioPAXElement) referrer))
+						referrers.add((BioPAXElement) referrer);
+				}
+			}
+		}
+
+		// and by checking the values of the properties with no inverse (or all), where the types fit
+		for (Iterator<PropertyEditor> it = em.iterator(); it.hasNext();)
+		{
+			PropertyEditor editor = it.next();
+			if (!(editor instanceof ObjectPropertyEditor)
+				|| (!copies && ((ObjectPropertyEditor) editor).hasInverseLink()))
+				continue;
+			boolean fits = false;
+			for (Class<? extends BioPAXElement> type : types)
+			{
+				if (editor.getRange().isAssignableFrom(type))
+				{
+					fits = true;
+					break;
+				}
+			}
+			if (!fits)
+				continue;
+			for (BioPAXElement bpe : model.getObjects((Class<? extends BioPAXElement>) editor.getDomain()))
+			{
+				if (referrers.contains(bpe))
+					continue;
+				for (Object value : editor.getValueFromBean(bpe))
+				{
+					if (values.contains(value))
+					{
+						referrers.add(bpe);
+						break;
+					}
+				}
+			}
+		}
+
+		return referrers;
+	}
+
+
 	/**
 	 * Finds "root" BioPAX objects that belong to a particular class (incl. sub-classes)
 	 * in the model.
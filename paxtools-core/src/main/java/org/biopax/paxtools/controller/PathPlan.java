@@ -0,0 +1,205 @@
+package org.biopax.paxtools.controller;
+
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A compiled {@link PathAccessor}: its chain of property accessors is resolved once,
+ * and then evaluated step by step over reusable (per thread) buffers, where the
+ * intermediate objects are de-duplicated by identity rather than collected into a new
+ * hash set for every step. It returns the same values as the path accessor and,
+ * unlike that, can also run over a model in parallel. Plans are thread-safe.
+ *
+ * Use {@link PathAccessor#compile()} to create one, e.g.,
+ * <pre>
+ * PathPlan plan = new PathAccessor("ProteinReference/xref:UnificationXref").compile();
+ * Set xrefs = plan.getValueFromModel(model, 4);
+ * </pre>
+ */
+public final class PathPlan
+{
+	private final PropertyAccessor[] steps;
+
+	private final Class<? extends BioPAXElement> domain;
+
+	private final Class<? extends BioPAXElement> lastDomain;
+
+	private final ThreadLocal<Scratch> scratch = new ThreadLocal<Scratch>()
+	{
+		@Override
+		protected Scratch initialValue()
+		{
+			return new Scratch();
+		}
+	};
+
+	PathPlan(List<PropertyAccessor<? extends BioPAXElement, ?>> accessors,
+		Class<? extends BioPAXElement> domain, Class<? extends BioPAXElement> lastDomain)
+	{
+		this.steps = accessors.toArray(new PropertyAccessor[accessors.size()]);
+		this.domain = domain;
+		this.lastDomain = lastDomain;
+	}
+
+	/**
+	 * @return the class of the objects this path starts from
+	 */
+	public Class<? extends BioPAXElement> getDomain()
+	{
+		return domain;
+	}
+
+	/**
+	 * @param bean the object to start from
+	 * @return the values at the end of the path
+	 * @see PathAccessor#getValueFromBean(BioPAXElement)
+	 */
+	public Set getValueFromBean(BioPAXElement bean)
+	{
+		return getValueFromBeans(Collections.singleton(bean));
+	}
+
+	/**
+	 * @param beans objects to start from
+	 * @return the values at the end of the path, from all the beans
+	 * @see PathAccessor#getValueFromBeans(Collection)
+	 */
+	public Set getValueFromBeans(Collection<? extends BioPAXElement> beans)
+	{
+		Set values = new HashSet();
+		evaluate(beans, values);
+		return values;
+	}
+
+	/**
+	 * @param model to be queried
+	 * @return the values at the end of the path from all the applicable objects in the model
+	 * @see PathAccessor#getValueFromModel(Model)
+	 */
+	public Set getValueFromModel(Model model)
+	{
+		return getValueFromBeans(model.getObjects(domain));
+	}
+
+	/**
+	 * Evaluates the path from all the applicable objects of the model,
+	 * splitting them among the given number of threads.
+	 *
+	 * @param model to be queried
+	 * @param parallelism number of worker threads
+	 * @return the values at the end of the path from all the applicable objects in the model
+	 */
+	public Set getValueFromModel(Model model, int parallelism)
+	{
+		List<BioPAXElement> beans = new ArrayList<BioPAXElement>(model.getObjects(domain));
+		if (parallelism <= 1 || beans.size() < 2 * parallelism)
+		{
+			return getValueFromBeans(beans);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try
+		{
+			List<Future<Set>> futures = new ArrayList<Future<Set>>();
+			int chunk = (beans.size() + parallelism - 1) / parallelism;
+			for (int i = 0; i < beans.size(); i += chunk)
+			{
+				final List<BioPAXElement> part = beans.subList(i, Math.min(i + chunk, beans.size()));
+				futures.add(executor.submit(new Callable<Set>()
+				{
+					public Set call()
+					{
+						return getValueFromBeans(part);
+					}
+				}));
+			}
+
+			Set values = new HashSet();
+			for (Future<Set> future : futures)
+			{
+				values.addAll(future.get());
+			}
+			return values;
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalBioPAXArgumentException("Interrupted while evaluating the path", e);
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof RuntimeException)
+			{
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalBioPAXArgumentException("Failed to evaluate the path: " + e.getCause(), e.getCause());
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	private void evaluate(Collection<? extends BioPAXElement> beans, Set values)
+	{
+		Scratch s = scratch.get();
+		List<BioPAXElement> current = s.current;
+		List<BioPAXElement> next = s.next;
+		current.clear();
+		current.addAll(beans);
+		try
+		{
+			for (int i = 0; i < steps.length - 1; i++)
+			{
+				next.clear();
+				for (BioPAXElement bpe : current)
+				{
+					for (Object value : steps[i].getValueFromBean(bpe))
+					{
+						if (s.seen.put(value, Boolean.TRUE) == null)
+						{
+							next.add((BioPAXElement) value);
+						}
+					}
+				}
+				s.seen.clear();
+				List<BioPAXElement> tmp = current;
+				current = next;
+				next = tmp;
+			}
+
+			PropertyAccessor last = steps[steps.length - 1];
+			for (BioPAXElement bpe : current)
+			{
+				if (lastDomain.isInstance(bpe))
+				{
+					values.addAll(last.getValueFromBean(bpe));
+				}
+			}
+		}
+		finally
+		{
+			s.seen.clear();
+			s.current.clear();
+			s.next.clear();
+		}
+	}
+
+	/**
+	 * Buffers reused by the evaluations in the same thread.
+	 */
+	private static final class Scratch
+	{
+		final List<BioPAXElement> current = new ArrayList<BioPAXElement>();
+		final List<BioPAXElement> next = new ArrayList<BioPAXElement>();
+		final Map<Object, Boolean> seen = new IdentityHashMap<Object, Boolean>();
+	}
+}
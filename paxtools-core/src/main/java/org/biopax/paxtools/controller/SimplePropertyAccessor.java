@@ -20,10 +20,16 @@ public class SimplePropertyAccessor<D extends BioPAXElement, R> extends Property
 	 */
 	protected final Method getMethod;
 
+	/**
+	 * The {@link #getMethod} compiled to a direct call, or null if it could not be (then reflection is used).
+	 */
+	private final CompiledMethod compiledGetMethod;
+
 	public SimplePropertyAccessor(Class<D> domain, Class<R> range, boolean multipleCardinality, Method getMethod)
 	{
 		super(domain, range, multipleCardinality);
 		this.getMethod = getMethod;
+		this.compiledGetMethod = CompiledMethods.compile(getMethod);
 	}
 
 	protected static boolean isMultipleCardinality(Method getMethod)
@@ -42,19 +48,23 @@ public class SimplePropertyAccessor<D extends BioPAXElement, R> extends Property
 		Object value = null;
 		try
 		{
-			if (this.getDomain().isInstance(bean)) value = this.getMethod.invoke(bean);
+			if (this.getDomain().isInstance(bean))
+			{
+				value = (compiledGetMethod != null)
+					? compiledGetMethod.invoke(bean, null)
+					: this.getMethod.invoke(bean);
+			}
 		}
-		catch (IllegalAccessException e)
+		catch (RuntimeException e)
 		{
 			throw new IllegalBioPAXArgumentException(
 					"Could not invoke get method " + getMethod.getName() + " for " + bean, e);
 		}
-		catch (IllegalArgumentException e)
+		catch (IllegalAccessException e)
 		{
 			throw new IllegalBioPAXArgumentException(
 					"Could not invoke get method " + getMethod.getName() + " for " + bean, e);
 		}
-
 		catch (InvocationTargetException e)
 		{
 			throw new IllegalBioPAXArgumentException(
@@ -3,17 +3,187 @@ package org.biopax.paxtools.impl;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.util.BPCollections;
 
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 public abstract class BioPAXElementImpl implements BioPAXElement
 {
 	private String uri;
 	
-	// anything extra can be stored in this map (not to persist in a DB usually)
-	private Map<String, Object> annotations;
+	// anything extra can be stored in this map (not to persist in a DB usually);
+	// created on first access
+	private volatile Map<String, Object> annotations;
 	
 	public BioPAXElementImpl() {
-		this.annotations = BPCollections.I.createMap();
+	}
+
+	/**
+	 * Gets the initial value of a multiple cardinality property field:
+	 * the shared immutable empty set, which is replaced with a new set on the first add
+	 * (see {@link #mutableSet(Set)}), because most properties of most elements stay empty.
+	 * @param <T> property range
+	 * @return shared empty set
+	 */
+	protected static <T> Set<T> emptySet() {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * @param set the property field value
+	 * @return true if the value is the shared empty set
+	 */
+	protected static boolean isEmptySet(Set<?> set) {
+		return set == Collections.EMPTY_SET;
+	}
+
+	/**
+	 * Gets the set to add a value to; the caller holds the lock of the owner object.
+	 * @param set the property field value
+	 * @param <T> property range
+	 * @return a new set if the value is the shared empty set, the property set if it is
+	 * a {@link LazySet} view, otherwise - the same set
+	 */
+	protected static <T> Set<T> mutableSet(Set<T> set) {
+		if (set instanceof LazySet)
+			return ((LazySet<T>) set).attach();
+		return (set == Collections.EMPTY_SET) ? BPCollections.I.<T>createSet() : set;
+	}
+
+	/**
+	 * Gets the set to add a BioPAX object to; the caller holds the lock of the owner object.
+	 * @param set the property field value
+	 * @param <T> property range
+	 * @return a new safe set if the value is the shared empty set, the property set if it is
+	 * a {@link LazySet} view, otherwise - the same set
+	 */
+	protected static <T extends BioPAXElement> Set<T> mutableSafeSet(Set<T> set) {
+		if (set instanceof LazySet)
+			return ((LazySet<T>) set).attach();
+		return (set == Collections.EMPTY_SET) ? BPCollections.I.<T>createSafeSet() : set;
+	}
+
+	/**
+	 * Gets the value of a multiple cardinality property for its getter: the property set or,
+	 * while the property is still empty, a {@link LazySet} view of it, which is created once
+	 * and stored in the (volatile) property field instead of the shared empty set.
+	 * @param owner the object that has the property
+	 * @param field the updater of the property field
+	 * @param safe whether the property set is a safe set (of BioPAX objects)
+	 * @param <E> owner type
+	 * @param <T> property range
+	 * @return the property set or its view
+	 */
+	protected static <E extends BioPAXElementImpl, T> Set<T> lazySet(E owner,
+		AtomicReferenceFieldUpdater<E, Set> field, boolean safe)
+	{
+		Set<T> set = field.get(owner);
+		if (!isEmptySet(set))
+			return set;
+		LazySet<T> view = new LazySet<T>(owner, field, safe);
+		return field.compareAndSet(owner, set, view) ? view : (Set<T>) field.get(owner);
+	}
+
+	/**
+	 * A live view of a multiple cardinality property that is still empty, returned by its getter
+	 * (see {@link #lazySet(BioPAXElementImpl, AtomicReferenceFieldUpdater, boolean)}).
+	 * Adding to the view creates the property set, under the lock of the owner object, as the add
+	 * methods do, and stores it in the property field; so the getter can be used to modify
+	 * the property as before. If an add method has replaced the view with a set meanwhile,
+	 * the view uses that set.
+	 * @param <T> property range
+	 */
+	private static final class LazySet<T> extends AbstractSet<T> implements Serializable {
+		private final BioPAXElementImpl owner;
+		private final transient AtomicReferenceFieldUpdater field;
+		private final boolean safe;
+		private volatile Set<T> set;
+
+		LazySet(BioPAXElementImpl owner, AtomicReferenceFieldUpdater field, boolean safe) {
+			this.owner = owner;
+			this.field = field;
+			this.safe = safe;
+		}
+
+		private Set<T> get() {
+			Set<T> current = set;
+			if (current != null)
+				return current;
+			Object stored = field.get(owner);
+			if (stored instanceof LazySet)
+				return (stored == this) ? Collections.<T>emptySet() : ((LazySet<T>) stored).get();
+			return (Set<T>) stored;
+		}
+
+		/**
+		 * Creates the property set, if not yet; the caller holds the lock of the owner object.
+		 * @return the property set
+		 */
+		Set<T> attach() {
+			Set<T> current = set;
+			if (current == null) {
+				Object stored = field.get(owner);
+				if (stored instanceof LazySet && stored != this) {
+					current = ((LazySet<T>) stored).attach();
+				} else if (stored == this || isEmptySet((Set) stored)) {
+					current = safe ? (Set<T>) BPCollections.I.createSafeSet() : BPCollections.I.<T>createSet();
+					field.set(owner, current);
+				} else {
+					current = (Set<T>) stored;
+				}
+				set = current;
+			}
+			return current;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return get().iterator();
+		}
+
+		@Override
+		public int size() {
+			return get().size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return get().contains(o);
+		}
+
+		@Override
+		public boolean add(T value) {
+			synchronized (owner) {
+				return attach().add(value);
+			}
+		}
+
+		@Override
+		public boolean addAll(Collection<? extends T> values) {
+			synchronized (owner) {
+				return attach().addAll(values);
+			}
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			synchronized (owner) {
+				return get().remove(o);
+			}
+		}
+
+		/**
+		 * Serializes the property set (or the shared empty set) instead of the view.
+		 * @return the current property set
+		 */
+		private Object writeReplace() {
+			return get();
+		}
 	}
 
     public boolean isEquivalent(BioPAXElement element)
@@ -62,6 +232,12 @@ public abstract class BioPAXElementImpl implements BioPAXElement
 
 
     public Map<String, Object> getAnnotations() {
+		if (annotations == null) {
+			synchronized (this) {
+				if (annotations == null)
+					annotations = BPCollections.I.createMap();
+			}
+		}
 		return annotations;
 	}
     
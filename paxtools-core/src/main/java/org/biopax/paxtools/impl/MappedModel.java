@@ -0,0 +1,792 @@
+package org.biopax.paxtools.impl;
+
+import org.biopax.paxtools.controller.EditorMap;
+import org.biopax.paxtools.controller.ObjectPropertyEditor;
+import org.biopax.paxtools.controller.PropertyEditor;
+import org.biopax.paxtools.controller.SimpleEditorMap;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXFactory;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.util.BPCollections;
+import org.biopax.paxtools.util.BioPaxIOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A read-only {@link Model} backed by a memory-mapped model file (see {@link #save(Model, File)}).
+ *
+ * BioPAX objects are not loaded all at once. The objects of this model are light views
+ * (proxies of the BioPAX interfaces) that read their property values from the file
+ * when one is first asked for; the values of the recently used objects are kept in a bounded
+ * (least recently used) cache. Looking up or filtering objects by URI or type uses the file's
+ * index and does not read any values. This allows to serve a very large model from a small heap
+ * and to share the same (OS page cached) file between several processes.
+ *
+ * There is one view per object while it is in use (not garbage collected), so that, e.g.,
+ * {@link #getByID(String)} returns the same instance as the property values and identity-based
+ * collections work. The views are equal to (and have the same hash code as) the objects
+ * of the same type and URI in other models. The property getters, including those of the inverse
+ * properties (e.g., xrefOf, participantOf), which are stored in the file too, return read-only
+ * values; the modifying methods and the methods that are not property getters (e.g., isEquivalent),
+ * except for getAnnotations, throw {@link UnsupportedOperationException}. A view that has been
+ * garbage collected and then requested again is a new instance, with new annotations.
+ */
+public class MappedModel implements Model
+{
+	private static final Logger log = LoggerFactory.getLogger(MappedModel.class);
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int SEGMENT_SIZE = 1 << 30;
+
+	public static final int DEFAULT_CACHE_SIZE = 100000;
+
+	private static final int STRIPE_BITS = 4;
+
+	private static final int CACHE_STRIPES = 1 << STRIPE_BITS;
+
+	private final transient MappedByteBuffer[] segments;
+	private final transient BioPAXLevel level;
+	private final transient Map<String, String> nameSpacePrefixMap;
+	private final transient String xmlBase;
+	private final transient Class<? extends BioPAXElement>[] classes;
+	private final transient PropertyEditor[][] schemas;
+	private final transient byte[][] kinds;
+	private final transient boolean[][] multiple;
+	private final transient Object[][] defaults;
+	private final transient Map<String, Integer>[] getters;
+	private final transient int objectCount;
+	private final transient int tableSize;
+	private final transient long stringOffsetsStart;
+	private final transient long recordOffsetsStart;
+	private final transient long recordClassesStart;
+	private final transient long uriIndexStart;
+	private final transient Map<Integer, Object[]>[] cache;
+	private final transient AtomicReferenceArray<ElementReference> elements;
+	private final transient ReferenceQueue<BioPAXElement> collected;
+
+	/**
+	 * Saves the model to a file that can be then opened as a {@link MappedModel}.
+	 *
+	 * Object property values not in the model (dangling references) are not saved.
+	 *
+	 * @param model BioPAX model
+	 * @param file output file
+	 * @throws BioPaxIOException when writing fails
+	 */
+	public static void save(Model model, File file)
+	{
+		try
+		{
+			new MappedModelWriter(model).write(file);
+		}
+		catch (IOException e)
+		{
+			throw new BioPaxIOException("Failed to save the model to " + file, e);
+		}
+	}
+
+	/**
+	 * Opens a model file with the default cache size.
+	 *
+	 * @param file a model file created with {@link #save(Model, File)}
+	 * @throws BioPaxIOException when the file cannot be read
+	 */
+	public MappedModel(File file)
+	{
+		this(file, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Opens a model file.
+	 *
+	 * @param file a model file created with {@link #save(Model, File)}
+	 * @param cacheSize max number of BioPAX objects to keep the property values of in memory (approx.)
+	 * @throws BioPaxIOException when the file cannot be read
+	 */
+	public MappedModel(File file, final int cacheSize)
+	{
+		try
+		{
+			RandomAccessFile raf = new RandomAccessFile(file, "r");
+			try
+			{
+				FileChannel channel = raf.getChannel();
+				long length = channel.size();
+				segments = new MappedByteBuffer[(int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+				for (int s = 0; s < segments.length; s++)
+				{
+					long start = (long) s * SEGMENT_SIZE;
+					segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+						Math.min(SEGMENT_SIZE, length - start));
+				}
+
+				if (length < MappedModelWriter.TRAILER_SIZE + 8 || getInt(0) != MappedModelWriter.MAGIC)
+				{
+					throw new BioPaxIOException("Not a BioPAX model file: " + file);
+				}
+				if (getInt(4) != MappedModelWriter.VERSION)
+				{
+					throw new BioPaxIOException("Unsupported BioPAX model file version: " + getInt(4));
+				}
+
+				long t = length - MappedModelWriter.TRAILER_SIZE;
+				stringOffsetsStart = getLong(t);
+				long classesStart = getLong(t + 8);
+				recordOffsetsStart = getLong(t + 16);
+				recordClassesStart = getLong(t + 24);
+				uriIndexStart = getLong(t + 32);
+				long nameSpacesStart = getLong(t + 40);
+				int nameSpaceCount = (int) ((t - nameSpacesStart) / 8);
+				int classCount = getInt(t + 60);
+				objectCount = getInt(t + 64);
+				tableSize = getInt(t + 68);
+				level = BioPAXLevel.valueOf(getString(getInt(t + 72)));
+				int base = getInt(t + 76);
+				xmlBase = (base < 0) ? null : getString(base);
+
+				BioPAXFactory factory = level.getDefaultFactory();
+				EditorMap editorMap = SimpleEditorMap.get(level);
+
+				Map<String, String> ns = new HashMap<String, String>();
+				for (int i = 0; i < nameSpaceCount; i++)
+				{
+					long p = nameSpacesStart + 8L * i;
+					ns.put(getString(getInt(p)), getString(getInt(p + 4)));
+				}
+				nameSpacePrefixMap = Collections.unmodifiableMap(ns);
+
+				classes = new Class[classCount];
+				schemas = new PropertyEditor[classCount][];
+				kinds = new byte[classCount][];
+				multiple = new boolean[classCount][];
+				defaults = new Object[classCount][];
+				getters = new Map[classCount];
+				long p = classesStart;
+				for (int c = 0; c < classCount; c++)
+				{
+					classes[c] = level.getInterfaceForName(getString(getInt(p)));
+					int size = getInt(p + 4);
+					p += 8;
+					schemas[c] = new PropertyEditor[size];
+					kinds[c] = new byte[size];
+					multiple[c] = new boolean[size];
+					defaults[c] = new Object[size];
+					getters[c] = new HashMap<String, Integer>();
+					BioPAXElement prototype = factory.create(classes[c], "");
+					for (int i = 0; i < size; i++)
+					{
+						String property = getString(getInt(p));
+						kinds[c][i] = getByte(p + 4);
+						p += 5;
+						if (kinds[c][i] == MappedModelWriter.INVERSE)
+						{
+							ObjectPropertyEditor editor = inverseEditor(editorMap, classes[c], property);
+							schemas[c][i] = editor;
+							if (editor != null)
+							{
+								multiple[c][i] = editor.isInverseMultipleCardinality();
+								getters[c].put(editor.getInverseGetMethod().getName(), i);
+							}
+						} else
+						{
+							PropertyEditor editor = editorOf(editorMap, classes[c], property);
+							schemas[c][i] = editor;
+							if (editor != null)
+							{
+								multiple[c][i] = editor.isMultipleCardinality();
+								getters[c].put(editor.getGetMethod().getName(), i);
+								if (!multiple[c][i])
+								{
+									// the value of a new object, e.g., null or BioPAXElement.UNKNOWN_FLOAT
+									defaults[c][i] = editor.getGetMethod().invoke(prototype);
+								}
+							}
+						}
+						if (schemas[c][i] == null)
+						{
+							log.warn("No editor for " + classes[c].getSimpleName() + "." + property
+								+ "; its values are ignored");
+						}
+					}
+				}
+			}
+			finally
+			{
+				raf.close(); //mapped buffers stay valid
+			}
+		}
+		catch (IOException e)
+		{
+			throw new BioPaxIOException("Failed to open the model file " + file, e);
+		}
+		catch (IllegalAccessException e)
+		{
+			throw new BioPaxIOException("Failed to get the default property values", e);
+		}
+		catch (InvocationTargetException e)
+		{
+			throw new BioPaxIOException("Failed to get the default property values", e);
+		}
+
+		// the cache is split by object index, each part with its own lock
+		cache = new Map[CACHE_STRIPES];
+		final int stripeSize = Math.max(1, cacheSize / CACHE_STRIPES);
+		for (int s = 0; s < CACHE_STRIPES; s++)
+		{
+			cache[s] = new LinkedHashMap<Integer, Object[]>(16, 0.75f, true)
+			{
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, Object[]> eldest)
+				{
+					return size() > stripeSize;
+				}
+			};
+		}
+		elements = new AtomicReferenceArray<ElementReference>(objectCount);
+		collected = new ReferenceQueue<BioPAXElement>();
+	}
+
+	private static PropertyEditor editorOf(EditorMap editorMap, Class<? extends BioPAXElement> type,
+		String property)
+	{
+		for (PropertyEditor editor : MappedModelWriter.editorsOf(editorMap, type))
+		{
+			if (editor.getProperty().equals(property))
+			{
+				return editor;
+			}
+		}
+		return null;
+	}
+
+	private static ObjectPropertyEditor inverseEditor(EditorMap editorMap, Class<? extends BioPAXElement> type,
+		String property)
+	{
+		Set<ObjectPropertyEditor> editors = editorMap.getInverseEditorsOf(type);
+		if (editors != null)
+		{
+			for (ObjectPropertyEditor editor : editors)
+			{
+				if (editor.getProperty().equals(property))
+				{
+					return editor;
+				}
+			}
+		}
+		return null;
+	}
+
+	// --------------------- Interface Model ---------------------
+
+	public boolean containsID(String id)
+	{
+		return indexOf(id) >= 0;
+	}
+
+	public BioPAXElement getByID(String id)
+	{
+		int i = indexOf(id);
+		return (i < 0) ? null : element(i);
+	}
+
+	/**
+	 * True if the model has an object of the same type and URI
+	 * (the same object instance may no longer be cached).
+	 *
+	 * @param aBioPAXElement BioPAX object
+	 * @return true/false
+	 */
+	public boolean contains(BioPAXElement aBioPAXElement)
+	{
+		int i = indexOf(aBioPAXElement.getUri());
+		return i >= 0 && classes[classIndexOf(i)] == aBioPAXElement.getModelInterface();
+	}
+
+	public Map<String, String> getNameSpacePrefixMap()
+	{
+		return nameSpacePrefixMap;
+	}
+
+	public Set<BioPAXElement> getObjects()
+	{
+		return getObjects(BioPAXElement.class);
+	}
+
+	public <T extends BioPAXElement> Set<T> getObjects(final Class<T> filterBy)
+	{
+		final boolean[] accepted = new boolean[classes.length];
+		for (int c = 0; c < classes.length; c++)
+		{
+			accepted[c] = filterBy.isAssignableFrom(classes[c]);
+		}
+
+		return new AbstractSet<T>()
+		{
+			private int size = -1;
+
+			@Override
+			public Iterator<T> iterator()
+			{
+				return new Iterator<T>()
+				{
+					private int next = advance(0);
+
+					private int advance(int i)
+					{
+						while (i < objectCount && !accepted[classIndexOf(i)])
+						{
+							i++;
+						}
+						return i;
+					}
+
+					public boolean hasNext()
+					{
+						return next < objectCount;
+					}
+
+					public T next()
+					{
+						if (!hasNext())
+						{
+							throw new NoSuchElementException();
+						}
+						T bpe = (T) element(next);
+						next = advance(next + 1);
+						return bpe;
+					}
+
+					public void remove()
+					{
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+
+			@Override
+			public int size()
+			{
+				if (size < 0)
+				{
+					int n = 0;
+					for (int i = 0; i < objectCount; i++)
+					{
+						if (accepted[classIndexOf(i)]) n++;
+					}
+					size = n;
+				}
+				return size;
+			}
+
+			@Override
+			public boolean contains(Object o)
+			{
+				return filterBy.isInstance(o) && MappedModel.this.contains((BioPAXElement) o);
+			}
+		};
+	}
+
+	public BioPAXLevel getLevel()
+	{
+		return level;
+	}
+
+	public String getXmlBase()
+	{
+		return xmlBase;
+	}
+
+	public boolean isAddDependencies()
+	{
+		return false;
+	}
+
+	public void add(BioPAXElement aBioPAXElement)
+	{
+		throw new UnsupportedOperationException("Read-only model");
+	}
+
+	public <T extends BioPAXElement> T addNew(Class<T> aClass, String id)
+	{
+		throw new UnsupportedOperationException("Read-only model");
+	}
+
+	public void remove(BioPAXElement aBioPAXElement)
+	{
+		throw new UnsupportedOperationException("Read-only model");
+	}
+
+	public void setFactory(BioPAXFactory factory)
+	{
+		throw new UnsupportedOperationException("Read-only model");
+	}
+
+	public void setAddDependencies(boolean value)
+	{
+		throw new UnsupportedOperationException("Read-only model");
+	}
+
+	public void merge(Model source)
+	{
+		throw new UnsupportedOperationException("Read-only model");
+	}
+
+	public void replace(BioPAXElement existing, BioPAXElement replacement)
+	{
+		throw new UnsupportedOperationException("Read-only model");
+	}
+
+	public void repair()
+	{
+		throw new UnsupportedOperationException("Read-only model");
+	}
+
+	public void setXmlBase(String base)
+	{
+		throw new UnsupportedOperationException("Read-only model");
+	}
+
+	// -------------------------- OTHER METHODS --------------------------
+
+	/**
+	 * Gets the view of the object by its index in the file, and creates one if there is none in use.
+	 */
+	private BioPAXElement element(int i)
+	{
+		expunge();
+		while (true)
+		{
+			ElementReference reference = elements.get(i);
+			BioPAXElement bpe = (reference == null) ? null : reference.get();
+			if (bpe != null)
+			{
+				return bpe;
+			}
+			Class<? extends BioPAXElement> type = classes[classIndexOf(i)];
+			BioPAXElement created = (BioPAXElement) Proxy.newProxyInstance(type.getClassLoader(),
+				new Class[]{type}, new Element(i, type, getString(getInt(recordOffset(i)))));
+			if (elements.compareAndSet(i, reference, new ElementReference(i, created, collected)))
+			{
+				return created;
+			}
+			// another thread has set one
+		}
+	}
+
+	/**
+	 * Drops the references to the views that have been garbage collected.
+	 */
+	private void expunge()
+	{
+		for (java.lang.ref.Reference<? extends BioPAXElement> r; (r = collected.poll()) != null; )
+		{
+			elements.compareAndSet(((ElementReference) r).index, (ElementReference) r, null);
+		}
+	}
+
+	/**
+	 * Gets the property values of the object by its index in the file, and reads them if they are not cached.
+	 * Only a part of the cache is locked, and only to access it; two threads reading the same object at once
+	 * get the values that are cached first.
+	 */
+	private Object[] values(int i)
+	{
+		// by the top bits of a multiplicative hash, not by the low bits of i, which
+		// would leave the keys of a stripe colliding in its hash table
+		Map<Integer, Object[]> stripe = cache[(i * 0x9E3779B9) >>> (32 - STRIPE_BITS)];
+		Object[] values;
+		synchronized (stripe)
+		{
+			values = stripe.get(i);
+		}
+		if (values != null)
+		{
+			return values;
+		}
+
+		values = read(i);
+
+		synchronized (stripe)
+		{
+			Object[] cached = stripe.get(i);
+			if (cached != null)
+			{
+				return cached;
+			}
+			stripe.put(i, values);
+		}
+		return values;
+	}
+
+	/**
+	 * Reads the values of each property of the object: a read-only set for a multiple cardinality property,
+	 * otherwise the value or the default one.
+	 */
+	private Object[] read(int i)
+	{
+		int c = classIndexOf(i);
+		Object[] values = new Object[kinds[c].length];
+		long p = recordOffset(i) + 4;
+		for (int k = 0; k < kinds[c].length; k++)
+		{
+			PropertyEditor editor = schemas[c][k];
+			byte kind = kinds[c][k];
+			int count = getInt(p);
+			p += 4;
+			if (multiple[c][k])
+			{
+				Set set = (kind == MappedModelWriter.OBJECT || kind == MappedModelWriter.INVERSE)
+					? BPCollections.I.createSafeSet() : BPCollections.I.createSet();
+				for (int v = 0; v < count; v++)
+				{
+					set.add(readValue(kind, p, editor));
+					p += sizeOf(kind);
+				}
+				values[k] = Collections.unmodifiableSet(set);
+			} else
+			{
+				values[k] = defaults[c][k];
+				for (int v = 0; v < count; v++)
+				{
+					if (editor != null)
+					{
+						values[k] = readValue(kind, p, editor);
+					}
+					p += sizeOf(kind);
+				}
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * A view of an object of this model (see {@link #element(int)}); it keeps no property values,
+	 * so that only the cache does.
+	 */
+	private class Element implements InvocationHandler
+	{
+		private final int index;
+		private final Class<? extends BioPAXElement> type;
+		private final String uri;
+		private final int hashCode;
+		private Map<String, Object> annotations;
+
+		Element(int index, Class<? extends BioPAXElement> type, String uri)
+		{
+			this.index = index;
+			this.type = type;
+			this.uri = uri;
+			this.hashCode = (type + uri).hashCode(); // the same as BioPAXElementImpl's
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args)
+		{
+			String name = method.getName();
+			if (args == null || args.length == 0)
+			{
+				Integer k = getters[classIndexOf(index)].get(name);
+				if (k != null)
+				{
+					return values(index)[k];
+				}
+				if (name.equals("hashCode"))
+				{
+					return hashCode;
+				}
+				if (name.equals("toString") || name.equals("getUri"))
+				{
+					return uri;
+				}
+				if (name.equals("getModelInterface"))
+				{
+					return type;
+				}
+				if (name.equals("getAnnotations"))
+				{
+					return annotations();
+				}
+			} else if (args.length == 1 && name.equals("equals"))
+			{
+				Object obj = args[0];
+				return obj instanceof BioPAXElement && type == ((BioPAXElement) obj).getModelInterface()
+					&& uri.equals(((BioPAXElement) obj).getUri());
+			}
+			throw new UnsupportedOperationException(type.getSimpleName() + "." + name
+				+ " is not supported by the objects of a read-only mapped model");
+		}
+
+		private synchronized Map<String, Object> annotations()
+		{
+			if (annotations == null)
+			{
+				annotations = new HashMap<String, Object>();
+			}
+			return annotations;
+		}
+	}
+
+	private static class ElementReference extends WeakReference<BioPAXElement>
+	{
+		private final int index;
+
+		ElementReference(int index, BioPAXElement bpe, ReferenceQueue<BioPAXElement> queue)
+		{
+			super(bpe, queue);
+			this.index = index;
+		}
+	}
+
+	private Object readValue(byte kind, long p, PropertyEditor editor)
+	{
+		switch (kind)
+		{
+			case MappedModelWriter.OBJECT:
+			case MappedModelWriter.INVERSE:
+				return element(getInt(p));
+			case MappedModelWriter.STRING:
+				return getString(getInt(p));
+			case MappedModelWriter.ENUM:
+				return Enum.valueOf(editor.getRange(), getString(getInt(p)));
+			case MappedModelWriter.DOUBLE:
+				return Double.longBitsToDouble(getLong(p));
+			case MappedModelWriter.FLOAT:
+				return Float.intBitsToFloat(getInt(p));
+			case MappedModelWriter.INT:
+				return getInt(p);
+			case MappedModelWriter.LONG:
+				return getLong(p);
+			case MappedModelWriter.BOOLEAN:
+				return getByte(p) != 0;
+			default:
+				throw new BioPaxIOException("Unknown property value kind: " + kind);
+		}
+	}
+
+	private static int sizeOf(byte kind)
+	{
+		switch (kind)
+		{
+			case MappedModelWriter.DOUBLE:
+			case MappedModelWriter.LONG:
+				return 8;
+			case MappedModelWriter.BOOLEAN:
+				return 1;
+			default:
+				return 4;
+		}
+	}
+
+	private int indexOf(String uri)
+	{
+		if (uri == null || objectCount == 0)
+		{
+			return -1;
+		}
+
+		int slot = slot(uri, tableSize);
+		int entry;
+		while ((entry = getInt(uriIndexStart + 4L * slot)) != 0)
+		{
+			if (uri.equals(getString(getInt(recordOffset(entry - 1)))))
+			{
+				return entry - 1;
+			}
+			slot = (slot + 1) & (tableSize - 1);
+		}
+		return -1;
+	}
+
+	private int classIndexOf(int i)
+	{
+		return getInt(recordClassesStart + 4L * i);
+	}
+
+	private long recordOffset(int i)
+	{
+		return getLong(recordOffsetsStart + 8L * i);
+	}
+
+	private String getString(int s)
+	{
+		long p = getLong(stringOffsetsStart + 8L * s);
+		byte[] bytes = new byte[getInt(p)];
+		p += 4;
+		for (int i = 0; i < bytes.length; )
+		{
+			ByteBuffer segment = segments[(int) (p / SEGMENT_SIZE)].duplicate();
+			segment.position((int) (p % SEGMENT_SIZE));
+			int n = Math.min(bytes.length - i, segment.remaining());
+			segment.get(bytes, i, n);
+			i += n;
+			p += n;
+		}
+		try
+		{
+			return new String(bytes, "UTF-8");
+		}
+		catch (UnsupportedEncodingException e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	private byte getByte(long p)
+	{
+		return segments[(int) (p / SEGMENT_SIZE)].get((int) (p % SEGMENT_SIZE));
+	}
+
+	private int getInt(long p)
+	{
+		int offset = (int) (p % SEGMENT_SIZE);
+		MappedByteBuffer segment = segments[(int) (p / SEGMENT_SIZE)];
+		if (offset + 4 <= segment.limit())
+		{
+			return segment.getInt(offset);
+		}
+		return ((getByte(p) & 0xFF) << 24) | ((getByte(p + 1) & 0xFF) << 16)
+			| ((getByte(p + 2) & 0xFF) << 8) | (getByte(p + 3) & 0xFF);
+	}
+
+	private long getLong(long p)
+	{
+		return ((long) getInt(p) << 32) | (getInt(p + 4) & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Size of the URI hash table for the number of objects (a power of two, at least twice as large).
+	 */
+	static int uriTableSize(int objectCount)
+	{
+		int size = 2;
+		while (size < 2L * objectCount)
+		{
+			size <<= 1;
+		}
+		return size;
+	}
+
+	static int slot(String uri, int tableSize)
+	{
+		int h = uri.hashCode();
+		h ^= (h >>> 16);
+		return h & (tableSize - 1);
+	}
+}
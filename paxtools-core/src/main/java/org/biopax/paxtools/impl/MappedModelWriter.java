@@ -0,0 +1,423 @@
+package org.biopax.paxtools.impl;
+
+import org.biopax.paxtools.controller.EditorMap;
+import org.biopax.paxtools.controller.EnumeratedPropertyEditor;
+import org.biopax.paxtools.controller.ObjectPropertyEditor;
+import org.biopax.paxtools.controller.PropertyEditor;
+import org.biopax.paxtools.controller.SimpleEditorMap;
+import org.biopax.paxtools.controller.StringPropertyEditor;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Writes a model to a file in the random access format read by {@link MappedModel}.
+ *
+ * The file consists of the string table (all the URIs, literals, class and property names,
+ * each stored once), class schemas (property names and value kinds per BioPAX class),
+ * object records (class, URI and property values, where object values are integer IDs
+ * and strings are indices in the string table), the record offsets, the class of each record,
+ * an open-addressing URI hash index, and a fixed-size trailer with the section offsets.
+ * A record also has the values of the inverse properties (e.g., xrefOf) of the object,
+ * i.e., the objects that refer to it, so that they can be read without reading the others;
+ * a schema lists these after the properties, by the name of the property they are inverse of.
+ */
+final class MappedModelWriter
+{
+	static final int MAGIC = 0x4250584D; // "BPXM"
+
+	static final int VERSION = 2;
+
+	static final int TRAILER_SIZE = 7 * 8 + 6 * 4;
+
+	// property value kinds
+	static final byte OBJECT = 0;
+	static final byte STRING = 1;
+	static final byte ENUM = 2;
+	static final byte DOUBLE = 3;
+	static final byte FLOAT = 4;
+	static final byte INT = 5;
+	static final byte LONG = 6;
+	static final byte BOOLEAN = 7;
+	static final byte INVERSE = 8;
+
+	private final Model model;
+	private final EditorMap editorMap;
+	private final Map<String, Integer> stringIndex = new HashMap<String, Integer>();
+	private final List<String> strings = new ArrayList<String>();
+	private final Map<BioPAXElement, Integer> objectIndex = new IdentityHashMap<BioPAXElement, Integer>();
+	private final Map<Class<? extends BioPAXElement>, Integer> classIndex =
+		new HashMap<Class<? extends BioPAXElement>, Integer>();
+	private final List<Class<? extends BioPAXElement>> classes = new ArrayList<Class<? extends BioPAXElement>>();
+	private final List<List<PropertyEditor>> schemas = new ArrayList<List<PropertyEditor>>();
+	private final List<List<ObjectPropertyEditor>> inverseSchemas = new ArrayList<List<ObjectPropertyEditor>>();
+
+	private DataOutputStream out;
+	private long position;
+
+	MappedModelWriter(Model model)
+	{
+		this.model = model;
+		this.editorMap = SimpleEditorMap.get(model.getLevel());
+	}
+
+	void write(File file) throws IOException
+	{
+		BioPAXElement[] objects = model.getObjects().toArray(new BioPAXElement[0]);
+		for (int i = 0; i < objects.length; i++)
+		{
+			objectIndex.put(objects[i], i);
+		}
+
+		// collect the strings and class schemas
+		int levelString = intern(model.getLevel().name());
+		int baseString = (model.getXmlBase() == null) ? -1 : intern(model.getXmlBase());
+		int[] nameSpaces = new int[2 * model.getNameSpacePrefixMap().size()];
+		int k = 0;
+		for (Map.Entry<String, String> entry : model.getNameSpacePrefixMap().entrySet())
+		{
+			nameSpaces[k++] = intern(entry.getKey());
+			nameSpaces[k++] = intern(entry.getValue());
+		}
+		for (BioPAXElement bpe : objects)
+		{
+			intern(bpe.getUri());
+			for (PropertyEditor editor : schemaOf(bpe.getModelInterface()))
+			{
+				byte kind = kindOf(editor);
+				if (kind == STRING || kind == ENUM)
+				{
+					for (Object value : values(bpe, editor))
+					{
+						intern((kind == ENUM) ? ((Enum) value).name() : (String) value);
+					}
+				}
+			}
+		}
+
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+		try
+		{
+			writeInt(MAGIC);
+			writeInt(VERSION);
+
+			long[] stringOffsets = new long[strings.size()];
+			for (int i = 0; i < strings.size(); i++)
+			{
+				stringOffsets[i] = position;
+				byte[] bytes = strings.get(i).getBytes("UTF-8");
+				writeInt(bytes.length);
+				out.write(bytes);
+				position += bytes.length;
+			}
+			long stringOffsetsStart = position;
+			for (long offset : stringOffsets)
+			{
+				writeLong(offset);
+			}
+
+			long classesStart = position;
+			for (int c = 0; c < classes.size(); c++)
+			{
+				writeInt(intern(classes.get(c).getSimpleName()));
+				List<PropertyEditor> schema = schemas.get(c);
+				List<ObjectPropertyEditor> inverseSchema = inverseSchemas.get(c);
+				writeInt(schema.size() + inverseSchema.size());
+				for (PropertyEditor editor : schema)
+				{
+					writeInt(intern(editor.getProperty()));
+					out.writeByte(kindOf(editor));
+					position++;
+				}
+				for (ObjectPropertyEditor editor : inverseSchema)
+				{
+					writeInt(intern(editor.getProperty()));
+					out.writeByte(INVERSE);
+					position++;
+				}
+			}
+
+			long[] recordOffsets = new long[objects.length];
+			List<Object> values = new ArrayList<Object>();
+			for (int i = 0; i < objects.length; i++)
+			{
+				BioPAXElement bpe = objects[i];
+				recordOffsets[i] = position;
+				writeInt(intern(bpe.getUri()));
+				for (PropertyEditor editor : schemaOf(bpe.getModelInterface()))
+				{
+					byte kind = kindOf(editor);
+					values.clear();
+					values.addAll(values(bpe, editor));
+					writeInt(values.size());
+					for (Object value : values)
+					{
+						writeValue(kind, value);
+					}
+				}
+				for (ObjectPropertyEditor editor : inverseSchemas.get(classIndex.get(bpe.getModelInterface())))
+				{
+					values.clear();
+					values.addAll(inverseValues(bpe, editor));
+					writeInt(values.size());
+					for (Object value : values)
+					{
+						writeValue(OBJECT, value);
+					}
+				}
+			}
+
+			long recordOffsetsStart = position;
+			for (long offset : recordOffsets)
+			{
+				writeLong(offset);
+			}
+
+			long recordClassesStart = position;
+			for (BioPAXElement bpe : objects)
+			{
+				writeInt(classIndex.get(bpe.getModelInterface()));
+			}
+
+			long uriIndexStart = position;
+			int[] table = new int[MappedModel.uriTableSize(objects.length)];
+			for (int i = 0; i < objects.length; i++)
+			{
+				int slot = MappedModel.slot(objects[i].getUri(), table.length);
+				while (table[slot] != 0)
+				{
+					slot = (slot + 1) & (table.length - 1);
+				}
+				table[slot] = i + 1;
+			}
+			for (int entry : table)
+			{
+				writeInt(entry);
+			}
+
+			long nameSpacesStart = position;
+			for (int ns : nameSpaces)
+			{
+				writeInt(ns);
+			}
+
+			// trailer
+			writeLong(stringOffsetsStart);
+			writeLong(classesStart);
+			writeLong(recordOffsetsStart);
+			writeLong(recordClassesStart);
+			writeLong(uriIndexStart);
+			writeLong(nameSpacesStart);
+			writeLong(0L); //reserved
+			writeInt(strings.size());
+			writeInt(classes.size());
+			writeInt(objects.length);
+			writeInt(table.length);
+			writeInt(levelString);
+			writeInt(baseString);
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+
+	/**
+	 * Gets the property values to save, skipping unknown values and object values not in the model.
+	 */
+	private Collection<?> values(BioPAXElement bpe, PropertyEditor editor)
+	{
+		List<Object> values = new ArrayList<Object>();
+		boolean objectProperty = editor instanceof ObjectPropertyEditor;
+		for (Object value : editor.getValueFromBean(bpe))
+		{
+			if (editor.isUnknown(value) || (objectProperty && !objectIndex.containsKey(value)))
+			{
+				continue;
+			}
+			values.add(value);
+		}
+		return values;
+	}
+
+	/**
+	 * Gets the objects in the model that refer to the object by the property.
+	 */
+	private Collection<?> inverseValues(BioPAXElement bpe, ObjectPropertyEditor editor)
+	{
+		List<Object> values = new ArrayList<Object>();
+		for (Object value : editor.getInverseAccessor().getValueFromBean(bpe))
+		{
+			if (objectIndex.containsKey(value))
+			{
+				values.add(value);
+			}
+		}
+		return values;
+	}
+
+	private List<PropertyEditor> schemaOf(Class<? extends BioPAXElement> type)
+	{
+		Integer c = classIndex.get(type);
+		if (c != null)
+		{
+			return schemas.get(c);
+		}
+
+		Comparator<PropertyEditor> byProperty = new Comparator<PropertyEditor>()
+		{
+			public int compare(PropertyEditor e1, PropertyEditor e2)
+			{
+				return e1.getProperty().compareTo(e2.getProperty());
+			}
+		};
+		List<PropertyEditor> editors = new ArrayList<PropertyEditor>(editorsOf(editorMap, type));
+		Collections.sort(editors, byProperty);
+		for (PropertyEditor editor : editors)
+		{
+			intern(editor.getProperty());
+		}
+		List<ObjectPropertyEditor> inverseEditors = new ArrayList<ObjectPropertyEditor>();
+		if (editorMap.getInverseEditorsOf(type) != null)
+		{
+			inverseEditors.addAll(editorMap.getInverseEditorsOf(type));
+		}
+		Collections.sort(inverseEditors, byProperty);
+		for (PropertyEditor editor : inverseEditors)
+		{
+			intern(editor.getProperty());
+		}
+		intern(type.getSimpleName());
+		classIndex.put(type, classes.size());
+		classes.add(type);
+		schemas.add(editors);
+		inverseSchemas.add(inverseEditors);
+		return editors;
+	}
+
+	/**
+	 * Gets the editors of all the properties of the type: its editors, and those of its super types
+	 * that the editor map leaves out for it (e.g., participant of a Conversion, which has left and right),
+	 * so that every property getter of the type can be answered from the saved values.
+	 */
+	static Collection<PropertyEditor> editorsOf(EditorMap editorMap, Class<? extends BioPAXElement> type)
+	{
+		Map<String, PropertyEditor> editors = new HashMap<String, PropertyEditor>();
+		collectEditors(editorMap, type, editors);
+		return editors.values();
+	}
+
+	private static void collectEditors(EditorMap editorMap, Class<?> type, Map<String, PropertyEditor> editors)
+	{
+		if (BioPAXElement.class.isAssignableFrom(type))
+		{
+			Set<PropertyEditor> typeEditors = editorMap.getEditorsOf((Class<? extends BioPAXElement>) type);
+			if (typeEditors != null)
+			{
+				for (PropertyEditor editor : typeEditors)
+				{
+					if (!editors.containsKey(editor.getProperty()))
+					{
+						editors.put(editor.getProperty(), editor);
+					}
+				}
+			}
+		}
+		for (Class<?> superType : type.getInterfaces())
+		{
+			collectEditors(editorMap, superType, editors);
+		}
+	}
+
+	private int intern(String s)
+	{
+		Integer i = stringIndex.get(s);
+		if (i == null)
+		{
+			i = strings.size();
+			stringIndex.put(s, i);
+			strings.add(s);
+		}
+		return i;
+	}
+
+	static byte kindOf(PropertyEditor editor)
+	{
+		Class range = editor.getRange();
+		if (editor instanceof ObjectPropertyEditor)
+		{
+			return OBJECT;
+		} else if (editor instanceof StringPropertyEditor)
+		{
+			return STRING;
+		} else if (editor instanceof EnumeratedPropertyEditor)
+		{
+			return ENUM;
+		} else if (range.equals(double.class) || range.equals(Double.class))
+		{
+			return DOUBLE;
+		} else if (range.equals(float.class) || range.equals(Float.class))
+		{
+			return FLOAT;
+		} else if (range.equals(int.class) || range.equals(Integer.class))
+		{
+			return INT;
+		} else if (range.equals(long.class) || range.equals(Long.class))
+		{
+			return LONG;
+		} else if (range.equals(boolean.class) || range.equals(Boolean.class))
+		{
+			return BOOLEAN;
+		} else
+		{
+			throw new IllegalBioPAXArgumentException("Unsupported property range: " + editor);
+		}
+	}
+
+	private void writeValue(byte kind, Object value) throws IOException
+	{
+		switch (kind)
+		{
+			case OBJECT:
+				writeInt(objectIndex.get(value));
+				break;
+			case STRING:
+				writeInt(intern((String) value));
+				break;
+			case ENUM:
+				writeInt(intern(((Enum) value).name()));
+				break;
+			case DOUBLE:
+				writeLong(Double.doubleToLongBits((Double) value));
+				break;
+			case FLOAT:
+				writeInt(Float.floatToIntBits((Float) value));
+				break;
+			case INT:
+				writeInt((Integer) value);
+				break;
+			case LONG:
+				writeLong((Long) value);
+				break;
+			case BOOLEAN:
+				out.writeByte(((Boolean) value) ? 1 : 0);
+				position++;
+				break;
+		}
+	}
+
+	private void writeInt(int value) throws IOException
+	{
+		out.writeInt(value);
+		position += 4;
+	}
+
+	private void writeLong(long value) throws IOException
+	{
+		out.writeLong(value);
+		position += 8;
+	}
+}
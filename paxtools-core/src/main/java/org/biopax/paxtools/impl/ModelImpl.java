@@ -7,21 +7,38 @@ import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.BioPAXFactory;
 import org.biopax.paxtools.model.BioPAXLevel;
 import org.biopax.paxtools.model.Model;
-import org.biopax.paxtools.util.BPCollections;
 import org.biopax.paxtools.util.ClassFilterSet;
+import org.biopax.paxtools.util.CompositeIterator;
 import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * This is the default implementation of the {@link Model}. Use a factory to create a model.
+ *
+ * It is thread-safe: objects are stored in a concurrent map (by URI), so lookups
+ * ({@link #getByID(String)}, {@link #containsID(String)}, {@link #contains(BioPAXElement)})
+ * and iterating over {@link #getObjects()} do not lock. Adding or removing an element
+ * takes the shared (read) lock of the model's read-write lock, whereas
+ * {@link #merge(Model)}, {@link #replace(BioPAXElement, BioPAXElement)} and {@link #repair()}
+ * take the exclusive (write) lock, i.e., do not run concurrently with other modifications.
+ *
+ * The objects are also indexed by their BioPAX model interface, so that iterating over or
+ * counting the objects returned by {@link #getObjects(Class)} only visits the matching ones.
  */
 public class ModelImpl implements Model
 {
 // ------------------------------ FIELDS ------------------------------
 
 	private static final long serialVersionUID = -2087521863213381434L;
-	protected final Map<String, BioPAXElement> idMap;
+	protected final ConcurrentMap<String, BioPAXElement> idMap;
+	private final ReadWriteLock lock;
+	private final ConcurrentMap<Class<? extends BioPAXElement>, ConcurrentMap<String, BioPAXElement>> typeIndex;
     private final Map<String, String> nameSpacePrefixMap;
 	private BioPAXLevel level;
 	private transient BioPAXFactory factory;
@@ -32,7 +49,9 @@ public class ModelImpl implements Model
 // --------------------------- CONSTRUCTORS ---------------------------
 
     protected ModelImpl() {
-		idMap = BPCollections.I.createMap();
+		idMap = new ConcurrentHashMap<String, BioPAXElement>();
+		lock = new ReentrantReadWriteLock();
+		typeIndex = new ConcurrentHashMap<Class<? extends BioPAXElement>, ConcurrentMap<String, BioPAXElement>>();
         nameSpacePrefixMap = new HashMap<String, String>();
         this.exposedObjectSet = new UnmodifiableImplicitSet(idMap.values());
 	}
@@ -51,12 +70,14 @@ public class ModelImpl implements Model
 
 // --------------------- GETTER / SETTER METHODS ---------------------
 
-    public synchronized boolean containsID(String id) {
-        return this.idMap.containsKey(id);
+    public boolean containsID(String id) {
+        return id != null && this.idMap.containsKey(id);
     }
 
     
-    public synchronized BioPAXElement getByID(String id) {
+    public BioPAXElement getByID(String id) {
+    	if(id == null)
+    		return null;
     	BioPAXElement ret = this.idMap.get(id);
     	if(ret != null) {
     		assert ret.getUri().equals(id);
@@ -89,31 +110,62 @@ public class ModelImpl implements Model
 
 // --------------------- ACCESORS and MUTATORS---------------------
 
-	public synchronized Set<BioPAXElement> getObjects()
+	public Set<BioPAXElement> getObjects()
 	{
 		return exposedObjectSet;
 	}
 
-	public synchronized <T extends BioPAXElement> Set<T> getObjects(Class<T> filterBy)
+	/**
+	 * Gets a live, unmodifiable view of the objects of the given type.
+	 * For an interface, e.g. a BioPAX type, it uses the type index (its iterator
+	 * and size only visit the matching objects); otherwise, it filters all the objects.
+	 *
+	 * @param filterBy BioPAX type (interface) or an implementation class
+	 * @param <T> BioPAX type
+	 * @return objects of the type
+	 */
+	public <T extends BioPAXElement> Set<T> getObjects(Class<T> filterBy)
 	{
-		return new ClassFilterSet<BioPAXElement,T>(exposedObjectSet, filterBy);
+		if(filterBy.isInterface())
+			return new TypeIndexSet<T>(filterBy);
+		else
+			return new ClassFilterSet<BioPAXElement,T>(exposedObjectSet, filterBy);
 	}
 
-	synchronized void synchronizedsetObjects(Set<BioPAXElement> objects) {   	
-   		idMap.clear();
-       	for(BioPAXElement bpe : objects) {
-       		add(bpe);
-       	}
+	void synchronizedsetObjects(Set<BioPAXElement> objects) {
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try {
+			idMap.clear();
+			typeIndex.clear();
+			for(BioPAXElement bpe : objects) {
+				add(bpe);
+			}
+		} finally {
+			writeLock.unlock();
+		}
     }
 
     
-	public synchronized void remove(BioPAXElement aBioPAXElement)
-	{		
-		if(this.contains(aBioPAXElement))
-			this.idMap.remove(aBioPAXElement.getUri());
+	public void remove(BioPAXElement aBioPAXElement)
+	{
+		if(aBioPAXElement.getUri() == null)
+			return;
+		Lock readLock = lock.readLock();
+		readLock.lock();
+		try {
+			//removes only the same object ("=="), not another one equal to it
+			if(this.contains(aBioPAXElement)
+				&& this.idMap.remove(aBioPAXElement.getUri(), aBioPAXElement))
+			{
+				reindex(aBioPAXElement.getUri(), aBioPAXElement.getModelInterface());
+			}
+		} finally {
+			readLock.unlock();
+		}
 	}
                             
-	public synchronized <T extends BioPAXElement> T addNew(Class<T> c, String id)
+	public <T extends BioPAXElement> T addNew(Class<T> c, String id)
 	{
 		T paxElement = factory.create(c, id);
 		this.add(paxElement);
@@ -128,14 +180,15 @@ public class ModelImpl implements Model
 	 * @param aBioPAXElement BioPAX object (individual)
 	 * @return true/false - whether this model contains the object or not
 	 */
-	public synchronized boolean contains(BioPAXElement aBioPAXElement)
+	public boolean contains(BioPAXElement aBioPAXElement)
 	{
-		return this.idMap.get(aBioPAXElement.getUri()) == aBioPAXElement;
+		return aBioPAXElement.getUri() != null
+			&& this.idMap.get(aBioPAXElement.getUri()) == aBioPAXElement;
 	}
 
 // -------------------------- OTHER METHODS --------------------------
 
-	public synchronized void add(BioPAXElement aBioPAXElement)
+	public void add(BioPAXElement aBioPAXElement)
 	{
 		String rdfId = aBioPAXElement.getUri();
         if(!this.level.hasElement(aBioPAXElement))
@@ -149,21 +202,74 @@ public class ModelImpl implements Model
 			throw new IllegalBioPAXArgumentException(
 				"null ID: every object must have an RDF ID");
 		}
-		else if (this.idMap.containsKey(rdfId))
+
+		BioPAXElement existing;
+		Lock readLock = lock.readLock();
+		readLock.lock();
+		try {
+			existing = this.idMap.putIfAbsent(rdfId, aBioPAXElement);
+			if (existing == null)
+				reindex(rdfId, aBioPAXElement.getModelInterface());
+		} finally {
+			readLock.unlock();
+		}
+
+		if (existing == aBioPAXElement)
+		{
+			throw new IllegalBioPAXArgumentException(
+				"duplicate element:" + aBioPAXElement);
+		}
+		else if (existing != null)
 		{
 			throw new IllegalBioPAXArgumentException(
 				"I already have an object with the same ID: " + rdfId +
 					". Try removing it first");
 		}
-		else if (this.contains(aBioPAXElement))
+	}
+
+
+	/**
+	 * Makes the type index entry for the URI agree with the object stored under it, after that
+	 * has been added or removed. Another thread may add or remove an object with the same URI
+	 * meanwhile, so it repeats until the object is the same before and after the update.
+	 * (The conditional map updates do not tell two objects with the same type and URI apart,
+	 * as these are equal, so the entries are compared by reference here.)
+	 */
+	private void reindex(String uri, Class<? extends BioPAXElement> type)
+	{
+		ConcurrentMap<String, BioPAXElement> bucket = bucket(type);
+		while (true)
 		{
-			throw new IllegalBioPAXArgumentException(
-				"duplicate element:" + aBioPAXElement);
+			BioPAXElement current = idMap.get(uri);
+			BioPAXElement wanted = (current != null && current.getModelInterface() == type) ? current : null;
+			BioPAXElement indexed = bucket.get(uri);
+			boolean updated;
+			if (indexed == wanted)
+				updated = true;
+			else if (wanted == null)
+				updated = bucket.remove(uri, indexed);
+			else if (indexed == null)
+				updated = bucket.putIfAbsent(uri, wanted) == null;
+			else
+				updated = bucket.replace(uri, indexed, wanted);
+
+			if (updated && idMap.get(uri) == current)
+				return;
 		}
-		else
+	}
+
+
+	private ConcurrentMap<String, BioPAXElement> bucket(Class<? extends BioPAXElement> type)
+	{
+		ConcurrentMap<String, BioPAXElement> bucket = typeIndex.get(type);
+		if (bucket == null)
 		{
-			this.idMap.put(rdfId, aBioPAXElement);
+			bucket = new ConcurrentHashMap<String, BioPAXElement>();
+			ConcurrentMap<String, BioPAXElement> old = typeIndex.putIfAbsent(type, bucket);
+			if (old != null)
+				bucket = old;
 		}
+		return bucket;
 	}
 
 
@@ -188,6 +294,62 @@ public class ModelImpl implements Model
         return addDependencies;
     }
 
+	/**
+	 * A view of the type index buckets of the given type and its sub-types.
+	 */
+	private class TypeIndexSet<T extends BioPAXElement> extends AbstractSet<T>
+	{
+		private final Class<T> filterBy;
+
+		TypeIndexSet(Class<T> filterBy)
+		{
+			this.filterBy = filterBy;
+		}
+
+		private List<Collection<T>> buckets()
+		{
+			List<Collection<T>> buckets = new ArrayList<Collection<T>>();
+			for (Map.Entry<Class<? extends BioPAXElement>, ConcurrentMap<String, BioPAXElement>> entry
+				: typeIndex.entrySet())
+			{
+				if (filterBy.isAssignableFrom(entry.getKey()))
+					buckets.add((Collection<T>) entry.getValue().values());
+			}
+			return buckets;
+		}
+
+		@Override
+		public Iterator<T> iterator()
+		{
+			return new CompositeIterator<T>(buckets());
+		}
+
+		@Override
+		public int size()
+		{
+			int size = 0;
+			for (Collection<T> bucket : buckets())
+				size += bucket.size();
+			return size;
+		}
+
+		@Override
+		public boolean isEmpty()
+		{
+			for (Collection<T> bucket : buckets())
+				if (!bucket.isEmpty())
+					return false;
+			return true;
+		}
+
+		@Override
+		public boolean contains(Object o)
+		{
+			return filterBy.isInstance(o)
+				&& o.equals(idMap.get(((BioPAXElement) o).getUri()));
+		}
+	}
+
     private class UnmodifiableImplicitSet implements Set<BioPAXElement>
 	{
 		private final Collection<BioPAXElement> elements;
@@ -273,12 +435,18 @@ public class ModelImpl implements Model
      * 
      * Can also clear object properties (- replace with null).
      */
-	public synchronized void replace(final BioPAXElement existing, final BioPAXElement replacement) 
+	public void replace(final BioPAXElement existing, final BioPAXElement replacement) 
 	{
-		 ModelUtils.replace(this, Collections.singletonMap(existing, replacement));
-		 remove(existing);
-		 if(replacement != null)
-			 add(replacement);
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try {
+			ModelUtils.replace(this, Collections.singletonMap(existing, replacement));
+			remove(existing);
+			if(replacement != null)
+				add(replacement);
+		} finally {
+			writeLock.unlock();
+		}
 	}
 	
 	
@@ -293,13 +461,19 @@ public class ModelImpl implements Model
 	 * @see SimpleMerger
 	 * @see Model#merge(Model)
 	 */
-	public synchronized void merge(Model source) {
+	public void merge(Model source) {
 		SimpleMerger merger = new SimpleMerger(
 			SimpleEditorMap.get(level));
-		if(source == null)
-			merger.merge(this, this); //repairs itself
-		else
-			merger.merge(this, source);
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try {
+			if(source == null)
+				merger.merge(this, this); //repairs itself
+			else
+				merger.merge(this, source);
+		} finally {
+			writeLock.unlock();
+		}
 	}
 
 	
@@ -313,7 +487,7 @@ public class ModelImpl implements Model
 	 * 
 	 */
 	@Override
-	public synchronized void repair() {
+	public void repair() {
 		// updates props and children
 		merge(null);
 	}
@@ -66,7 +66,7 @@ public class BiochemicalPathwayStepImpl extends PathwayStepImpl implements Bioch
 		
 		if(this.stepConversion != null) {
 			synchronized (this.stepConversion) {
-				this.stepConversion.getStepProcessOf().add(this);
+				((ProcessImpl) this.stepConversion).addStepProcessOf(this);
 			}
 		}
 
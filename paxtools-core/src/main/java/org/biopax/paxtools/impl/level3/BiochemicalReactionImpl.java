@@ -3,9 +3,9 @@ package org.biopax.paxtools.impl.level3;
 import org.biopax.paxtools.model.level3.BiochemicalReaction;
 import org.biopax.paxtools.model.level3.DeltaG;
 import org.biopax.paxtools.model.level3.KPrime;
-import org.biopax.paxtools.util.BPCollections;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public class BiochemicalReactionImpl extends ConversionImpl
@@ -13,11 +13,22 @@ public class BiochemicalReactionImpl extends ConversionImpl
 {
 // ------------------------------ FIELDS ------------------------------
 
-	private Set<Float> deltaS;
-	private Set<KPrime> kEQ;
-	private Set<Float> deltaH;
-	private Set<DeltaG> deltaG;
-	private Set<String> eCNumber;
+	private volatile Set<Float> deltaS;
+	private volatile Set<KPrime> kEQ;
+	private volatile Set<Float> deltaH;
+	private volatile Set<DeltaG> deltaG;
+	private volatile Set<String> eCNumber;
+
+	private static final AtomicReferenceFieldUpdater<BiochemicalReactionImpl, Set> DELTA_G =
+		AtomicReferenceFieldUpdater.newUpdater(BiochemicalReactionImpl.class, Set.class, "deltaG");
+	private static final AtomicReferenceFieldUpdater<BiochemicalReactionImpl, Set> DELTA_H =
+		AtomicReferenceFieldUpdater.newUpdater(BiochemicalReactionImpl.class, Set.class, "deltaH");
+	private static final AtomicReferenceFieldUpdater<BiochemicalReactionImpl, Set> DELTA_S =
+		AtomicReferenceFieldUpdater.newUpdater(BiochemicalReactionImpl.class, Set.class, "deltaS");
+	private static final AtomicReferenceFieldUpdater<BiochemicalReactionImpl, Set> E_CNUMBER =
+		AtomicReferenceFieldUpdater.newUpdater(BiochemicalReactionImpl.class, Set.class, "eCNumber");
+	private static final AtomicReferenceFieldUpdater<BiochemicalReactionImpl, Set> K_EQ =
+		AtomicReferenceFieldUpdater.newUpdater(BiochemicalReactionImpl.class, Set.class, "kEQ");
 
 // --------------------------- CONSTRUCTORS ---------------------------
 
@@ -25,11 +36,11 @@ public class BiochemicalReactionImpl extends ConversionImpl
 
 	public BiochemicalReactionImpl()
 	{
-		this.deltaG = BPCollections.I.createSafeSet();
-		this.deltaH = BPCollections.I.createSet();
-		this.deltaS = BPCollections.I.createSet();
-		this.eCNumber = BPCollections.I.createSet();
-		this.kEQ = BPCollections.I.createSafeSet();
+		this.deltaG = emptySet();
+		this.deltaH = emptySet();
+		this.deltaS = emptySet();
+		this.eCNumber = emptySet();
+		this.kEQ = emptySet();
 	}
 
 // ------------------------ INTERFACE METHODS ------------------------
@@ -46,7 +57,7 @@ public class BiochemicalReactionImpl extends ConversionImpl
 
 	public Set<DeltaG> getDeltaG()
 	{
-		return deltaG;
+		return lazySet(this, DELTA_G, true);
 	}
 
 	protected void setDeltaG(Set<DeltaG> deltaG)
@@ -57,7 +68,12 @@ public class BiochemicalReactionImpl extends ConversionImpl
 	public void addDeltaG(DeltaG deltaG)
 	{
 		if(deltaG != null)
-			this.deltaG.add(deltaG);
+		{
+			synchronized (this) {
+				this.deltaG = mutableSafeSet(this.deltaG);
+				this.deltaG.add(deltaG);
+			}
+		}
 	}
 
 	public void removeDeltaG(DeltaG deltaG)
@@ -68,12 +84,15 @@ public class BiochemicalReactionImpl extends ConversionImpl
 
 	public Set<Float> getDeltaH()
 	{
-		return deltaH;
+		return lazySet(this, DELTA_H, false);
 	}
 
 	public void addDeltaH(float deltaH)
 	{
-		this.deltaH.add(deltaH);
+		synchronized (this) {
+			this.deltaH = mutableSet(this.deltaH);
+			this.deltaH.add(deltaH);
+		}
 	}
 
 	public void removeDeltaH(float deltaH)
@@ -83,12 +102,15 @@ public class BiochemicalReactionImpl extends ConversionImpl
 
 	public Set<Float> getDeltaS()
 	{
-		return deltaS;
+		return lazySet(this, DELTA_S, false);
 	}
 
 	public void addDeltaS(float deltaS)
 	{
-		this.deltaS.add(deltaS);
+		synchronized (this) {
+			this.deltaS = mutableSet(this.deltaS);
+			this.deltaS.add(deltaS);
+		}
 	}
 
 	public void removeDeltaS(float deltaS)
@@ -98,12 +120,15 @@ public class BiochemicalReactionImpl extends ConversionImpl
 
 	public Set<String> getECNumber()
 	{
-		return eCNumber;
+		return lazySet(this, E_CNUMBER, false);
 	}
 
 	public void addECNumber(String eCNumber)
 	{
-		this.eCNumber.add(eCNumber);
+		synchronized (this) {
+			this.eCNumber = mutableSet(this.eCNumber);
+			this.eCNumber.add(eCNumber);
+		}
 	}
 
 	public void removeECNumber(String eCNumber)
@@ -113,12 +138,15 @@ public class BiochemicalReactionImpl extends ConversionImpl
 
 	public Set<KPrime> getKEQ()
 	{
-		return kEQ;
+		return lazySet(this, K_EQ, true);
 	}
 
 	public void addKEQ(KPrime kEQ)
 	{
-		this.kEQ.add(kEQ);
+		synchronized (this) {
+			this.kEQ = mutableSafeSet(this.kEQ);
+			this.kEQ.add(kEQ);
+		}
 	}
 
 	public void removeKEQ(KPrime kEQ)
@@ -3,10 +3,10 @@ package org.biopax.paxtools.impl.level3;
 
 import org.biopax.paxtools.model.level3.*;
 import org.biopax.paxtools.model.level3.Process;
-import org.biopax.paxtools.util.BPCollections;
 import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public class CatalysisImpl extends ControlImpl implements Catalysis
@@ -15,13 +15,16 @@ public class CatalysisImpl extends ControlImpl implements Catalysis
 
 	private CatalysisDirectionType catalysisDirection;
 
-	private Set<PhysicalEntity> cofactor;
+	private volatile Set<PhysicalEntity> cofactor;
+
+	private static final AtomicReferenceFieldUpdater<CatalysisImpl, Set> COFACTOR =
+		AtomicReferenceFieldUpdater.newUpdater(CatalysisImpl.class, Set.class, "cofactor");
 
 // --------------------------- CONSTRUCTORS ---------------------------
 
 	public CatalysisImpl()
 	{
-		this.cofactor = BPCollections.I.createSafeSet();
+		this.cofactor = emptySet();
 	}
 
 // ------------------------ INTERFACE METHODS ------------------------
@@ -49,14 +52,17 @@ public class CatalysisImpl extends ControlImpl implements Catalysis
 
 	public Set<PhysicalEntity> getCofactor()
 	{
-		return cofactor;
+		return lazySet(this, COFACTOR, true);
 	}
 
 	public void addCofactor(PhysicalEntity cofactor)
 	{
 		if (cofactor != null)
 		{
-			this.cofactor.add(cofactor);
+			synchronized (this) {
+				this.cofactor = mutableSafeSet(this.cofactor);
+				this.cofactor.add(cofactor);
+			}
 			super.addParticipant(cofactor);
 		}
 	}
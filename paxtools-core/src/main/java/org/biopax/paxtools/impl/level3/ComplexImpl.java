@@ -6,21 +6,27 @@ import org.biopax.paxtools.util.BPCollections;
 import org.biopax.paxtools.util.SetEquivalenceChecker;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public class ComplexImpl extends PhysicalEntityImpl implements Complex
 {
 // ------------------------------ FIELDS ------------------------------
 
-	private Set<PhysicalEntity> component;
-	private Set<Stoichiometry> componentStoichiometry;
+	private volatile Set<PhysicalEntity> component;
+	private volatile Set<Stoichiometry> componentStoichiometry;
+
+	private static final AtomicReferenceFieldUpdater<ComplexImpl, Set> COMPONENT =
+		AtomicReferenceFieldUpdater.newUpdater(ComplexImpl.class, Set.class, "component");
+	private static final AtomicReferenceFieldUpdater<ComplexImpl, Set> COMPONENT_STOICHIOMETRY =
+		AtomicReferenceFieldUpdater.newUpdater(ComplexImpl.class, Set.class, "componentStoichiometry");
 
 // --------------------------- CONSTRUCTORS ---------------------------
 
 	public ComplexImpl()
 	{
-		this.component = BPCollections.I.createSafeSet();
-		this.componentStoichiometry = BPCollections.I.createSafeSet();
+		this.component = emptySet();
+		this.componentStoichiometry = emptySet();
 	}
 
 // ------------------------ INTERFACE METHODS ------------------------
@@ -38,14 +44,17 @@ public class ComplexImpl extends PhysicalEntityImpl implements Complex
 // --------------------- ACCESORS and MUTATORS---------------------
 	public Set<PhysicalEntity> getComponent()
 	{
-		return component;
+		return lazySet(this, COMPONENT, true);
 	}
 
 	public void addComponent(PhysicalEntity component)
 	{
 		if (component != null) {
-			this.component.add(component);
-			component.getComponentOf().add(this);
+			synchronized (this) {
+				this.component = mutableSafeSet(this.component);
+				this.component.add(component);
+			}
+			((PhysicalEntityImpl) component).addComponentOf(this);
 		}
 	}
 
@@ -64,14 +73,19 @@ public class ComplexImpl extends PhysicalEntityImpl implements Complex
 
 	public Set<Stoichiometry> getComponentStoichiometry()
 	{
-		return componentStoichiometry;
+		return lazySet(this, COMPONENT_STOICHIOMETRY, true);
 	}
 
 	public void addComponentStoichiometry(
 			Stoichiometry stoichiometry)
 	{
 		if(stoichiometry != null)
-			this.componentStoichiometry.add(stoichiometry);
+		{
+			synchronized (this) {
+				this.componentStoichiometry = mutableSafeSet(this.componentStoichiometry);
+				this.componentStoichiometry.add(stoichiometry);
+			}
+		}
 	}
 
 	public void removeComponentStoichiometry(
@@ -2,12 +2,12 @@ package org.biopax.paxtools.impl.level3;
 
 import org.biopax.paxtools.model.level3.*;
 import org.biopax.paxtools.model.level3.Process;
-import org.biopax.paxtools.util.BPCollections;
 import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
 
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public class  ControlImpl extends InteractionImpl
@@ -18,15 +18,18 @@ public class  ControlImpl extends InteractionImpl
 	private ControlType controlType;
 	private Set<Pathway> pathwayController;
 	private Set<PhysicalEntity> peController;
-	private Set<Process> controlled;
+	private volatile Set<Process> controlled;
+
+	private static final AtomicReferenceFieldUpdater<ControlImpl, Set> CONTROLLED =
+		AtomicReferenceFieldUpdater.newUpdater(ControlImpl.class, Set.class, "controlled");
 
 // --------------------------- CONSTRUCTORS ---------------------------
 
 	public ControlImpl()
 	{
-		pathwayController = BPCollections.I.createSafeSet();
-		peController = BPCollections.I.createSafeSet();
-		controlled = BPCollections.I.createSafeSet();
+		pathwayController = emptySet();
+		peController = emptySet();
+		controlled = emptySet();
 	}
 
 // ------------------------ INTERFACE METHODS ------------------------
@@ -52,7 +55,7 @@ public class  ControlImpl extends InteractionImpl
 
 	public Set<Process> getControlled()
 	{
-		return this.controlled;
+		return lazySet(this, CONTROLLED, true);
 	}
 
 	public void addControlled(Process controlled)
@@ -65,8 +68,11 @@ public class  ControlImpl extends InteractionImpl
 								+ this.getUri());
 
 			} else {
-				this.controlled.add(controlled);
-				controlled.getControlledOf().add(this);
+				synchronized (this) {
+					this.controlled = mutableSafeSet(this.controlled);
+					this.controlled.add(controlled);
+				}
+				((ProcessImpl) controlled).addControlledOf(this);
 				super.addParticipant(controlled);
 			}
 		}
@@ -92,11 +98,18 @@ public class  ControlImpl extends InteractionImpl
 	{
 		if (controller != null) {
 			if (controller instanceof Pathway) {
-				pathwayController.add((Pathway) controller);
+				synchronized (this) {
+					this.pathwayController = mutableSafeSet(this.pathwayController);
+					this.pathwayController.add((Pathway) controller);
+				}
+				((PathwayImpl) controller).addControllerOf(this);
 			} else {
-				peController.add((PhysicalEntity) controller);
+				synchronized (this) {
+					this.peController = mutableSafeSet(this.peController);
+					this.peController.add((PhysicalEntity) controller);
+				}
+				((PhysicalEntityImpl) controller).addControllerOf(this);
 			}
-			controller.getControllerOf().add(this);
 			super.addParticipant(controller);
 		}
 	}
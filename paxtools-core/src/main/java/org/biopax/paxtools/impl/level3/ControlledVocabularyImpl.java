@@ -12,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public class ControlledVocabularyImpl extends XReferrableImpl implements
@@ -19,14 +20,17 @@ public class ControlledVocabularyImpl extends XReferrableImpl implements
 {
 	private final static Logger LOG = LoggerFactory.getLogger(CellVocabularyImpl.class);
 	
-	private Set<String> term;
+	private volatile Set<String> term;
+
+	private static final AtomicReferenceFieldUpdater<ControlledVocabularyImpl, Set> TERM =
+		AtomicReferenceFieldUpdater.newUpdater(ControlledVocabularyImpl.class, Set.class, "term");
 
 	/**
 	 * Constructor.
 	 */
 	public ControlledVocabularyImpl()
 	{
-		this.term = BPCollections.I.createSet();
+		this.term = emptySet();
 	}
 
 	//
@@ -50,7 +54,7 @@ public class ControlledVocabularyImpl extends XReferrableImpl implements
 
 	public Set<String> getTerm()
 	{
-		return term;
+		return lazySet(this, TERM, false);
 	}
 
 	public void setTerm(Set<String> term)
@@ -61,7 +65,12 @@ public class ControlledVocabularyImpl extends XReferrableImpl implements
 	public void addTerm(String term)
 	{
 		if(term != null && term.length()>0)
-			this.term.add(term);
+		{
+			synchronized (this) {
+				this.term = mutableSet(this.term);
+				this.term.add(term);
+			}
+		}
 	}
 
 	public void removeTerm(String term)
@@ -5,10 +5,10 @@ import org.biopax.paxtools.model.level3.Conversion;
 import org.biopax.paxtools.model.level3.ConversionDirectionType;
 import org.biopax.paxtools.model.level3.PhysicalEntity;
 import org.biopax.paxtools.model.level3.Stoichiometry;
-import org.biopax.paxtools.util.BPCollections;
 import org.biopax.paxtools.util.SetEquivalenceChecker;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public class ConversionImpl extends InteractionImpl
@@ -16,19 +16,26 @@ public class ConversionImpl extends InteractionImpl
 {
 // ------------------------------ FIELDS ------------------------------
 
-	private Set<PhysicalEntity> right;
-	private Set<PhysicalEntity> left;
+	private volatile Set<PhysicalEntity> right;
+	private volatile Set<PhysicalEntity> left;
 	private ConversionDirectionType conversionDirection;
-	private Set<Stoichiometry> participantStoichiometry;
+	private volatile Set<Stoichiometry> participantStoichiometry;
+
+	private static final AtomicReferenceFieldUpdater<ConversionImpl, Set> RIGHT =
+		AtomicReferenceFieldUpdater.newUpdater(ConversionImpl.class, Set.class, "right");
+	private static final AtomicReferenceFieldUpdater<ConversionImpl, Set> LEFT =
+		AtomicReferenceFieldUpdater.newUpdater(ConversionImpl.class, Set.class, "left");
+	private static final AtomicReferenceFieldUpdater<ConversionImpl, Set> PARTICIPANT_STOICHIOMETRY =
+		AtomicReferenceFieldUpdater.newUpdater(ConversionImpl.class, Set.class, "participantStoichiometry");
 	private Boolean spontaneous;
 
 // --------------------------- CONSTRUCTORS ---------------------------
 
 	public ConversionImpl()
 	{
-		left = BPCollections.I.createSafeSet();
-		right = BPCollections.I.createSafeSet();
-		participantStoichiometry = BPCollections.I.createSafeSet();
+		left = emptySet();
+		right = emptySet();
+		participantStoichiometry = emptySet();
 	}
 
 
@@ -45,13 +52,16 @@ public class ConversionImpl extends InteractionImpl
 
 	public Set<PhysicalEntity> getRight()
 	{
-		return right;
+		return lazySet(this, RIGHT, true);
 	}
 
 	public void addRight(PhysicalEntity right)
 	{
 		if(right != null) {
-			this.right.add(right);
+			synchronized (this) {
+				this.right = mutableSafeSet(this.right);
+				this.right.add(right);
+			}
 			super.addParticipant(right);
 		}
 	}
@@ -66,13 +76,16 @@ public class ConversionImpl extends InteractionImpl
 
 	public Set<PhysicalEntity> getLeft()
 	{
-		return left;
+		return lazySet(this, LEFT, true);
 	}
 
 	public void addLeft(PhysicalEntity left)
 	{
 		if(left != null) {
-			this.left.add(left);
+			synchronized (this) {
+				this.left = mutableSafeSet(this.left);
+				this.left.add(left);
+			}
 			super.addParticipant(left);
 		}
 	}
@@ -98,13 +111,16 @@ public class ConversionImpl extends InteractionImpl
 
 	public Set<Stoichiometry> getParticipantStoichiometry()
 	{
-		return participantStoichiometry;
+		return lazySet(this, PARTICIPANT_STOICHIOMETRY, true);
 	}
 
 	public void addParticipantStoichiometry(
 			Stoichiometry participantStoichiometry)
 	{
-		this.participantStoichiometry.add(participantStoichiometry);
+		synchronized (this) {
+			this.participantStoichiometry = mutableSafeSet(this.participantStoichiometry);
+			this.participantStoichiometry.add(participantStoichiometry);
+		}
 	}
 
 	public void removeParticipantStoichiometry(
@@ -2,34 +2,45 @@ package org.biopax.paxtools.impl.level3;
 
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.level3.*;
-import org.biopax.paxtools.util.BPCollections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public class EntityFeatureImpl extends L3ElementImpl implements EntityFeature
 {
 	private final static Logger LOG = LoggerFactory.getLogger(EntityFeatureImpl.class);
 	
-	private Set<Evidence> evidence;
+	private volatile Set<Evidence> evidence;
 	private EntityReference ownerEntityReference;
-	private Set<PhysicalEntity> featureOf;
-	private Set<PhysicalEntity> notFeatureOf;
+	private volatile Set<PhysicalEntity> featureOf;
+	private volatile Set<PhysicalEntity> notFeatureOf;
 	private SequenceLocation featureLocation;
-	private Set<EntityFeature> memberFeature;
+	private volatile Set<EntityFeature> memberFeature;
 	private SequenceRegionVocabulary featureLocationType;
-	private Set<EntityFeature> memberFeatureOf;
+	private volatile Set<EntityFeature> memberFeatureOf;
+
+	private static final AtomicReferenceFieldUpdater<EntityFeatureImpl, Set> FEATURE_OF =
+		AtomicReferenceFieldUpdater.newUpdater(EntityFeatureImpl.class, Set.class, "featureOf");
+	private static final AtomicReferenceFieldUpdater<EntityFeatureImpl, Set> NOT_FEATURE_OF =
+		AtomicReferenceFieldUpdater.newUpdater(EntityFeatureImpl.class, Set.class, "notFeatureOf");
+	private static final AtomicReferenceFieldUpdater<EntityFeatureImpl, Set> EVIDENCE =
+		AtomicReferenceFieldUpdater.newUpdater(EntityFeatureImpl.class, Set.class, "evidence");
+	private static final AtomicReferenceFieldUpdater<EntityFeatureImpl, Set> MEMBER_FEATURE =
+		AtomicReferenceFieldUpdater.newUpdater(EntityFeatureImpl.class, Set.class, "memberFeature");
+	private static final AtomicReferenceFieldUpdater<EntityFeatureImpl, Set> MEMBER_FEATURE_OF =
+		AtomicReferenceFieldUpdater.newUpdater(EntityFeatureImpl.class, Set.class, "memberFeatureOf");
 
 
 	public EntityFeatureImpl()
 	{
-		evidence = BPCollections.I.createSafeSet();
-		featureOf = BPCollections.I.createSafeSet();
-		notFeatureOf = BPCollections.I.createSafeSet();
-		memberFeatureOf = BPCollections.I.createSafeSet();
-		memberFeature = BPCollections.I.createSafeSet();
+		evidence = emptySet();
+		featureOf = emptySet();
+		notFeatureOf = emptySet();
+		memberFeatureOf = emptySet();
+		memberFeature = emptySet();
 	}
 
 
@@ -47,23 +58,46 @@ public class EntityFeatureImpl extends L3ElementImpl implements EntityFeature
 
 	public Set<PhysicalEntity> getFeatureOf()
 	{
-		return featureOf;
+		return lazySet(this, FEATURE_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link PhysicalEntityImpl#addFeature(EntityFeature)}.
+	 */
+	synchronized void addFeatureOf(PhysicalEntity value)
+	{
+		featureOf = mutableSafeSet(featureOf);
+		featureOf.add(value);
 	}
 
 	public Set<PhysicalEntity> getNotFeatureOf()
 	{
-		return notFeatureOf;
+		return lazySet(this, NOT_FEATURE_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link PhysicalEntityImpl#addNotFeature(EntityFeature)}.
+	 */
+	synchronized void addNotFeatureOf(PhysicalEntity value)
+	{
+		notFeatureOf = mutableSafeSet(notFeatureOf);
+		notFeatureOf.add(value);
 	}
 
 	public Set<Evidence> getEvidence()
 	{
-		return evidence;
+		return lazySet(this, EVIDENCE, true);
 	}
 
 	public void addEvidence(Evidence evidence)
 	{
 		if(evidence != null)
-			this.evidence.add(evidence);
+		{
+			synchronized (this) {
+				this.evidence = mutableSafeSet(this.evidence);
+				this.evidence.add(evidence);
+			}
+		}
 	}
 
 	public void removeEvidence(Evidence evidence)
@@ -93,14 +127,17 @@ public class EntityFeatureImpl extends L3ElementImpl implements EntityFeature
 
 	public Set<EntityFeature> getMemberFeature()
 	{
-		return memberFeature;
+		return lazySet(this, MEMBER_FEATURE, true);
 	}
 
 	public void addMemberFeature(EntityFeature feature)
 	{
 		if (feature != null) {
-			memberFeature.add(feature);
-			feature.getMemberFeatureOf().add(this);
+			synchronized (this) {
+				this.memberFeature = mutableSafeSet(this.memberFeature);
+				this.memberFeature.add(feature);
+			}
+			((EntityFeatureImpl) feature).addMemberFeatureOf(this);
 		}
 	}
 
@@ -114,7 +151,16 @@ public class EntityFeatureImpl extends L3ElementImpl implements EntityFeature
 
 	public Set<EntityFeature> getMemberFeatureOf()
 	{
-		return this.memberFeatureOf;
+		return lazySet(this, MEMBER_FEATURE_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link #addMemberFeature(EntityFeature)}.
+	 */
+	synchronized void addMemberFeatureOf(EntityFeature value)
+	{
+		memberFeatureOf = mutableSafeSet(memberFeatureOf);
+		memberFeatureOf.add(value);
 	}
 
 
@@ -3,35 +3,44 @@ package org.biopax.paxtools.impl.level3;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.level3.Entity;
 import org.biopax.paxtools.model.level3.*;
-import org.biopax.paxtools.util.BPCollections;
 import org.biopax.paxtools.util.ClassFilterSet;
 
 import java.util.Set;
 
 import static org.biopax.paxtools.util.SetEquivalenceChecker.hasEquivalentIntersection;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public abstract class EntityImpl extends NamedImpl implements Entity
 {
 // ------------------------------ FIELDS ------------------------------
 
-	private Set<Interaction> participantOf;
+	private volatile Set<Interaction> participantOf;
 	/**
 	 * This Set keeps statements describing the availability of this data (e.g. a copyright
 	 * statement).
 	 */
-	private Set<String> availability;
+	private volatile Set<String> availability;
 
 	/**
 	 * This Set keeps statements describing the data sources for this data.
 	 */
-	private Set<Provenance> dataSource;
+	private volatile Set<Provenance> dataSource;
 
 
 	/**
 	 * This Set keeps evidence related to this entity
 	 */
-	private Set<Evidence> evidence;
+	private volatile Set<Evidence> evidence;
+
+	private static final AtomicReferenceFieldUpdater<EntityImpl, Set> AVAILABILITY =
+		AtomicReferenceFieldUpdater.newUpdater(EntityImpl.class, Set.class, "availability");
+	private static final AtomicReferenceFieldUpdater<EntityImpl, Set> DATA_SOURCE =
+		AtomicReferenceFieldUpdater.newUpdater(EntityImpl.class, Set.class, "dataSource");
+	private static final AtomicReferenceFieldUpdater<EntityImpl, Set> PARTICIPANT_OF =
+		AtomicReferenceFieldUpdater.newUpdater(EntityImpl.class, Set.class, "participantOf");
+	private static final AtomicReferenceFieldUpdater<EntityImpl, Set> EVIDENCE =
+		AtomicReferenceFieldUpdater.newUpdater(EntityImpl.class, Set.class, "evidence");
 
 	/**
 	 * Helper object for managing names
@@ -41,10 +50,10 @@ public abstract class EntityImpl extends NamedImpl implements Entity
 
 	public EntityImpl()
 	{
-		this.availability = BPCollections.I.createSet();
-		this.dataSource = BPCollections.I.createSafeSet();
-		this.participantOf = BPCollections.I.createSafeSet();
-		this.evidence = BPCollections.I.createSafeSet();
+		this.availability = emptySet();
+		this.dataSource = emptySet();
+		this.participantOf = emptySet();
+		this.evidence = emptySet();
 	}
 
 // ------------------------ INTERFACE METHODS ------------------------
@@ -54,13 +63,18 @@ public abstract class EntityImpl extends NamedImpl implements Entity
 
 	public Set<String> getAvailability()
 	{
-		return availability;
+		return lazySet(this, AVAILABILITY, false);
 	}
 
 	public void addAvailability(String availability_text)
 	{
 		if(availability_text != null && availability_text.length() > 0)
-			availability.add(availability_text);
+		{
+			synchronized (this) {
+				this.availability = mutableSet(this.availability);
+				this.availability.add(availability_text);
+			}
+		}
 	}
 
 	public void removeAvailability(String availability_text)
@@ -71,7 +85,7 @@ public abstract class EntityImpl extends NamedImpl implements Entity
 
 	public Set<Provenance> getDataSource()
 	{
-		return dataSource;
+		return lazySet(this, DATA_SOURCE, true);
 	}
 
 	public void setDataSource(Set<Provenance> dataSource)
@@ -82,7 +96,12 @@ public abstract class EntityImpl extends NamedImpl implements Entity
 	public void addDataSource(Provenance dataSource)
 	{
 		if(dataSource != null)
-			this.dataSource.add(dataSource);
+		{
+			synchronized (this) {
+				this.dataSource = mutableSafeSet(this.dataSource);
+				this.dataSource.add(dataSource);
+			}
+		}
 	}
 
 	public void removeDataSource(Provenance dataSource)
@@ -95,7 +114,16 @@ public abstract class EntityImpl extends NamedImpl implements Entity
 
 	public Set<Interaction> getParticipantOf()
 	{
-		return participantOf;
+		return lazySet(this, PARTICIPANT_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link InteractionImpl#addParticipant(Entity)}.
+	 */
+	synchronized void addParticipantOf(Interaction value)
+	{
+		participantOf = mutableSafeSet(participantOf);
+		participantOf.add(value);
 	}
 
 
@@ -105,13 +133,18 @@ public abstract class EntityImpl extends NamedImpl implements Entity
 	/////////////////////////////////////////////////////////////////////////////
 	public Set<Evidence> getEvidence()
 	{
-		return evidence;
+		return lazySet(this, EVIDENCE, true);
 	}
 
 	public void addEvidence(Evidence newEvidence)
 	{
 		if(newEvidence != null)
-			this.evidence.add(newEvidence);
+		{
+			synchronized (this) {
+				this.evidence = mutableSafeSet(this.evidence);
+				this.evidence.add(newEvidence);
+			}
+		}
 	}
 
 	public void removeEvidence(Evidence oldEvidence)
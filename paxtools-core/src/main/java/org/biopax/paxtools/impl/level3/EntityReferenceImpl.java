@@ -1,11 +1,11 @@
 package org.biopax.paxtools.impl.level3;
 
 import org.biopax.paxtools.model.level3.*;
-import org.biopax.paxtools.util.BPCollections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public abstract class EntityReferenceImpl extends NamedImpl
@@ -13,24 +13,37 @@ public abstract class EntityReferenceImpl extends NamedImpl
 {
 	private final static Logger log = LoggerFactory.getLogger(EntityReferenceImpl.class);
 	
-	private Set<EntityFeature> entityFeature;
-	private Set<SimplePhysicalEntity> entityReferenceOf;
-	private Set<Evidence> evidence;
-	private Set<EntityReferenceTypeVocabulary> entityReferenceType;
-	private Set<EntityReference> memberEntityReference;
-	private Set<EntityReference> ownerEntityReference;
+	private volatile Set<EntityFeature> entityFeature;
+	private volatile Set<SimplePhysicalEntity> entityReferenceOf;
+	private volatile Set<Evidence> evidence;
+	private volatile Set<EntityReferenceTypeVocabulary> entityReferenceType;
+	private volatile Set<EntityReference> memberEntityReference;
+	private volatile Set<EntityReference> ownerEntityReference;
+
+	private static final AtomicReferenceFieldUpdater<EntityReferenceImpl, Set> ENTITY_FEATURE =
+		AtomicReferenceFieldUpdater.newUpdater(EntityReferenceImpl.class, Set.class, "entityFeature");
+	private static final AtomicReferenceFieldUpdater<EntityReferenceImpl, Set> ENTITY_REFERENCE_OF =
+		AtomicReferenceFieldUpdater.newUpdater(EntityReferenceImpl.class, Set.class, "entityReferenceOf");
+	private static final AtomicReferenceFieldUpdater<EntityReferenceImpl, Set> ENTITY_REFERENCE_TYPE =
+		AtomicReferenceFieldUpdater.newUpdater(EntityReferenceImpl.class, Set.class, "entityReferenceType");
+	private static final AtomicReferenceFieldUpdater<EntityReferenceImpl, Set> MEMBER_ENTITY_REFERENCE =
+		AtomicReferenceFieldUpdater.newUpdater(EntityReferenceImpl.class, Set.class, "memberEntityReference");
+	private static final AtomicReferenceFieldUpdater<EntityReferenceImpl, Set> OWNER_ENTITY_REFERENCE =
+		AtomicReferenceFieldUpdater.newUpdater(EntityReferenceImpl.class, Set.class, "ownerEntityReference");
+	private static final AtomicReferenceFieldUpdater<EntityReferenceImpl, Set> EVIDENCE =
+		AtomicReferenceFieldUpdater.newUpdater(EntityReferenceImpl.class, Set.class, "evidence");
 
 	/**
 	 * Constructor.
 	 */
 	public EntityReferenceImpl()
 	{
-		this.entityFeature = BPCollections.I.createSafeSet();
-		this.entityReferenceOf = BPCollections.I.createSafeSet();
-		this.evidence = BPCollections.I.createSafeSet();
-		this.entityReferenceType = BPCollections.I.createSafeSet();
-		this.memberEntityReference = BPCollections.I.createSafeSet();
-		this.ownerEntityReference= BPCollections.I.createSafeSet();
+		this.entityFeature = emptySet();
+		this.entityReferenceOf = emptySet();
+		this.evidence = emptySet();
+		this.entityReferenceType = emptySet();
+		this.memberEntityReference = emptySet();
+		this.ownerEntityReference= emptySet();
 	}
 
 	public Class<? extends EntityReference> getModelInterface()
@@ -40,7 +53,7 @@ public abstract class EntityReferenceImpl extends NamedImpl
 
 	public Set<EntityFeature> getEntityFeature()
 	{
-		return entityFeature;
+		return lazySet(this, ENTITY_FEATURE, true);
 	}
 
 	public void addEntityFeature(EntityFeature entityFeature)
@@ -60,7 +73,10 @@ public abstract class EntityReferenceImpl extends NamedImpl
 			} 
 
 			((EntityFeatureImpl) entityFeature).setEntityFeatureOf(this);	
-			this.entityFeature.add(entityFeature);
+			synchronized (this) {
+				this.entityFeature = mutableSafeSet(this.entityFeature);
+				this.entityFeature.add(entityFeature);
+			}
 		}
 	}
 
@@ -96,19 +112,33 @@ public abstract class EntityReferenceImpl extends NamedImpl
 
 	public Set<SimplePhysicalEntity> getEntityReferenceOf()
 	{
-		return entityReferenceOf;
+		return lazySet(this, ENTITY_REFERENCE_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link SimplePhysicalEntityImpl#setEntityReference(EntityReference)}.
+	 */
+	synchronized void addEntityReferenceOf(SimplePhysicalEntity value)
+	{
+		entityReferenceOf = mutableSafeSet(entityReferenceOf);
+		entityReferenceOf.add(value);
 	}
 
 	public Set<EntityReferenceTypeVocabulary> getEntityReferenceType()
 	{
-		return entityReferenceType;
+		return lazySet(this, ENTITY_REFERENCE_TYPE, true);
 	}
 
 	public void addEntityReferenceType(
 			EntityReferenceTypeVocabulary entityReferenceType)
 	{
 		if(entityReferenceType != null)
-			this.entityReferenceType.add(entityReferenceType);
+		{
+			synchronized (this) {
+				this.entityReferenceType = mutableSafeSet(this.entityReferenceType);
+				this.entityReferenceType.add(entityReferenceType);
+			}
+		}
 	}
 
 	public void removeEntityReferenceType(
@@ -120,14 +150,17 @@ public abstract class EntityReferenceImpl extends NamedImpl
 
 	public Set<EntityReference> getMemberEntityReference()
 	{
-		return memberEntityReference;
+		return lazySet(this, MEMBER_ENTITY_REFERENCE, true);
 	}
 
 	public void addMemberEntityReference(EntityReference memberEntity)
 	{
 		if (memberEntity != null) {
-			this.memberEntityReference.add(memberEntity);
-			memberEntity.getMemberEntityReferenceOf().add(this);
+			synchronized (this) {
+				this.memberEntityReference = mutableSafeSet(this.memberEntityReference);
+				this.memberEntityReference.add(memberEntity);
+			}
+			((EntityReferenceImpl) memberEntity).addMemberEntityReferenceOf(this);
 		}
 	}
 
@@ -141,18 +174,32 @@ public abstract class EntityReferenceImpl extends NamedImpl
 
 	public Set<EntityReference> getMemberEntityReferenceOf()
 	{
-		return ownerEntityReference;
+		return lazySet(this, OWNER_ENTITY_REFERENCE, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link #addMemberEntityReference(EntityReference)}.
+	 */
+	synchronized void addMemberEntityReferenceOf(EntityReference value)
+	{
+		ownerEntityReference = mutableSafeSet(ownerEntityReference);
+		ownerEntityReference.add(value);
 	}
 
 	public Set<Evidence> getEvidence()
 	{
-		return evidence;
+		return lazySet(this, EVIDENCE, true);
 	}
 
 	public void addEvidence(Evidence evidence)
 	{
 		if(evidence != null)
-			this.evidence.add(evidence);
+		{
+			synchronized (this) {
+				this.evidence = mutableSafeSet(this.evidence);
+				this.evidence.add(evidence);
+			}
+		}
 	}
 
 	public void removeEvidence(Evidence evidence)
@@ -3,28 +3,35 @@ package org.biopax.paxtools.impl.level3;
 
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.level3.*;
-import org.biopax.paxtools.util.BPCollections;
 import org.biopax.paxtools.util.ClassFilterSet;
 
 import java.util.Set;
 
 import static org.biopax.paxtools.util.SetEquivalenceChecker.hasEquivalentIntersection;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 public class EvidenceImpl extends XReferrableImpl implements Evidence
 {
 
-	private Set<ExperimentalForm> experimentalForm;
-	private Set<Score> confidence;
-	private Set<EvidenceCodeVocabulary> evidenceCode;
+	private volatile Set<ExperimentalForm> experimentalForm;
+	private volatile Set<Score> confidence;
+	private volatile Set<EvidenceCodeVocabulary> evidenceCode;
+
+	private static final AtomicReferenceFieldUpdater<EvidenceImpl, Set> CONFIDENCE =
+		AtomicReferenceFieldUpdater.newUpdater(EvidenceImpl.class, Set.class, "confidence");
+	private static final AtomicReferenceFieldUpdater<EvidenceImpl, Set> EVIDENCE_CODE =
+		AtomicReferenceFieldUpdater.newUpdater(EvidenceImpl.class, Set.class, "evidenceCode");
+	private static final AtomicReferenceFieldUpdater<EvidenceImpl, Set> EXPERIMENTAL_FORM =
+		AtomicReferenceFieldUpdater.newUpdater(EvidenceImpl.class, Set.class, "experimentalForm");
 
 	/**
 	 * Constructor.
 	 */
 	public EvidenceImpl()
 	{
-		this.confidence = BPCollections.I.createSafeSet();
-		this.evidenceCode = BPCollections.I.createSafeSet();
-		this.experimentalForm = BPCollections.I.createSafeSet();
+		this.confidence = emptySet();
+		this.evidenceCode = emptySet();
+		this.experimentalForm = emptySet();
 	}
 
 	//
@@ -51,7 +58,7 @@ public class EvidenceImpl extends XReferrableImpl implements Evidence
 	 */
 	public Set<Score> getConfidence()
 	{
-		return confidence;
+		return lazySet(this, CONFIDENCE, true);
 	}
 
 	/**
@@ -62,7 +69,12 @@ public class EvidenceImpl extends XReferrableImpl implements Evidence
 	public void addConfidence(Score confidence)
 	{
 		if(confidence != null)
-			this.confidence.add(confidence);
+		{
+			synchronized (this) {
+				this.confidence = mutableSafeSet(this.confidence);
+				this.confidence.add(confidence);
+			}
+		}
 	}
 
 	/**
@@ -85,7 +97,7 @@ public class EvidenceImpl extends XReferrableImpl implements Evidence
 	 */
 	public Set<EvidenceCodeVocabulary> getEvidenceCode()
 	{
-		return evidenceCode;
+		return lazySet(this, EVIDENCE_CODE, true);
 	}
 
 	/**
@@ -98,7 +110,12 @@ public class EvidenceImpl extends XReferrableImpl implements Evidence
 	public void addEvidenceCode(EvidenceCodeVocabulary evidenceCode)
 	{
 		if(evidenceCode != null)
-			this.evidenceCode.add(evidenceCode);
+		{
+			synchronized (this) {
+				this.evidenceCode = mutableSafeSet(this.evidenceCode);
+				this.evidenceCode.add(evidenceCode);
+			}
+		}
 	}
 
 	/**
@@ -116,13 +133,18 @@ public class EvidenceImpl extends XReferrableImpl implements Evidence
 
 	public Set<ExperimentalForm> getExperimentalForm()
 	{
-		return experimentalForm;
+		return lazySet(this, EXPERIMENTAL_FORM, true);
 	}
 
 	public void addExperimentalForm(ExperimentalForm experimentalForm)
 	{
 		if(experimentalForm != null)
-			this.experimentalForm.add(experimentalForm);
+		{
+			synchronized (this) {
+				this.experimentalForm = mutableSafeSet(this.experimentalForm);
+				this.experimentalForm.add(experimentalForm);
+			}
+		}
 	}
 
 	public void removeExperimentalForm(ExperimentalForm experimentalForm)
@@ -2,26 +2,31 @@ package org.biopax.paxtools.impl.level3;
 
 import org.biopax.paxtools.model.level3.Entity;
 import org.biopax.paxtools.model.level3.*;
-import org.biopax.paxtools.util.BPCollections;
 import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public class ExperimentalFormImpl extends L3ElementImpl implements ExperimentalForm
 {
 
 	private Entity experimentalFormEntity;
-	private Set<ExperimentalFormVocabulary> experimentalFormDescription;
-	private Set<EntityFeature> experimentalFeature;
+	private volatile Set<ExperimentalFormVocabulary> experimentalFormDescription;
+	private volatile Set<EntityFeature> experimentalFeature;
+
+	private static final AtomicReferenceFieldUpdater<ExperimentalFormImpl, Set> EXPERIMENTAL_FORM_DESCRIPTION =
+		AtomicReferenceFieldUpdater.newUpdater(ExperimentalFormImpl.class, Set.class, "experimentalFormDescription");
+	private static final AtomicReferenceFieldUpdater<ExperimentalFormImpl, Set> EXPERIMENTAL_FEATURE =
+		AtomicReferenceFieldUpdater.newUpdater(ExperimentalFormImpl.class, Set.class, "experimentalFeature");
 
 	/**
 	 * Constructor.
 	 */
 	public ExperimentalFormImpl()
 	{
-		this.experimentalFormDescription = BPCollections.I.createSafeSet();
-		this.experimentalFeature = BPCollections.I.createSafeSet();
+		this.experimentalFormDescription = emptySet();
+		this.experimentalFeature = emptySet();
 	}
 
 	//
@@ -36,13 +41,18 @@ public class ExperimentalFormImpl extends L3ElementImpl implements ExperimentalF
 
 	public Set<ExperimentalFormVocabulary> getExperimentalFormDescription()
 	{
-		return experimentalFormDescription;
+		return lazySet(this, EXPERIMENTAL_FORM_DESCRIPTION, true);
 	}
 
 	public void addExperimentalFormDescription(ExperimentalFormVocabulary experimentalFormType)
 	{
 		if(experimentalFormType != null)
-			this.experimentalFormDescription.add(experimentalFormType);
+		{
+			synchronized (this) {
+				this.experimentalFormDescription = mutableSafeSet(this.experimentalFormDescription);
+				this.experimentalFormDescription.add(experimentalFormType);
+			}
+		}
 	}
 
 	public void removeExperimentalFormDescription(ExperimentalFormVocabulary experimentalFormType)
@@ -72,13 +82,18 @@ public class ExperimentalFormImpl extends L3ElementImpl implements ExperimentalF
 
     public Set<EntityFeature> getExperimentalFeature()
     {
-        return experimentalFeature;
+        return lazySet(this, EXPERIMENTAL_FEATURE, true);
     }
 
     public void addExperimentalFeature(EntityFeature experimentalFeature)
     {
     	if(experimentalFeature != null)
-    		this.experimentalFeature.add(experimentalFeature);
+    	{
+    		synchronized (this) {
+    			this.experimentalFeature = mutableSafeSet(this.experimentalFeature);
+    			this.experimentalFeature.add(experimentalFeature);
+    		}
+    	}
     }
     
     public void removeExperimentalFeature(EntityFeature experimentalFeature)
@@ -3,26 +3,31 @@ package org.biopax.paxtools.impl.level3;
 import org.biopax.paxtools.model.level3.Entity;
 import org.biopax.paxtools.model.level3.Interaction;
 import org.biopax.paxtools.model.level3.InteractionVocabulary;
-import org.biopax.paxtools.util.BPCollections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 public class InteractionImpl extends ProcessImpl implements Interaction
 {
 // ------------------------------ FIELDS ------------------------------
 
-	Set<Entity> participant;
-	private Set<InteractionVocabulary> interactionType;
+	volatile Set<Entity> participant;
+	private volatile Set<InteractionVocabulary> interactionType;
+
+	private static final AtomicReferenceFieldUpdater<InteractionImpl, Set> INTERACTION_TYPE =
+		AtomicReferenceFieldUpdater.newUpdater(InteractionImpl.class, Set.class, "interactionType");
+	private static final AtomicReferenceFieldUpdater<InteractionImpl, Set> PARTICIPANT =
+		AtomicReferenceFieldUpdater.newUpdater(InteractionImpl.class, Set.class, "participant");
     private final Logger log = LoggerFactory.getLogger(InteractionImpl.class);
 
 // --------------------------- CONSTRUCTORS ---------------------------
 
 	public InteractionImpl()
 	{
-		this.interactionType = BPCollections.I.createSafeSet();
-		this.participant = BPCollections.I.createSafeSet();
+		this.interactionType = emptySet();
+		this.participant = emptySet();
 	}
 
 // ------------------------ INTERFACE METHODS ------------------------
@@ -41,14 +46,19 @@ public class InteractionImpl extends ProcessImpl implements Interaction
 
 	public Set<InteractionVocabulary> getInteractionType()
 	{
-	   return interactionType;
+		return lazySet(this, INTERACTION_TYPE, true);
 	}
 
 	public void addInteractionType(
 		InteractionVocabulary newinteractionType)
 	{
 	   if(newinteractionType != null)
-			this.interactionType.add(newinteractionType);
+	   {
+			synchronized (this) {
+				this.interactionType = mutableSafeSet(this.interactionType);
+				this.interactionType.add(newinteractionType);
+			}
+	   }
 	}
 
 	public void removeInteractionType(
@@ -60,7 +70,7 @@ public class InteractionImpl extends ProcessImpl implements Interaction
 
 	public Set<Entity> getParticipant()
 	{
-		return participant;
+		return lazySet(this, PARTICIPANT, true);
 	}
 
 	protected void setParticipant(Set<Entity> participant)
@@ -72,8 +82,11 @@ public class InteractionImpl extends ProcessImpl implements Interaction
 	{
 		if (aParticipant != null) {
 			if (aParticipant != null) {
-				this.participant.add(aParticipant);
-				aParticipant.getParticipantOf().add(this);
+				synchronized (this) {
+					this.participant = mutableSafeSet(this.participant);
+					this.participant.add(aParticipant);
+				}
+				((EntityImpl) aParticipant).addParticipantOf(this);
 			} else {
 				if (log.isWarnEnabled())
 					log.warn("Null object passed to addParticipant @"
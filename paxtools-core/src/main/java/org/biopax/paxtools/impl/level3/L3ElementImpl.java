@@ -4,6 +4,7 @@ import org.biopax.paxtools.impl.BioPAXElementImpl;
 import org.biopax.paxtools.model.level3.Level3Element;
 import org.biopax.paxtools.util.*;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 /**
@@ -13,16 +14,19 @@ import java.util.Set;
 public abstract class L3ElementImpl extends BioPAXElementImpl
         implements Level3Element
 {
-    private Set<String> comment;
+    private volatile Set<String> comment;
+
+    private static final AtomicReferenceFieldUpdater<L3ElementImpl, Set> COMMENT =
+        AtomicReferenceFieldUpdater.newUpdater(L3ElementImpl.class, Set.class, "comment");
     
     public L3ElementImpl()
     {
-        this.comment = BPCollections.I.createSet();
+        this.comment = emptySet();
     }
 
     public Set<String> getComment()
     {
-        return this.comment;
+        return lazySet(this, COMMENT, false);
     }
 
     public void setComment(Set<String> comment)
@@ -33,7 +37,12 @@ public abstract class L3ElementImpl extends BioPAXElementImpl
     public void addComment(String COMMENT)
     {
         if(COMMENT != null && COMMENT.length() > 0)
-        	this.comment.add(COMMENT);
+        {
+        	synchronized (this) {
+        		this.comment = mutableSet(this.comment);
+        		this.comment.add(COMMENT);
+        	}
+        }
     }
 
     public void removeComment(String COMMENT)
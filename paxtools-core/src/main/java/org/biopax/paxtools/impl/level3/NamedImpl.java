@@ -1,9 +1,9 @@
 package org.biopax.paxtools.impl.level3;
 
 import org.biopax.paxtools.model.level3.Named;
-import org.biopax.paxtools.util.BPCollections;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public abstract class NamedImpl extends XReferrableImpl implements Named
@@ -11,11 +11,14 @@ public abstract class NamedImpl extends XReferrableImpl implements Named
 
 	private String standardName;
 	private String displayName;
-	private Set<String> allNames;
+	private volatile Set<String> allNames;
+
+	private static final AtomicReferenceFieldUpdater<NamedImpl, Set> ALL_NAMES =
+		AtomicReferenceFieldUpdater.newUpdater(NamedImpl.class, Set.class, "allNames");
 
 	public NamedImpl()
 	{
-		allNames = BPCollections.I.createSet();
+		allNames = emptySet();
 		displayName = null;
 		standardName = null;
 	}
@@ -42,7 +45,7 @@ public abstract class NamedImpl extends XReferrableImpl implements Named
 	
 	public Set<String> getName()
 	{
-		return allNames;
+		return lazySet(this, ALL_NAMES, false);
 	}
 
 	public void setName(Set<String> names)
@@ -51,15 +54,30 @@ public abstract class NamedImpl extends XReferrableImpl implements Named
 
 		//also include the display and standard names if they're set
 		if(displayName!=null && !displayName.isEmpty())
-			allNames.add(displayName);
+		{
+			synchronized (this) {
+				this.allNames = mutableSet(this.allNames);
+				this.allNames.add(displayName);
+			}
+		}
 		if(standardName!=null && !standardName.isEmpty())
-			allNames.add(standardName);
+		{
+			synchronized (this) {
+				this.allNames = mutableSet(this.allNames);
+				this.allNames.add(standardName);
+			}
+		}
 	}
 	
 	public void addName(String name)
 	{
 		if (name != null && name.length() > 0)
-			allNames.add(name);
+		{
+			synchronized (this) {
+				this.allNames = mutableSet(this.allNames);
+				this.allNames.add(name);
+			}
+		}
 	}
 
 	public void removeName(String name)
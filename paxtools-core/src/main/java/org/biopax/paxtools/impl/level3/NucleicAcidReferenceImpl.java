@@ -2,30 +2,36 @@ package org.biopax.paxtools.impl.level3;
 
 import org.biopax.paxtools.model.level3.NucleicAcidReference;
 import org.biopax.paxtools.model.level3.NucleicAcidRegionReference;
-import org.biopax.paxtools.util.BPCollections;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 public abstract class NucleicAcidReferenceImpl extends SequenceEntityReferenceImpl implements NucleicAcidReference
 {
-	private Set<NucleicAcidRegionReference> subRegion;
+	private volatile Set<NucleicAcidRegionReference> subRegion;
+
+	private static final AtomicReferenceFieldUpdater<NucleicAcidReferenceImpl, Set> SUB_REGION =
+		AtomicReferenceFieldUpdater.newUpdater(NucleicAcidReferenceImpl.class, Set.class, "subRegion");
 
 	public NucleicAcidReferenceImpl()
 	{
-		this.subRegion = BPCollections.I.createSafeSet();
+		this.subRegion = emptySet();
 	}
 
 	public Set<NucleicAcidRegionReference> getSubRegion()
 	{
-		return subRegion;
+		return lazySet(this, SUB_REGION, true);
 	}
 
 	public void addSubRegion(NucleicAcidRegionReference regionReference)
 	{
 		if (regionReference != null)
 		{
-			subRegion.add(regionReference);
-			regionReference.getSubRegionOf().add(this);
+			synchronized (this) {
+				this.subRegion = mutableSafeSet(this.subRegion);
+				this.subRegion.add(regionReference);
+			}
+			((NucleicAcidRegionReferenceImpl) regionReference).addSubRegionOf(this);
 		}
 	}
 
@@ -4,9 +4,9 @@ import org.biopax.paxtools.model.level3.NucleicAcidReference;
 import org.biopax.paxtools.model.level3.NucleicAcidRegionReference;
 import org.biopax.paxtools.model.level3.SequenceLocation;
 import org.biopax.paxtools.model.level3.SequenceRegionVocabulary;
-import org.biopax.paxtools.util.BPCollections;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public abstract class NucleicAcidRegionReferenceImpl extends NucleicAcidReferenceImpl
@@ -15,19 +15,33 @@ public abstract class NucleicAcidRegionReferenceImpl extends NucleicAcidReferenc
 
 	private SequenceLocation absoluteRegion;
 
-	private Set<SequenceRegionVocabulary> regionType;
+	private volatile Set<SequenceRegionVocabulary> regionType;
 
-	private Set<NucleicAcidReference> subRegionOf;
+	private volatile Set<NucleicAcidReference> subRegionOf;
+
+	private static final AtomicReferenceFieldUpdater<NucleicAcidRegionReferenceImpl, Set> SUB_REGION_OF =
+		AtomicReferenceFieldUpdater.newUpdater(NucleicAcidRegionReferenceImpl.class, Set.class, "subRegionOf");
+	private static final AtomicReferenceFieldUpdater<NucleicAcidRegionReferenceImpl, Set> REGION_TYPE =
+		AtomicReferenceFieldUpdater.newUpdater(NucleicAcidRegionReferenceImpl.class, Set.class, "regionType");
 
 	public NucleicAcidRegionReferenceImpl()
 	{
-		regionType = BPCollections.I.createSafeSet();
-		subRegionOf = BPCollections.I.createSafeSet();
+		regionType = emptySet();
+		subRegionOf = emptySet();
 	}
 
 	public Set<NucleicAcidReference> getSubRegionOf()
 	{
-		return subRegionOf;
+		return lazySet(this, SUB_REGION_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link NucleicAcidReferenceImpl#addSubRegion(NucleicAcidRegionReference)}.
+	 */
+	synchronized void addSubRegionOf(NucleicAcidReference value)
+	{
+		subRegionOf = mutableSafeSet(subRegionOf);
+		subRegionOf.add(value);
 	}
 
 	public SequenceLocation getAbsoluteRegion()
@@ -43,12 +57,18 @@ public abstract class NucleicAcidRegionReferenceImpl extends NucleicAcidReferenc
 
 	public Set<SequenceRegionVocabulary> getRegionType()
 	{
-		return this.regionType;
+		return lazySet(this, REGION_TYPE, true);
 	}
 
 	public void addRegionType(SequenceRegionVocabulary regionType)
 	{
-		if (regionType != null) this.regionType.add(regionType);
+		if (regionType != null)
+		{
+			synchronized (this) {
+				this.regionType = mutableSafeSet(this.regionType);
+				this.regionType.add(regionType);
+			}
+		}
 	}
 
 	public void removeRegionType(SequenceRegionVocabulary regionType)
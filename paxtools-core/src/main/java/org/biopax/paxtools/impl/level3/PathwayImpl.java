@@ -2,26 +2,33 @@ package org.biopax.paxtools.impl.level3;
 
 import org.biopax.paxtools.model.level3.*;
 import org.biopax.paxtools.model.level3.Process;
-import org.biopax.paxtools.util.BPCollections;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 public class PathwayImpl extends ProcessImpl implements Pathway
 {
 // ------------------------------ FIELDS ------------------------------
 
-	private Set<Process> pathwayComponent;
-	private Set<PathwayStep> pathwayOrder;
+	private volatile Set<Process> pathwayComponent;
+	private volatile Set<PathwayStep> pathwayOrder;
 	private BioSource organism;
-	private Set<Control> controllerOf;
+	private volatile Set<Control> controllerOf;
+
+	private static final AtomicReferenceFieldUpdater<PathwayImpl, Set> PATHWAY_COMPONENT =
+		AtomicReferenceFieldUpdater.newUpdater(PathwayImpl.class, Set.class, "pathwayComponent");
+	private static final AtomicReferenceFieldUpdater<PathwayImpl, Set> PATHWAY_ORDER =
+		AtomicReferenceFieldUpdater.newUpdater(PathwayImpl.class, Set.class, "pathwayOrder");
+	private static final AtomicReferenceFieldUpdater<PathwayImpl, Set> CONTROLLER_OF =
+		AtomicReferenceFieldUpdater.newUpdater(PathwayImpl.class, Set.class, "controllerOf");
 
 // --------------------------- CONSTRUCTORS ---------------------------
 
 	public PathwayImpl()
 	{
-		this.pathwayComponent = BPCollections.I.createSafeSet();
-		this.pathwayOrder = BPCollections.I.createSafeSet();
-		this.controllerOf = BPCollections.I.createSafeSet();
+		this.pathwayComponent = emptySet();
+		this.pathwayOrder = emptySet();
+		this.controllerOf = emptySet();
 	}
 
 // ------------------------ INTERFACE METHODS ------------------------
@@ -40,14 +47,17 @@ public class PathwayImpl extends ProcessImpl implements Pathway
 
 	public Set<Process> getPathwayComponent()
 	{
-		return this.pathwayComponent;
+		return lazySet(this, PATHWAY_COMPONENT, true);
 	}
 
 	public void addPathwayComponent(Process component)
 	{
 		if (component != null) {
-			this.pathwayComponent.add(component);
-			component.getPathwayComponentOf().add(this);
+			synchronized (this) {
+				this.pathwayComponent = mutableSafeSet(this.pathwayComponent);
+				this.pathwayComponent.add(component);
+			}
+			((ProcessImpl) component).addPathwayComponentOf(this);
 		}
 	}
 
@@ -61,13 +71,16 @@ public class PathwayImpl extends ProcessImpl implements Pathway
 
 	public Set<PathwayStep> getPathwayOrder()
 	{
-		return pathwayOrder;
+		return lazySet(this, PATHWAY_ORDER, true);
 	}
 
 	public void addPathwayOrder(PathwayStep pathwayOrder)
 	{
 		if (pathwayOrder != null) {
-			this.pathwayOrder.add(pathwayOrder);
+			synchronized (this) {
+				this.pathwayOrder = mutableSafeSet(this.pathwayOrder);
+				this.pathwayOrder.add(pathwayOrder);
+			}
 			((PathwayStepImpl) pathwayOrder).setPathwayOrderOf(this);
 		}
 	}
@@ -92,7 +105,16 @@ public class PathwayImpl extends ProcessImpl implements Pathway
 
 	public Set<Control> getControllerOf()
 	{
-		return controllerOf;
+		return lazySet(this, CONTROLLER_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link ControlImpl#addController(Controller)}.
+	 */
+	synchronized void addControllerOf(Control value)
+	{
+		controllerOf = mutableSafeSet(controllerOf);
+		controllerOf.add(value);
 	}
 
 }
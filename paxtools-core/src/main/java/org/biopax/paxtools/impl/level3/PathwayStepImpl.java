@@ -2,28 +2,37 @@ package org.biopax.paxtools.impl.level3;
 
 import org.biopax.paxtools.model.level3.*;
 import org.biopax.paxtools.model.level3.Process;
-import org.biopax.paxtools.util.BPCollections;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public class PathwayStepImpl extends L3ElementImpl implements PathwayStep
 {
-	private Set<Process> stepProcess;
-	private Set<PathwayStep> nextStep;
-	private Set<PathwayStep> nextStepOf;
+	private volatile Set<Process> stepProcess;
+	private volatile Set<PathwayStep> nextStep;
+	private volatile Set<PathwayStep> nextStepOf;
 	private Pathway pathwayOrderOf;
-	private Set<Evidence> evidence;
+	private volatile Set<Evidence> evidence;
+
+	private static final AtomicReferenceFieldUpdater<PathwayStepImpl, Set> NEXT_STEP =
+		AtomicReferenceFieldUpdater.newUpdater(PathwayStepImpl.class, Set.class, "nextStep");
+	private static final AtomicReferenceFieldUpdater<PathwayStepImpl, Set> NEXT_STEP_OF =
+		AtomicReferenceFieldUpdater.newUpdater(PathwayStepImpl.class, Set.class, "nextStepOf");
+	private static final AtomicReferenceFieldUpdater<PathwayStepImpl, Set> STEP_PROCESS =
+		AtomicReferenceFieldUpdater.newUpdater(PathwayStepImpl.class, Set.class, "stepProcess");
+	private static final AtomicReferenceFieldUpdater<PathwayStepImpl, Set> EVIDENCE =
+		AtomicReferenceFieldUpdater.newUpdater(PathwayStepImpl.class, Set.class, "evidence");
 
 	/**
 	 * Constructor.
 	 */
 	public PathwayStepImpl()
 	{
-		this.nextStep = BPCollections.I.createSafeSet();
-		this.nextStepOf = BPCollections.I.createSafeSet();
-		this.stepProcess = BPCollections.I.createSafeSet();
-		this.evidence = BPCollections.I.createSafeSet();
+		this.nextStep = emptySet();
+		this.nextStepOf = emptySet();
+		this.stepProcess = emptySet();
+		this.evidence = emptySet();
 	}
 
 	public Class<? extends PathwayStep> getModelInterface()
@@ -33,14 +42,17 @@ public class PathwayStepImpl extends L3ElementImpl implements PathwayStep
 
 	public Set<PathwayStep> getNextStep()
 	{
-		return nextStep;
+		return lazySet(this, NEXT_STEP, true);
 	}
 
 	public void addNextStep(PathwayStep nextStep)
 	{
 		if (nextStep != null) {
-			this.nextStep.add(nextStep);
-			nextStep.getNextStepOf().add(this);
+			synchronized (this) {
+				this.nextStep = mutableSafeSet(this.nextStep);
+				this.nextStep.add(nextStep);
+			}
+			((PathwayStepImpl) nextStep).addNextStepOf(this);
 		}
 	}
 
@@ -54,20 +66,32 @@ public class PathwayStepImpl extends L3ElementImpl implements PathwayStep
 
 	public Set<PathwayStep> getNextStepOf()
 	{
-		return nextStepOf;
+		return lazySet(this, NEXT_STEP_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link #addNextStep(PathwayStep)}.
+	 */
+	synchronized void addNextStepOf(PathwayStep value)
+	{
+		nextStepOf = mutableSafeSet(nextStepOf);
+		nextStepOf.add(value);
 	}
 
 	public Set<Process> getStepProcess()
 	{
-		return stepProcess;
+		return lazySet(this, STEP_PROCESS, true);
 	}
 
 	public void addStepProcess(Process processStep)
 	{
 		if (processStep != null) {
 			
-			this.stepProcess.add(processStep);
-			processStep.getStepProcessOf().add(this);
+			synchronized (this) {
+				this.stepProcess = mutableSafeSet(this.stepProcess);
+				this.stepProcess.add(processStep);
+			}
+			((ProcessImpl) processStep).addStepProcessOf(this);
 		}
 	}
 
@@ -81,13 +105,18 @@ public class PathwayStepImpl extends L3ElementImpl implements PathwayStep
 
 	public Set<Evidence> getEvidence()
 	{
-		return evidence;
+		return lazySet(this, EVIDENCE, true);
 	}
 
 	public void addEvidence(Evidence evidence)
 	{
 		if (evidence != null)
-			this.evidence.add(evidence);
+		{
+			synchronized (this) {
+				this.evidence = mutableSafeSet(this.evidence);
+				this.evidence.add(evidence);
+			}
+		}
 	}
 
 	public void removeEvidence(Evidence evidence)
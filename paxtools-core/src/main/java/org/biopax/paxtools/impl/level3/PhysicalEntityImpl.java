@@ -8,27 +8,41 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public class PhysicalEntityImpl extends EntityImpl implements PhysicalEntity
 {
 	private CellularLocationVocabulary cellularLocation;
-	private Set<PhysicalEntity> memberPhysicalEntity;
-	private Set<Complex> componentOf;
-	private Set<EntityFeature> feature;
-	private Set<EntityFeature> notFeature;
-	private Set<Control> controllerOf;
+	private volatile Set<PhysicalEntity> memberPhysicalEntity;
+	private volatile Set<Complex> componentOf;
+	private volatile Set<EntityFeature> feature;
+	private volatile Set<EntityFeature> notFeature;
+	private volatile Set<Control> controllerOf;
 	private static final Logger log = LoggerFactory.getLogger(PhysicalEntityImpl.class);
-	private Set<PhysicalEntity> memberPhysicalEntityOf;
+	private volatile Set<PhysicalEntity> memberPhysicalEntityOf;
+
+	private static final AtomicReferenceFieldUpdater<PhysicalEntityImpl, Set> COMPONENT_OF =
+		AtomicReferenceFieldUpdater.newUpdater(PhysicalEntityImpl.class, Set.class, "componentOf");
+	private static final AtomicReferenceFieldUpdater<PhysicalEntityImpl, Set> FEATURE =
+		AtomicReferenceFieldUpdater.newUpdater(PhysicalEntityImpl.class, Set.class, "feature");
+	private static final AtomicReferenceFieldUpdater<PhysicalEntityImpl, Set> NOT_FEATURE =
+		AtomicReferenceFieldUpdater.newUpdater(PhysicalEntityImpl.class, Set.class, "notFeature");
+	private static final AtomicReferenceFieldUpdater<PhysicalEntityImpl, Set> MEMBER_PHYSICAL_ENTITY =
+		AtomicReferenceFieldUpdater.newUpdater(PhysicalEntityImpl.class, Set.class, "memberPhysicalEntity");
+	private static final AtomicReferenceFieldUpdater<PhysicalEntityImpl, Set> MEMBER_PHYSICAL_ENTITY_OF =
+		AtomicReferenceFieldUpdater.newUpdater(PhysicalEntityImpl.class, Set.class, "memberPhysicalEntityOf");
+	private static final AtomicReferenceFieldUpdater<PhysicalEntityImpl, Set> CONTROLLER_OF =
+		AtomicReferenceFieldUpdater.newUpdater(PhysicalEntityImpl.class, Set.class, "controllerOf");
 
 	public PhysicalEntityImpl()
 	{
-		feature = BPCollections.I.createSafeSet();
-		notFeature = BPCollections.I.createSafeSet();
-		controllerOf = BPCollections.I.createSafeSet();
-		componentOf = BPCollections.I.createSafeSet();
-		memberPhysicalEntityOf = BPCollections.I.createSafeSet(); //TODO make generic?
-		memberPhysicalEntity = BPCollections.I.createSafeSet();
+		feature = emptySet();
+		notFeature = emptySet();
+		controllerOf = emptySet();
+		componentOf = emptySet();
+		memberPhysicalEntityOf = emptySet(); //TODO make generic?
+		memberPhysicalEntity = emptySet();
 	}
 
 	public Class<? extends PhysicalEntity> getModelInterface()
@@ -38,7 +52,16 @@ public class PhysicalEntityImpl extends EntityImpl implements PhysicalEntity
 
 	public Set<Complex> getComponentOf()
 	{
-		return componentOf;
+		return lazySet(this, COMPONENT_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link ComplexImpl#addComponent(PhysicalEntity)}.
+	 */
+	synchronized void addComponentOf(Complex value)
+	{
+		componentOf = mutableSafeSet(componentOf);
+		componentOf.add(value);
 	}
 
 	public CellularLocationVocabulary getCellularLocation()
@@ -53,14 +76,17 @@ public class PhysicalEntityImpl extends EntityImpl implements PhysicalEntity
 
 	public Set<EntityFeature> getFeature()
 	{
-		return feature;
+		return lazySet(this, FEATURE, true);
 	}
 
 	public void addFeature(EntityFeature feature)
 	{
 		if (feature != null) {
-			this.feature.add(feature);
-			feature.getFeatureOf().add(this);
+			synchronized (this) {
+				this.feature = mutableSafeSet(this.feature);
+				this.feature.add(feature);
+			}
+			((EntityFeatureImpl) feature).addFeatureOf(this);
 		}
 	}
 
@@ -74,14 +100,17 @@ public class PhysicalEntityImpl extends EntityImpl implements PhysicalEntity
 
 	public Set<EntityFeature> getNotFeature()
 	{
-		return notFeature;
+		return lazySet(this, NOT_FEATURE, true);
 	}
 
 	public void addNotFeature(EntityFeature feature)
 	{
 		if (feature != null) {
-			this.notFeature.add(feature);
-			feature.getNotFeatureOf().add(this);
+			synchronized (this) {
+				this.notFeature = mutableSafeSet(this.notFeature);
+				this.notFeature.add(feature);
+			}
+			((EntityFeatureImpl) feature).addNotFeatureOf(this);
 		}
 	}
 
@@ -95,14 +124,17 @@ public class PhysicalEntityImpl extends EntityImpl implements PhysicalEntity
 
 	public Set<PhysicalEntity> getMemberPhysicalEntity()
 	{
-		return this.memberPhysicalEntity;    //TODO (what?)
+		return lazySet(this, MEMBER_PHYSICAL_ENTITY, true);
 	}
 
 	public void addMemberPhysicalEntity(PhysicalEntity newMember)
 	{
 		if (newMember != null) {
-			this.memberPhysicalEntity.add(newMember);
-			newMember.getMemberPhysicalEntityOf().add(this);
+			synchronized (this) {
+				this.memberPhysicalEntity = mutableSafeSet(this.memberPhysicalEntity);
+				this.memberPhysicalEntity.add(newMember);
+			}
+			((PhysicalEntityImpl) newMember).addMemberPhysicalEntityOf(this);
 		}
 	}
 
@@ -116,7 +148,16 @@ public class PhysicalEntityImpl extends EntityImpl implements PhysicalEntity
 
 	public Set<PhysicalEntity> getMemberPhysicalEntityOf()
 	{
-		return memberPhysicalEntityOf;
+		return lazySet(this, MEMBER_PHYSICAL_ENTITY_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link #addMemberPhysicalEntity(PhysicalEntity)}.
+	 */
+	synchronized void addMemberPhysicalEntityOf(PhysicalEntity value)
+	{
+		memberPhysicalEntityOf = mutableSafeSet(memberPhysicalEntityOf);
+		memberPhysicalEntityOf.add(value);
 	}
 
 	// --------------------- Interface BioPAXElement ---------------------
@@ -178,7 +219,16 @@ public class PhysicalEntityImpl extends EntityImpl implements PhysicalEntity
 
 	public Set<Control> getControllerOf()
 	{
-		return controllerOf;
+		return lazySet(this, CONTROLLER_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link ControlImpl#addController(Controller)}.
+	 */
+	synchronized void addControllerOf(Control value)
+	{
+		controllerOf = mutableSafeSet(controllerOf);
+		controllerOf.add(value);
 	}
 
 }
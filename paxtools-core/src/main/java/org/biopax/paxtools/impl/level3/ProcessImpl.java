@@ -4,26 +4,33 @@ import org.biopax.paxtools.model.level3.Control;
 import org.biopax.paxtools.model.level3.Pathway;
 import org.biopax.paxtools.model.level3.PathwayStep;
 import org.biopax.paxtools.model.level3.Process;
-import org.biopax.paxtools.util.BPCollections;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public abstract class ProcessImpl extends EntityImpl implements Process
 {
 // ------------------------------ FIELDS ------------------------------
 
-	private Set<Control> controlledOf;
-	private Set<PathwayStep> stepProcessOf;
-	private Set<Pathway> pathwayComponentOf;
+	private volatile Set<Control> controlledOf;
+	private volatile Set<PathwayStep> stepProcessOf;
+	private volatile Set<Pathway> pathwayComponentOf;
+
+	private static final AtomicReferenceFieldUpdater<ProcessImpl, Set> PATHWAY_COMPONENT_OF =
+		AtomicReferenceFieldUpdater.newUpdater(ProcessImpl.class, Set.class, "pathwayComponentOf");
+	private static final AtomicReferenceFieldUpdater<ProcessImpl, Set> STEP_PROCESS_OF =
+		AtomicReferenceFieldUpdater.newUpdater(ProcessImpl.class, Set.class, "stepProcessOf");
+	private static final AtomicReferenceFieldUpdater<ProcessImpl, Set> CONTROLLED_OF =
+		AtomicReferenceFieldUpdater.newUpdater(ProcessImpl.class, Set.class, "controlledOf");
 
 // --------------------------- CONSTRUCTORS ---------------------------
 
 	public ProcessImpl()
 	{
-		this.controlledOf = BPCollections.I.createSafeSet();
-		this.stepProcessOf = BPCollections.I.createSafeSet();
-		this.pathwayComponentOf = BPCollections.I.createSafeSet();
+		this.controlledOf = emptySet();
+		this.stepProcessOf = emptySet();
+		this.pathwayComponentOf = emptySet();
 	}
 
 // ------------------------ INTERFACE METHODS ------------------------
@@ -33,19 +40,46 @@ public abstract class ProcessImpl extends EntityImpl implements Process
 
 	public Set<Pathway> getPathwayComponentOf()
 	{
-		return pathwayComponentOf;
+		return lazySet(this, PATHWAY_COMPONENT_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link PathwayImpl#addPathwayComponent(Process)}.
+	 */
+	synchronized void addPathwayComponentOf(Pathway value)
+	{
+		pathwayComponentOf = mutableSafeSet(pathwayComponentOf);
+		pathwayComponentOf.add(value);
 	}
 
 // --------------------- Interface process ---------------------
 
 	public Set<PathwayStep> getStepProcessOf()
 	{
-		return stepProcessOf;
+		return lazySet(this, STEP_PROCESS_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link PathwayStepImpl#addStepProcess(Process)}.
+	 */
+	synchronized void addStepProcessOf(PathwayStep value)
+	{
+		stepProcessOf = mutableSafeSet(stepProcessOf);
+		stepProcessOf.add(value);
 	}
 
 	public Set<Control> getControlledOf()
 	{
-		return controlledOf;
+		return lazySet(this, CONTROLLED_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link ControlImpl#addControlled(Process)}.
+	 */
+	synchronized void addControlledOf(Control value)
+	{
+		controlledOf = mutableSafeSet(controlledOf);
+		controlledOf.add(value);
 	}
 
 }
@@ -2,17 +2,24 @@ package org.biopax.paxtools.impl.level3;
 
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.level3.PublicationXref;
-import org.biopax.paxtools.util.BPCollections;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public class PublicationXrefImpl extends XrefImpl implements PublicationXref
 {
 	private String title;
-	private Set<String> url;
-	private Set<String> source;
-	private Set<String> author;
+	private volatile Set<String> url;
+	private volatile Set<String> source;
+	private volatile Set<String> author;
+
+	private static final AtomicReferenceFieldUpdater<PublicationXrefImpl, Set> AUTHOR =
+		AtomicReferenceFieldUpdater.newUpdater(PublicationXrefImpl.class, Set.class, "author");
+	private static final AtomicReferenceFieldUpdater<PublicationXrefImpl, Set> SOURCE =
+		AtomicReferenceFieldUpdater.newUpdater(PublicationXrefImpl.class, Set.class, "source");
+	private static final AtomicReferenceFieldUpdater<PublicationXrefImpl, Set> URL =
+		AtomicReferenceFieldUpdater.newUpdater(PublicationXrefImpl.class, Set.class, "url");
 	private int year = UNKNOWN_INT;
 
 	/**
@@ -20,9 +27,9 @@ public class PublicationXrefImpl extends XrefImpl implements PublicationXref
 	 */
 	public PublicationXrefImpl()
 	{
-		this.url = BPCollections.I.createSet();
-		this.source = BPCollections.I.createSet();
-		this.author = BPCollections.I.createSet();
+		this.url = emptySet();
+		this.source = emptySet();
+		this.author = emptySet();
 	}
 
     public Class<? extends PublicationXref> getModelInterface()
@@ -38,13 +45,18 @@ public class PublicationXrefImpl extends XrefImpl implements PublicationXref
     // Property author
 	public Set<String> getAuthor()
 	{
-		return author;
+		return lazySet(this, AUTHOR, false);
 	}
 
 	public void addAuthor(String author)
 	{
 		if(author != null && author.length() > 0)
-			this.author.add(author);
+		{
+			synchronized (this) {
+				this.author = mutableSet(this.author);
+				this.author.add(author);
+			}
+		}
 	}
 
 	public void removeAuthor(String author)
@@ -55,13 +67,18 @@ public class PublicationXrefImpl extends XrefImpl implements PublicationXref
 
 	public Set<String> getSource()
 	{
-		return source;
+		return lazySet(this, SOURCE, false);
 	}
 
 	public void addSource(String source)
 	{
 		if(source != null && source.length() > 0)
-			this.source.add(source);
+		{
+			synchronized (this) {
+				this.source = mutableSet(this.source);
+				this.source.add(source);
+			}
+		}
 	}
 
 	public void removeSource(String source)
@@ -82,13 +99,18 @@ public class PublicationXrefImpl extends XrefImpl implements PublicationXref
 
 	public Set<String> getUrl()
 	{
-		return url;
+		return lazySet(this, URL, false);
 	}
 
 	public void addUrl(String url)
 	{
 		if(url != null && url.length() > 0)
-			this.url.add(url);
+		{
+			synchronized (this) {
+				this.url = mutableSet(this.url);
+				this.url.add(url);
+			}
+		}
 	}
 
 	public void removeUrl(String url)
@@ -2,7 +2,6 @@ package org.biopax.paxtools.impl.level3;
 
 import org.biopax.paxtools.model.level3.SequenceLocation;
 import org.biopax.paxtools.model.level3.SequenceRegionVocabulary;
-import org.biopax.paxtools.util.BPCollections;
 
 import java.util.Set;
 
@@ -17,7 +16,7 @@ public class SequenceLocationImpl extends L3ElementImpl
 	 */
 	public SequenceLocationImpl()
 	{
-		this.regionType = BPCollections.I.createSafeSet();
+		this.regionType = emptySet();
     }
 
 	//
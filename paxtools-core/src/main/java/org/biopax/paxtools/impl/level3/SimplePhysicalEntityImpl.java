@@ -54,7 +54,7 @@ public abstract class SimplePhysicalEntityImpl extends PhysicalEntityImpl
 		this.entityReference = entityReference;
 		if (this.entityReference != null)
 		{
-			this.entityReference.getEntityReferenceOf().add(this);
+			((EntityReferenceImpl) this.entityReference).addEntityReferenceOf(this);
 		}
 	}
 
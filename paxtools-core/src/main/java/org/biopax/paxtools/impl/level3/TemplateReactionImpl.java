@@ -4,19 +4,22 @@ import org.biopax.paxtools.model.level3.NucleicAcid;
 import org.biopax.paxtools.model.level3.PhysicalEntity;
 import org.biopax.paxtools.model.level3.TemplateDirectionType;
 import org.biopax.paxtools.model.level3.TemplateReaction;
-import org.biopax.paxtools.util.BPCollections;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public class TemplateReactionImpl extends InteractionImpl implements TemplateReaction {
-    private Set<PhysicalEntity> product;
+    private volatile Set<PhysicalEntity> product;
+
+    private static final AtomicReferenceFieldUpdater<TemplateReactionImpl, Set> PRODUCT =
+        AtomicReferenceFieldUpdater.newUpdater(TemplateReactionImpl.class, Set.class, "product");
     private NucleicAcid template;
 	private TemplateDirectionType templateDirection;
 
 	public TemplateReactionImpl()
 	{
-        this.product = BPCollections.I.createSafeSet();
+        this.product = emptySet();
     }
 	
     public Class<? extends TemplateReaction> getModelInterface()
@@ -26,7 +29,7 @@ public class TemplateReactionImpl extends InteractionImpl implements TemplateRea
 
     public Set<PhysicalEntity> getProduct()
     {
-        return product;
+        return lazySet(this, PRODUCT, true);
     }
 
     protected void setProduct(Set<PhysicalEntity> product)
@@ -37,7 +40,10 @@ public class TemplateReactionImpl extends InteractionImpl implements TemplateRea
     public void addProduct(PhysicalEntity product)
     {
     	if(product != null) {
-    		this.product.add(product);
+    		synchronized (this) {
+    			this.product = mutableSafeSet(this.product);
+    			this.product.add(product);
+    		}
     		super.addParticipant(product);
     	}
     }
@@ -2,9 +2,9 @@ package org.biopax.paxtools.impl.level3;
 
 import org.biopax.paxtools.model.level3.XReferrable;
 import org.biopax.paxtools.model.level3.Xref;
-import org.biopax.paxtools.util.BPCollections;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * This class helps with managing the bidirectional xref links.
@@ -18,7 +18,10 @@ public abstract class XReferrableImpl extends L3ElementImpl implements XReferrab
 	/**
 	 * This variable stores the external references to the owner object.
 	 */
-	private Set<Xref> xref;
+	private volatile Set<Xref> xref;
+
+	private static final AtomicReferenceFieldUpdater<XReferrableImpl, Set> XREF =
+		AtomicReferenceFieldUpdater.newUpdater(XReferrableImpl.class, Set.class, "xref");
 
 // --------------------------- CONSTRUCTORS ---------------------------
 
@@ -28,14 +31,14 @@ public abstract class XReferrableImpl extends L3ElementImpl implements XReferrab
 
 	public XReferrableImpl()
 	{
-		this.xref = BPCollections.I.createSafeSet();
+		this.xref = emptySet();
 	}
 
 // -------------------------- OTHER METHODS --------------------------
 
 	public Set<Xref> getXref()
 	{
-		return xref;
+		return lazySet(this, XREF, true);
 	}
 
 	public void removeXref(Xref xref)
@@ -56,10 +59,11 @@ public abstract class XReferrableImpl extends L3ElementImpl implements XReferrab
 	public void addXref(Xref xref)
 	{
 		if (xref != null) {
-			this.xref.add(xref);
-			synchronized (xref) {
-				xref.getXrefOf().add(this);
+			synchronized (this) {
+				this.xref = mutableSafeSet(this.xref);
+				this.xref.add(xref);
 			}
+			((XrefImpl) xref).addXrefOf(this);
 		}
 	}
 
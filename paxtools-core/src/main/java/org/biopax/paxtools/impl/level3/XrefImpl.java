@@ -3,9 +3,9 @@ package org.biopax.paxtools.impl.level3;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.level3.XReferrable;
 import org.biopax.paxtools.model.level3.Xref;
-import org.biopax.paxtools.util.BPCollections;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 public abstract class XrefImpl extends L3ElementImpl implements Xref
@@ -14,14 +14,17 @@ public abstract class XrefImpl extends L3ElementImpl implements Xref
 	private String dbVersion;
 	private String idVersion;
 	private String refId;
-	private Set<XReferrable> xrefOf;
+	private volatile Set<XReferrable> xrefOf;
+
+	private static final AtomicReferenceFieldUpdater<XrefImpl, Set> XREF_OF =
+		AtomicReferenceFieldUpdater.newUpdater(XrefImpl.class, Set.class, "xrefOf");
 
 	/**
 	 * Constructor.
 	 */
 	public XrefImpl()
 	{
-		this.xrefOf = BPCollections.I.createSafeSet();
+		this.xrefOf = emptySet();
 	}
 
 	@Override
@@ -102,7 +105,16 @@ public abstract class XrefImpl extends L3ElementImpl implements Xref
 
 	public Set<XReferrable> getXrefOf()
 	{
-		return xrefOf;
+		return lazySet(this, XREF_OF, true);
+	}
+
+	/**
+	 * Adds the inverse property value, called by {@link XReferrableImpl#addXref(Xref)}.
+	 */
+	synchronized void addXrefOf(XReferrable value)
+	{
+		xrefOf = mutableSafeSet(xrefOf);
+		xrefOf.add(value);
 	}
 
 	@Override
@@ -0,0 +1,661 @@
+package org.biopax.paxtools.io;
+
+import org.biopax.paxtools.controller.CompiledMethod;
+import org.biopax.paxtools.controller.CompiledMethods;
+import org.biopax.paxtools.controller.EnumeratedPropertyEditor;
+import org.biopax.paxtools.controller.ObjectPropertyEditor;
+import org.biopax.paxtools.controller.PropertyEditor;
+import org.biopax.paxtools.controller.SimpleEditorMap;
+import org.biopax.paxtools.controller.StringPropertyEditor;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXFactory;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.BiochemicalPathwayStep;
+import org.biopax.paxtools.util.BioPaxIOException;
+import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Binary BioPAX model snapshot reader/writer.
+ *
+ * This I/O handler saves a model in a compact binary format and reads it back much faster than
+ * the RDF/XML one can be parsed, which makes it suitable for caching a (large) model between
+ * application restarts. It is not a BioPAX exchange format: a snapshot can be read only by this class
+ * (for the same BioPAX level); despite their names, {@link #convertToOWL(Model, OutputStream)}
+ * writes and {@link #convertFromOWL(InputStream)} reads the binary format.
+ *
+ * Every distinct string (URI, literal, class or property name) is written only once, where it
+ * first occurs, and is referred to by its index afterwards; BioPAX objects are referred to by their
+ * integer IDs (position in the snapshot). The property values of each object are written in a block,
+ * following the list of properties declared (using the {@link org.biopax.paxtools.controller.EditorMap})
+ * for the object's class when the class first occurs.
+ */
+public final class BinaryIOHandler extends BioPAXIOHandlerAdapter
+{
+	private static final Logger log = LoggerFactory.getLogger(BinaryIOHandler.class);
+
+	private static final int MAGIC = 0x42505842; // "BPXB"
+
+	private static final int VERSION = 1;
+
+	// a temporary prefix for the biopax namespace, used for the level auto-detection only
+	private static final String LEVEL_PREFIX = "bp-binary-level";
+
+	// string references: null, a new string (follows), or an index (+2) of a previously written one
+	private static final int NULL_STRING = 0;
+
+	private static final int NEW_STRING = 1;
+
+	// property value kinds
+	private static final byte OBJECT = 0;
+
+	private static final byte STRING = 1;
+
+	private static final byte ENUM = 2;
+
+	private static final byte DOUBLE = 3;
+
+	private static final byte FLOAT = 4;
+
+	private static final byte INT = 5;
+
+	private static final byte LONG = 6;
+
+	private static final byte BOOLEAN = 7;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The input is read through this buffer, rather than a (synchronized) buffered stream,
+	 * as most values take a byte or two.
+	 */
+	private InputStream in;
+
+	private byte[] buffer;
+
+	private int position;
+
+	private int limit;
+
+	private List<String> strings;
+
+
+	// --------------------------- CONSTRUCTORS ---------------------------
+
+	/**
+	 * Basic constructor, defaults to Level 3 and default BioPAXFactory
+	 */
+	public BinaryIOHandler()
+	{
+		this(null, null);
+	}
+
+	/**
+	 * Basic constructor, defaults to level.defaultFactory
+	 * @param level BioPAXLevel to handle.
+	 */
+	public BinaryIOHandler(BioPAXLevel level)
+	{
+		this(level.getDefaultFactory(), level);
+	}
+
+	/**
+	 * Full constructor
+	 * @param factory to create BioPAX objects
+	 * @param level BioPAX level to handle.
+	 */
+	public BinaryIOHandler(BioPAXFactory factory, BioPAXLevel level)
+	{
+		super(factory, level);
+	}
+
+	// -------------------------- OTHER METHODS --------------------------
+
+	@Override
+	protected void resetEditorMap()
+	{
+		setEditorMap(SimpleEditorMap.get(this.getLevel()));
+	}
+
+	@Override
+	protected void init(InputStream in)
+	{
+		this.in = in;
+		this.buffer = new byte[BUFFER_SIZE];
+		this.position = 0;
+		this.limit = 0;
+		this.strings = new ArrayList<String>();
+	}
+
+	@Override
+	protected void reset(InputStream in)
+	{
+		this.in = null;
+		this.buffer = null;
+		this.strings = null;
+		super.reset(in);
+	}
+
+	@Override
+	protected Map<String, String> readNameSpaces()
+	{
+		Map<String, String> ns = new HashMap<String, String>();
+		try
+		{
+			if (readFixedInt() != MAGIC)
+			{
+				throw new BioPaxIOException("Not a binary BioPAX model snapshot");
+			}
+			int version = readByte() & 0xFF;
+			if (version != VERSION)
+			{
+				throw new BioPaxIOException("Unsupported binary BioPAX snapshot version: " + version);
+			}
+
+			BioPAXLevel fileLevel = BioPAXLevel.valueOf(readString());
+			base = readString();
+			int count = readInt();
+			for (int i = 0; i < count; i++)
+			{
+				String pre = readString();
+				ns.put(pre, readString());
+			}
+
+			if (!ns.containsValue(fileLevel.getNameSpace()))
+			{
+				ns.put(LEVEL_PREFIX, fileLevel.getNameSpace());
+			}
+		}
+		catch (IOException e)
+		{
+			throw new BioPaxIOException("Failed reading the binary snapshot header", e);
+		}
+		return ns;
+	}
+
+	@Override
+	protected void createAndBind(Model model)
+	{
+		model.getNameSpacePrefixMap().remove(LEVEL_PREFIX);
+
+		try
+		{
+			List<ClassSchema> schemas = new ArrayList<ClassSchema>();
+			int n = readInt();
+			BioPAXElement[] objects = new BioPAXElement[n];
+			ClassSchema[] objectSchemas = new ClassSchema[n];
+
+			for (int i = 0; i < n; i++)
+			{
+				int c = readInt();
+				if (c == schemas.size())
+				{
+					schemas.add(readSchema());
+				}
+				ClassSchema schema = schemas.get(c);
+				objectSchemas[i] = schema;
+				String uri = readString();
+				BioPAXElement bpe = factory.create(schema.type, uri);
+				if (bpe != null)
+				{
+					model.add(bpe);
+				}
+				objects[i] = bpe;
+			}
+
+			for (int i = 0; i < n; i++)
+			{
+				ClassSchema schema = objectSchemas[i];
+				for (int p = 0; p < schema.kinds.length; p++)
+				{
+					PropertyEditor editor = schema.editors[p];
+					CompiledMethod setter = schema.setters[p];
+					int count = readInt();
+					for (int j = 0; j < count; j++)
+					{
+						Object value = readValue(schema.kinds[p], editor, objects);
+						if (editor != null && objects[i] != null && value != null)
+						{
+							if (setter != null)
+							{
+								set(setter, editor, objects[i], value);
+							} else
+							{
+								editor.setValueToBean(value, objects[i]);
+							}
+						}
+					}
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			throw new BioPaxIOException("Failed reading the binary snapshot", e);
+		}
+	}
+
+	private ClassSchema readSchema() throws IOException
+	{
+		Class<? extends BioPAXElement> type = getLevel().getInterfaceForName(readString());
+		int count = readInt();
+		ClassSchema schema = new ClassSchema(type, count);
+		for (int p = 0; p < count; p++)
+		{
+			String property = readString();
+			schema.kinds[p] = readByte();
+			schema.editors[p] = getEditorMap().getEditorForProperty(property, type);
+			if (schema.editors[p] == null)
+			{
+				log.warn("No editor for " + type.getSimpleName() + "." + property + "; its values are ignored");
+			} else
+			{
+				schema.setters[p] = CompiledMethods.compile(schema.editors[p].getPrimarySetMethod());
+			}
+		}
+		return schema;
+	}
+
+	/**
+	 * Sets a property value by calling the (compiled) set or add method directly, rather than via
+	 * {@link PropertyEditor#setValueToBean(Object, BioPAXElement)}: the values in a snapshot are
+	 * already of the property range, and they were valid in the model saved, so they need
+	 * neither parsing nor checking.
+	 */
+	private void set(CompiledMethod setter, PropertyEditor editor, BioPAXElement bpe, Object value)
+	{
+		try
+		{
+			setter.invoke(bpe, value);
+		}
+		catch (RuntimeException e)
+		{
+			log.error("Failed to set " + editor.getProperty() + " value: " + value + " to " + bpe.getUri()
+				+ ". " + e);
+		}
+	}
+
+	private Object readValue(byte kind, PropertyEditor editor, BioPAXElement[] objects) throws IOException
+	{
+		switch (kind)
+		{
+			case OBJECT:
+				return objects[readInt()];
+			case STRING:
+				return readString();
+			case ENUM:
+				String name = readString();
+				return (editor == null) ? null : Enum.valueOf(editor.getRange(), name);
+			case DOUBLE:
+				return Double.longBitsToDouble(readFixedLong());
+			case FLOAT:
+				return Float.intBitsToFloat(readFixedInt());
+			case INT:
+				return readFixedInt();
+			case LONG:
+				return readFixedLong();
+			case BOOLEAN:
+				return readByte() != 0;
+			default:
+				throw new BioPaxIOException("Unknown property value kind: " + kind);
+		}
+	}
+
+	/**
+	 * Reads a non-negative variable-length integer.
+	 * @return int value
+	 * @throws IOException when the input fails
+	 */
+	private int readInt() throws IOException
+	{
+		int value = 0;
+		int shift = 0;
+		int b;
+		do
+		{
+			b = readByte() & 0xFF;
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	private byte readByte() throws IOException
+	{
+		if (position == limit) fill();
+		return buffer[position++];
+	}
+
+	private void fill() throws IOException
+	{
+		int n = in.read(buffer, 0, buffer.length);
+		if (n <= 0)
+		{
+			throw new EOFException();
+		}
+		position = 0;
+		limit = n;
+	}
+
+	/**
+	 * Reads a fixed-length (big-endian) integer, as written by {@link DataOutputStream#writeInt(int)}.
+	 * @return int value
+	 * @throws IOException when the input fails
+	 */
+	private int readFixedInt() throws IOException
+	{
+		return ((readByte() & 0xFF) << 24) | ((readByte() & 0xFF) << 16)
+			| ((readByte() & 0xFF) << 8) | (readByte() & 0xFF);
+	}
+
+	private long readFixedLong() throws IOException
+	{
+		return ((long) readFixedInt() << 32) | (readFixedInt() & 0xFFFFFFFFL);
+	}
+
+	private String readString() throws IOException
+	{
+		int ref = readInt();
+		if (ref == NULL_STRING)
+		{
+			return null;
+		} else if (ref == NEW_STRING)
+		{
+			int length = readInt();
+			String s;
+			if (length <= limit - position)
+			{
+				s = new String(buffer, position, length, "UTF-8");
+				position += length;
+			} else
+			{
+				byte[] bytes = new byte[length];
+				for (int i = 0; i < length; )
+				{
+					if (position == limit) fill();
+					int n = Math.min(length - i, limit - position);
+					System.arraycopy(buffer, position, bytes, i, n);
+					position += n;
+					i += n;
+				}
+				s = new String(bytes, "UTF-8");
+			}
+			strings.add(s);
+			return s;
+		} else
+		{
+			return strings.get(ref - 2);
+		}
+	}
+
+	/**
+	 * Writes the model as a binary snapshot (not RDF/XML, despite the method name)
+	 * to the output stream, which is flushed but not closed after that.
+	 *
+	 * Object property values that are not in the model (dangling references) are not saved.
+	 *
+	 * @param model model to be saved
+	 * @param outputStream output stream into which the snapshot will be written
+	 * @throws BioPaxIOException in case of I/O problems
+	 */
+	public void convertToOWL(Model model, OutputStream outputStream)
+	{
+		BioPAXLevel lev = model.getLevel();
+		if (lev != this.level) resetLevel(lev, lev.getDefaultFactory());
+
+		try
+		{
+			new SnapshotWriter(new DataOutputStream(new BufferedOutputStream(outputStream))).write(model);
+		}
+		catch (IOException e)
+		{
+			throw new BioPaxIOException("Cannot write the binary snapshot!", e);
+		}
+	}
+
+
+	/**
+	 * Properties (and how their values are encoded) of a BioPAX class in a snapshot.
+	 */
+	private static final class ClassSchema
+	{
+		private final Class<? extends BioPAXElement> type;
+		private final PropertyEditor[] editors;
+		private final CompiledMethod[] setters;
+		private final byte[] kinds;
+
+		private ClassSchema(Class<? extends BioPAXElement> type, int size)
+		{
+			this.type = type;
+			this.editors = new PropertyEditor[size];
+			this.setters = new CompiledMethod[size];
+			this.kinds = new byte[size];
+		}
+	}
+
+
+	/**
+	 * Writes one snapshot; keeps the string, class and object indices.
+	 */
+	private final class SnapshotWriter
+	{
+		private final DataOutputStream out;
+		private final Map<String, Integer> stringIndex = new HashMap<String, Integer>();
+		private final Map<BioPAXElement, Integer> objectIndex = new IdentityHashMap<BioPAXElement, Integer>();
+		private final Map<Class<? extends BioPAXElement>, Integer> classIndex =
+			new HashMap<Class<? extends BioPAXElement>, Integer>();
+		private final List<ClassSchema> schemas = new ArrayList<ClassSchema>();
+
+		private SnapshotWriter(DataOutputStream out)
+		{
+			this.out = out;
+		}
+
+		private void write(Model model) throws IOException
+		{
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			writeString(model.getLevel().name());
+			writeString(model.getXmlBase());
+			Map<String, String> ns = model.getNameSpacePrefixMap();
+			writeInt(ns.size());
+			for (Map.Entry<String, String> entry : ns.entrySet())
+			{
+				writeString(entry.getKey());
+				writeString(entry.getValue());
+			}
+
+			// snapshot objects' order; model.getObjects() is not a list
+			BioPAXElement[] objects = model.getObjects().toArray(new BioPAXElement[0]);
+			writeInt(objects.length);
+			for (int i = 0; i < objects.length; i++)
+			{
+				objectIndex.put(objects[i], i);
+			}
+
+			for (BioPAXElement bpe : objects)
+			{
+				Class<? extends BioPAXElement> type = bpe.getModelInterface();
+				Integer c = classIndex.get(type);
+				if (c == null)
+				{
+					c = schemas.size();
+					writeInt(c);
+					writeSchema(type);
+				} else
+				{
+					writeInt(c);
+				}
+				writeString(bpe.getUri());
+			}
+
+			List<Object> values = new ArrayList<Object>();
+			for (BioPAXElement bpe : objects)
+			{
+				ClassSchema schema = schemas.get(classIndex.get(bpe.getModelInterface()));
+				for (int p = 0; p < schema.kinds.length; p++)
+				{
+					PropertyEditor editor = schema.editors[p];
+					values.clear();
+					for (Object value : editor.getValueFromBean(bpe))
+					{
+						if (editor.isUnknown(value))
+						{
+							continue;
+						}
+						if (schema.kinds[p] == OBJECT && !objectIndex.containsKey(value))
+						{
+							log.debug("Skip dangling " + editor.getProperty() + " value " + value + " of " + bpe);
+							continue;
+						}
+						if (bpe instanceof BiochemicalPathwayStep && "stepProcess".equals(editor.getProperty())
+							&& value.equals(((BiochemicalPathwayStep) bpe).getStepConversion()))
+						{
+							continue; //restored by setStepConversion
+						}
+						values.add(value);
+					}
+					writeInt(values.size());
+					for (Object value : values)
+					{
+						writeValue(schema.kinds[p], value);
+					}
+				}
+			}
+
+			out.flush(); // the caller's stream is not closed
+		}
+
+		private void writeSchema(Class<? extends BioPAXElement> type) throws IOException
+		{
+			List<PropertyEditor> editors = new ArrayList<PropertyEditor>(getEditorMap().getEditorsOf(type));
+			Collections.sort(editors, new Comparator<PropertyEditor>()
+			{
+				public int compare(PropertyEditor e1, PropertyEditor e2)
+				{
+					return e1.getProperty().compareTo(e2.getProperty());
+				}
+			});
+
+			ClassSchema schema = new ClassSchema(type, editors.size());
+			writeString(type.getSimpleName());
+			writeInt(editors.size());
+			for (int p = 0; p < editors.size(); p++)
+			{
+				PropertyEditor editor = editors.get(p);
+				schema.editors[p] = editor;
+				schema.kinds[p] = kindOf(editor);
+				writeString(editor.getProperty());
+				out.writeByte(schema.kinds[p]);
+			}
+
+			classIndex.put(type, schemas.size());
+			schemas.add(schema);
+		}
+
+		private byte kindOf(PropertyEditor editor)
+		{
+			Class range = editor.getRange();
+			if (editor instanceof ObjectPropertyEditor)
+			{
+				return OBJECT;
+			} else if (editor instanceof StringPropertyEditor)
+			{
+				return STRING;
+			} else if (editor instanceof EnumeratedPropertyEditor)
+			{
+				return ENUM;
+			} else if (range.equals(double.class) || range.equals(Double.class))
+			{
+				return DOUBLE;
+			} else if (range.equals(float.class) || range.equals(Float.class))
+			{
+				return FLOAT;
+			} else if (range.equals(int.class) || range.equals(Integer.class))
+			{
+				return INT;
+			} else if (range.equals(long.class) || range.equals(Long.class))
+			{
+				return LONG;
+			} else if (range.equals(boolean.class) || range.equals(Boolean.class))
+			{
+				return BOOLEAN;
+			} else
+			{
+				throw new IllegalBioPAXArgumentException("Unsupported property range: " + editor);
+			}
+		}
+
+		private void writeValue(byte kind, Object value) throws IOException
+		{
+			switch (kind)
+			{
+				case OBJECT:
+					writeInt(objectIndex.get(value));
+					break;
+				case STRING:
+					writeString((String) value);
+					break;
+				case ENUM:
+					writeString(((Enum) value).name());
+					break;
+				case DOUBLE:
+					out.writeDouble((Double) value);
+					break;
+				case FLOAT:
+					out.writeFloat((Float) value);
+					break;
+				case INT:
+					out.writeInt((Integer) value);
+					break;
+				case LONG:
+					out.writeLong((Long) value);
+					break;
+				case BOOLEAN:
+					out.writeBoolean((Boolean) value);
+					break;
+			}
+		}
+
+		/**
+		 * Writes a non-negative int as a variable-length number (7 bits per byte).
+		 * @param value int value
+		 * @throws IOException when the output fails
+		 */
+		private void writeInt(int value) throws IOException
+		{
+			while ((value & ~0x7F) != 0)
+			{
+				out.writeByte((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			out.writeByte(value);
+		}
+
+		private void writeString(String s) throws IOException
+		{
+			if (s == null)
+			{
+				writeInt(NULL_STRING);
+				return;
+			}
+
+			Integer i = stringIndex.get(s);
+			if (i != null)
+			{
+				writeInt(i + 2);
+			} else
+			{
+				stringIndex.put(s, stringIndex.size());
+				byte[] bytes = s.getBytes("UTF-8");
+				writeInt(NEW_STRING);
+				writeInt(bytes.length);
+				out.write(bytes);
+			}
+		}
+	}
+}
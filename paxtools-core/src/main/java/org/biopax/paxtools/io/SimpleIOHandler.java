@@ -2,6 +2,7 @@ package org.biopax.paxtools.io;
 
 import org.apache.commons.lang.StringEscapeUtils;
 import org.biopax.paxtools.controller.AbstractPropertyEditor;
+import org.biopax.paxtools.controller.ObjectPropertyEditor;
 import org.biopax.paxtools.controller.PropertyEditor;
 import org.biopax.paxtools.controller.SimpleEditorMap;
 import org.biopax.paxtools.model.BioPAXElement;
@@ -20,6 +21,11 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static javax.xml.stream.XMLStreamConstants.*;
 
@@ -41,8 +47,24 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 
 	private List<Triple> triples;
 
+	private Map<String, PendingReference> pendingReferences;
+
 	private boolean mergeDuplicates;
 
+	private boolean streamingBind;
+
+	private int parallelism;
+
+	private List<Individual> chunk;
+
+	private List<Future<List<Individual>>> chunks;
+
+	private ExecutorService executor;
+
+	private static final int CHUNK_SIZE = 1000;
+
+	private static final String RDFS_COMMENT = "rdfs:comment";
+
 	private static final String owlNS = "http://www.w3.org/2002/07/owl#";
 
 	private static final String xsdNS = "http://www.w3.org/2001/XMLSchema#";
@@ -91,6 +113,7 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 		super(factory, level);
 		normalizeNameSpaces = true;
 		mergeDuplicates = false;
+		parallelism = 1;
 	}
 
 	/**
@@ -103,6 +126,32 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 		this.mergeDuplicates = mergeDuplicates;
 	}
 
+	/**
+	 * If set to true, the reader binds every property value as soon as both the domain and the range objects exist,
+	 * in a single pass, instead of collecting all the property statements first and binding them at the end.
+	 * Only the forward references (to objects not read yet) are kept in memory, indexed by the target URI,
+	 * and each is released as soon as its target is created. This keeps the peak memory usage of a large file
+	 * import close to the size of the resulting model. By default it is set to false.
+	 * @param streamingBind true/false
+	 */
+	public void streamingBind(boolean streamingBind)
+	{
+		this.streamingBind = streamingBind;
+	}
+
+	/**
+	 * Sets the number of threads to use when reading a model.
+	 * If it is greater than one, the calling thread only tokenizes the RDF/XML into chunks of individuals,
+	 * a pool of that many worker threads creates the BioPAX objects and sets their data properties,
+	 * and then all the object properties are bound at the end (the {@link #streamingBind(boolean)} option
+	 * does not apply in this mode). By default it is 1, i.e., the document is read in a single thread.
+	 * @param parallelism number of worker threads
+	 */
+	public void parallelism(int parallelism)
+	{
+		this.parallelism = (parallelism > 0) ? parallelism : 1;
+	}
+
 	/**
 	 * If set to true, property editors will check restrictions at the subclass level and throw an exception if
 	 * violated. This is true by default.
@@ -162,8 +211,18 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 			//this is to return string with encoded chars as one event (not splitting)
 			xmlf.setProperty("javax.xml.stream.isCoalescing", true);
 			r = xmlf.createXMLStreamReader(in);
-			
-			triples = new LinkedList<Triple>();
+
+			if (parallelism > 1)
+			{
+				chunk = new ArrayList<Individual>(CHUNK_SIZE);
+				chunks = new ArrayList<Future<List<Individual>>>();
+			} else if (streamingBind)
+			{
+				pendingReferences = new HashMap<String, PendingReference>();
+			} else
+			{
+				triples = new LinkedList<Triple>();
+			}
 
 		}
 		catch (XMLStreamException e)
@@ -178,6 +237,9 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 	{
 
 		this.triples=null;
+		this.pendingReferences=null;
+		this.chunk=null;
+		this.chunks=null;
 		try
 		{
 			r.close();
@@ -251,6 +313,27 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 	}
 
 	@Override protected void createAndBind(Model model)
+	{
+		// the worker threads live only as long as this method, also when reading fails
+		if (parallelism > 1)
+		{
+			executor = Executors.newFixedThreadPool(parallelism);
+		}
+		try
+		{
+			readAndBind(model);
+		}
+		finally
+		{
+			if (executor != null)
+			{
+				executor.shutdownNow();
+				executor = null;
+			}
+		}
+	}
+
+	private void readAndBind(Model model)
 	{
 		try
 		{
@@ -276,7 +359,17 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 							}
 							if (this.getFactory().canInstantiate(clazz))
 							{
-								processIndividual(model);
+								if (executor != null)
+								{
+									readIndividual(chunk);
+									if (chunk.size() >= CHUNK_SIZE)
+									{
+										submitChunk();
+									}
+								} else
+								{
+									processIndividual(model);
+								}
 							} else
 							{
 								if (log.isTraceEnabled())
@@ -314,20 +407,96 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 			throw new BioPaxIOException(e.getClass().getSimpleName() + " " + e.getMessage() + "; " + e.getLocation());
 		}
 
-		for (Triple triple : triples)
+		if (executor != null)
+		{
+			submitChunk();
+			executor.shutdown();
+			bindChunks(model);
+		} else if (streamingBind)
 		{
-			try
+			//whatever has left unresolved is a dangling reference (fails and gets logged)
+			for (String uri : pendingReferences.keySet())
 			{
-				bindValue(triple, model);
+				for (PendingReference ref = pendingReferences.get(uri); ref != null; ref = ref.next)
+				{
+					bindQuietly(uri, ref.editor, ref.domain, model);
+				}
 			}
-			catch (IllegalBioPAXArgumentException e)
+			pendingReferences.clear();
+		} else
+		{
+			for (Triple triple : triples)
 			{
-				log.warn("Binding " + e);
+				try
+				{
+					bindValue(triple, model);
+				}
+				catch (IllegalBioPAXArgumentException e)
+				{
+					log.warn("Binding " + e);
+				}
 			}
 		}
 
 	}
 
+	/**
+	 * Either saves the property statement for binding at the end of reading (default)
+	 * or, in the streaming mode, binds it right away unless the value refers to an object
+	 * that has not been read yet.
+	 * @param model that is being populated
+	 * @param domain URI of the property owner
+	 * @param range URI or literal value of the property
+	 * @param property BioPAX property name
+	 */
+	private void addTriple(Model model, String domain, String range, String property)
+	{
+		if (!streamingBind)
+		{
+			triples.add(new Triple(domain, range, property));
+			return;
+		}
+
+		BioPAXElement bpe = model.getByID(domain);
+		PropertyEditor editor = this.getEditorMap().getEditorForProperty(property, bpe.getModelInterface());
+		if (editor instanceof ObjectPropertyEditor && range != null && !model.containsID(range))
+		{
+			//forward reference
+			pendingReferences.put(range, new PendingReference(bpe, editor, pendingReferences.get(range)));
+		} else
+		{
+			bindQuietly(range, editor, bpe, model);
+		}
+	}
+
+	/**
+	 * Binds the property values that were waiting for
+	 * the object with the given URI to be created (streaming mode only).
+	 * @param model that is being populated
+	 * @param uri of the just created object
+	 */
+	private void resolvePendingReferences(Model model, String uri)
+	{
+		if (pendingReferences == null) return;
+
+		for (PendingReference ref = pendingReferences.remove(uri); ref != null; ref = ref.next)
+		{
+			bindQuietly(uri, ref.editor, ref.domain, model);
+		}
+	}
+
+	private void bindQuietly(String valueString, PropertyEditor editor, BioPAXElement bpe, Model model)
+	{
+		try
+		{
+			bindValue(valueString, editor, bpe, model);
+		}
+		catch (IllegalBioPAXArgumentException e)
+		{
+			log.warn("Binding " + e);
+		}
+	}
+
 	/**
 	 * Binds property.
 	 *
@@ -400,10 +569,242 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 		return id;
 	}
 
+	/**
+	 * Reads an individual, including nested ones, without creating BioPAX objects
+	 * (for the parallel mode).
+	 * @param individuals to collect the individual and the ones nested in its properties
+	 * @return the individual's URI
+	 * @throws XMLStreamException when the XML stream fails
+	 */
+	private String readIndividual(List<Individual> individuals) throws XMLStreamException
+	{
+		String s = r.getLocalName();
+		String id;
+		try
+		{
+			id = getId();
+		}
+		catch (NullPointerException e)
+		{
+			throw new BioPaxIOException("Error processing individual " + s + ". rdf:ID or rdf:about not found!", e);
+		}
+
+		if (!factory.canInstantiate((level.getInterfaceForName(s))))
+		{
+			log.warn("Unknown class :" + s);
+			skip();
+			return id;
+		}
+
+		Individual individual = new Individual(s, id);
+		individuals.add(individual);
+		r.next();
+		while (r.getEventType() != END_ELEMENT)
+		{
+			if (r.getEventType() == START_ELEMENT)
+			{
+				readProperty(individual, individuals);
+			}
+			r.next();
+		}
+		return id;
+	}
+
+	private void readProperty(Individual individual, List<Individual> individuals) throws XMLStreamException
+	{
+		if (rdfs.equals(r.getNamespaceURI()) && "comment".equals(r.getLocalName()))
+		{
+			r.next();
+			individual.properties.add(RDFS_COMMENT);
+			individual.properties.add(r.getText());
+			gotoEndElement();
+		} else if (bp != null && bp.equals(r.getNamespaceURI()))
+		{
+			String property = r.getLocalName();
+			String resource = r.getAttributeValue(rdf, "resource");
+			if (resource != null)
+			{
+				if (resource.startsWith("#"))
+				{
+					resource = (base == null ? "" : base) + resource.substring(1, resource.length());
+				}
+				gotoEndElement();
+			} else
+			{
+				r.next();
+				boolean found = false;
+				while (r.getEventType() != END_ELEMENT)
+				{
+					if (!found && r.getEventType() == CHARACTERS)
+					{
+						StringBuilder buff = new StringBuilder(r.getText());
+						r.next();
+						while (r.getEventType() == CHARACTERS)
+						{
+							buff.append(r.getText());
+							r.next();
+						}
+						resource = buff.toString();
+
+					} else if (r.getEventType() == START_ELEMENT)
+					{
+						resource = readIndividual(individuals);
+						found = true;
+						r.next();
+					} else r.next();
+				}
+				resource = (!found && resource != null) ? resource.replaceAll("[\n\r\t ]+", " ") : resource;
+			}
+			individual.properties.add(property);
+			individual.properties.add(resource);
+		} else
+		{
+			log.trace("ignoring unknown element " +
+			          r.getNamespaceURI() + r.getLocalName());
+			gotoEndElement();
+		}
+	}
+
+	private void submitChunk()
+	{
+		if (chunk.isEmpty()) return;
+
+		final List<Individual> individuals = chunk;
+		final boolean check = AbstractPropertyEditor.checkRestrictions.get();
+		chunks.add(executor.submit(new Callable<List<Individual>>()
+		{
+			public List<Individual> call()
+			{
+				AbstractPropertyEditor.checkRestrictions.set(check);
+				for (Individual individual : individuals)
+				{
+					build(individual);
+				}
+				return individuals;
+			}
+		}));
+		chunk = new ArrayList<Individual>(CHUNK_SIZE);
+	}
+
+	/**
+	 * Creates the BioPAX object and sets its data properties (in a worker thread);
+	 * the object property values are left for the final binding stage.
+	 * @param individual parsed individual
+	 */
+	private void build(Individual individual)
+	{
+		BioPAXElement bpe = factory.create(individual.type, individual.id);
+		List<String> references = new ArrayList<String>();
+		for (int i = 0; i < individual.properties.size(); i += 2)
+		{
+			String property = individual.properties.get(i);
+			String value = individual.properties.get(i + 1);
+			if (RDFS_COMMENT.equals(property))
+			{
+				getRDFCommentEditor(bpe).setValueToBean(value, bpe);
+				log.warn("rdfs:comment is converted into the bp:comment; " +
+				         "however, this can be overridden " +
+				         "if there exists another bp:comment (element: " +
+				         bpe.getUri() + " text: " + value + ")");
+				continue;
+			}
+
+			PropertyEditor editor = this.getEditorMap().getEditorForProperty(property, bpe.getModelInterface());
+			if (editor instanceof ObjectPropertyEditor)
+			{
+				references.add(property);
+				references.add(value);
+			} else
+			{
+				try
+				{
+					bindValue(value, editor, bpe, null);
+				}
+				catch (IllegalBioPAXArgumentException e)
+				{
+					log.warn("Binding " + e);
+				}
+			}
+		}
+		individual.bpe = bpe;
+		individual.properties = references;
+	}
+
+	/**
+	 * Adds the objects built by the workers to the model, in the document order,
+	 * and then binds all the object properties.
+	 * @param model that is being populated
+	 */
+	private void bindChunks(Model model)
+	{
+		try
+		{
+			for (Future<List<Individual>> future : chunks)
+			{
+				for (Individual individual : future.get())
+				{
+					addBuilt(individual, model);
+				}
+			}
+
+			for (Future<List<Individual>> future : chunks)
+			{
+				for (Individual individual : future.get())
+				{
+					for (int i = 0; i < individual.properties.size(); i += 2)
+					{
+						PropertyEditor editor = this.getEditorMap()
+							.getEditorForProperty(individual.properties.get(i), individual.bpe.getModelInterface());
+						bindQuietly(individual.properties.get(i + 1), editor, individual.bpe, model);
+					}
+				}
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new BioPaxIOException("Interrupted while reading the model", e);
+		}
+		catch (ExecutionException e)
+		{
+			throw new BioPaxIOException("Failed to build BioPAX objects: " + e.getCause(), e.getCause());
+		}
+	}
+
+	private void addBuilt(Individual individual, Model model)
+	{
+		BioPAXElement bpe = model.getByID(individual.id);
+		if (!mergeDuplicates || bpe == null)
+		{
+			model.add(individual.bpe); //throws an exception when (mergeDuplicates==false && bpe!=null)
+		} else if (!individual.type.equals(bpe.getModelInterface().getSimpleName()))
+		{
+			throw new BioPaxIOException(String.format("addBuilt: " +
+					"despite mergeDuplicates is True, failed/skipped creating an instance " +
+					"of %s, URI:%s, because previously added object (same URI) was of different type: %s",
+					individual.type, individual.id, bpe.getModelInterface().getSimpleName()));
+		} else
+		{
+			//copy the data property values of the duplicate
+			for (PropertyEditor editor : this.getEditorMap().getEditorsOf(bpe))
+			{
+				if (!(editor instanceof ObjectPropertyEditor))
+				{
+					for (Object value : editor.getValueFromBean(individual.bpe))
+					{
+						if (!editor.isUnknown(value)) editor.setValueToBean(value, bpe);
+					}
+				}
+			}
+			individual.bpe = bpe;
+		}
+	}
+
 	private void createBpe(String s, String id, Model model)
 	{
 		BioPAXElement bpe = factory.create(s, id);
 		model.add(bpe);
+		resolvePendingReferences(model, id);
 	}
 
 	private void skip() throws XMLStreamException
@@ -498,7 +899,7 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 			}
 
 			log.trace("setting = " + resource);
-			triples.add(new Triple(ownerID, resource, property));
+			addTriple(model, ownerID, resource, property);
 			propertyContext = false;
 		} else
 		{
@@ -539,6 +940,45 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 	}
 
 
+	/**
+	 * An individual read by the tokenizer (parallel mode); holds its property name - value pairs
+	 * until it's built, and then only the object property name - URI pairs left to bind.
+	 */
+	private static final class Individual
+	{
+		private final String type;
+		private final String id;
+		private List<String> properties;
+		private BioPAXElement bpe;
+
+		private Individual(String type, String id)
+		{
+			this.type = type;
+			this.id = id;
+			this.properties = new ArrayList<String>();
+		}
+	}
+
+
+	/**
+	 * A property value (object) that has been referred to before it was read;
+	 * the references to the same object are chained together.
+	 */
+	private static final class PendingReference
+	{
+		private final BioPAXElement domain;
+		private final PropertyEditor editor;
+		private final PendingReference next;
+
+		private PendingReference(BioPAXElement domain, PropertyEditor editor, PendingReference next)
+		{
+			this.domain = domain;
+			this.editor = editor;
+			this.next = next;
+		}
+	}
+
+
 	/**
 	 * Converts a model into BioPAX (OWL) format, and writes it into
 	 * the outputStream. Saved data can be then read via {@link BioPAXIOHandler}
@@ -859,6 +1299,24 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 		return this.mergeDuplicates;
 	}
 
+	/**
+	 * @see #parallelism(int)
+	 * @return number of threads used to read a model
+	 */
+	public int getParallelism()
+	{
+		return this.parallelism;
+	}
+
+	/**
+	 * @see #streamingBind(boolean)
+	 * @return true/false
+	 */
+	public boolean isStreamingBind()
+	{
+		return this.streamingBind;
+	}
+
 
 	/**
 	 * Serializes a (not too large) BioPAX model to the RDF/XML (OWL) formatted string.
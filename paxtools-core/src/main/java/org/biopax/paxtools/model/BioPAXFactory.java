@@ -8,6 +8,8 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Abstract factory class for instantiating BioPAX classes. Different implementations of BioPAX model should also
@@ -19,6 +21,10 @@ public abstract class BioPAXFactory
     private static final Logger log = LoggerFactory.getLogger(BioPAXFactory.class);
 	
     private final Method setUriMethod;
+
+    // accessible no-argument constructors of the implementation classes, by BioPAX type
+    private final ConcurrentMap<Class<? extends BioPAXElement>, Constructor<?>> constructors =
+    	new ConcurrentHashMap<Class<? extends BioPAXElement>, Constructor<?>>();
     
     /**
      * Protected Constructor without parameters.
@@ -61,16 +67,19 @@ public abstract class BioPAXFactory
 
 		// create a new instance of the BioPAX type
 		try {
-			Class<T> t = getImplClass(aClass);
-			if(t != null) {
-				Constructor<T> c = t.getDeclaredConstructor();
+			Constructor<T> c = (Constructor<T>) constructors.get(aClass);
+			if(c == null) {
+				Class<T> t = getImplClass(aClass);
+				if(t == null) {
+					log.error("Could not find a class implementing " + aClass);
+					return null;
+				}
+				c = t.getDeclaredConstructor();
 				c.setAccessible(true);
-				bpe = (T) c.newInstance();
-				setUriMethod.invoke(bpe, uri);
-			} else {
-				log.error("Could not find a class implementing " + aClass);
-				return null;
+				constructors.put(aClass, c);
 			}
+			bpe = c.newInstance();
+			setUriMethod.invoke(bpe, uri);
 		} catch (Exception e) {
 			log.error("Could not instantiate BioPAX Type: " + aClass 
 					+ "; URI: " + uri, e);
@@ -16,6 +16,8 @@ public enum BPCollections
 
 	private CollectionProvider cProvider;
 
+	private volatile boolean concurrentSafeSets;
+
 	private final Logger log = LoggerFactory.getLogger(BPCollections.class);
 
 	private BPCollections()
@@ -54,7 +56,10 @@ public enum BPCollections
 			};
 			log.info("Using the default CollectionProvider (creates HashMap, HashSet).");
 		}
-		
+
+		concurrentSafeSets = Boolean.getBoolean("paxtools.ConcurrentSafeSet");
+		if (concurrentSafeSets)
+			log.info("Using ConcurrentBiopaxSafeSet for object properties.");
 	}
 
 	/**
@@ -91,9 +96,28 @@ public enum BPCollections
 		return cProvider.createSet();
 	}
 
+	/**
+	 * Sets whether {@link #createSafeSet()} creates the read-optimized
+	 * {@link ConcurrentBiopaxSafeSet}s instead of {@link BiopaxSafeSet}s,
+	 * e.g., for models that are searched or indexed by many threads.
+	 * (The default is set by the -Dpaxtools.ConcurrentSafeSet=true JVM option).
+	 * It applies to the sets created after the call only.
+	 *
+	 * @param concurrent true - to use the concurrent safe sets
+	 */
+	public void setConcurrentSafeSets(boolean concurrent)
+	{
+		concurrentSafeSets = concurrent;
+	}
+
+	public boolean isConcurrentSafeSets()
+	{
+		return concurrentSafeSets;
+	}
+
 	public <R extends BioPAXElement> Set<R> createSafeSet()
 	{
-		return new BiopaxSafeSet<R>();
+		return (concurrentSafeSets) ? new ConcurrentBiopaxSafeSet<R>() : new BiopaxSafeSet<R>();
 	}
 
 	public <D, R> Map<D, R> createMap()
@@ -0,0 +1,225 @@
+package org.biopax.paxtools.util;
+
+import org.biopax.paxtools.model.BioPAXElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * A read-optimized {@link BiopaxSafeSet}: reads (size, contains, get, iteration)
+ * do not lock, and writes are serialized on the set.
+ *
+ * Small sets, which most BioPAX property values are, are kept in a copy-on-write array
+ * (a write replaces the array, so iterators and readers see a consistent snapshot);
+ * a set that grows larger than {@link #MAX_ARRAY_SIZE} switches to a concurrent map
+ * keyed by URI, whose iterators are weakly consistent (never fail while it's modified).
+ * Like in the parent class, elements having the same URI cannot be added twice.
+ *
+ * Enabled via {@link BPCollections#setConcurrentSafeSets(boolean)}
+ * or the JVM option -Dpaxtools.ConcurrentSafeSet=true
+ *
+ * @param <E> BioPAX type
+ */
+public class ConcurrentBiopaxSafeSet<E extends BioPAXElement> extends BiopaxSafeSet<E>
+{
+	private final static Logger LOG = LoggerFactory.getLogger(ConcurrentBiopaxSafeSet.class);
+
+	/**
+	 * Max. number of elements to keep in the copy-on-write array.
+	 */
+	public static final int MAX_ARRAY_SIZE = 16;
+
+	private final static Object[] EMPTY = new Object[0];
+
+	// either Object[] or ConcurrentMap<String,E>; never goes back to an array
+	private volatile Object elements = EMPTY;
+
+	public ConcurrentBiopaxSafeSet()
+	{
+		super();
+	}
+
+	@Override
+	public Iterator<E> iterator()
+	{
+		Object current = elements;
+		if (current instanceof Object[])
+		{
+			return new SnapshotIterator((Object[]) current);
+		}
+		else
+		{
+			return map(current).values().iterator();
+		}
+	}
+
+	@Override
+	public int size()
+	{
+		Object current = elements;
+		return (current instanceof Object[]) ? ((Object[]) current).length : map(current).size();
+	}
+
+	@Override
+	public boolean add(E bpe)
+	{
+		String uri = bpe.getUri();
+		synchronized (this)
+		{
+			Object current = elements;
+			if (current instanceof Object[])
+			{
+				Object[] array = (Object[]) current;
+				if (find(array, uri) != null)
+				{
+					LOG.debug("ignored duplicate:" + uri);
+					return false;
+				}
+				if (array.length < MAX_ARRAY_SIZE)
+				{
+					Object[] copy = Arrays.copyOf(array, array.length + 1);
+					copy[array.length] = bpe;
+					elements = copy;
+				}
+				else
+				{
+					ConcurrentMap<String, E> map = new ConcurrentHashMap<String, E>(2 * MAX_ARRAY_SIZE);
+					for (Object o : array)
+					{
+						map.put(((BioPAXElement) o).getUri(), (E) o);
+					}
+					map.put(uri, bpe);
+					elements = map;
+				}
+				return true;
+			}
+			else
+			{
+				if (map(current).putIfAbsent(uri, bpe) == null)
+				{
+					return true;
+				}
+				LOG.debug("ignored duplicate:" + uri);
+				return false;
+			}
+		}
+	}
+
+	@Override
+	public boolean remove(Object o)
+	{
+		if (!(o instanceof BioPAXElement))
+		{
+			return false;
+		}
+		String uri = ((BioPAXElement) o).getUri();
+		synchronized (this)
+		{
+			Object current = elements;
+			if (current instanceof Object[])
+			{
+				Object[] array = (Object[]) current;
+				for (int i = 0; i < array.length; i++)
+				{
+					if (array[i].equals(o))
+					{
+						Object[] copy = new Object[array.length - 1];
+						System.arraycopy(array, 0, copy, 0, i);
+						System.arraycopy(array, i + 1, copy, i, copy.length - i);
+						elements = copy;
+						return true;
+					}
+				}
+				return false;
+			}
+			else
+			{
+				ConcurrentMap<String, E> map = map(current);
+				E e = map.get(uri);
+				return e != null && e.equals(o) && map.remove(uri, e);
+			}
+		}
+	}
+
+	@Override
+	public void clear()
+	{
+		synchronized (this)
+		{
+			elements = EMPTY;
+		}
+	}
+
+	@Override
+	public boolean contains(Object o)
+	{
+		return (o instanceof BioPAXElement) && get(((BioPAXElement) o).getUri()) == o;
+	}
+
+	@Override
+	public E get(String uri)
+	{
+		Object current = elements;
+		return (current instanceof Object[]) ? (E) find((Object[]) current, uri) : map(current).get(uri);
+	}
+
+	private static Object find(Object[] array, String uri)
+	{
+		for (Object o : array)
+		{
+			if (((BioPAXElement) o).getUri().equals(uri))
+			{
+				return o;
+			}
+		}
+		return null;
+	}
+
+	private ConcurrentMap<String, E> map(Object current)
+	{
+		return (ConcurrentMap<String, E>) current;
+	}
+
+	private class SnapshotIterator implements Iterator<E>
+	{
+		private final Object[] snapshot;
+		private int next = 0;
+		private E last = null;
+
+		SnapshotIterator(Object[] snapshot)
+		{
+			this.snapshot = snapshot;
+		}
+
+		public boolean hasNext()
+		{
+			return next < snapshot.length;
+		}
+
+		public E next()
+		{
+			if (next >= snapshot.length)
+			{
+				throw new NoSuchElementException();
+			}
+			last = (E) snapshot[next++];
+			return last;
+		}
+
+		public void remove()
+		{
+			if (last == null)
+			{
+				throw new IllegalStateException();
+			}
+			ConcurrentBiopaxSafeSet.this.remove(last);
+			last = null;
+		}
+	}
+}
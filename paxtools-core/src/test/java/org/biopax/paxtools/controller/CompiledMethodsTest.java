@@ -0,0 +1,67 @@
+package org.biopax.paxtools.controller;
+
+import org.biopax.paxtools.model.BioPAXFactory;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.level3.DeltaG;
+import org.biopax.paxtools.model.level3.Protein;
+import org.biopax.paxtools.model.level3.TemplateDirectionType;
+import org.biopax.paxtools.model.level3.TemplateReaction;
+import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CompiledMethodsTest
+{
+	@Test
+	public void testCompile() throws Exception
+	{
+		BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		Protein protein = factory.create(Protein.class, "P");
+
+		CompiledMethod set = CompiledMethods.compile(Protein.class.getMethod("setDisplayName", String.class));
+		CompiledMethod get = CompiledMethods.compile(Protein.class.getMethod("getDisplayName"));
+		CompiledMethod add = CompiledMethods.compile(Protein.class.getMethod("addComment", String.class));
+		assertNotNull(set);
+		assertNotNull(get);
+		assertNotNull(add);
+		assertNull(set.invoke(protein, "p1"));
+		assertEquals("p1", get.invoke(protein, null));
+		add.invoke(protein, "c1");
+		assertTrue(protein.getComment().contains("c1"));
+
+		// primitive parameter and return types
+		DeltaG deltaG = factory.create(DeltaG.class, "DG");
+		CompiledMethods.compile(DeltaG.class.getMethod("setDeltaGPrime0", float.class)).invoke(deltaG, 1.5f);
+		assertEquals(1.5f, CompiledMethods.compile(DeltaG.class.getMethod("getDeltaGPrime0")).invoke(deltaG, null));
+
+		TemplateReaction tr = factory.create(TemplateReaction.class, "TR");
+		CompiledMethods.compile(TemplateReaction.class.getMethod("setTemplateDirection", TemplateDirectionType.class))
+			.invoke(tr, TemplateDirectionType.FORWARD);
+		assertEquals(TemplateDirectionType.FORWARD, tr.getTemplateDirection());
+	}
+
+	@Test
+	public void testEditors()
+	{
+		BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		Protein protein = factory.create(Protein.class, "P");
+		PropertyEditor editor = SimpleEditorMap.L3.getEditorForProperty("name", Protein.class);
+		editor.setValueToBean("n1", protein);
+		editor.setValueToBean("n2", protein);
+		assertEquals(2, editor.getValueFromBean(protein).size());
+		editor.removeValueFromBean("n1", protein);
+		assertEquals(1, protein.getName().size());
+
+		try
+		{
+			// wrong range value must fail the same way as with reflection
+			editor = SimpleEditorMap.L3.getEditorForProperty("entityReference", Protein.class);
+			((AbstractPropertyEditor) editor).invokeMethod(editor.getPrimarySetMethod(), protein, "not a reference");
+			fail();
+		}
+		catch (IllegalBioPAXArgumentException e)
+		{
+		}
+	}
+}
@@ -1,12 +1,15 @@
 package org.biopax.paxtools.controller;
 
+import org.biopax.paxtools.io.SimpleIOHandler;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.BioPAXLevel;
 import org.biopax.paxtools.model.Model;
 import org.biopax.paxtools.model.level3.*;
+import org.biopax.paxtools.model.level3.Process;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.*;
@@ -93,4 +96,56 @@ public class FetcherTest {
 		assertEquals(7, elements.size());
 	}
 
+
+	@Test
+	public final void testBatchFetch() {
+		Model hcyc = new SimpleIOHandler().convertFromOWL(getClass().getClassLoader().getResourceAsStream("L3/hcyc.owl"));
+		for (Model m : new Model[]{model, hcyc}) {
+			for (boolean skipSubPathways : new boolean[]{false, true}) {
+				for (int cacheSize : new int[]{1, 3, Fetcher.DEFAULT_CACHE_SIZE}) {
+					Fetcher fetcher = new Fetcher(SimpleEditorMap.L3, Fetcher.nextStepFilter);
+					fetcher.setSkipSubPathways(skipSubPathways);
+					fetcher.setCacheSize(cacheSize);
+					Map<BioPAXElement, Set<Process>> processes = fetcher.fetch(m.getObjects(), Process.class);
+					Map<BioPAXElement, Set<BioPAXElement>> all = fetcher.fetch(m.getObjects(), BioPAXElement.class);
+					Map<BioPAXElement, Integer> counts = fetcher.count(m.getObjects(Entity.class), Process.class);
+					assertEquals(m.getObjects().size(), processes.size());
+					for (BioPAXElement bpe : m.getObjects()) {
+						assertEquals(bpe.getUri(), fetcher.fetch(bpe, Process.class), processes.get(bpe));
+						assertEquals(bpe.getUri(), fetcher.fetch(bpe, BioPAXElement.class), all.get(bpe));
+						if (bpe instanceof Entity)
+							assertEquals(bpe.getUri(), processes.get(bpe).size(), counts.get(bpe).intValue());
+					}
+				}
+			}
+		}
+	}
+
+	@Test(timeout = 60000)
+	public final void testBatchFetchSmallCache() {
+		// a ladder of diamonds, each pathway has the next two as components
+		Model m = BioPAXLevel.L3.getDefaultFactory().createModel();
+		int depth = 500;
+		Pathway[] p = new Pathway[depth + 1];
+		Pathway[] q = new Pathway[depth + 1];
+		for (int i = 0; i <= depth; i++) {
+			p[i] = m.addNew(Pathway.class, "p" + i);
+			q[i] = m.addNew(Pathway.class, "q" + i);
+			if (i > 0) {
+				p[i - 1].addPathwayComponent(p[i]);
+				p[i - 1].addPathwayComponent(q[i]);
+				q[i - 1].addPathwayComponent(p[i]);
+				q[i - 1].addPathwayComponent(q[i]);
+			}
+		}
+
+		// nothing is computed twice within a root, whatever is evicted
+		Fetcher fetcher = new Fetcher(SimpleEditorMap.L3);
+		fetcher.setCacheSize(1);
+		Map<BioPAXElement, Integer> counts = fetcher.count(m.getObjects(Pathway.class), Pathway.class);
+		for (int i = 0; i <= depth; i++) {
+			assertEquals(2 * (depth - i), counts.get(p[i]).intValue());
+			assertEquals(2 * (depth - i), counts.get(q[i]).intValue());
+		}
+	}
 }
@@ -0,0 +1,72 @@
+package org.biopax.paxtools.controller;
+
+import org.biopax.paxtools.io.SimpleIOHandler;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXFactory;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.*;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ModelContextTest
+{
+	@Test
+	public final void testSameAsModelUtils()
+	{
+		for (String file : new String[]{"L3/biopax3-short-metabolic-pathway.owl", "L3/hcyc.owl"})
+		{
+			Model model = new SimpleIOHandler().convertFromOWL(getClass().getClassLoader().getResourceAsStream(file));
+			ModelContext context = new ModelContext(model);
+			for (BioPAXElement bpe : model.getObjects())
+			{
+				assertEquals(bpe.getUri(), ModelUtils.getParentPathways(bpe), context.getParentPathways(bpe));
+				assertEquals(bpe.getUri(), ModelUtils.getDatasources(bpe), context.getDatasources(bpe));
+				assertEquals(bpe.getUri(), ModelUtils.getOrganisms(bpe), context.getOrganisms(bpe));
+			}
+		}
+	}
+
+	@Test
+	public final void testCycles()
+	{
+		BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		Model model = factory.createModel();
+		Pathway p1 = model.addNew(Pathway.class, "p1");
+		Pathway p2 = model.addNew(Pathway.class, "p2");
+		Pathway p3 = model.addNew(Pathway.class, "p3");
+		BioSource human = model.addNew(BioSource.class, "human");
+		Provenance ds = model.addNew(Provenance.class, "ds");
+		BiochemicalReaction rx = model.addNew(BiochemicalReaction.class, "rx");
+		Protein protein = model.addNew(Protein.class, "protein");
+		ProteinReference pr = model.addNew(ProteinReference.class, "pr");
+		pr.setOrganism(human);
+		protein.setEntityReference(pr);
+		protein.addDataSource(ds);
+		rx.addLeft(protein);
+		// p1 -> p2 -> p1, and p3 -> p2
+		p1.addPathwayComponent(p2);
+		p2.addPathwayComponent(p1);
+		p3.addPathwayComponent(p2);
+		p2.addPathwayComponent(rx);
+
+		ModelContext context = new ModelContext(model);
+		assertEquals(ModelUtils.getParentPathways(pr), context.getParentPathways(pr));
+		assertEquals(3, context.getParentPathways(pr).size());
+		assertEquals(3, context.getParentPathways(p1).size());
+		assertEquals(Collections.singleton(p3), context.getParentPathways(p3));
+		assertSame(context.getParentPathways(p1), context.getParentPathways(p2));
+		assertEquals(Collections.singleton(ds), context.getDatasources(pr));
+		assertEquals(Collections.singleton(human), context.getOrganisms(rx));
+		assertTrue(context.getOrganisms(p1).isEmpty());
+
+		// not in the model
+		Protein other = factory.create(Protein.class, "other");
+		other.setEntityReference(pr);
+		assertEquals(Collections.singleton(human), context.getOrganisms(other));
+		assertTrue(context.getParentPathways(other).isEmpty());
+	}
+}
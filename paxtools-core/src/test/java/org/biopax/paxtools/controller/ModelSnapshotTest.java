@@ -0,0 +1,56 @@
+package org.biopax.paxtools.controller;
+
+import org.biopax.paxtools.io.SimpleIOHandler;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.Protein;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ModelSnapshotTest
+{
+	@Test
+	public final void testSnapshot()
+	{
+		Model model = new SimpleIOHandler().convertFromOWL(getClass().getClassLoader().getResourceAsStream("L3/hcyc.owl"));
+		ModelSnapshot graph = new ModelSnapshot(model, SimpleEditorMap.L3, Fetcher.nextStepFilter);
+		assertEquals(model.getObjects().size(), graph.size());
+		assertEquals(-1, graph.getId(BioPAXLevel.L3.getDefaultFactory().create(Protein.class, "not-there")));
+
+		Fetcher fetcher = new Fetcher(SimpleEditorMap.L3, Fetcher.nextStepFilter);
+		int inverse = 0;
+		for (int v = 0; v < graph.size(); v++)
+		{
+			BioPAXElement bpe = graph.getElement(v);
+			assertEquals(v, graph.getId(bpe));
+
+			// forward edges are the property values
+			for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++)
+			{
+				Set values = graph.getEditor(graph.label(e)).getValueFromBean(bpe);
+				assertTrue(values.contains(graph.getElement(graph.target(e))));
+			}
+			// inverse edges point back
+			for (int e = graph.inverseEdgeStart(v); e < graph.inverseEdgeEnd(v); e++, inverse++)
+			{
+				BioPAXElement source = graph.getElement(graph.source(e));
+				Set values = graph.getEditor(graph.inverseLabel(e)).getValueFromBean(source);
+				assertTrue(values.contains(bpe));
+			}
+
+			// the same as the fetcher finds
+			BitSet reachable = graph.reachable(new int[]{v}, true);
+			Set<BioPAXElement> children = new HashSet<BioPAXElement>();
+			for (int i = reachable.nextSetBit(0); i >= 0; i = reachable.nextSetBit(i + 1))
+				children.add(graph.getElement(i));
+			assertEquals(bpe.getUri(), fetcher.fetch(bpe, BioPAXElement.class), children);
+		}
+		assertEquals(graph.edgeCount(), inverse);
+	}
+}
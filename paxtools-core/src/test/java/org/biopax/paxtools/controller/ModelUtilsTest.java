@@ -15,6 +15,8 @@ import org.junit.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -133,6 +135,65 @@ public class ModelUtilsTest {
 	}
 
 
+	@Test
+	public final void testReplaceReferrers() {
+		BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		Model m = factory.createModel();
+		Provenance ds1 = m.addNew(Provenance.class, "ds1");
+		BioSource org1 = m.addNew(BioSource.class, "org1");
+		UnificationXref x1 = m.addNew(UnificationXref.class, "x1");
+		ProteinReference pr = m.addNew(ProteinReference.class, "pr");
+		Protein p = m.addNew(Protein.class, "p");
+		Pathway pw = m.addNew(Pathway.class, "pw");
+		pr.setOrganism(org1);
+		pr.addXref(x1);
+		p.setEntityReference(pr);
+		p.addDataSource(ds1);
+		pw.addDataSource(ds1);
+		pw.setOrganism(org1);
+		pw.addPathwayComponent(m.addNew(Degradation.class, "d"));
+
+		// replacements are not in the model, and one of the properties (dataSource, organism) has no inverse
+		Provenance ds2 = factory.create(Provenance.class, "ds2");
+		BioSource org2 = factory.create(BioSource.class, "org2");
+		UnificationXref x2 = factory.create(UnificationXref.class, "x2");
+		Map<BioPAXElement, BioPAXElement> subs = new HashMap<BioPAXElement, BioPAXElement>();
+		subs.put(ds1, ds2);
+		subs.put(org1, org2);
+		subs.put(x1, x2);
+		ModelUtils.replace(m, subs);
+
+		assertEquals(Collections.singleton(ds2), p.getDataSource());
+		assertEquals(Collections.singleton(ds2), pw.getDataSource());
+		assertEquals(org2, pr.getOrganism());
+		assertEquals(org2, pw.getOrganism());
+		assertEquals(Collections.singleton(x2), pr.getXref());
+		assertTrue(x2.getXrefOf().contains(pr));
+		assertTrue(x1.getXrefOf().isEmpty());
+		assertEquals(1, pw.getPathwayComponent().size()); // untouched
+	}
+
+	@Test
+	public final void testReplaceEqualValue() {
+		BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		Model m = factory.createModel();
+		UnificationXref x1 = m.addNew(UnificationXref.class, "x1");
+		ProteinReference pr = m.addNew(ProteinReference.class, "pr");
+		pr.addXref(x1);
+
+		// the key is equal to the model's xref but not the same object, so it has no xrefOf
+		UnificationXref x1copy = factory.create(UnificationXref.class, "x1");
+		UnificationXref x2 = factory.create(UnificationXref.class, "x2");
+		assertEquals(x1, x1copy);
+		assertTrue(x1copy.getXrefOf().isEmpty());
+		ModelUtils.replace(m, Collections.singletonMap(x1copy, x2));
+
+		assertEquals(Collections.singleton(x2), pr.getXref());
+		assertTrue(x2.getXrefOf().contains(pr));
+		assertTrue(x1.getXrefOf().isEmpty());
+	}
+
+
 	private void printModel(Model model) {
 		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
 		new SimpleIOHandler().convertToOWL(model, bytes);
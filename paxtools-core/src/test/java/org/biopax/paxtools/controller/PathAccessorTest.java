@@ -10,6 +10,7 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Set;
 
 import static org.junit.Assert.assertFalse;
@@ -99,4 +100,39 @@ public class PathAccessorTest
 	        assertEquals(1, values.size());
 	        assertTrue(values.contains(smr[0]));
 	}
+
+	@Test
+	public void testCompiledPaths()
+	{
+		MockFactory mock = new MockFactory(BioPAXLevel.L3);
+		final Model model = mock.createModel();
+
+		Protein[] p = mock.create(model, Protein.class, 4);
+		ProteinReference[] pr = mock.create(model, ProteinReference.class, 2);
+		UnificationXref[] ux = mock.create(model, UnificationXref.class, 2);
+		PublicationXref[] px = mock.create(model, PublicationXref.class, 1);
+		Complex[] c = mock.create(model, Complex.class, 3);
+		mock.bindInPairs(mock.editor("entityReference", Protein.class),
+		                 p[0], pr[0], p[1], pr[0], p[2], pr[1], p[3], pr[1]);
+		mock.bindInPairs(mock.editor("xref", ProteinReference.class),
+		                 pr[0], ux[0], pr[0], px[0], pr[1], ux[1]);
+		mock.bindInPairs(mock.editor("component", Complex.class),
+		                 c[0], c[1], c[1], c[2], c[2], p[0]);
+
+		for (String path : Arrays.asList("Protein/entityReference/xref:UnificationXref",
+			"Protein/entityReference/xref/db", "UnificationXref/xrefOf", "Complex/component*/name",
+			"Complex/component*:Protein/entityReference", "Protein/cellularLocation"))
+		{
+			PathAccessor accessor = new PathAccessor(path, BioPAXLevel.L3);
+			PathPlan plan = accessor.compile();
+			assertEquals(path, accessor.getValueFromModel(model), plan.getValueFromModel(model));
+			assertEquals(path, accessor.getValueFromModel(model), plan.getValueFromModel(model, 2));
+			for (BioPAXElement bpe : model.getObjects())
+				assertEquals(path, accessor.getValueFromBean(bpe), plan.getValueFromBean(bpe));
+		}
+
+		PathPlan plan = new PathAccessor("ProteinReference/xref:UnificationXref").compile();
+		assertEquals(ProteinReference.class, plan.getDomain());
+		assertEquals(new HashSet<Object>(Arrays.asList(ux)), plan.getValueFromModel(model));
+	}
 }
@@ -0,0 +1,160 @@
+package org.biopax.paxtools.impl;
+
+import org.biopax.paxtools.controller.ObjectPropertyEditor;
+import org.biopax.paxtools.controller.PropertyEditor;
+import org.biopax.paxtools.controller.SimpleEditorMap;
+import org.biopax.paxtools.io.SimpleIOHandler;
+import org.biopax.paxtools.io.SimpleIOHandlerTest;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.Entity;
+import org.biopax.paxtools.model.level3.Protein;
+import org.biopax.paxtools.model.level3.XReferrable;
+import org.biopax.paxtools.model.level3.Xref;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class MappedModelTest
+{
+	@Test
+	public final void testSaveAndMap() throws Exception
+	{
+		Model model = SimpleIOHandlerTest.getL3Model(new SimpleIOHandler());
+		File file = File.createTempFile("paxtools", ".bpxm");
+		file.deleteOnExit();
+		MappedModel.save(model, file);
+
+		MappedModel mapped = new MappedModel(file, 10);
+		assertEquals(model.getLevel(), mapped.getLevel());
+		assertEquals(model.getXmlBase(), mapped.getXmlBase());
+		assertEquals(model.getNameSpacePrefixMap(), mapped.getNameSpacePrefixMap());
+		assertEquals(model.getObjects().size(), mapped.getObjects().size());
+		assertEquals(model.getObjects(Entity.class).size(), mapped.getObjects(Entity.class).size());
+		assertEquals(model.getObjects(Xref.class).size(), mapped.getObjects(Xref.class).size());
+		assertFalse(mapped.containsID("urn:not-there"));
+		assertNull(mapped.getByID("urn:not-there"));
+
+		for (BioPAXElement bpe : model.getObjects())
+		{
+			assertTrue(mapped.containsID(bpe.getUri()));
+			BioPAXElement other = mapped.getByID(bpe.getUri());
+			assertEquals(bpe, other);
+			assertTrue(mapped.contains(bpe));
+			for (PropertyEditor editor : SimpleEditorMap.L3.getEditorsOf(bpe))
+			{
+				assertEquals(bpe.getUri() + " " + editor.getProperty(),
+						valueStrings(editor.getValueFromBean(bpe)), valueStrings(editor.getValueFromBean(other)));
+			}
+		}
+
+		int proteins = 0;
+		for (Protein p : mapped.getObjects(Protein.class))
+		{
+			assertTrue(model.containsID(p.getUri()));
+			proteins++;
+		}
+		assertEquals(model.getObjects(Protein.class).size(), proteins);
+	}
+
+	@Test
+	public final void testViews() throws Exception
+	{
+		Model model = SimpleIOHandlerTest.getL3Model(new SimpleIOHandler());
+		File file = File.createTempFile("paxtools", ".bpxm");
+		file.deleteOnExit();
+		MappedModel.save(model, file);
+		MappedModel mapped = new MappedModel(file, 10);
+
+		for (BioPAXElement bpe : model.getObjects())
+		{
+			// one view per object, while it is in use
+			BioPAXElement view = mapped.getByID(bpe.getUri());
+			assertSame(view, mapped.getByID(bpe.getUri()));
+			assertEquals(bpe.hashCode(), view.hashCode());
+			// the inverse properties are stored too
+			for (ObjectPropertyEditor editor : SimpleEditorMap.L3.getInverseEditorsOf(bpe))
+			{
+				assertEquals(bpe.getUri() + " " + editor.getProperty() + "Of",
+					valueStrings(editor.getInverseAccessor().getValueFromBean(bpe)),
+					valueStrings(editor.getInverseAccessor().getValueFromBean(view)));
+			}
+		}
+
+		int links = 0;
+		for (Xref xref : mapped.getObjects(Xref.class))
+		{
+			assertFalse(xref.getXrefOf().isEmpty());
+			for (XReferrable owner : xref.getXrefOf())
+			{
+				// the values are the views of the same model
+				assertSame(owner, mapped.getByID(owner.getUri()));
+				assertTrue(owner.getXref().contains(xref));
+				links++;
+			}
+		}
+		assertTrue(links > 0);
+	}
+
+	@Test
+	public final void testUnsupported() throws Exception
+	{
+		Model model = SimpleIOHandlerTest.getL3Model(new SimpleIOHandler());
+		File file = File.createTempFile("paxtools", ".bpxm");
+		file.deleteOnExit();
+		MappedModel.save(model, file);
+		MappedModel mapped = new MappedModel(file, 10);
+
+		Protein protein = mapped.getObjects(Protein.class).iterator().next();
+		protein.getAnnotations().put("foo", "bar");
+		assertEquals("bar", mapped.getByID(protein.getUri()).getAnnotations().get("foo"));
+		try
+		{
+			protein.addName("foo");
+			fail("modified a read-only object");
+		}
+		catch (UnsupportedOperationException e)
+		{
+		}
+		try
+		{
+			protein.getName().add("foo");
+			fail("modified a read-only property");
+		}
+		catch (UnsupportedOperationException e)
+		{
+		}
+		try
+		{
+			protein.isEquivalent(protein);
+			fail("not a property getter");
+		}
+		catch (UnsupportedOperationException e)
+		{
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public final void testReadOnly() throws Exception
+	{
+		Model model = SimpleIOHandlerTest.getL3Model(new SimpleIOHandler());
+		File file = File.createTempFile("paxtools", ".bpxm");
+		file.deleteOnExit();
+		MappedModel.save(model, file);
+		new MappedModel(file).addNew(Protein.class, "urn:new");
+	}
+
+	private static Set<String> valueStrings(Set<?> values)
+	{
+		Set<String> strings = new HashSet<String>();
+		for (Object value : values)
+		{
+			strings.add((value instanceof BioPAXElement) ? ((BioPAXElement) value).getUri() : String.valueOf(value));
+		}
+		return strings;
+	}
+}
@@ -0,0 +1,167 @@
+package org.biopax.paxtools.impl;
+
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXFactory;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.impl.level3.ProteinImpl;
+import org.biopax.paxtools.model.level3.*;
+import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class ModelImplTest
+{
+	@Test
+	public final void testAddRemove()
+	{
+		BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		Model model = factory.createModel();
+		Protein p = model.addNew(Protein.class, "p");
+		assertTrue(model.contains(p));
+		assertSame(p, model.getByID("p"));
+		assertFalse(model.containsID(null));
+		assertNull(model.getByID(null));
+
+		try {
+			model.add(p);
+			fail("duplicate element");
+		} catch (IllegalBioPAXArgumentException e) {
+		}
+		Protein other = factory.create(Protein.class, "p");
+		try {
+			model.add(other);
+			fail("same URI");
+		} catch (IllegalBioPAXArgumentException e) {
+		}
+		assertFalse(model.contains(other));
+
+		// removes only the same object
+		model.remove(other);
+		assertTrue(model.contains(p));
+		model.remove(p);
+		assertFalse(model.containsID("p"));
+		model.add(other);
+		assertTrue(model.contains(other));
+	}
+
+	@Test
+	public final void testConcurrentAccess() throws InterruptedException
+	{
+		final BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		final Model model = factory.createModel();
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++)
+		{
+			final int thread = t;
+			threads.add(new Thread() {
+				public void run() {
+					try {
+						for (int i = 0; i < 1000; i++) {
+							String uri = "x" + thread + "_" + i;
+							model.addNew(UnificationXref.class, uri);
+							assertTrue(model.containsID(uri));
+							// iterating while other threads add
+							if (i % 100 == 0)
+								for (BioPAXElement bpe : model.getObjects())
+									assertNotNull(bpe.getUri());
+						}
+					} catch (Throwable e) {
+						error.set(e);
+					}
+				}
+			});
+		}
+		for (Thread thread : threads)
+			thread.start();
+		for (Thread thread : threads)
+			thread.join();
+
+		assertNull(error.get());
+		assertEquals(4000, model.getObjects().size());
+		assertEquals(4000, model.getObjects(UnificationXref.class).size());
+	}
+
+	@Test
+	public final void testConcurrentAddRemove() throws InterruptedException
+	{
+		final BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		final Model model = factory.createModel();
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++)
+		{
+			final Class<? extends Xref> type = (t % 2 == 0) ? UnificationXref.class : RelationshipXref.class;
+			threads.add(new Thread() {
+				public void run() {
+					try {
+						// the threads add and remove their own objects under the same few URIs
+						for (int i = 0; i < 5000; i++) {
+							Xref x = factory.create(type, "x" + (i % 3));
+							try {
+								model.add(x);
+							} catch (IllegalBioPAXArgumentException e) {
+								continue; //another thread's object has this URI
+							}
+							if (i % 2 == 0)
+								model.remove(x);
+						}
+					} catch (Throwable e) {
+						error.set(e);
+					}
+				}
+			});
+		}
+		for (Thread thread : threads)
+			thread.start();
+		for (Thread thread : threads)
+			thread.join();
+
+		assertNull(error.get());
+		// the type index has exactly the objects stored by URI
+		List<Xref> indexed = new ArrayList<Xref>(model.getObjects(Xref.class));
+		assertEquals(model.getObjects().size(), indexed.size());
+		for (Xref x : indexed)
+			assertTrue(model.contains(x));
+	}
+
+	@Test
+	public final void testGetObjectsByType()
+	{
+		BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		Model model = factory.createModel();
+		Set<Xref> xrefs = model.getObjects(Xref.class);
+		Set<XReferrable> xReferrables = model.getObjects(XReferrable.class);
+		assertTrue(xrefs.isEmpty());
+
+		Protein p = model.addNew(Protein.class, "p");
+		UnificationXref ux = model.addNew(UnificationXref.class, "ux");
+		model.addNew(RelationshipXref.class, "rx");
+		model.addNew(ProteinReference.class, "pr");
+
+		// live views
+		assertEquals(2, xrefs.size());
+		assertTrue(xrefs.contains(ux));
+		assertFalse(xrefs.contains(p));
+		assertEquals(2, xReferrables.size()); //protein and its reference (Named extends XReferrable)
+		assertEquals(4, model.getObjects(BioPAXElement.class).size());
+		assertEquals(1, model.getObjects(UnificationXref.class).size());
+		assertEquals(1, model.getObjects(ProteinImpl.class).size());
+		assertTrue(model.getObjects(Pathway.class).isEmpty());
+		assertEquals(new HashSet<Xref>(xrefs), new HashSet<Object>(Arrays.asList(ux, model.getByID("rx"))));
+
+		model.remove(ux);
+		assertEquals(1, xrefs.size());
+		assertFalse(xrefs.contains(ux));
+		assertTrue(model.getObjects(UnificationXref.class).isEmpty());
+	}
+}
@@ -1,6 +1,7 @@
 package org.biopax.paxtools.impl.level3;
 
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 
 import org.biopax.paxtools.model.*;
@@ -10,6 +11,7 @@ import org.biopax.paxtools.model.level3.UnificationXref;
 import org.biopax.paxtools.model.level3.XReferrable;
 import org.biopax.paxtools.model.level3.Xref;
 import org.biopax.paxtools.util.BiopaxSafeSet;
+import org.biopax.paxtools.util.ConcurrentBiopaxSafeSet;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -152,4 +154,47 @@ public class EqualsEtcTest {
 		assertEquals("foo", ((BiopaxSafeSet<Xref>)col1).get("x1").getDb());
 			
 	}
+
+	@Test
+	public final void testConcurrentBiopaxSafeSet() {
+		BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+
+		UnificationXref x1 = factory.create(UnificationXref.class, "x1");
+		UnificationXref x2 = factory.create(UnificationXref.class, "x1");
+		BiopaxSafeSet<Xref> col = new ConcurrentBiopaxSafeSet<Xref>();
+		assertTrue(col.add(x1));
+		assertFalse(col.add(x2)); //same URI
+		assertTrue(col.contains(x1));
+		assertFalse(col.contains(x2));
+		assertEquals(x1, col.get("x1"));
+
+		// grows past the array size, then removes while iterating
+		int n = 2 * ConcurrentBiopaxSafeSet.MAX_ARRAY_SIZE;
+		for(int i = 2; i <= n; i++)
+			col.add(factory.create(UnificationXref.class, "x" + i));
+		assertEquals(n, col.size());
+		assertFalse(col.add(factory.create(UnificationXref.class, "x" + n)));
+		assertNotNull(col.get("x" + n));
+		for(Xref x : col) {
+			if(x.getUri().startsWith("x")) {
+				col.add(factory.create(UnificationXref.class, "y" + x.getUri()));
+				col.remove(x);
+			}
+		}
+		assertFalse(col.contains(x1));
+		assertNull(col.get("x1"));
+		assertNotNull(col.get("yx1"));
+		assertEquals(n, col.size());
+
+		// array-backed snapshot iteration
+		col = new ConcurrentBiopaxSafeSet<Xref>();
+		col.add(x1);
+		Iterator<Xref> it = col.iterator();
+		col.add(factory.create(UnificationXref.class, "x2"));
+		assertEquals(x1, it.next());
+		assertFalse(it.hasNext());
+		it.remove();
+		assertEquals(1, col.size());
+		assertNull(col.get("x1"));
+	}
 }
@@ -0,0 +1,153 @@
+package org.biopax.paxtools.impl.level3;
+
+import org.biopax.paxtools.model.BioPAXFactory;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.level3.*;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class LazyPropertySetsTest
+{
+	@Test
+	public final void testSharedEmptySets()
+	{
+		BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		Protein p1 = factory.create(Protein.class, "p1");
+		Protein p2 = factory.create(Protein.class, "p2");
+
+		// new objects have empty, unallocated properties
+		assertTrue(p1.getDataSource().isEmpty());
+		assertTrue(p2.getEvidence().isEmpty());
+		assertTrue(p2.getName().isEmpty());
+
+		// removing from or clearing an empty property is fine
+		p1.removeName("foo");
+		p1.getComment().clear();
+
+		// first add creates a new set for this property only
+		Provenance ds = factory.create(Provenance.class, "ds");
+		p1.addDataSource(ds);
+		p1.addName("foo");
+		assertEquals(1, p1.getDataSource().size());
+		assertTrue(p1.getName().contains("foo"));
+		assertTrue(p2.getDataSource().isEmpty());
+		assertTrue(p2.getName().isEmpty());
+		assertTrue(p1.getEvidence().isEmpty());
+	}
+
+	@Test
+	public final void testAddToEmptyPropertyView()
+	{
+		BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		Protein p1 = factory.create(Protein.class, "p1");
+		Protein p2 = factory.create(Protein.class, "p2");
+
+		// the set returned for a never-set property can still be modified
+		Set<String> comments = p1.getComment();
+		assertTrue(comments.add("foo"));
+		assertTrue(comments.contains("foo"));
+		assertTrue(p1.getComment().contains("foo"));
+		assertTrue(p2.getComment().isEmpty());
+
+		UnificationXref xref = factory.create(UnificationXref.class, "xref");
+		p1.getXref().add(xref);
+		assertEquals(1, p1.getXref().size());
+		assertTrue(p2.getXref().isEmpty());
+
+		comments.remove("foo");
+		assertTrue(p1.getComment().isEmpty());
+
+		// the getter of an empty property returns the same view each time,
+		// which still shows the property after it is set by the add method
+		Set<String> names = p2.getName();
+		assertSame(names, p2.getName());
+		p2.addName("bar");
+		assertTrue(names.contains("bar"));
+		assertSame(p2.getName(), p2.getName());
+		assertTrue(p2.getName().contains("bar"));
+	}
+
+	@Test
+	public final void testConcurrentFirstAdds() throws Exception
+	{
+		final BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		for (int round = 0; round < 200; round++)
+		{
+			final Protein protein = factory.create(Protein.class, "protein");
+			Thread[] threads = new Thread[4];
+			for (int t = 0; t < threads.length; t++)
+			{
+				final int id = t;
+				threads[t] = new Thread()
+				{
+					public void run()
+					{
+						// via the view of the empty property and via the add method
+						if (id % 2 == 0) protein.getName().add("name" + id);
+						else protein.addName("name" + id);
+					}
+				};
+			}
+			for (Thread thread : threads) thread.start();
+			for (Thread thread : threads) thread.join();
+			assertEquals(threads.length, protein.getName().size());
+		}
+	}
+
+	@Test
+	public final void testSerializeEmptyPropertyView() throws Exception
+	{
+		BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		Protein protein = factory.create(Protein.class, "protein");
+		protein.getName(); // the view of the empty property
+		protein.getComment().add("foo");
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(protein);
+		out.close();
+		Protein copy = (Protein) new ObjectInputStream(
+			new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+		assertTrue(copy.getName().isEmpty());
+		assertTrue(copy.getComment().contains("foo"));
+		copy.addName("bar");
+		assertTrue(copy.getName().contains("bar"));
+	}
+
+	@Test
+	public final void testInverseProperties()
+	{
+		BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		Protein protein = factory.create(Protein.class, "protein");
+		UnificationXref xref = factory.create(UnificationXref.class, "xref");
+		BiochemicalReaction reaction = factory.create(BiochemicalReaction.class, "reaction");
+		Catalysis catalysis = factory.create(Catalysis.class, "catalysis");
+		Pathway pathway = factory.create(Pathway.class, "pathway");
+
+		protein.addXref(xref);
+		reaction.addLeft(protein);
+		catalysis.addController(protein);
+		catalysis.addControlled(reaction);
+		pathway.addPathwayComponent(reaction);
+
+		assertTrue(xref.getXrefOf().contains(protein));
+		assertTrue(protein.getParticipantOf().contains(reaction));
+		assertTrue(protein.getControllerOf().contains(catalysis));
+		assertTrue(reaction.getControlledOf().contains(catalysis));
+		assertTrue(reaction.getPathwayComponentOf().contains(pathway));
+		assertTrue(pathway.getControllerOf().isEmpty());
+
+		pathway.removePathwayComponent(reaction);
+		catalysis.removeController(protein);
+		assertTrue(reaction.getPathwayComponentOf().isEmpty());
+		assertTrue(protein.getControllerOf().isEmpty());
+	}
+}
@@ -0,0 +1,92 @@
+package org.biopax.paxtools.io;
+
+import org.biopax.paxtools.controller.ModelUtils;
+import org.biopax.paxtools.controller.PropertyEditor;
+import org.biopax.paxtools.controller.SimpleEditorMap;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.util.BioPaxIOException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class BinaryIOHandlerTest
+{
+	@Test
+	public final void testRoundTripL3()
+	{
+		Model model = SimpleIOHandlerTest.getL3Model(new SimpleIOHandler());
+		assertRoundTrip(model);
+	}
+
+	@Test
+	public final void testRoundTripL2()
+	{
+		Model model = SimpleIOHandlerTest.getL2Model(new SimpleIOHandler());
+		assertRoundTrip(model);
+	}
+
+	@Test(expected = BioPaxIOException.class)
+	public final void testNotASnapshot()
+	{
+		new BinaryIOHandler().convertFromOWL(new ByteArrayInputStream("<rdf:RDF/>".getBytes()));
+	}
+
+	@Test
+	public final void testOutputStreamNotClosed()
+	{
+		final boolean[] closed = {false};
+		ByteArrayOutputStream out = new ByteArrayOutputStream()
+		{
+			@Override
+			public void close()
+			{
+				closed[0] = true;
+			}
+		};
+		Model model = SimpleIOHandlerTest.getL3Model(new SimpleIOHandler());
+		new BinaryIOHandler().convertToOWL(model, out);
+		assertFalse(closed[0]);
+		assertEquals(model.getObjects().size(),
+			new BinaryIOHandler().convertFromOWL(new ByteArrayInputStream(out.toByteArray())).getObjects().size());
+	}
+
+	private void assertRoundTrip(Model model)
+	{
+		BinaryIOHandler io = new BinaryIOHandler(model.getLevel());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		io.convertToOWL(model, out);
+		Model snapshot = io.convertFromOWL(new ByteArrayInputStream(out.toByteArray()));
+
+		Model expected = ModelUtils.writeRead(model);
+		assertEquals(expected.getLevel(), snapshot.getLevel());
+		assertEquals(expected.getXmlBase(), snapshot.getXmlBase());
+		assertEquals(expected.getObjects().size(), snapshot.getObjects().size());
+		for (BioPAXElement bpe : expected.getObjects())
+		{
+			BioPAXElement other = snapshot.getByID(bpe.getUri());
+			assertNotNull(bpe.getUri(), other);
+			assertEquals(bpe.getModelInterface(), other.getModelInterface());
+			for (PropertyEditor editor : SimpleEditorMap.get(model.getLevel()).getEditorsOf(bpe))
+			{
+				assertEquals(bpe.getUri() + " " + editor.getProperty(),
+						valueStrings(editor.getValueFromBean(bpe)), valueStrings(editor.getValueFromBean(other)));
+			}
+		}
+	}
+
+	private static Set<String> valueStrings(Set<?> values)
+	{
+		Set<String> strings = new HashSet<String>();
+		for (Object value : values)
+		{
+			strings.add((value instanceof BioPAXElement) ? ((BioPAXElement) value).getUri() : String.valueOf(value));
+		}
+		return strings;
+	}
+}
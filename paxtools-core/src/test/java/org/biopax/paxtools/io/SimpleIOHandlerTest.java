@@ -1,14 +1,19 @@
 package org.biopax.paxtools.io;
 
+import org.biopax.paxtools.controller.PropertyEditor;
+import org.biopax.paxtools.controller.SimpleEditorMap;
 import org.biopax.paxtools.impl.MockFactory;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.BioPAXFactory;
 import org.biopax.paxtools.model.BioPAXLevel;
 import org.biopax.paxtools.model.Model;
 import org.biopax.paxtools.model.level3.*;
+import org.biopax.paxtools.util.BioPaxIOException;
 import org.junit.Test;
 
 import java.io.*;
+import java.util.HashSet;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -359,4 +364,97 @@ public class SimpleIOHandlerTest
         Protein prot = (Protein) newModel.getObjects().iterator().next();
         assertTrue(prot.getName().iterator().next().equals(s));
     }
+
+	@Test
+	public final void testStreamingBind() throws IOException
+	{
+		Model model = getL3Model(new SimpleIOHandler());
+
+		SimpleIOHandler io = new SimpleIOHandler();
+		io.streamingBind(true);
+		assertSameContent(model, getL3Model(io));
+	}
+
+	@Test
+	public final void testParallelRead() throws IOException
+	{
+		Model model = getL3Model(new SimpleIOHandler());
+
+		SimpleIOHandler io = new SimpleIOHandler();
+		io.parallelism(4);
+		assertSameContent(model, getL3Model(io));
+
+		io.mergeDuplicates(true);
+		assertSameContent(model, getL3Model(io));
+	}
+
+	@Test
+	public final void testParallelReadFailure() throws Exception
+	{
+		// large enough for the workers to start before the error
+		Model model = BioPAXLevel.L3.getDefaultFactory().createModel();
+		for (int i = 0; i < 5000; i++)
+		{
+			model.addNew(Protein.class, "http://biopax.org/test/protein" + i).addName("P" + i);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SimpleIOHandler().convertToOWL(model, out);
+		byte[] owl = out.toByteArray();
+		byte[] truncated = new byte[owl.length * 3 / 4];
+		System.arraycopy(owl, 0, truncated, 0, truncated.length);
+
+		Set<Thread> before = Thread.getAllStackTraces().keySet();
+		SimpleIOHandler io = new SimpleIOHandler();
+		io.parallelism(4);
+		try
+		{
+			io.convertFromOWL(new ByteArrayInputStream(truncated));
+			fail("read a malformed file");
+		}
+		catch (BioPaxIOException e)
+		{
+		}
+
+		// the worker threads stop once they see the pool shut down
+		Set<Thread> left = new HashSet<Thread>();
+		for (int i = 0; i < 50; i++)
+		{
+			left.clear();
+			for (Thread thread : Thread.getAllStackTraces().keySet())
+			{
+				if (!before.contains(thread) && thread.isAlive() && thread.getName().startsWith("pool-"))
+				{
+					left.add(thread);
+				}
+			}
+			if (left.isEmpty()) break;
+			Thread.sleep(100);
+		}
+		assertTrue("threads left: " + left, left.isEmpty());
+	}
+
+	private static void assertSameContent(Model model, Model other)
+	{
+		assertEquals(model.getObjects().size(), other.getObjects().size());
+		for (BioPAXElement bpe : model.getObjects())
+		{
+			BioPAXElement o = other.getByID(bpe.getUri());
+			assertNotNull(o);
+			for (PropertyEditor editor : SimpleEditorMap.get(model.getLevel()).getEditorsOf(bpe))
+			{
+				assertEquals(bpe.getUri() + " " + editor.getProperty(),
+						valueStrings(editor.getValueFromBean(bpe)), valueStrings(editor.getValueFromBean(o)));
+			}
+		}
+	}
+
+	private static Set<String> valueStrings(Set<?> values)
+	{
+		Set<String> strings = new HashSet<String>();
+		for (Object value : values)
+		{
+			strings.add((value instanceof BioPAXElement) ? ((BioPAXElement) value).getUri() : String.valueOf(value));
+		}
+		return strings;
+	}
 }
@@ -5,6 +5,7 @@ import org.biopax.paxtools.model.BioPAXLevel;
 import org.biopax.paxtools.model.Model;
 import org.biopax.paxtools.model.level3.*;
 import org.biopax.paxtools.query.algorithm.*;
+import org.biopax.paxtools.query.model.AbstractGraph;
 import org.biopax.paxtools.query.model.Graph;
 import org.biopax.paxtools.query.model.GraphObject;
 import org.biopax.paxtools.query.model.Node;
@@ -13,6 +14,7 @@ import org.biopax.paxtools.query.wrapperL3.GraphL3;
 import org.biopax.paxtools.query.wrapperL3undirected.GraphL3Undirected;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
 /**
  * This class provides static methods to execute graph queries. These cover only the most frequent
@@ -46,7 +48,6 @@ public class QueryExecuter
 			if (direction == Direction.UNDIRECTED)
 			{
 				graph = new GraphL3Undirected(model, filters);
-				direction = Direction.BOTHSTREAM;
 			}
 			else
 			{
@@ -55,11 +56,55 @@ public class QueryExecuter
 		}
 		else return Collections.emptySet();
 
+		return runNeighborhood(sourceSet, graph, limit, direction);
+	}
+
+	/**
+	 * Gets neighborhood of the source set, in the given (e.g. prebuilt and shared) graph.
+	 *
+	 * @param sourceSet seed to the query
+	 * @param graph graph to query; a GraphL3Undirected for the UNDIRECTED direction
+	 * @param limit neigborhood distance to get
+	 * @param direction UPSTREAM, DOWNSTREAM, BOTHSTREAM or UNDIRECTED
+	 * @return BioPAX elements in the result set
+	 */
+	public static Set<BioPAXElement> runNeighborhood(
+		Set<BioPAXElement> sourceSet,
+		Graph graph,
+		int limit,
+		Direction direction)
+	{
+		return runNeighborhood(sourceSet, graph, limit, direction, null);
+	}
+
+	/**
+	 * Gets neighborhood of the source set, in the given graph, within the given budgets.
+	 *
+	 * @param sourceSet seed to the query
+	 * @param graph graph to query; a GraphL3Undirected for the UNDIRECTED direction
+	 * @param limit neigborhood distance to get
+	 * @param direction UPSTREAM, DOWNSTREAM, BOTHSTREAM or UNDIRECTED
+	 * @param options budgets of the query, or null; tells whether the result is truncated
+	 * @return BioPAX elements in the result set
+	 */
+	public static Set<BioPAXElement> runNeighborhood(
+		Set<BioPAXElement> sourceSet,
+		Graph graph,
+		int limit,
+		Direction direction,
+		QueryOptions options)
+	{
+		if (direction == Direction.UNDIRECTED)
+		{
+			direction = Direction.BOTHSTREAM;
+		}
+
 		Set<Node> source = prepareSingleNodeSet(sourceSet, graph);
 
 		if (sourceSet.isEmpty()) return Collections.emptySet();
 
 		NeighborhoodQuery query = new NeighborhoodQuery(source, direction, limit);
+		query.setOptions(options);
 		Set<GraphObject> resultWrappers = query.run();
 		return convertQueryResult(resultWrappers, graph, true);
 	}
@@ -76,19 +121,62 @@ public class QueryExecuter
 	public static Set<BioPAXElement> runPathsBetween(Set<BioPAXElement> sourceSet, Model model,
 		int limit, Filter... filters)
 	{
-		Graph graph;
+		if (model.getLevel() != BioPAXLevel.L3) return Collections.emptySet();
 
-		if (model.getLevel() == BioPAXLevel.L3)
-		{
-			graph = new GraphL3(model, filters);
-		}
-		else return Collections.emptySet();
+		return runPathsBetween(sourceSet, new GraphL3(model, filters), limit);
+	}
+
+	/**
+	 * Gets the graph constructed by the paths between the given seed nodes, in the given (e.g.
+	 * prebuilt and shared) graph.
+	 * @param sourceSet Seed to the query
+	 * @param graph graph to query
+	 * @param limit Length limit for the paths to be found
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runPathsBetween(Set<BioPAXElement> sourceSet, Graph graph,
+		int limit)
+	{
+		return runPathsBetween(sourceSet, graph, limit, null);
+	}
+
+	/**
+	 * Gets the graph constructed by the paths between the given seed nodes, in the given prebuilt
+	 * graph, running the searches from the seeds in parallel.
+	 * @param sourceSet Seed to the query
+	 * @param graph prebuilt graph to query
+	 * @param limit Length limit for the paths to be found
+	 * @param executor executor of the searches, or null to run them in this thread
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runPathsBetween(Set<BioPAXElement> sourceSet, Graph graph,
+		int limit, ExecutorService executor)
+	{
+		return runPathsBetween(sourceSet, graph, limit, executor, null);
+	}
+
+	/**
+	 * Gets the graph constructed by the paths between the given seed nodes, in the given graph,
+	 * within the given budgets.
+	 * @param sourceSet Seed to the query
+	 * @param graph graph to query; a prebuilt one if there is an executor
+	 * @param limit Length limit for the paths to be found
+	 * @param executor executor of the searches, or null to run them in this thread
+	 * @param options budgets of the query, or null; tells whether the result is truncated
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runPathsBetween(Set<BioPAXElement> sourceSet, Graph graph,
+		int limit, ExecutorService executor, QueryOptions options)
+	{
+		checkConcurrentUse(graph, executor);
 
 		Collection<Set<Node>> sourceWrappers = prepareNodeSets(sourceSet, graph);
 
 		if (sourceSet.size() < 2) return Collections.emptySet();
 
 		PathsBetweenQuery query = new PathsBetweenQuery(sourceWrappers, limit);
+		query.setExecutor(executor);
+		query.setOptions(options);
 		Set<GraphObject> resultWrappers = query.run();
 		return convertQueryResult(resultWrappers, graph, true);
 	}
@@ -129,18 +217,55 @@ public class QueryExecuter
 		int limit,
 		Filter... filters)
 	{
-		Graph graph;
+		if (model.getLevel() != BioPAXLevel.L3) return Collections.emptySet();
 
-		if (model.getLevel() == BioPAXLevel.L3)
-		{
-			graph = new GraphL3(model, filters);
-		}
-		else return Collections.emptySet();
+		return runPathsFromTo(sourceSet, targetSet, new GraphL3(model, filters), limitType, limit);
+	}
 
+	/**
+	 * Gets paths the graph composed of the paths from a source node, and ends at a target node,
+	 * in the given (e.g. prebuilt and shared) graph.
+	 * @param sourceSet Seeds for start points of paths
+	 * @param targetSet Seeds for end points of paths
+	 * @param graph graph to query
+	 * @param limitType either NORMAL or SHORTEST_PLUS_K
+	 * @param limit Length limit fothe paths to be found
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runPathsFromTo(
+		Set<BioPAXElement> sourceSet,
+		Set<BioPAXElement> targetSet,
+		Graph graph,
+		LimitType limitType,
+		int limit)
+	{
+		return runPathsFromTo(sourceSet, targetSet, graph, limitType, limit, null);
+	}
+
+	/**
+	 * Gets paths the graph composed of the paths from a source node, and ends at a target node,
+	 * in the given graph, within the given budgets.
+	 * @param sourceSet Seeds for start points of paths
+	 * @param targetSet Seeds for end points of paths
+	 * @param graph graph to query
+	 * @param limitType either NORMAL or SHORTEST_PLUS_K
+	 * @param limit Length limit fothe paths to be found
+	 * @param options budgets of the query, or null; tells whether the result is truncated
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runPathsFromTo(
+		Set<BioPAXElement> sourceSet,
+		Set<BioPAXElement> targetSet,
+		Graph graph,
+		LimitType limitType,
+		int limit,
+		QueryOptions options)
+	{
 		Set<Node> source = prepareSingleNodeSet(sourceSet, graph);
 		Set<Node> target = prepareSingleNodeSet(targetSet, graph);
 
 		PathsFromToQuery query = new PathsFromToQuery(source, target, limitType, limit, true);
+		query.setOptions(options);
 		Set<GraphObject> resultWrappers = query.run();
 		return convertQueryResult(resultWrappers, graph, true);
 	}
@@ -161,19 +286,77 @@ public class QueryExecuter
 		int limit,
 		Filter... filters)
 	{
-		Graph graph;
+		if (model.getLevel() != BioPAXLevel.L3) return Collections.emptySet();
 
-		if (model.getLevel() == BioPAXLevel.L3)
-		{
-			graph = new GraphL3(model, filters);
-		}
-		else return Collections.emptySet();
+		return runCommonStream(sourceSet, new GraphL3(model, filters), direction, limit);
+	}
+
+	/**
+	 * Gets the elements in the common upstream or downstream of the seed, in the given (e.g.
+	 * prebuilt and shared) graph.
+	 * @param sourceSet Seed to the query
+	 * @param graph graph to query
+	 * @param direction UPSTREAM or DOWNSTREAM
+	 * @param limit Length limit for the search
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runCommonStream(
+		Set<BioPAXElement> sourceSet,
+		Graph graph,
+		Direction direction,
+		int limit)
+	{
+		return runCommonStream(sourceSet, graph, direction, limit, null);
+	}
+
+	/**
+	 * Gets the elements in the common upstream or downstream of the seed, in the given prebuilt
+	 * graph, running the searches from the seeds in parallel.
+	 * @param sourceSet Seed to the query
+	 * @param graph prebuilt graph to query
+	 * @param direction UPSTREAM or DOWNSTREAM
+	 * @param limit Length limit for the search
+	 * @param executor executor of the searches, or null to run them in this thread
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runCommonStream(
+		Set<BioPAXElement> sourceSet,
+		Graph graph,
+		Direction direction,
+		int limit,
+		ExecutorService executor)
+	{
+		return runCommonStream(sourceSet, graph, direction, limit, executor, null);
+	}
+
+	/**
+	 * Gets the elements in the common upstream or downstream of the seed, in the given graph,
+	 * within the given budgets.
+	 * @param sourceSet Seed to the query
+	 * @param graph graph to query; a prebuilt one if there is an executor
+	 * @param direction UPSTREAM or DOWNSTREAM
+	 * @param limit Length limit for the search
+	 * @param executor executor of the searches, or null to run them in this thread
+	 * @param options budgets of the query, or null; tells whether the result is truncated
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runCommonStream(
+		Set<BioPAXElement> sourceSet,
+		Graph graph,
+		Direction direction,
+		int limit,
+		ExecutorService executor,
+		QueryOptions options)
+	{
+		checkConcurrentUse(graph, executor);
 
 		Collection<Set<Node>> source = prepareNodeSets(sourceSet, graph);
 
 		if (sourceSet.size() < 2) return Collections.emptySet();
 
 		CommonStreamQuery query = new CommonStreamQuery(source, direction, limit);
+		query.setExecutor(executor);
+		query.setOptions(options);
 
 		Set<GraphObject> resultWrappers = query.run();
 		return convertQueryResult(resultWrappers, graph, false);
@@ -196,14 +379,46 @@ public class QueryExecuter
 		int limit,
 		Filter... filters)
 	{
-		Graph graph;
+		if (model.getLevel() != BioPAXLevel.L3) return Collections.emptySet();
 
-		if (model.getLevel() == BioPAXLevel.L3)
-		{
-			graph = new GraphL3(model, filters);
-		}
-		else return Collections.emptySet();
+		return runCommonStreamWithPOI(sourceSet, new GraphL3(model, filters), direction, limit);
+	}
+
+	/**
+	 * First finds the common stream, then completes it with the paths between seed and common
+	 * stream, in the given (e.g. prebuilt and shared) graph.
+	 * @param sourceSet Seed to the query
+	 * @param graph graph to query
+	 * @param direction UPSTREAM or DOWNSTREAM
+	 * @param limit Length limit for the search
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runCommonStreamWithPOI(
+		Set<BioPAXElement> sourceSet,
+		Graph graph,
+		Direction direction,
+		int limit)
+	{
+		return runCommonStreamWithPOI(sourceSet, graph, direction, limit, null);
+	}
 
+	/**
+	 * First finds the common stream, then completes it with the paths between seed and common
+	 * stream, in the given graph, within the given budgets, which both queries share.
+	 * @param sourceSet Seed to the query
+	 * @param graph graph to query
+	 * @param direction UPSTREAM or DOWNSTREAM
+	 * @param limit Length limit for the search
+	 * @param options budgets of the query, or null; tells whether the result is truncated
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runCommonStreamWithPOI(
+		Set<BioPAXElement> sourceSet,
+		Graph graph,
+		Direction direction,
+		int limit,
+		QueryOptions options)
+	{
 		Collection<Set<Node>> sourceSets = prepareNodeSets(sourceSet, graph);
 
 		if (sourceSet.size() < 2) return Collections.emptySet();
@@ -211,6 +426,7 @@ public class QueryExecuter
 		// Run a common stream query
 
 		CommonStreamQuery commStream = new CommonStreamQuery(sourceSets, direction, limit);
+		commStream.setOptions(options);
 
 		Set<GraphObject> resultWrappers = commStream.run();
 
@@ -247,6 +463,7 @@ public class QueryExecuter
 			poi = new PathsFromToQuery(target, source, LimitType.NORMAL, limit, true);
 		}
 
+		poi.setOptions(options);
 		resultWrappers = poi.run();
 		return convertQueryResult(resultWrappers, graph, true);
 	}
@@ -313,6 +530,22 @@ public class QueryExecuter
 		return true;
 	}
 
+	/**
+	 * Checks that the graph can be read by the threads of the executor. Graphs that are not
+	 * prebuilt create their wrappers on demand, which is not thread-safe.
+	 * @param graph graph to query
+	 * @param executor executor of the searches, or null
+	 * @throws IllegalArgumentException if there is an executor and the graph is not prebuilt
+	 */
+	private static void checkConcurrentUse(Graph graph, ExecutorService executor)
+	{
+		if (executor != null && graph instanceof AbstractGraph &&
+			!((AbstractGraph) graph).isPrebuilt())
+		{
+			throw new IllegalArgumentException("The graph has to be prebuilt to run a query in parallel");
+		}
+	}
+
 	/**
 	 * Gets the related wrappers of the given elements in a set.
 	 * @param elements Elements to get the related wrappers
@@ -6,14 +6,21 @@ import org.biopax.paxtools.query.model.Node;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Implements breadth-first search. Takes a set of source nodes, distance limit and labels nodes
- * towards one direction, with their breadth distances.
+ * towards one direction, with their breadth distances. Labels are kept in primitive arrays, by
+ * the ids of the graph objects (see {@link LabelMap}).
  *
  * @author Ozgun Babur
  * @author Merve Cakir
@@ -25,11 +32,27 @@ public class BFS
 	/**
 	 * Distance labels. Missing label interpreted as infinitive.
 	 */
-	protected Map<GraphObject, Integer> dist;
+	private LabelMap distLabels;
 
 	/**
 	 * Color labels. Missing color interpreted as white.
 	 */
+	private LabelMap colorLabels;
+
+	/**
+	 * Live map view of the distance labels, set by {@link #initMaps()}; labels can be read, added
+	 * and changed through it, but assigning another map to the field has no effect on the search.
+	 * @deprecated use {@link #getLabel} and {@link #setLabel}
+	 */
+	@Deprecated
+	protected Map<GraphObject, Integer> dist;
+
+	/**
+	 * Live map view of the color labels, set by {@link #initMaps()}; colors can be read, added
+	 * and changed through it, but assigning another map to the field has no effect on the search.
+	 * @deprecated use {@link #getColor} and {@link #setColor}
+	 */
+	@Deprecated
 	protected Map<GraphObject, Integer> colors;
 
 	/**
@@ -55,7 +78,18 @@ public class BFS
 	/**
 	 * BFS queue.
 	 */
-	protected LinkedList<Node> queue;
+	protected Deque<Node> queue;
+
+	/**
+	 * Nodes that are labeled, but not traversed only because of the limit, in the order they
+	 * would be enqueued. A deeper search continues from these (see {@link #deepen}).
+	 */
+	protected Deque<Node> frontier;
+
+	/**
+	 * Budgets of the search, or null.
+	 */
+	protected QueryOptions options;
 
 	/**
 	 * Constructor with all parameters.
@@ -87,6 +121,15 @@ public class BFS
 	 * @return BFS tree
 	 */
 	public Map<GraphObject, Integer> run()
+	{
+		return search().toMap();
+	}
+
+	/**
+	 * Executes the algorithm, without copying the labels into a map.
+	 * @return distance labels of the reached objects
+	 */
+	public LabelMap search()
 	{
 		initMaps();
 
@@ -108,19 +151,183 @@ public class BFS
 			labelEquivRecursive(source, DOWNWARD, 0, true, false);
 		}
 
-		// Process the queue
+		processQueue();
+
+		return distLabels;
+	}
+
+	/**
+	 * Continues the search to a larger limit, keeping the labels found so far. The labels are
+	 * the same as those of a new search with the larger limit, but the objects within the former
+	 * limit are not traversed again. Starts the search if it has not been run.
+	 * @param limit new distance limit, not smaller than the current one
+	 * @return distance labels of the reached objects
+	 */
+	public LabelMap deepen(int limit)
+	{
+		if (limit < this.limit)
+			throw new IllegalArgumentException("Cannot deepen to a smaller limit: " + limit);
+
+		// A search with no depth does not enqueue its sources, so it starts over
+		if (distLabels == null || frontier == null || this.limit == 0)
+		{
+			this.limit = limit;
+			return search();
+		}
+
+		// The frontier nodes had the former limit as label, so they are traversed only if deeper
+		if (limit > this.limit)
+		{
+			queue.addAll(frontier);
+			frontier.clear();
+		}
+
+		this.limit = limit;
+
+		processQueue();
 
+		return distLabels;
+	}
+
+	/**
+	 * @return whether the search labeled all the objects it can reach, so that a deeper search
+	 * would not label any more
+	 */
+	public boolean isComplete()
+	{
+		return distLabels != null && queue.isEmpty() && (frontier == null || frontier.isEmpty());
+	}
+
+	/**
+	 * Processes the queue until it is empty, or the search is out of budget.
+	 */
+	private void processQueue()
+	{
 		while (!queue.isEmpty())
 		{
-			Node current = queue.remove(0);
+			// Stop with the labels so far if out of budget
+			if (options != null && !options.visit()) break;
+
+			Node current = queue.poll();
 
 			processNode(current);
 
 			// Current node is processed
 			setColor(current, BLACK);
 		}
+	}
 
-		return dist;
+	/**
+	 * Runs a separate search from each of the source sets. The searches are independent, so they
+	 * run in parallel if an executor is given. The graph has to be safe to read concurrently then,
+	 * e.g. a prebuilt one (see {@link org.biopax.paxtools.query.model.AbstractGraph#isPrebuilt}).
+	 * @param sourceSets seeds of the searches
+	 * @param direction direction of the traversal
+	 * @param limit distance limit
+	 * @param executor executor to run the searches on, or null to run them in this thread
+	 * @param options budgets of the searches, or null
+	 * @return distance labels of each search, in the order of the source sets
+	 */
+	public static LabelMap[] searchAll(List<Set<Node>> sourceSets, Direction direction,
+		int limit, ExecutorService executor, QueryOptions options)
+	{
+		return deepenAll(createAll(sourceSets, direction, limit, options), limit, executor);
+	}
+
+	/**
+	 * Creates a search from each of the source sets, to run or deepen later.
+	 * @param sourceSets seeds of the searches
+	 * @param direction direction of the traversal
+	 * @param limit distance limit
+	 * @param options budgets of the searches, or null
+	 * @return the searches, in the order of the source sets
+	 */
+	public static BFS[] createAll(List<Set<Node>> sourceSets, Direction direction, int limit,
+		QueryOptions options)
+	{
+		BFS[] searches = new BFS[sourceSets.size()];
+		for (int i = 0; i < searches.length; i++)
+		{
+			searches[i] = new BFS(sourceSets.get(i), null, direction, limit);
+			searches[i].setOptions(options);
+		}
+		return searches;
+	}
+
+	/**
+	 * Runs or continues each search to the given limit (see {@link #deepen}), in parallel if an
+	 * executor is given (see {@link #searchAll}).
+	 * @param searches searches to deepen
+	 * @param limit new distance limit
+	 * @param executor executor to run the searches on, or null to run them in this thread
+	 * @return distance labels of each search
+	 */
+	public static LabelMap[] deepenAll(BFS[] searches, final int limit, ExecutorService executor)
+	{
+		LabelMap[] labels = new LabelMap[searches.length];
+
+		if (executor == null || searches.length < 2)
+		{
+			for (int i = 0; i < labels.length; i++)
+			{
+				labels[i] = searches[i].deepen(limit);
+			}
+			return labels;
+		}
+
+		List<Callable<LabelMap>> tasks = new ArrayList<Callable<LabelMap>>(labels.length);
+		for (final BFS bfs : searches)
+		{
+			tasks.add(new Callable<LabelMap>()
+			{
+				@Override
+				public LabelMap call()
+				{
+					return bfs.deepen(limit);
+				}
+			});
+		}
+
+		try
+		{
+			List<Future<LabelMap>> futures = executor.invokeAll(tasks);
+			for (int i = 0; i < labels.length; i++)
+			{
+				labels[i] = futures.get(i).get();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for the searches", e);
+		}
+		catch (ExecutionException e)
+		{
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw new RuntimeException(cause);
+		}
+		return labels;
+	}
+
+	/**
+	 * @return budgets of the search, or null
+	 */
+	public QueryOptions getOptions()
+	{
+		return options;
+	}
+
+	/**
+	 * Sets the budgets of the search. When out of budget, the search stops, keeping the labels so
+	 * far. These are still the correct distances, but some objects in the distance limit may not
+	 * be labeled.
+	 * @param options budgets of the search, or null for no limits
+	 */
+	public void setOptions(QueryOptions options)
+	{
+		this.options = options;
 	}
 
 	/**
@@ -130,9 +337,21 @@ public class BFS
 	{
 		// Initialize label, maps and queue
 
-		dist = new HashMap<GraphObject, Integer>();
-		colors = new HashMap<GraphObject, Integer>();
-		queue = new LinkedList<Node>();
+		distLabels = new LabelMap();
+		colorLabels = new LabelMap();
+		dist = distLabels.asMap();
+		colors = colorLabels.asMap();
+		queue = new ArrayDeque<Node>();
+		frontier = new ArrayDeque<Node>();
+	}
+
+	/**
+	 * Removes all the distance and color labels, keeping the capacity of their tables.
+	 */
+	protected void clearLabels()
+	{
+		distLabels.clear();
+		colorLabels.clear();
 	}
 
 	/**
@@ -180,8 +399,12 @@ public class BFS
 			if (neigh.isBreadthNode() && direction == Direction.DOWNSTREAM) dist++;
 
 			// Check if we need to stop traversing the neighbor, enqueue otherwise
-			boolean further = (stopSet == null || !isEquivalentInTheSet(neigh, stopSet)) &&
-				(!neigh.isBreadthNode() || dist < limit) && !neigh.isUbique();
+			boolean open = (stopSet == null || !isEquivalentInTheSet(neigh, stopSet)) &&
+				!neigh.isUbique();
+			boolean further = open && (!neigh.isBreadthNode() || dist < limit);
+
+			// A deeper search would traverse the neighbor
+			Deque<Node> held = open && !further ? frontier : null;
 
 			// Process the neighbor if not processed or not in queue
 
@@ -206,6 +429,11 @@ public class BFS
 						queue.addFirst(neigh);
 					}
 				}
+				else if (held != null)
+				{
+					setColor(neigh, GRAY);
+					held.add(neigh);
+				}
 				else
 				{
 					// If we do not want to traverse this neighbor, we paint it black
@@ -213,9 +441,9 @@ public class BFS
 				}
 			}
 
-
-			labelEquivRecursive(neigh, UPWARD, getLabel(neigh), further, !neigh.isBreadthNode());
-			labelEquivRecursive(neigh, DOWNWARD, getLabel(neigh), further, !neigh.isBreadthNode());
+			Deque<Node> target = further ? queue : held;
+			labelEquivRecursive(neigh, UPWARD, getLabel(neigh), target, !neigh.isBreadthNode());
+			labelEquivRecursive(neigh, DOWNWARD, getLabel(neigh), target, !neigh.isBreadthNode());
 		}
 	}
 
@@ -229,6 +457,21 @@ public class BFS
 	 */
 	protected void labelEquivRecursive(Node node, boolean up, int dist,
 		boolean enqueue, boolean head)
+	{
+		labelEquivRecursive(node, up, dist, enqueue ? queue : null, head);
+	}
+
+	/**
+	 * Labels equivalent nodes recursively.
+	 * @param node Node to label equivalents
+	 * @param up Traversing direction. Up means towards parents, if false then towards children
+	 * @param dist The label
+	 * @param target Where to enqueue the equivalents, the queue or the frontier, or null to not
+	 * enqueue them
+	 * @param head Where to enqueue. Head or tail.
+	 */
+	private void labelEquivRecursive(Node node, boolean up, int dist, Deque<Node> target,
+		boolean head)
 	{
 		if(node == null) {
 			LOG.error("labelEquivRecursive: null (Node)");
@@ -241,12 +484,12 @@ public class BFS
 			{
 				setLabel(equiv, dist);
 
-				if (enqueue)
+				if (target != null)
 				{
 					setColor(equiv, GRAY);
 
-					if (head) queue.addFirst(equiv);
-					else queue.add(equiv);
+					if (head) target.addFirst(equiv);
+					else target.add(equiv);
 				}
 				else
 				{
@@ -254,7 +497,7 @@ public class BFS
 				}
 			}
 
-			labelEquivRecursive(equiv, up, dist, enqueue, head);
+			labelEquivRecursive(equiv, up, dist, target, head);
 		}
 	}
 
@@ -295,15 +538,8 @@ public class BFS
 	 */
 	protected int getColor(Node node)
 	{
-		if (!colors.containsKey(node))
-		{
-			// Absence of color is interpreted as white
-			return WHITE;
-		}
-		else
-		{
-			return colors.get(node);
-		}
+		// Absence of color is interpreted as white
+		return colorLabels.get(node, WHITE);
 	}
 
 	/**
@@ -313,7 +549,7 @@ public class BFS
 	 */
 	protected void setColor(Node node, int color)
 	{
-		colors.put(node, color);
+		colorLabels.put(node, color);
 	}
 
 	/**
@@ -323,15 +559,8 @@ public class BFS
 	 */
 	public int getLabel(GraphObject go)
 	{
-		if (!dist.containsKey(go))
-		{
-			// Absence of label is interpreted as infinite
-			return Integer.MAX_VALUE-(limit*2);
-		}
-		else
-		{
-			return dist.get(go);
-		}
+		// Absence of label is interpreted as infinite
+		return distLabels.get(go, Integer.MAX_VALUE-(limit*2));
 	}
 
 	/**
@@ -342,7 +571,7 @@ public class BFS
 	protected void setLabel(GraphObject go, int label)
 	{
 //		System.out.println("Labeling(" + label + "): " + go);
-		dist.put(go, label);
+		distLabels.put(go, label);
 	}
 
 	/**
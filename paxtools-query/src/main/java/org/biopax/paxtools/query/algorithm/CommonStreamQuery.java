@@ -4,6 +4,7 @@ import org.biopax.paxtools.query.model.GraphObject;
 import org.biopax.paxtools.query.model.Node;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Searches common downstream or common upstream of a specified set of entities
@@ -40,7 +41,17 @@ public class CommonStreamQuery
 	 * represents whether the particular graph object is in the boundaries
 	 * of BFS.
 	 */
-	Map<GraphObject, Integer> reachedCount = new HashMap<GraphObject, Integer>();
+	LabelMap reachedCount = new LabelMap();
+
+	/**
+	 * Executor to run the searches from the source sets in parallel, or null.
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * Budgets of the query, or null.
+	 */
+	private QueryOptions options;
 
 	/**
 	 * Constructor for Common Stream with Selected Nodes.
@@ -90,50 +101,83 @@ public class CommonStreamQuery
 	public Set<GraphObject> run()
 	{
 		/**
-		 * Candidate contains all the graph objects that are the results of BFS.
-		 * Eliminating nodes from candidate according to the reached counts
-		 * will yield result.
+		 * Reached counts contain all the graph objects that are the results of BFS.
+		 * Eliminating objects according to the reached counts will yield result.
 		 */
-		Map<GraphObject, Integer> candidate = new HashMap<GraphObject, Integer>();
 		Set<GraphObject> result = new HashSet<GraphObject>();
 		
    		//for each set of states of entity, run BFS separately
-		for (Set<Node> source : sourceSet)
-		{
-			//run BFS for set of states of each entity
-		  	BFS bfs = new BFS (source, null, direction, limit);
-			Map<GraphObject, Integer> BFSResult = new HashMap<GraphObject, Integer>();
-			BFSResult.putAll(bfs.run());
+		LabelMap[] BFSResults = BFS.searchAll(
+			new ArrayList<Set<Node>>(sourceSet), direction, limit, executor, options);
 
+		for (LabelMap BFSResult : BFSResults)
+		{
 			/**
 			 * Reached counts of the graph objects that are in BFSResult will
 			 * be incremented by 1.
 			 */
-			for (GraphObject go : BFSResult.keySet())
+			for (int i = 0; i < BFSResult.capacity(); i++)
 			{
-				setLabel(go, (getLabel(go) + 1));
+				GraphObject go = BFSResult.keyAt(i);
+				if (go != null) setLabel(go, (getLabel(go) + 1));
 			}
-			
-			//put BFS Result into candidate set
-			candidate.putAll(BFSResult);
 		}
 			
 		/**
 		 * Having a reached count equal to number of nodes in the source set
-		 * indicates being in common stream. 
+		 * indicates being in common stream. The reached objects are the candidates.
 		 */
-		for(GraphObject go : candidate.keySet())
+		for (int i = 0; i < reachedCount.capacity(); i++)
 		{
-			if (getLabel(go) == sourceSet.size())
+			GraphObject go = reachedCount.keyAt(i);
+			if (go != null && reachedCount.valueAt(i) == sourceSet.size())
 			{
 				result.add(go);
 			}
 		}
 
+		if (options != null && !options.checkResultSize(result.size())) result.clear();
+
 		//Return the result of query
 		return result;
 	}
 	
+	/**
+	 * @return executor of the searches, or null
+	 */
+	public ExecutorService getExecutor()
+	{
+		return executor;
+	}
+
+	/**
+	 * Sets the executor to run the searches from the source sets in parallel. The graph has to be
+	 * safe to read concurrently then, e.g. a prebuilt one. The result is the same.
+	 * @param executor executor of the searches, or null to run them one by one in this thread
+	 */
+	public void setExecutor(ExecutorService executor)
+	{
+		this.executor = executor;
+	}
+
+	/**
+	 * @return budgets of the query, or null
+	 */
+	public QueryOptions getOptions()
+	{
+		return options;
+	}
+
+	/**
+	 * Sets the budgets of the query. When out of budget, the searches stop, and the query returns
+	 * the part of the result they found, marking the options as truncated.
+	 * @param options budgets of the query, or null for no limits
+	 */
+	public void setOptions(QueryOptions options)
+	{
+		this.options = options;
+	}
+
 	/**
 	 * Method for getting Label of GraphObject.
 	 * If Label is absent, then it returns 0.
@@ -142,15 +186,8 @@ public class CommonStreamQuery
 	 */
 	private int getLabel(GraphObject go)
 	{
-		if (!reachedCount.containsKey(go))
-		{
-			// Absence of label is interpreted as zero
-			return 0;
-		}
-		else
-		{
-			return reachedCount.get(go);
-		}
+		// Absence of label is interpreted as zero
+		return reachedCount.get(go, 0);
 	}
 
 	/**
@@ -28,6 +28,11 @@ public class CycleBreaker extends BFS
 	 */
 	Set<Node> ST;
 
+	/**
+	 * Membership of the objects in the result (1 - in, 0 - removed), by their ids.
+	 */
+	private LabelMap inResult;
+
 	/**
 	 * Constructor with the objects in the result, source and target nodes, and search limit.
 	 * @param result Result set to search in
@@ -46,23 +51,50 @@ public class CycleBreaker extends BFS
 	 */
 	public void breakCycles()
 	{
+		inResult = new LabelMap(result.size());
+		for (GraphObject go : result)
+		{
+			inResult.put(go, 1);
+		}
+
 		for (GraphObject go : new ArrayList<GraphObject>(result))
 		{
+			// Leave the rest of the cycles if out of time
+			if (options != null && options.isExpired()) break;
+
 			if (go instanceof Node)
 			{
 				Node node = (Node) go;
 
 				for (Edge edge : node.getDownstream())
 				{
-					if (result.contains(edge) && !isSafe(node, edge))
+					if (inResult.get(edge, 0) == 1 && !isSafe(node, edge))
 					{
 						result.remove(edge);
+						inResult.put(edge, 0);
 					}
 				}
 			}
 		}
 	}
 
+	/**
+	 * Reuses the maps of the previous check, as their capacity will be needed again.
+	 */
+	@Override
+	protected void initMaps()
+	{
+		if (queue == null)
+		{
+			super.initMaps();
+		}
+		else
+		{
+			clearLabels();
+			queue.clear();
+		}
+	}
+
 	/**
 	 * Checks whether an edge is on an unwanted cycle.
 	 * @param node Node that the edge is bound
@@ -98,7 +130,7 @@ public class CycleBreaker extends BFS
 
 		while (!queue.isEmpty())
 		{
-			Node current = queue.remove(0);
+			Node current = queue.poll();
 
 			if (ST.contains(current)) return true;
 			
@@ -134,7 +166,7 @@ public class CycleBreaker extends BFS
 	{
 		for (Edge edge : edges)
 		{
-			if (!result.contains(edge)) continue;
+			if (inResult.get(edge, 0) != 1) continue;
 			
 			// Label the edge considering direction of traversal and type of current node
 
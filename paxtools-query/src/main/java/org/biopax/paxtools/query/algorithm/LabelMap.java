@@ -0,0 +1,328 @@
+package org.biopax.paxtools.query.algorithm;
+
+import org.biopax.paxtools.query.model.GraphObject;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Int labels of graph objects, such as BFS distances and colors, kept in primitive arrays. This
+ * is an open addressing hash table keyed by the ids of the objects in their graph, so labeling
+ * neither boxes the values nor computes the hash codes of the objects, and the table grows with
+ * the number of labeled objects, not with the size of the graph.
+ *
+ * The labeled objects are iterated by slots, e.g.:
+ * <pre>
+ * for (int i = 0; i &lt; labels.capacity(); i++)
+ * {
+ *   GraphObject go = labels.keyAt(i);
+ *   if (go != null) process(go, labels.valueAt(i));
+ * }
+ * </pre>
+ */
+public final class LabelMap
+{
+	private GraphObject[] keys;
+
+	private int[] ids;
+
+	private int[] values;
+
+	private int size;
+
+	/**
+	 * Creates an empty map.
+	 */
+	public LabelMap()
+	{
+		this(16);
+	}
+
+	/**
+	 * Creates an empty map for the expected number of objects.
+	 * @param expected number of objects to label
+	 */
+	public LabelMap(int expected)
+	{
+		int capacity = Integer.highestOneBit(Math.max(8, expected) * 2 - 1) << 1;
+		keys = new GraphObject[capacity];
+		ids = new int[capacity];
+		values = new int[capacity];
+	}
+
+	/**
+	 * Finds the slot of the object, or the empty slot to put it.
+	 * @param go graph object
+	 * @return slot index
+	 */
+	private int slot(GraphObject go)
+	{
+		int id = go.getId();
+		int mask = keys.length - 1;
+		int h = id * 0x9E3779B9;
+		int slot = (h ^ (h >>> 16)) & mask;
+		while (keys[slot] != null && (ids[slot] != id || keys[slot] != go))
+		{
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * @param go graph object
+	 * @return true if the object has a label
+	 */
+	public boolean containsKey(GraphObject go)
+	{
+		return keys[slot(go)] != null;
+	}
+
+	/**
+	 * @param go graph object
+	 * @param absent value to return if the object has no label
+	 * @return the label of the object
+	 */
+	public int get(GraphObject go, int absent)
+	{
+		int slot = slot(go);
+		return keys[slot] != null ? values[slot] : absent;
+	}
+
+	/**
+	 * Labels the object.
+	 * @param go graph object
+	 * @param value the label
+	 */
+	public void put(GraphObject go, int value)
+	{
+		int slot = slot(go);
+		if (keys[slot] == null)
+		{
+			if (2 * (size + 1) > keys.length)
+			{
+				rehash(keys.length * 2);
+				slot = slot(go);
+			}
+			keys[slot] = go;
+			ids[slot] = go.getId();
+			size++;
+		}
+		values[slot] = value;
+	}
+
+	private void rehash(int capacity)
+	{
+		GraphObject[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new GraphObject[capacity];
+		ids = new int[capacity];
+		values = new int[capacity];
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			if (oldKeys[i] != null)
+			{
+				int slot = slot(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				ids[slot] = oldKeys[i].getId();
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * @return number of labeled objects
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @return number of slots
+	 */
+	public int capacity()
+	{
+		return keys.length;
+	}
+
+	/**
+	 * @param slot slot index
+	 * @return the object in the slot, or null if the slot is empty
+	 */
+	public GraphObject keyAt(int slot)
+	{
+		return keys[slot];
+	}
+
+	/**
+	 * @param slot index of a non-empty slot
+	 * @return the label in the slot
+	 */
+	public int valueAt(int slot)
+	{
+		return values[slot];
+	}
+
+	/**
+	 * Finds where this and the other labels meet.
+	 * @param other other labels
+	 * @return the smallest sum of the two labels of an object labeled in both, or
+	 * Integer.MAX_VALUE if there is no such object
+	 */
+	public int minSum(LabelMap other)
+	{
+		LabelMap small = size <= other.size ? this : other;
+		LabelMap large = small == this ? other : this;
+		int min = Integer.MAX_VALUE;
+		for (int i = 0; i < small.keys.length; i++)
+		{
+			if (small.keys[i] == null) continue;
+			int slot = large.slot(small.keys[i]);
+			if (large.keys[slot] != null && small.values[i] + large.values[slot] < min)
+			{
+				min = small.values[i] + large.values[slot];
+			}
+		}
+		return min;
+	}
+
+	/**
+	 * Adds the labeled objects to the given collection.
+	 * @param collection collection to add to
+	 */
+	public void addKeysTo(Collection<? super GraphObject> collection)
+	{
+		for (GraphObject key : keys)
+		{
+			if (key != null) collection.add(key);
+		}
+	}
+
+	/**
+	 * Removes all the labels.
+	 */
+	public void clear()
+	{
+		Arrays.fill(keys, null);
+		size = 0;
+	}
+
+	/**
+	 * Gives a live map view of the labels, for the code written against the former map labels.
+	 * Labels can be read, added and changed through it, but not removed one by one.
+	 * @return map view of the labels
+	 */
+	public Map<GraphObject, Integer> asMap()
+	{
+		return new AbstractMap<GraphObject, Integer>()
+		{
+			@Override
+			public int size()
+			{
+				return size;
+			}
+
+			@Override
+			public boolean containsKey(Object key)
+			{
+				return key instanceof GraphObject && LabelMap.this.containsKey((GraphObject) key);
+			}
+
+			@Override
+			public Integer get(Object key)
+			{
+				if (!(key instanceof GraphObject)) return null;
+				int slot = slot((GraphObject) key);
+				return keys[slot] != null ? values[slot] : null;
+			}
+
+			@Override
+			public Integer put(GraphObject key, Integer value)
+			{
+				Integer old = get(key);
+				LabelMap.this.put(key, value);
+				return old;
+			}
+
+			@Override
+			public void clear()
+			{
+				LabelMap.this.clear();
+			}
+
+			@Override
+			public Set<Entry<GraphObject, Integer>> entrySet()
+			{
+				return new AbstractSet<Entry<GraphObject, Integer>>()
+				{
+					@Override
+					public int size()
+					{
+						return size;
+					}
+
+					@Override
+					public Iterator<Entry<GraphObject, Integer>> iterator()
+					{
+						return new Iterator<Entry<GraphObject, Integer>>()
+						{
+							int next = advance(0);
+
+							int advance(int slot)
+							{
+								while (slot < keys.length && keys[slot] == null) slot++;
+								return slot;
+							}
+
+							public boolean hasNext()
+							{
+								return next < keys.length;
+							}
+
+							public Entry<GraphObject, Integer> next()
+							{
+								if (!hasNext()) throw new NoSuchElementException();
+								final int slot = next;
+								next = advance(slot + 1);
+								return new SimpleEntry<GraphObject, Integer>(keys[slot], values[slot])
+								{
+									@Override
+									public Integer setValue(Integer value)
+									{
+										values[slot] = value;
+										return super.setValue(value);
+									}
+								};
+							}
+
+							public void remove()
+							{
+								throw new UnsupportedOperationException();
+							}
+						};
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * @return the labels in a new map
+	 */
+	public Map<GraphObject, Integer> toMap()
+	{
+		Map<GraphObject, Integer> map = new HashMap<GraphObject, Integer>(size * 2);
+		for (int i = 0; i < keys.length; i++)
+		{
+			if (keys[i] != null) map.put(keys[i], values[i]);
+		}
+		return map;
+	}
+}
@@ -3,8 +3,11 @@ package org.biopax.paxtools.query.algorithm;
 import org.biopax.paxtools.query.model.GraphObject;
 import org.biopax.paxtools.query.model.Node;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -29,6 +32,11 @@ public class NeighborhoodQuery
 	 */
 	private int limit;
 
+	/**
+	 * Budgets of the query, or null.
+	 */
+	private QueryOptions options;
+
 	/**
 	 * Constructor with parameters.
 	 * @param sourceNodes Seed to the query
@@ -55,19 +63,19 @@ public class NeighborhoodQuery
 		// result set of neighborhood query
 		Set<GraphObject> queryResult = new HashSet<GraphObject>();
 
+		// distance labels of the searches
+		List<LabelMap> labels = new ArrayList<LabelMap>(2);
+
 		// if upstream is selected
 		if (direction == Direction.UPSTREAM || direction == Direction.BOTHSTREAM)
 		{
 			// run BFS in upstream direction
 			BFS bfsBackward = new BFS(sourceNodes, null, Direction.UPSTREAM, this.limit);
-
-			/*
-	  Maps to hold forward and backward BFS results
-	 */
-			Map<GraphObject, Integer> mapBackward = bfsBackward.run();
+			bfsBackward.setOptions(options);
 
 			// add result of BFS to result Set
-			queryResult.addAll(mapBackward.keySet());
+			labels.add(bfsBackward.search());
+			labels.get(labels.size() - 1).addKeysTo(queryResult);
 		}
 
 		// if downstream is selected
@@ -75,14 +83,75 @@ public class NeighborhoodQuery
 		{
 			// run BFS in downstream direction
 			BFS bfsForward = new BFS(sourceNodes, null, Direction.DOWNSTREAM, this.limit);
-
-			Map<GraphObject, Integer> mapForward = bfsForward.run();
+			bfsForward.setOptions(options);
 
 			// add result of BFS to result Set
-			queryResult.addAll(mapForward.keySet());
+			labels.add(bfsForward.search());
+			labels.get(labels.size() - 1).addKeysTo(queryResult);
+		}
+
+		// keep the closest objects if the result is too large
+		if (options != null && !options.checkResultSize(queryResult.size()))
+		{
+			queryResult = getClosest(queryResult, labels, options.getMaxResultSize());
 		}
-		
+
 		// return the result of query
 		return queryResult;
 	}
+
+	/**
+	 * Selects the objects closest to the source nodes, in any of the searches.
+	 * @param objects objects to select from
+	 * @param labels distance labels of the searches
+	 * @param size number of objects to select
+	 * @return selected objects
+	 */
+	private Set<GraphObject> getClosest(Set<GraphObject> objects, List<LabelMap> labels, int size)
+	{
+		final LabelMap dist = new LabelMap(objects.size());
+		for (GraphObject go : objects)
+		{
+			int min = Integer.MAX_VALUE;
+			for (LabelMap map : labels)
+			{
+				min = Math.min(min, map.get(go, Integer.MAX_VALUE));
+			}
+			dist.put(go, min);
+		}
+
+		List<GraphObject> sorted = new ArrayList<GraphObject>(objects);
+		Collections.sort(sorted, new Comparator<GraphObject>()
+		{
+			@Override
+			public int compare(GraphObject go1, GraphObject go2)
+			{
+				int d1 = dist.get(go1, 0);
+				int d2 = dist.get(go2, 0);
+				if (d1 != d2) return d1 < d2 ? -1 : 1;
+				return go1.getId() < go2.getId() ? -1 : go1.getId() == go2.getId() ? 0 : 1;
+			}
+		});
+
+		return new HashSet<GraphObject>(sorted.subList(0, size));
+	}
+
+	/**
+	 * @return budgets of the query, or null
+	 */
+	public QueryOptions getOptions()
+	{
+		return options;
+	}
+
+	/**
+	 * Sets the budgets of the query. When out of budget, the searches stop, and the query returns
+	 * the part of the neighborhood they found, marking the options as truncated. A neighborhood
+	 * larger than the max result size is cut to the objects closest to the source nodes.
+	 * @param options budgets of the query, or null for no limits
+	 */
+	public void setOptions(QueryOptions options)
+	{
+		this.options = options;
+	}
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.biopax.paxtools.query.model.GraphObject;
 import org.biopax.paxtools.query.model.Node;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Finds the paths between the specified source set of states within the boundaries of a
@@ -26,6 +27,22 @@ public class PathsBetweenQuery
 	 */
 	private int limit;
 
+	/**
+	 * Whether to skip the full searches from the source sets that have no path to or from another
+	 * set within the limit, found by a bidirectional search.
+	 */
+	private boolean bidirectional;
+
+	/**
+	 * Executor to run the searches from the source sets in parallel, or null.
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * Budgets of the query, or null.
+	 */
+	private QueryOptions options;
+
 	/**
 	 * Constructor with parameters
 	 * @param sourceSet Seed to the query
@@ -43,30 +60,32 @@ public class PathsBetweenQuery
 		 * Distance labels of graph objects. Note that each source set may have a distinct label for
 		 * the object.
 		 */
-		Map<GraphObject, Map<Set<Node>, Integer>> fwdObj = new HashMap<GraphObject, Map<Set<Node>, Integer>>();
-		Map<GraphObject, Map<Set<Node>, Integer>> revObj = new HashMap<GraphObject, Map<Set<Node>, Integer>>();
+		List<Set<Node>> sets = new ArrayList<Set<Node>>(sourceSet);
+		LabelMap[] fwdObj = new LabelMap[sets.size()];
+		LabelMap[] revObj = new LabelMap[sets.size()];
 
 		Set<GraphObject> result = new HashSet<GraphObject>();
 
-		for (Set<Node> set : sourceSet)
+		if (bidirectional && limit > 0)
 		{
-			BFS bfsFwd = new BFS(set, null, Direction.DOWNSTREAM, limit);
-			BFS bfsRev = new BFS(set, null, Direction.UPSTREAM, limit);
-
-			recordLabels(fwdObj, set, bfsFwd.run());
-			recordLabels(revObj, set, bfsRev.run());
+			searchBidirectional(sets, fwdObj, revObj);
+		}
+		else
+		{
+			fwdObj = BFS.searchAll(sets, Direction.DOWNSTREAM, limit, executor, options);
+			revObj = BFS.searchAll(sets, Direction.UPSTREAM, limit, executor, options);
 		}
-
 
 		/**
 		 * Only the graph objects whose sum of two search labels, coming from different sets,
 		 * being smaller than or equal to the distance limit will be in the result.
 		 */
-		for (GraphObject go : fwdObj.keySet())
+		Closest fwd = new Closest(fwdObj);
+		Closest rev = new Closest(revObj);
+		for (int i = 0; i < fwd.best.capacity(); i++)
 		{
-			if (!revObj.containsKey(go)) continue;
-
-			if (onTheResultPath(fwdObj.get(go), revObj.get(go)))
+			GraphObject go = fwd.best.keyAt(i);
+			if (go != null && onTheResultPath(go, fwd, rev))
 			{
 				result.add(go);
 			}
@@ -79,38 +98,263 @@ public class PathsBetweenQuery
 		}
 
 		CycleBreaker breaker = new CycleBreaker(result, sources, limit);
+		breaker.setOptions(options);
 		breaker.breakCycles();
 
 		Prune prune = new Prune(result, sources);
 		prune.run();
 
+		if (options != null && !options.checkResultSize(result.size())) result.clear();
+
 		return result;
 	}
 
-	private void recordLabels(Map<GraphObject, Map<Set<Node>, Integer>> labels, Set<Node> set,
-		Map<GraphObject, Integer> bfsResult)
+	/**
+	 * Continues the searches from each set to the given depth.
+	 * @param searches searches of the sets
+	 * @param depth new depth of the searches
+	 * @param labels labels of the objects, by set
+	 */
+	private void deepen(BFS[] searches, int depth, LabelMap[] labels)
+	{
+		System.arraycopy(BFS.deepenAll(searches, depth, executor), 0, labels, 0, labels.length);
+	}
+
+	/**
+	 * Continues the searches from the sets that meet another set to the full depth, and removes
+	 * the labels of the others.
+	 * @param searches searches of the sets
+	 * @param meets whether each set meets another set
+	 * @param labels labels of the objects, by set
+	 */
+	private void deepenMeeting(BFS[] searches, boolean[] meets, LabelMap[] labels)
 	{
-		for (GraphObject go : bfsResult.keySet())
+		List<Integer> indices = new ArrayList<Integer>();
+		List<BFS> meeting = new ArrayList<BFS>();
+
+		for (int i = 0; i < searches.length; i++)
+		{
+			if (!meets[i]) labels[i] = new LabelMap();
+			else
+			{
+				indices.add(i);
+				meeting.add(searches[i]);
+			}
+		}
+
+		LabelMap[] searched = BFS.deepenAll(meeting.toArray(new BFS[meeting.size()]), limit,
+			executor);
+		for (int i = 0; i < searched.length; i++)
 		{
-			if (!labels.containsKey(go)) labels.put(go, new HashMap<Set<Node>, Integer>());
+			labels[indices.get(i)] = searched[i];
+		}
+	}
+
+	/**
+	 * Searches forward and backward to increasing depths, each time deepening the direction that
+	 * labeled fewer objects, until the depths add up to limit + 2. Every path within the limit is
+	 * reached by both searches by then (see {@link PathsFromToQuery#setBidirectional}), so only
+	 * the sets that meet another set need the full-depth searches. These continue from where they
+	 * are, as each deepening does. The others cannot contribute to the result, and get no labels.
+	 * @param sets source sets
+	 * @param fwdObj forward labels of each set, to fill
+	 * @param revObj backward labels of each set, to fill
+	 */
+	private void searchBidirectional(List<Set<Node>> sets, LabelMap[] fwdObj, LabelMap[] revObj)
+	{
+		int fwdDepth = 1;
+		int revDepth = fwdDepth;
+		BFS[] fwdSearches = BFS.createAll(sets, Direction.DOWNSTREAM, fwdDepth, options);
+		BFS[] revSearches = BFS.createAll(sets, Direction.UPSTREAM, revDepth, options);
+		deepen(fwdSearches, fwdDepth, fwdObj);
+		deepen(revSearches, revDepth, revObj);
 
-			labels.get(go).put(set, bfsResult.get(go));
+		while (fwdDepth + revDepth < limit + 2 && (fwdDepth < limit || revDepth < limit))
+		{
+			if (fwdDepth < limit && (revDepth == limit || size(fwdObj) <= size(revObj)))
+			{
+				deepen(fwdSearches, ++fwdDepth, fwdObj);
+			}
+			else
+			{
+				deepen(revSearches, ++revDepth, revObj);
+			}
 		}
+
+		boolean[] fwdMeets = meetWithinLimit(fwdObj, revObj);
+		boolean[] revMeets = meetWithinLimit(revObj, fwdObj);
+
+		deepenMeeting(fwdSearches, fwdMeets, fwdObj);
+		deepenMeeting(revSearches, revMeets, revObj);
 	}
 
-	private boolean onTheResultPath(Map<Set<Node>, Integer> fwdMap, Map<Set<Node>, Integer> revMap)
+	/**
+	 * Finds the sets whose labels meet the other direction labels of another set, within the
+	 * limit.
+	 * @param labels labels of each set
+	 * @param other other direction labels of each set
+	 * @return whether each set meets another one
+	 */
+	private boolean[] meetWithinLimit(LabelMap[] labels, LabelMap[] other)
 	{
-		for (Set<Node> set1 : fwdMap.keySet())
+		Closest closest = new Closest(other);
+
+		boolean[] meets = new boolean[labels.length];
+
+		for (int j = 0; j < labels.length; j++)
 		{
-			for (Set<Node> set2 : revMap.keySet())
+			for (int i = 0; i < labels[j].capacity() && !meets[j]; i++)
 			{
-				if (set1 == set2) continue;
+				GraphObject go = labels[j].keyAt(i);
+				if (go == null) continue;
+
+				meets[j] = labels[j].valueAt(i) + closest.fromOther(go, j) <= limit;
+			}
+		}
+		return meets;
+	}
+
+	/**
+	 * @param labels labels of each set
+	 * @return total number of labeled objects
+	 */
+	private static int size(LabelMap[] labels)
+	{
+		int size = 0;
+		for (LabelMap map : labels)
+		{
+			size += map.size();
+		}
+		return size;
+	}
+
+	/**
+	 * @return whether the bidirectional search is used
+	 */
+	public boolean isBidirectional()
+	{
+		return bidirectional;
+	}
+
+	/**
+	 * Sets whether to find the source sets that have a path to or from another set within the
+	 * limit with a bidirectional, frontier-balanced search first, and run the full-depth searches
+	 * only from those. The result is the same.
+	 * @param bidirectional whether to use the bidirectional search
+	 */
+	public void setBidirectional(boolean bidirectional)
+	{
+		this.bidirectional = bidirectional;
+	}
+
+	/**
+	 * @return executor of the searches, or null
+	 */
+	public ExecutorService getExecutor()
+	{
+		return executor;
+	}
+
+	/**
+	 * Sets the executor to run the searches from the source sets in parallel. The graph has to be
+	 * safe to read concurrently then, e.g. a prebuilt one. The result is the same.
+	 * @param executor executor of the searches, or null to run them one by one in this thread
+	 */
+	public void setExecutor(ExecutorService executor)
+	{
+		this.executor = executor;
+	}
+
+	/**
+	 * @return budgets of the query, or null
+	 */
+	public QueryOptions getOptions()
+	{
+		return options;
+	}
+
+	/**
+	 * Sets the budgets of the query. When out of budget, the searches stop, and the query returns
+	 * the part of the result they found, marking the options as truncated.
+	 * @param options budgets of the query, or null for no limits
+	 */
+	public void setOptions(QueryOptions options)
+	{
+		this.options = options;
+	}
+
+	/**
+	 * Checks if the object is on a path from a source set to another one, within the limit. Only
+	 * the two smallest labels in each direction matter.
+	 * @param go graph object
+	 * @param fwd smallest forward labels
+	 * @param rev smallest reverse labels
+	 * @return true if the object is on a result path
+	 */
+	private boolean onTheResultPath(GraphObject go, Closest fwd, Closest rev)
+	{
+		int fwdSet = fwd.bestSet.get(go, -1);
+		int revSet = rev.bestSet.get(go, -1);
+
+		if (fwdSet < 0 || revSet < 0) return false;
+
+		int fwd1 = fwd.best.get(go, NONE);
+		int rev1 = rev.best.get(go, NONE);
+
+		int dist = fwdSet != revSet ? fwd1 + rev1 :
+			Math.min(fwd1 + rev.second.get(go, NONE), fwd.second.get(go, NONE) + rev1);
+
+		return dist <= limit;
+	}
+
+	/**
+	 * The two smallest labels of each object among the labels of the source sets, and the set
+	 * with the smallest one. They are found in a single pass over the label maps.
+	 */
+	private static class Closest
+	{
+		final LabelMap best = new LabelMap();
+		final LabelMap bestSet = new LabelMap();
+		final LabelMap second = new LabelMap();
 
-				int dist = fwdMap.get(set1) + revMap.get(set2);
+		/**
+		 * @param labels labels of each set
+		 */
+		Closest(LabelMap[] labels)
+		{
+			for (int j = 0; j < labels.length; j++)
+			{
+				for (int i = 0; i < labels[j].capacity(); i++)
+				{
+					GraphObject go = labels[j].keyAt(i);
+					if (go == null) continue;
 
-				if (dist <= limit) return true;
+					int dist = labels[j].valueAt(i);
+					int min = best.get(go, NONE);
+					if (dist < min)
+					{
+						second.put(go, min);
+						best.put(go, dist);
+						bestSet.put(go, j);
+					}
+					else if (dist < second.get(go, NONE)) second.put(go, dist);
+				}
 			}
 		}
-		return false;
+
+		/**
+		 * @param go graph object
+		 * @param set index of a set
+		 * @return the smallest label of the object from a set other than the given one
+		 */
+		int fromOther(GraphObject go, int set)
+		{
+			return bestSet.get(go, -1) == set ? second.get(go, NONE) : best.get(go, NONE);
+		}
 	}
+
+	/**
+	 * Label of an object that is not reached. Still safe to add two of them.
+	 */
+	private static final int NONE = Integer.MAX_VALUE / 2;
 }
@@ -4,9 +4,9 @@ package org.biopax.paxtools.query.algorithm;
 import org.biopax.paxtools.query.model.GraphObject;
 import org.biopax.paxtools.query.model.Node;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -58,6 +58,17 @@ public class PathsFromToQuery
 	 */
 	private static final int LIMIT_FOR_SP_SEARCH = 25;
 
+	/**
+	 * Whether to first find the shortest path length with a bidirectional search, so that the
+	 * searches are not deeper than needed.
+	 */
+	private boolean bidirectional;
+
+	/**
+	 * Budgets of the query, or null.
+	 */
+	private QueryOptions options;
+
 	/**
 	 * Constructor with parameters.
 	 * @param sourceSet source set
@@ -92,36 +103,37 @@ public class PathsFromToQuery
 		 * Eliminating nodes from candidate according to their labels will
 		 * yield result.
 		 */
-		Map<GraphObject, Integer> candidate = new HashMap<GraphObject, Integer>();
+		List<GraphObject> candidate = new ArrayList<GraphObject>();
 		Set<GraphObject> result = new HashSet<GraphObject>();
 
-		BFS bfsFwd = null;
-		BFS bfsRev = null;
+		Set<Node> fwdStop = strict ? targetSet : null;
+		Set<Node> revStop = strict ? sourceSet : null;
+		int depth = limitType == LimitType.NORMAL ? stopDistance : LIMIT_FOR_SP_SEARCH;
 
-		if (limitType == LimitType.NORMAL && !strict)
-		{
-			bfsFwd = new BFS(sourceSet, null, Direction.DOWNSTREAM, stopDistance);
-			bfsRev = new BFS(targetSet, null, Direction.UPSTREAM, stopDistance);
-		}
-		else if (limitType == LimitType.NORMAL && strict)
-		{
-			bfsFwd = new BFS(sourceSet, targetSet, Direction.DOWNSTREAM, stopDistance);
-			bfsRev = new BFS(targetSet, sourceSet, Direction.UPSTREAM, stopDistance);
-		}
-		else if (limitType == LimitType.SHORTEST_PLUS_K && !strict)
+		// A search with no depth still traverses from the equivalents of the sources
+		boolean deepening = bidirectional && depth > 0;
+
+		BFS bfsFwd = newBFS(sourceSet, fwdStop, Direction.DOWNSTREAM, deepening ? 1 : depth);
+		BFS bfsRev = newBFS(targetSet, revStop, Direction.UPSTREAM, deepening ? 1 : depth);
+
+		if (deepening)
 		{
-			bfsFwd = new BFS(sourceSet, null, Direction.DOWNSTREAM, LIMIT_FOR_SP_SEARCH);
-			bfsRev = new BFS(targetSet, null, Direction.UPSTREAM, LIMIT_FOR_SP_SEARCH);
+			depth = findSearchDepth(bfsFwd, bfsRev, depth);
+
+			// No path within the limit
+			if (depth < 0) return result;
 		}
-		else if (limitType == LimitType.SHORTEST_PLUS_K && strict)
+
+		// These continue the searches of the bidirectional step, if any
+		LabelMap fwdLabels = bfsFwd.deepen(depth);
+		LabelMap revLabels = bfsRev.deepen(depth);
+		fwdLabels.addKeysTo(candidate);
+		for (int i = 0; i < revLabels.capacity(); i++)
 		{
-			bfsFwd = new BFS(sourceSet, targetSet, Direction.DOWNSTREAM, LIMIT_FOR_SP_SEARCH);
-			bfsRev = new BFS(targetSet, sourceSet, Direction.UPSTREAM, LIMIT_FOR_SP_SEARCH);
+			GraphObject go = revLabels.keyAt(i);
+			if (go != null && !fwdLabels.containsKey(go)) candidate.add(go);
 		}
 
-		candidate.putAll(bfsFwd.run());
-		candidate.putAll(bfsRev.run());
-
 		int limit = stopDistance;
 
 		if(limitType == LimitType.NORMAL)
@@ -130,7 +142,7 @@ public class PathsFromToQuery
 			 * Only the graph objects whose sum of two search labels being
 			 * smaller than or equal to the distance limit will be in the result.
 			 */
-			for (GraphObject go : candidate.keySet())
+			for (GraphObject go : candidate)
 			{
 				if ((bfsFwd.getLabel(go) + bfsRev.getLabel(go)) <= limit)
 				{
@@ -147,7 +159,7 @@ public class PathsFromToQuery
 			 * path that passes through that particular graph object and the
 			 * minimum of those lengths will be the length of the shortest path.
 			 */
-			for (GraphObject go : candidate.keySet())
+			for (GraphObject go : candidate)
 			{
 				if ((bfsFwd.getLabel(go) + bfsRev.getLabel(go)) <= shortestPath)
 				{
@@ -166,7 +178,7 @@ public class PathsFromToQuery
 				 * smaller than or equal to the "shortest + limit" will be in the
 				 * result.
 				 */
-				for (GraphObject go : candidate.keySet())
+				for (GraphObject go : candidate)
 				{
 					if ((bfsFwd.getLabel(go) + bfsRev.getLabel(go)) <= limit)
 					{
@@ -180,11 +192,138 @@ public class PathsFromToQuery
 		ST.addAll(targetSet);
 
 		CycleBreaker breaker = new CycleBreaker(result, ST, limit);
+		breaker.setOptions(options);
 		breaker.breakCycles();
 
 		Prune prune = new Prune(result, ST);
 		prune.run();
 
+		if (options != null && !options.checkResultSize(result.size())) result.clear();
+
 		return result;
 	}
+
+	/**
+	 * Creates a BFS within the budgets of the query.
+	 * @param sourceSet Seed of BFS
+	 * @param stopSet Nodes that won't be traversed
+	 * @param direction Direction of the traversal
+	 * @param limit Distance limit
+	 * @return the BFS
+	 */
+	private BFS newBFS(Set<Node> sourceSet, Set<Node> stopSet, Direction direction, int limit)
+	{
+		BFS bfs = new BFS(sourceSet, stopSet, direction, limit);
+		bfs.setOptions(options);
+		return bfs;
+	}
+
+	/**
+	 * Bidirectional, frontier-balanced search for the length of the shortest path. Continues the
+	 * forward and backward searches one level at a time, each time deepening the one that labeled
+	 * fewer objects, until they meet or cannot meet within the limit. The searches are left at
+	 * their depths, to be continued to the returned depth.
+	 *
+	 * A depth-limited search gives the same labels as a deeper one, and labels all the objects
+	 * closer than its depth. Forward labels grow by at most one along a path, and the sum of the
+	 * two labels does not grow towards its ends, so if there is a path of length d, the searches
+	 * meet on it once their depths add up to d + 2. So the result does not change.
+	 *
+	 * @param bfsFwd forward search, with depth 1
+	 * @param bfsRev backward search, with depth 1
+	 * @param depth depth of the searches without this step
+	 * @return depth that is enough for the searches, or -1 if there is no path within the limit
+	 */
+	private int findSearchDepth(BFS bfsFwd, BFS bfsRev, int depth)
+	{
+		int maxDist = limitType == LimitType.NORMAL ? stopDistance : Integer.MAX_VALUE;
+
+		int fwdDepth = 1;
+		int revDepth = fwdDepth;
+		LabelMap fwd = bfsFwd.deepen(fwdDepth);
+		LabelMap rev = bfsRev.deepen(revDepth);
+
+		int shortest;
+
+		while (true)
+		{
+			// A complete search labels nothing new when deepened
+			boolean fwdDone = bfsFwd.isComplete();
+			boolean revDone = bfsRev.isComplete();
+
+			shortest = fwd.minSum(rev);
+
+			// Any path up to this length would be found already
+			long found = (fwdDone ? Integer.MAX_VALUE / 4 : fwdDepth) +
+				(revDone ? Integer.MAX_VALUE / 4 : revDepth) - 2L;
+
+			if (shortest <= found) break;
+
+			if (found >= maxDist)
+			{
+				shortest = Integer.MAX_VALUE;
+				break;
+			}
+
+			boolean fwdMore = !fwdDone && fwdDepth < depth;
+			boolean revMore = !revDone && revDepth < depth;
+
+			// These are the searches without this step
+			if (!fwdMore && !revMore) break;
+
+			if (fwdMore && (!revMore || fwd.size() <= rev.size()))
+			{
+				bfsFwd.deepen(++fwdDepth);
+			}
+			else
+			{
+				bfsRev.deepen(++revDepth);
+			}
+		}
+
+		if (shortest > maxDist || shortest == Integer.MAX_VALUE) return -1;
+
+		if (limitType == LimitType.NORMAL) return depth;
+
+		// Labels up to shortest + k have to be exact, i.e. closer than the depth
+		int needed = (int) Math.min(depth, (long) shortest + stopDistance + 1);
+		return Math.max(needed, Math.max(fwdDepth, revDepth));
+	}
+
+	/**
+	 * @return whether the bidirectional search is used
+	 */
+	public boolean isBidirectional()
+	{
+		return bidirectional;
+	}
+
+	/**
+	 * Sets whether to find the length of the shortest path with a bidirectional, frontier-balanced
+	 * search first. Then the final searches go only as deep as needed, and are skipped when there
+	 * is no path within the limit. The result is the same.
+	 * @param bidirectional whether to use the bidirectional search
+	 */
+	public void setBidirectional(boolean bidirectional)
+	{
+		this.bidirectional = bidirectional;
+	}
+
+	/**
+	 * @return budgets of the query, or null
+	 */
+	public QueryOptions getOptions()
+	{
+		return options;
+	}
+
+	/**
+	 * Sets the budgets of the query. When out of budget, the searches stop, and the query returns
+	 * the part of the result they found, marking the options as truncated.
+	 * @param options budgets of the query, or null for no limits
+	 */
+	public void setOptions(QueryOptions options)
+	{
+		this.options = options;
+	}
 }
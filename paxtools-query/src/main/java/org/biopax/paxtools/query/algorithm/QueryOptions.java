@@ -0,0 +1,194 @@
+package org.biopax.paxtools.query.algorithm;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Time and size budgets of a query run, and a cooperative cancellation token. The searches of the
+ * queries check these as they visit the nodes, and stop when the deadline passes, when the query
+ * is cancelled, or when the max number of visited nodes is reached. The query then returns what
+ * it found until then, and the options are marked truncated.
+ *
+ * An options object keeps the number of visited nodes and the truncation flag of the run, so it
+ * should be used for a single run of a query. It is thread-safe, so it can be cancelled from
+ * another thread, and shared by the searches of a query that run in parallel.
+ */
+public class QueryOptions
+{
+	/**
+	 * Wall-clock deadline in milliseconds, or 0 if none.
+	 */
+	private long deadline;
+
+	/**
+	 * Max number of nodes to visit, or 0 if unlimited.
+	 */
+	private int maxVisited;
+
+	/**
+	 * Max number of objects in the result, or 0 if unlimited.
+	 */
+	private int maxResultSize;
+
+	/**
+	 * Whether the query is cancelled.
+	 */
+	private volatile boolean cancelled;
+
+	/**
+	 * Whether the query stopped early or dropped a part of its result.
+	 */
+	private volatile boolean truncated;
+
+	/**
+	 * Number of visited nodes.
+	 */
+	private final AtomicInteger visited = new AtomicInteger();
+
+	/**
+	 * @return wall-clock deadline in milliseconds, or 0 if none
+	 */
+	public long getDeadline()
+	{
+		return deadline;
+	}
+
+	/**
+	 * Sets the time when the query should stop.
+	 * @param deadline wall-clock time in milliseconds (as System.currentTimeMillis()), or 0 for no
+	 * deadline
+	 */
+	public void setDeadline(long deadline)
+	{
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Sets the deadline to the given time from now.
+	 * @param millis time the query can run, in milliseconds
+	 */
+	public void setTimeout(long millis)
+	{
+		this.deadline = System.currentTimeMillis() + millis;
+	}
+
+	/**
+	 * @return max number of nodes to visit, or 0 if unlimited
+	 */
+	public int getMaxVisited()
+	{
+		return maxVisited;
+	}
+
+	/**
+	 * Sets the max number of nodes that the searches of the query visit, in total.
+	 * @param maxVisited max number of nodes to visit, or 0 for no limit
+	 */
+	public void setMaxVisited(int maxVisited)
+	{
+		this.maxVisited = maxVisited;
+	}
+
+	/**
+	 * @return max number of objects in the result, or 0 if unlimited
+	 */
+	public int getMaxResultSize()
+	{
+		return maxResultSize;
+	}
+
+	/**
+	 * Sets the max size of the result. A neighborhood query keeps the objects closest to the
+	 * seed in a larger result. The other queries return an empty result instead, since a part of
+	 * their paths would be misleading.
+	 * @param maxResultSize max number of graph objects in the result, or 0 for no limit
+	 */
+	public void setMaxResultSize(int maxResultSize)
+	{
+		this.maxResultSize = maxResultSize;
+	}
+
+	/**
+	 * Cancels the query. The searches stop at the next node they visit.
+	 */
+	public void cancel()
+	{
+		cancelled = true;
+	}
+
+	/**
+	 * @return whether the query is cancelled
+	 */
+	public boolean isCancelled()
+	{
+		return cancelled;
+	}
+
+	/**
+	 * @return whether the query stopped early, or dropped a part of its result
+	 */
+	public boolean isTruncated()
+	{
+		return truncated;
+	}
+
+	/**
+	 * Marks the result as truncated.
+	 */
+	public void setTruncated()
+	{
+		truncated = true;
+	}
+
+	/**
+	 * @return number of nodes visited by the searches so far
+	 */
+	public int getVisited()
+	{
+		return visited.get();
+	}
+
+	/**
+	 * Counts a visited node, and checks whether the search can go on.
+	 * @return false if the search should stop
+	 */
+	public boolean visit()
+	{
+		int count = visited.incrementAndGet();
+		if (maxVisited > 0 && count > maxVisited)
+		{
+			truncated = true;
+			return false;
+		}
+		return !isExpired();
+	}
+
+	/**
+	 * Checks whether the query is cancelled or is past its deadline, and marks the result as
+	 * truncated if so.
+	 * @return true if the query should stop
+	 */
+	public boolean isExpired()
+	{
+		if (cancelled || (deadline > 0 && System.currentTimeMillis() > deadline))
+		{
+			truncated = true;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks the size of the result, and marks it as truncated if it is too large.
+	 * @param size number of objects in the result
+	 * @return true if the result is not larger than the max size
+	 */
+	public boolean checkResultSize(int size)
+	{
+		if (maxResultSize > 0 && size > maxResultSize)
+		{
+			truncated = true;
+			return false;
+		}
+		return true;
+	}
+}
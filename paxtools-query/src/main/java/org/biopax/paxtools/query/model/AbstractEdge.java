@@ -10,6 +10,8 @@ public abstract class AbstractEdge implements Edge
 	private Node source;
 	private Node target;
 	private Graph graph;
+	private final int id;
+	private final int hash;
 
 	/**
 	 * Edges should know their source and target nodes, and their graph.
@@ -23,6 +25,8 @@ public abstract class AbstractEdge implements Edge
 		this.source = source;
 		this.target = target;
 		this.graph = graph;
+		this.id = AbstractGraph.nextId(graph);
+		this.hash = source.hashCode() + target.hashCode() + graph.hashCode();
 	}
 
 	/**
@@ -49,6 +53,14 @@ public abstract class AbstractEdge implements Edge
 		return graph;
 	}
 
+	/**
+	 * @return Id of the edge in its graph
+	 */
+	public int getId()
+	{
+		return id;
+	}
+
 	/**
 	 * @return Key to use in a map
 	 */
@@ -60,7 +72,7 @@ public abstract class AbstractEdge implements Edge
 	@Override
 	public int hashCode()
 	{
-		return source.hashCode() + target.hashCode() + graph.hashCode();
+		return hash;
 	}
 
 	@Override
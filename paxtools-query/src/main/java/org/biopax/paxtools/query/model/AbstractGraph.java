@@ -1,11 +1,16 @@
 package org.biopax.paxtools.query.model;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Adapter class for a graph that is queried.
  *
+ * By default the wrappers are created lazily, while the graph is traversed, so a graph should be
+ * used by only one query at a time. A graph can instead be prebuilt: all the wrappers, their
+ * links and equivalents are created at once, after which the graph does not change anymore, and
+ * can be shared by concurrent queries.
+ *
  * @author Ozgun Babur
  */
 public abstract class AbstractGraph implements Graph
@@ -15,6 +20,21 @@ public abstract class AbstractGraph implements Graph
 	 */
 	protected Map<String, GraphObject> objectMap;
 
+	/**
+	 * Whether all the wrappers are already created and initialized.
+	 */
+	private volatile boolean prebuilt;
+
+	/**
+	 * Number of the nodes and edges created so far; the next id.
+	 */
+	private int objectCount;
+
+	/**
+	 * Ids of the objects of other graphs.
+	 */
+	private static final AtomicInteger otherIds = new AtomicInteger();
+
 	/**
 	 * Empty constructor that initializes the object map.
 	 */
@@ -31,6 +51,10 @@ public abstract class AbstractGraph implements Graph
 	public GraphObject getGraphObject(Object obj)
 	{
 		String key = getKey(obj);
+
+		// a prebuilt graph is read only; an object that is not wrapped yet was filtered out
+		if (prebuilt) return objectMap.get(key);
+
 		GraphObject go = objectMap.get(key);
 
 //		if (obj instanceof Conversion && go == null)
@@ -73,10 +97,85 @@ public abstract class AbstractGraph implements Graph
 	}
 
 	/**
-	 * Clears memory of all wrapper in the object map.
+	 * Wraps the given objects, then initializes the links and equivalents of all the wrappers,
+	 * including those created along the way, and marks the graph as prebuilt. After this, the
+	 * graph is not modified anymore, hence it is safe to query it from multiple threads.
+	 * @param objects all the objects to wrap
+	 */
+	protected synchronized void prebuild(Collection<?> objects)
+	{
+		if (prebuilt) return;
+
+		for (Object obj : objects)
+		{
+			getGraphObject(obj);
+		}
+
+		// initializing a node may wrap new objects (e.g. members that are not in the model)
+		Set<GraphObject> inited = new HashSet<GraphObject>();
+		int size;
+		do
+		{
+			size = objectMap.size();
+			for (GraphObject go : new ArrayList<GraphObject>(objectMap.values()))
+			{
+				if (go instanceof Node && inited.add(go)) initNode((Node) go);
+			}
+		}
+		while (objectMap.size() != size);
+
+		objectMap = Collections.unmodifiableMap(objectMap);
+		prebuilt = true;
+	}
+
+	/**
+	 * Initializes the upstream and downstream links and the equivalents of the node, during
+	 * prebuild. Override if the node has other lazily created parts.
+	 * @param node node to initialize
+	 */
+	protected void initNode(Node node)
+	{
+		node.getUpstream();
+		node.getDownstream();
+		node.getUpperEquivalent();
+		node.getLowerEquivalent();
+	}
+
+	/**
+	 * Gives a new id to a node or edge that is being created in the given graph.
+	 * @param graph owner graph
+	 * @return the next id in the graph, or a unique one if it is not an AbstractGraph
+	 */
+	static int nextId(Graph graph)
+	{
+		if (graph instanceof AbstractGraph) return ((AbstractGraph) graph).objectCount++;
+		return otherIds.getAndIncrement();
+	}
+
+	/**
+	 * @return number of the nodes and edges created in this graph so far
+	 */
+	public int getObjectCount()
+	{
+		return objectCount;
+	}
+
+	/**
+	 * @return whether the graph is prebuilt, and can be shared by concurrent queries
+	 */
+	public boolean isPrebuilt()
+	{
+		return prebuilt;
+	}
+
+	/**
+	 * Clears memory of all wrapper in the object map. Does nothing on a prebuilt graph, which
+	 * does not keep any query state.
 	 */
 	public void clear()
 	{
+		if (prebuilt) return;
+
 		for (GraphObject go : objectMap.values())
 		{
 			go.clear();
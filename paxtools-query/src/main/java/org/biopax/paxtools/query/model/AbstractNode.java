@@ -15,6 +15,11 @@ public abstract class AbstractNode implements Node
 	 */
 	protected Graph graph;
 
+	/**
+	 * Id of the node in its graph.
+	 */
+	private final int id;
+
 	/**
 	 * Flag to remember if upstream links were created.
 	 */
@@ -50,14 +55,20 @@ public abstract class AbstractNode implements Node
 	/**
 	 * This variable can be used by algorithms that need to label nodes with a path sign
 	 * (typically the current path).
+	 * @deprecated a node can be shared by concurrent queries (see {@link AbstractGraph#prebuild});
+	 * algorithms keep such labels in their own maps instead
 	 */
+	@Deprecated
 	protected int pathSign;
 
 	/**
 	 * For saying: "If the algorithm traverses this node, it cannot traverse those others". If this
 	 * set will be used, then initBanned() should be called. Otherwise getBanned() will return an
 	 * immutable empty set.
+	 * @deprecated a node can be shared by concurrent queries (see {@link AbstractGraph#prebuild});
+	 * algorithms keep such state in their own maps instead
 	 */
+	@Deprecated
 	protected Set<Node> banned;
 
 	/**
@@ -67,6 +78,7 @@ public abstract class AbstractNode implements Node
 	protected AbstractNode(Graph graph)
 	{
 		this.graph = graph;
+		this.id = AbstractGraph.nextId(graph);
 		this.upstream = new HashSet<Edge>();
 		this.downstream = new HashSet<Edge>();
 		this.upstreamInited = false;
@@ -81,9 +93,19 @@ public abstract class AbstractNode implements Node
 		return graph;
 	}
 
+	/**
+	 * @return Id of the node in its graph
+	 */
+	public int getId()
+	{
+		return id;
+	}
+
 	/**
 	 * @return Set of banned-to-traverse nodes if this node is traversed.
+	 * @deprecated see {@link #banned}
 	 */
+	@Deprecated
 	public Set<Node> getBanned()
 	{
 		if (banned == null) return Collections.emptySet();
@@ -93,7 +115,9 @@ public abstract class AbstractNode implements Node
 	/**
 	 * Initializes the set of banned nodes. If the algorithm will use this set, then this method
 	 * or setBanned method should be called.
+	 * @deprecated see {@link #banned}
 	 */
+	@Deprecated
 	public void initBanned()
 	{
 		if (banned == null) banned = new HashSet<Node>();
@@ -101,7 +125,9 @@ public abstract class AbstractNode implements Node
 
 	/**
 	 * @param banned Set of banned nodes
+	 * @deprecated see {@link #banned}
 	 */
+	@Deprecated
 	public void setBanned(Set<Node> banned)
 	{
 		this.banned = banned;
@@ -190,7 +216,9 @@ public abstract class AbstractNode implements Node
 
 	/**
 	 * @return path sign
+	 * @deprecated see {@link #pathSign}
 	 */
+	@Deprecated
 	public int getPathSign()
 	{
 		return pathSign;
@@ -198,7 +226,9 @@ public abstract class AbstractNode implements Node
 
 	/**
 	 * @param pathSign The path sign
+	 * @deprecated see {@link #pathSign}
 	 */
+	@Deprecated
 	public void setPathSign(int pathSign)
 	{
 		this.pathSign = pathSign;
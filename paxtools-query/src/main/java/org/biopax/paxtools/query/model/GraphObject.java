@@ -22,6 +22,14 @@ public interface GraphObject
 	 */
 	String getKey();
 
+	/**
+	 * Nodes and edges are numbered in their graph as they are created, so algorithms can keep
+	 * their labels in primitive arrays instead of maps.
+	 *
+	 * @return The id of the object in its graph
+	 */
+	int getId();
+
 	/**
 	 * This method should clear any analysis specific labels on the object.
 	 */
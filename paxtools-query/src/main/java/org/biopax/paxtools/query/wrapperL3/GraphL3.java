@@ -48,6 +48,39 @@ public class GraphL3 extends AbstractGraph
 		}
 	}
 
+	/**
+	 * Wraps all the physical entities, conversions, template reactions and controls of the model
+	 * at once. The prebuilt graph is immutable, and can be shared by concurrent queries (e.g. via
+	 * the QueryExecuter methods that take a graph), as long as the model does not change.
+	 * @return this graph
+	 */
+	public GraphL3 prebuild()
+	{
+		List<BioPAXElement> objects = new ArrayList<BioPAXElement>();
+		objects.addAll(model.getObjects(PhysicalEntity.class));
+		objects.addAll(model.getObjects(Conversion.class));
+		objects.addAll(model.getObjects(TemplateReaction.class));
+		objects.addAll(model.getObjects(Control.class));
+		prebuild(objects);
+		return this;
+	}
+
+	/**
+	 * Also initializes the reverse wrapper of a reversible conversion, which is not in the object
+	 * map.
+	 * @param node node to initialize
+	 */
+	@Override
+	protected void initNode(Node node)
+	{
+		super.initNode(node);
+
+		if (node instanceof ConversionWrapper && ((ConversionWrapper) node).getReverse() != null)
+		{
+			super.initNode(((ConversionWrapper) node).getReverse());
+		}
+	}
+
 	/**
 	 * There must be no filter opposing to traverse this object to traverse it.
 	 * @param ele element to check
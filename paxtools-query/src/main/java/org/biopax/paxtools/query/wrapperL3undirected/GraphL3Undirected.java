@@ -49,6 +49,20 @@ public class GraphL3Undirected extends AbstractGraph
 		}
 	}
 
+	/**
+	 * Wraps all the physical entities and interactions of the model at once. The prebuilt graph
+	 * is immutable, and can be shared by concurrent queries, as long as the model does not change.
+	 * @return this graph
+	 */
+	public GraphL3Undirected prebuild()
+	{
+		List<BioPAXElement> objects = new ArrayList<BioPAXElement>();
+		objects.addAll(model.getObjects(PhysicalEntity.class));
+		objects.addAll(model.getObjects(Interaction.class));
+		prebuild(objects);
+		return this;
+	}
+
 	/**
 	 * There must be no filter opposing to traverse this object to traverse it.
 	 * @param ele element to check
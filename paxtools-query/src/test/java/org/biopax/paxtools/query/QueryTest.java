@@ -3,30 +3,50 @@ package org.biopax.paxtools.query;
 import org.biopax.paxtools.controller.Cloner;
 import org.biopax.paxtools.controller.Completer;
 import org.biopax.paxtools.controller.SimpleEditorMap;
+import org.biopax.paxtools.impl.MappedModel;
 import org.biopax.paxtools.io.BioPAXIOHandler;
 import org.biopax.paxtools.io.SimpleIOHandler;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.BioPAXLevel;
 import org.biopax.paxtools.model.Model;
 import org.biopax.paxtools.model.level3.PhysicalEntity;
+import org.biopax.paxtools.query.algorithm.BFS;
 import org.biopax.paxtools.query.algorithm.Direction;
 import org.biopax.paxtools.query.algorithm.LimitType;
+import org.biopax.paxtools.query.algorithm.NeighborhoodQuery;
+import org.biopax.paxtools.query.algorithm.PathsBetweenQuery;
+import org.biopax.paxtools.query.algorithm.PathsFromToQuery;
+import org.biopax.paxtools.query.algorithm.QueryOptions;
+import org.biopax.paxtools.query.model.GraphObject;
+import org.biopax.paxtools.query.model.Node;
 import org.biopax.paxtools.query.wrapperL3.DataSourceFilter;
 import org.biopax.paxtools.query.wrapperL3.Filter;
+import org.biopax.paxtools.query.wrapperL3.GraphL3;
 import org.biopax.paxtools.query.wrapperL3.OrganismFilter;
 import org.biopax.paxtools.query.wrapperL3.UbiqueFilter;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.*;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author Ozgun Babur
@@ -100,6 +120,45 @@ public class QueryTest
 //			getClass().getResource("").getFile() + File.separator + "temp.owl"));
 	}
 
+	@Test
+	public void testQueriesOnMappedModel() throws Throwable
+	{
+		Model model = handler.convertFromOWL(QueryTest.class.getResourceAsStream(
+			"raf_map_kinase_cascade_reactome.owl"));
+		File file = File.createTempFile("paxtools", ".bpxm");
+		file.deleteOnExit();
+		MappedModel.save(model, file);
+		Model mapped = new MappedModel(file, 100);
+
+		String[] uris = {"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN2360_1_9606", //MEK2
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN1631_1_9606", //ERK1
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN1630_1_9606"}; //phospho-Cdc2
+
+		// the same results as in memory (the queries use the inverse properties, e.g. participantOf)
+		for (Direction direction : new Direction[]{Direction.BOTHSTREAM, Direction.UNDIRECTED})
+		{
+			Set<BioPAXElement> result = QueryExecuter.runNeighborhood(
+				findElements(model, uris), model, 2, direction);
+			assertFalse(result.isEmpty());
+			assertEquals(uris(result), uris(QueryExecuter.runNeighborhood(
+				findElements(mapped, uris), mapped, 2, direction)));
+		}
+		assertEquals(uris(QueryExecuter.runPathsBetween(findElements(model, uris), model, 3)),
+			uris(QueryExecuter.runPathsBetween(findElements(mapped, uris), mapped, 3)));
+		assertEquals(uris(QueryExecuter.runCommonStream(findElements(model, uris), model, Direction.DOWNSTREAM, 3)),
+			uris(QueryExecuter.runCommonStream(findElements(mapped, uris), mapped, Direction.DOWNSTREAM, 3)));
+	}
+
+	private static Set<String> uris(Set<BioPAXElement> elements)
+	{
+		Set<String> uris = new HashSet<String>();
+		for (BioPAXElement bpe : elements)
+		{
+			uris.add(bpe.getUri());
+		}
+		return uris;
+	}
+
 	private Model excise(Model model, Set<BioPAXElement> result)
 	{
 		Completer c = new Completer(SimpleEditorMap.L3);
@@ -228,4 +287,252 @@ public class QueryTest
 
 		assertTrue(result.isEmpty());
 	}
+
+	@Test
+	public void testPrebuiltGraph() throws Exception
+	{
+		final Model model = handler.convertFromOWL(this.getClass().getResourceAsStream(
+			"raf_map_kinase_cascade_reactome.owl"));
+
+		final GraphL3 graph = new GraphL3(model).prebuild();
+		assertTrue(graph.isPrebuilt());
+
+		final String[] ids = {
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN2360_1_9606", //MEK2
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN1631_1_9606", //ERK1
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN1630_1_9606", //phospho-Cdc2
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN2359_1_9606"}; //MEK
+
+		// the same results as with a new graph for each query, also from concurrent queries
+		ExecutorService exec = Executors.newFixedThreadPool(4);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int i = 0; i < 16; i++)
+		{
+			final String id = ids[i % ids.length];
+			final String other = ids[(i + 1) % ids.length];
+			futures.add(exec.submit(new Callable<Object>()
+			{
+				@Override
+				public Object call() throws Exception
+				{
+					assertEquals(
+						QueryExecuter.runNeighborhood(findElements(model, id), model, 2, Direction.BOTHSTREAM),
+						QueryExecuter.runNeighborhood(findElements(model, id), graph, 2, Direction.BOTHSTREAM));
+					assertEquals(
+						QueryExecuter.runPathsBetween(findElements(model, id, other), model, 3),
+						QueryExecuter.runPathsBetween(findElements(model, id, other), graph, 3));
+					assertEquals(
+						QueryExecuter.runPathsFromTo(findElements(model, id), findElements(model, other),
+							model, LimitType.NORMAL, 3),
+						QueryExecuter.runPathsFromTo(findElements(model, id), findElements(model, other),
+							graph, LimitType.NORMAL, 3));
+					assertEquals(
+						QueryExecuter.runCommonStream(findElements(model, id, other), model, Direction.DOWNSTREAM, 3),
+						QueryExecuter.runCommonStream(findElements(model, id, other), graph, Direction.DOWNSTREAM, 3));
+					return null;
+				}
+			}));
+		}
+		exec.shutdown();
+		for (Future<?> future : futures)
+		{
+			future.get();
+		}
+	}
+
+	@Test
+	public void testBidirectionalSearch() throws Exception
+	{
+		Model model = handler.convertFromOWL(this.getClass().getResourceAsStream(
+			"raf_map_kinase_cascade_reactome.owl"));
+
+		GraphL3 graph = new GraphL3(model).prebuild();
+
+		List<PhysicalEntity> pes = new ArrayList<PhysicalEntity>(model.getObjects(PhysicalEntity.class));
+		Collections.sort(pes, new Comparator<PhysicalEntity>()
+		{
+			@Override
+			public int compare(PhysicalEntity pe1, PhysicalEntity pe2)
+			{
+				return pe1.getUri().compareTo(pe2.getUri());
+			}
+		});
+		int n = pes.size();
+
+		int nonEmpty = 0;
+		for (int i = 0; i < n; i++)
+		{
+			Set<Node> source = QueryExecuter.prepareSingleNodeSet(
+				new HashSet<BioPAXElement>(Arrays.asList(pes.get(i))), graph);
+			Set<Node> target = QueryExecuter.prepareSingleNodeSet(new HashSet<BioPAXElement>(
+				Arrays.asList(pes.get((7 * i + 3) % n), pes.get((13 * i + 5) % n))), graph);
+
+			Collection<Set<Node>> sets = new ArrayList<Set<Node>>();
+			sets.add(source);
+			sets.add(target);
+			sets.add(QueryExecuter.prepareSingleNodeSet(
+				new HashSet<BioPAXElement>(Arrays.asList(pes.get((i + 1) % n))), graph));
+
+			// a deepened search labels as a new, deeper one
+			BFS fwd = new BFS(source, target, Direction.DOWNSTREAM, 1);
+			BFS rev = new BFS(target, null, Direction.UPSTREAM, 1);
+			for (int limit = 1; limit <= 5; limit++)
+			{
+				assertEquals(new BFS(source, target, Direction.DOWNSTREAM, limit).run(),
+					fwd.deepen(limit).toMap());
+				assertEquals(new BFS(target, null, Direction.UPSTREAM, limit).run(),
+					rev.deepen(limit).toMap());
+				assertEquals(new BFS(source, target, Direction.DOWNSTREAM, limit).run(),
+					fwd.deepen(limit).toMap());
+			}
+
+			// subclasses can still read the labels through the former map field
+			BFS legacy = new BFS(source, target, Direction.DOWNSTREAM, 3)
+			{
+				@Override
+				@SuppressWarnings("deprecation")
+				public Map<GraphObject, Integer> run()
+				{
+					search();
+					return new HashMap<GraphObject, Integer>(dist);
+				}
+			};
+			assertEquals(new BFS(source, target, Direction.DOWNSTREAM, 3).run(), legacy.run());
+
+			for (int limit = 0; limit <= 5; limit++)
+			{
+				for (LimitType limitType : LimitType.values())
+				{
+					for (boolean strict : new boolean[]{true, false})
+					{
+						PathsFromToQuery query = new PathsFromToQuery(source, target, limitType, limit, strict);
+						Set<GraphObject> expected = query.run();
+						query = new PathsFromToQuery(source, target, limitType, limit, strict);
+						query.setBidirectional(true);
+						assertEquals(limitType + " " + limit + " " + strict + " " + i, expected, query.run());
+						if (!expected.isEmpty()) nonEmpty++;
+					}
+				}
+
+				Set<GraphObject> expected = new PathsBetweenQuery(sets, limit).run();
+				PathsBetweenQuery query = new PathsBetweenQuery(sets, limit);
+				query.setBidirectional(true);
+				assertEquals(expected, query.run());
+			}
+		}
+		assertTrue(nonEmpty > 0);
+	}
+
+	@Test
+	public void testParallelQueries() throws Exception
+	{
+		Model model = handler.convertFromOWL(this.getClass().getResourceAsStream(
+			"raf_map_kinase_cascade_reactome.owl"));
+
+		GraphL3 graph = new GraphL3(model).prebuild();
+
+		List<BioPAXElement> pes = new ArrayList<BioPAXElement>(model.getObjects(PhysicalEntity.class));
+		ExecutorService exec = Executors.newFixedThreadPool(4);
+		try
+		{
+			int nonEmpty = 0;
+			for (int i = 0; i + 10 <= pes.size(); i += 5)
+			{
+				Set<BioPAXElement> seed = new HashSet<BioPAXElement>(pes.subList(i, i + 10));
+				for (int limit = 1; limit <= 3; limit++)
+				{
+					Set<BioPAXElement> expected = QueryExecuter.runPathsBetween(seed, graph, limit);
+					assertEquals(expected, QueryExecuter.runPathsBetween(seed, graph, limit, exec));
+					if (!expected.isEmpty()) nonEmpty++;
+
+					for (Direction direction : new Direction[]{Direction.UPSTREAM, Direction.DOWNSTREAM})
+					{
+						assertEquals(QueryExecuter.runCommonStream(seed, graph, direction, limit),
+							QueryExecuter.runCommonStream(seed, graph, direction, limit, exec));
+					}
+				}
+			}
+			assertTrue(nonEmpty > 0);
+
+			// wrappers of a graph that is not prebuilt are not safe to create concurrently
+			try
+			{
+				QueryExecuter.runPathsBetween(new HashSet<BioPAXElement>(pes), new GraphL3(model), 2, exec);
+				fail();
+			}
+			catch (IllegalArgumentException e)
+			{
+			}
+		}
+		finally
+		{
+			exec.shutdown();
+		}
+	}
+
+	@Test
+	public void testQueryOptions() throws Exception
+	{
+		Model model = handler.convertFromOWL(this.getClass().getResourceAsStream(
+			"raf_map_kinase_cascade_reactome.owl"));
+
+		GraphL3 graph = new GraphL3(model).prebuild();
+
+		Set<BioPAXElement> seed = findElements(model,
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN2360_1_9606", //MEK2
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN1631_1_9606"); //ERK1
+		Set<BioPAXElement> full = QueryExecuter.runNeighborhood(seed, graph, 3, Direction.BOTHSTREAM);
+		Set<BioPAXElement> paths = QueryExecuter.runPathsBetween(seed, graph, 3);
+		assertFalse(paths.isEmpty());
+
+		// within the budgets
+		QueryOptions options = new QueryOptions();
+		options.setTimeout(60000);
+		options.setMaxVisited(1000000);
+		options.setMaxResultSize(1000000);
+		assertEquals(full, QueryExecuter.runNeighborhood(seed, graph, 3, Direction.BOTHSTREAM, options));
+		assertEquals(paths, QueryExecuter.runPathsBetween(seed, graph, 3, null, options));
+		assertFalse(options.isTruncated());
+		assertTrue(options.getVisited() > 0);
+
+		// out of visits, a part of the neighborhood
+		options = new QueryOptions();
+		options.setMaxVisited(5);
+		Set<BioPAXElement> result = QueryExecuter.runNeighborhood(seed, graph, 3, Direction.BOTHSTREAM, options);
+		assertTrue(options.isTruncated());
+		assertTrue(result.size() < full.size());
+		assertTrue(full.containsAll(result));
+
+		// cancelled or past the deadline, no searches
+		options = new QueryOptions();
+		options.cancel();
+		result = QueryExecuter.runPathsBetween(seed, graph, 3, null, options);
+		assertTrue(options.isTruncated());
+		assertTrue(result.isEmpty());
+
+		options = new QueryOptions();
+		options.setDeadline(System.currentTimeMillis() - 1);
+		result = QueryExecuter.runCommonStream(seed, graph, Direction.DOWNSTREAM, 3, null, options);
+		assertTrue(options.isTruncated());
+		assertTrue(result.isEmpty());
+
+		// too large results, the closest part of the neighborhood, and no paths
+		options = new QueryOptions();
+		options.setMaxResultSize(10);
+		Set<GraphObject> wrappers = new NeighborhoodQuery(
+			QueryExecuter.prepareSingleNodeSet(seed, graph), Direction.BOTHSTREAM, 3).run();
+		NeighborhoodQuery query = new NeighborhoodQuery(
+			QueryExecuter.prepareSingleNodeSet(seed, graph), Direction.BOTHSTREAM, 3);
+		query.setOptions(options);
+		Set<GraphObject> closest = query.run();
+		assertTrue(options.isTruncated());
+		assertEquals(10, closest.size());
+		assertTrue(wrappers.containsAll(closest));
+		assertTrue(closest.containsAll(QueryExecuter.prepareSingleNodeSet(seed, graph)));
+
+		options = new QueryOptions();
+		options.setMaxResultSize(1);
+		assertTrue(QueryExecuter.runPathsBetween(seed, graph, 3, null, options).isEmpty());
+		assertTrue(options.isTruncated());
+	}
 }
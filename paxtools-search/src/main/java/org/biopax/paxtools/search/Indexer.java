@@ -1,5 +1,30 @@
 package org.biopax.paxtools.search;
 
+import java.util.Collection;
+
+import org.biopax.paxtools.model.BioPAXElement;
+
 public interface Indexer {
+	/**
+	 * (Re-)creates the index of all the objects in the model.
+	 */
 	void index();
+
+	/**
+	 * Updates the index after the given objects were added, modified or removed.
+	 * 
+	 * The documents of these objects, and of the objects whose inferred values
+	 * (parent pathways, data sources, organisms, keywords, size) depend on them,
+	 * are re-created; the objects not in the model anymore are deleted from the index.
+	 * 
+	 * @param elements changed BioPAX objects (incl. those that got or lost a parent or child object)
+	 */
+	void update(Collection<? extends BioPAXElement> elements);
+
+	/**
+	 * Deletes the documents from the index.
+	 * 
+	 * @param uris URIs of the BioPAX objects
+	 */
+	void delete(Collection<String> uris);
 }
@@ -0,0 +1,111 @@
+package org.biopax.paxtools.search;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A size and time bounded (LRU) cache, with hit/miss counters.
+ *
+ * Values put with an old generation number (i.e., computed before
+ * the last {@link #clear()}) are ignored, so that a search running
+ * while the index is refreshed does not cache a stale result.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+class QueryCache<K, V> {
+
+	private final Map<K, Entry<V>> map;
+	private volatile int maxSize;
+	private volatile long ttl;
+	private long generation;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * @param maxSize max. number of entries; 0 - disabled
+	 * @param ttl time to live (ms) of an entry; 0 or less - unlimited
+	 */
+	QueryCache(int maxSize, long ttl) {
+		this.maxSize = maxSize;
+		this.ttl = ttl;
+		this.map = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+				return size() > QueryCache.this.maxSize;
+			}
+		};
+	}
+
+	synchronized V get(K key) {
+		Entry<V> entry = map.get(key);
+		if(entry != null && ttl > 0 && System.currentTimeMillis() - entry.time > ttl) {
+			map.remove(key);
+			entry = null;
+		}
+		if(entry == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		return entry.value;
+	}
+
+	synchronized void put(K key, V value, long generation) {
+		if(maxSize > 0 && generation == this.generation)
+			map.put(key, new Entry<V>(value));
+	}
+
+	synchronized long generation() {
+		return generation;
+	}
+
+	synchronized void clear() {
+		generation++;
+		map.clear();
+	}
+
+	synchronized int size() {
+		return map.size();
+	}
+
+	synchronized void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+		if(maxSize <= 0) {
+			map.clear();
+		} else {
+			while(map.size() > maxSize)
+				map.remove(map.keySet().iterator().next());
+		}
+	}
+
+	int getMaxSize() {
+		return maxSize;
+	}
+
+	void setTtl(long ttl) {
+		this.ttl = ttl;
+	}
+
+	long getTtl() {
+		return ttl;
+	}
+
+	long getHits() {
+		return hits.get();
+	}
+
+	long getMisses() {
+		return misses.get();
+	}
+
+	private static final class Entry<V> {
+		final V value;
+		final long time = System.currentTimeMillis();
+
+		Entry(V value) {
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package org.biopax.paxtools.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.search.Filter;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.TopDocs;
+
+/**
+ * Iterates over all the hits of a query, fetching them from the index
+ * in batches, each one after the last hit of the previous batch (searchAfter),
+ * so that only one batch of hits is in memory at a time.
+ * 
+ * The cursor holds an index searcher, which is released when the last hit 
+ * is reached or the cursor is closed. It is not thread-safe.
+ * 
+ * @see SearchEngine#cursor(String, Class, String[], String[], boolean)
+ */
+public class SearchCursor implements Iterator<SearchHit>, Closeable {
+	
+	// stored fields to load (not the keywords, which are for highlighting)
+	private static final Set<String> FIELDS = new HashSet<String>(Arrays.asList(
+			SearchEngine.FIELD_URI, SearchEngine.FIELD_TYPE, SearchEngine.FIELD_DATASOURCE, 
+			SearchEngine.FIELD_ORGANISM, SearchEngine.FIELD_PATHWAY, SearchEngine.FIELD_SIZE));
+	
+	private final SearcherManager searcherManager;
+	private IndexSearcher searcher;
+	private final Query query;
+	private final Filter filter;
+	private final int batchSize;
+	private final boolean scored;
+	
+	private ScoreDoc[] batch = new ScoreDoc[0];
+	private int pos;
+	private ScoreDoc after;
+	private boolean done;
+	private long totalHits = -1;
+
+	SearchCursor(SearcherManager searcherManager, Query query, Filter filter, int batchSize, boolean scored) {
+		this.searcherManager = searcherManager;
+		this.query = query;
+		this.filter = filter;
+		this.batchSize = batchSize;
+		this.scored = scored;
+		try {
+			this.searcher = searcherManager.acquire();
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to acquire a searcher.", e);
+		}
+	}
+
+	/**
+	 * Gets the total number of hits (fetches the first batch if not done yet).
+	 * @return number of hits
+	 */
+	public long getTotalHits() {
+		if(totalHits < 0)
+			hasNext();
+		return Math.max(totalHits, 0);
+	}
+
+	public boolean hasNext() {
+		if(pos < batch.length)
+			return true;
+		if(done) {
+			release();
+			return false;
+		}
+		try {
+			TopDocs topDocs = (scored) 
+				? searcher.searchAfter(after, query, filter, batchSize)
+					: searcher.searchAfter(after, query, filter, batchSize, Sort.INDEXORDER);
+			if(totalHits < 0)
+				totalHits = topDocs.totalHits;
+			batch = topDocs.scoreDocs;
+			pos = 0;
+		} catch (IOException e) {
+			close();
+			throw new RuntimeException("searchAfter failed.", e);
+		}
+		if(batch.length < batchSize)
+			done = true; //the last batch is here
+		if(batch.length == 0) {
+			release();
+			return false;
+		}
+		after = batch[batch.length - 1];
+		return true;
+	}
+
+	public SearchHit next() {
+		if(!hasNext())
+			throw new NoSuchElementException();
+		ScoreDoc scoreDoc = batch[pos++];
+		try {
+			Document doc = searcher.doc(scoreDoc.doc, FIELDS);
+			String uri = doc.get(SearchEngine.FIELD_URI);
+			Set<String> pathways = new TreeSet<String>(Arrays.asList(doc.getValues(SearchEngine.FIELD_PATHWAY)));
+			pathways.remove(uri); //exclude itself
+			String size = doc.get(SearchEngine.FIELD_SIZE);
+			if(done && pos == batch.length)
+				release(); //it was the last hit
+			return new SearchHit(uri, doc.get(SearchEngine.FIELD_TYPE), (scored) ? scoreDoc.score : Float.NaN,
+				new TreeSet<String>(Arrays.asList(doc.getValues(SearchEngine.FIELD_DATASOURCE))),
+				new TreeSet<String>(Arrays.asList(doc.getValues(SearchEngine.FIELD_ORGANISM))),
+				pathways, (size != null) ? Integer.valueOf(size) : null);
+		} catch (IOException e) {
+			close();
+			throw new RuntimeException("Failed to read the document " + scoreDoc.doc, e);
+		}
+	}
+
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Releases the index searcher; no more hits are fetched after that.
+	 */
+	public void close() {
+		done = true;
+		batch = new ScoreDoc[0];
+		release();
+	}
+
+	private void release() {
+		if(searcher != null) {
+			try {
+				searcherManager.release(searcher);
+			} catch (IOException e) {
+				throw new RuntimeException("Failed to release the searcher.", e);
+			} finally {
+				searcher = null;
+			}
+		}
+	}
+}
@@ -5,12 +5,21 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
@@ -26,19 +35,25 @@ import org.apache.lucene.document.IntField;
 import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.AtomicReaderContext;
 import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexWriterConfig.OpenMode;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.CachingWrapperFilter;
+import org.apache.lucene.search.DocIdSet;
+import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.Filter;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.QueryWrapperFilter;
+import org.apache.lucene.search.ReferenceManager;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.SearcherFactory;
 import org.apache.lucene.search.SearcherManager;
@@ -50,10 +65,15 @@ import org.apache.lucene.search.highlight.Highlighter;
 import org.apache.lucene.search.highlight.QueryScorer;
 import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
 import org.apache.lucene.search.highlight.SimpleSpanFragmenter;
+import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.FixedBitSet;
 import org.apache.lucene.util.Version;
 import org.biopax.paxtools.controller.Fetcher;
+import org.biopax.paxtools.controller.ModelContext;
 import org.biopax.paxtools.controller.ModelUtils;
 import org.biopax.paxtools.controller.SimpleEditorMap;
 import org.biopax.paxtools.model.BioPAXElement;
@@ -130,10 +150,29 @@ public class SearchEngine implements Indexer, Searcher {
 	private final Model model;
 	private int maxHitsPerPage;
 	private final Analyzer analyzer;
-	private final File indexFile;
+	private final Directory directory;
 	private SearcherManager searcherManager;
+	private int indexThreads;
+	private int indexBatchSize;
+
+	// indexing progress
+	private volatile int numToIndex;
+	private final AtomicInteger numIndexed = new AtomicInteger();
+	private volatile long indexStartTime;
+	private volatile long indexEndTime;
 
 	public final static int DEFAULT_MAX_HITS_PER_PAGE = 100;
+	public final static int DEFAULT_INDEX_BATCH_SIZE = 500;
+	public final static int DEFAULT_RESULT_CACHE_SIZE = 1000;
+	public final static long DEFAULT_RESULT_CACHE_TTL = 600000L; //10 min
+	public final static int DEFAULT_FILTER_CACHE_SIZE = 100;
+
+	// search results (pages) by query, filters, page; cleared when the searcher is refreshed
+	private final QueryCache<String, CachedResult> resultCache =
+		new QueryCache<String, CachedResult>(DEFAULT_RESULT_CACHE_SIZE, DEFAULT_RESULT_CACHE_TTL);
+	// type, datasource and organism filters (these cache the matching docs per index segment)
+	private final QueryCache<String, Filter> filterCache = 
+		new QueryCache<String, Filter>(DEFAULT_FILTER_CACHE_SIZE, 0L);
 	
 	/**
 	 * Main Constructor.
@@ -142,20 +181,53 @@ public class SearchEngine implements Indexer, Searcher {
 	 * @param indexLocation full path to the index directory
 	 */
 	public SearchEngine(Model model, String indexLocation) {
+		this(model, openDirectory(indexLocation));
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * The index can be kept in any Lucene directory, e.g., in a {@link RAMDirectory}
+	 * for a small temporary index, or in a {@link MMapDirectory} opened at 
+	 * a snapshot location (see {@link #exportSnapshot(File)}) for a prebuilt read-only one.
+	 *
+	 * @param model BioPAX object model to be indexed or searched.
+	 * @param directory the index directory
+	 */
+	public SearchEngine(Model model, Directory directory) {
 		this.model = model;
-		this.indexFile = new File(indexLocation);
+		this.directory = directory;
 		initSearcherManager();
 		this.maxHitsPerPage = DEFAULT_MAX_HITS_PER_PAGE;
 		this.analyzer = new StandardAnalyzer();
+		this.indexThreads = Runtime.getRuntime().availableProcessors();
+		this.indexBatchSize = DEFAULT_INDEX_BATCH_SIZE;
+	}
+
+	private static Directory openDirectory(String indexLocation) {
+		try {
+			return FSDirectory.open(new File(indexLocation));
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to open the index directory: " + indexLocation, e);
+		}
 	}
 
 	private void initSearcherManager() {
+		resultCache.clear();
 		try {
-			if(indexFile.exists()) 
+			if(DirectoryReader.indexExists(directory)) {
 				this.searcherManager = 
-					new SearcherManager(MMapDirectory.open(indexFile), new SearcherFactory());
-			else 
-				LOG.info(indexFile.getPath() + " does not exist.");
+					new SearcherManager(directory, new SearcherFactory());
+				this.searcherManager.addListener(new ReferenceManager.RefreshListener() {
+					public void beforeRefresh() {
+					}
+					public void afterRefresh(boolean didRefresh) {
+						if(didRefresh)
+							resultCache.clear();
+					}
+				});
+			} else 
+				LOG.info(directory + " has no index.");
 		} catch (IOException e) {
 			LOG.warn("Could not create a searcher: " + e);
 		}
@@ -178,6 +250,76 @@ public class SearchEngine implements Indexer, Searcher {
 		return maxHitsPerPage;
 	}
 
+	/**
+	 * Sets the max. number of search results (pages) to keep in the cache.
+	 *
+	 * @param resultCacheSize positive int value; 0 - disables the cache
+	 */
+	public void setResultCacheSize(int resultCacheSize) {
+		resultCache.setMaxSize(resultCacheSize);
+	}
+
+	/**
+	 * Gets the max. number of search results (pages) kept in the cache.
+	 * @return int value
+	 */
+	public int getResultCacheSize() {
+		return resultCache.getMaxSize();
+	}
+
+	/**
+	 * Sets how long a search result can be taken from the cache.
+	 * All cached results are dropped anyway when the index changes.
+	 *
+	 * @param resultCacheTtl time to live, ms; 0 - unlimited
+	 */
+	public void setResultCacheTtl(long resultCacheTtl) {
+		resultCache.setTtl(resultCacheTtl);
+	}
+
+	/**
+	 * Gets the time to live of a cached search result.
+	 * @return ms
+	 */
+	public long getResultCacheTtl() {
+		return resultCache.getTtl();
+	}
+
+	/**
+	 * @return number of the searches answered from the result cache
+	 */
+	public long getResultCacheHits() {
+		return resultCache.getHits();
+	}
+
+	/**
+	 * @return number of the searches not found in the result cache
+	 */
+	public long getResultCacheMisses() {
+		return resultCache.getMisses();
+	}
+
+	/**
+	 * @return number of times a type/datasource/organism filter was reused
+	 */
+	public long getFilterCacheHits() {
+		return filterCache.getHits();
+	}
+
+	/**
+	 * @return number of times a type/datasource/organism filter was created
+	 */
+	public long getFilterCacheMisses() {
+		return filterCache.getMisses();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Search results are cached (see {@link #setResultCacheSize(int)}), 
+	 * and the same hits are returned for the same (normalized) query, filters 
+	 * and page, until the index is updated.
+	 */
 	public SearchResult search(String query, int page,
 			Class<? extends BioPAXElement> filterByType, String[] datasources,
 			String[] organisms) 
@@ -189,60 +331,38 @@ public class SearchEngine implements Indexer, Searcher {
 			+ "; extra filters: ds in (" + Arrays.toString(datasources)
 			+ "), org. in (" + Arrays.toString(organisms) + ")");
 		
+		final String key = query.trim().replaceAll("\\s+", " ") 
+			+ "\n" + ((filterByType != null) ? filterByType.getSimpleName() : "")
+			+ "\n" + sorted(datasources) + "\n" + sorted(organisms) 
+			+ "\n" + page + "\n" + maxHitsPerPage;
+		final long generation = resultCache.generation();
+		CachedResult cached = resultCache.get(key);
+		if(cached != null)
+			return cached.toSearchResult();
+		
 		IndexSearcher searcher = null;
 	
 		try {	
-			QueryParser queryParser = new MultiFieldQueryParser(DEFAULT_FIELDS, analyzer);
-			queryParser.setAllowLeadingWildcard(true);//TODO do we really want leading wildcards (e.g. *sulin)?
+			//"*" query is not supported out-of-the-box, so it is replaced with a type query
+			final boolean all = query.trim().equals("*");
+			Query luceneQuery = createQuery(query, filterByType);
+			//create filter: type AND (d OR d...) AND (o OR o...)
+			Filter filter = createFilter((all) ? null : filterByType, datasources, organisms);
 			
 			searcher = searcherManager.acquire();	
 			
 			//find and transform top docs to search hits (beans), considering pagination...
-			if(!query.trim().equals("*")) { //if not "*" query, which is not supported out-of-the-box, then
-				//create the lucene query
-				Query luceneQuery = queryParser.parse(query);
-//do NOT (Lucene 4.1), or scoring/highlighting won't work for wildcard queries...				
-//luceneQuery = searcher.rewrite(luceneQuery); 
-				LOG.debug("parsed lucene query is " + luceneQuery.getClass().getSimpleName());
-				
-				//create filter: type AND (d OR d...) AND (o OR o...)
-				Filter filter = createFilter(filterByType, datasources, organisms);
-				
-				//get the first page of top hits
-				TopDocs topDocs = searcher.search(luceneQuery, filter, maxHitsPerPage);
-				//get the required hits page if page>0
-				if(page>0) {
-					TopScoreDocCollector collector = TopScoreDocCollector.create(maxHitsPerPage*(page+1), true);  
-					searcher.search(luceneQuery, filter, collector);
-					topDocs = collector.topDocs(page * maxHitsPerPage, maxHitsPerPage);
-				}
-				
-				//transform docs to hits, use a highlighter to get excerpts
-				response = transform(luceneQuery, searcher, true, topDocs);
-	
-			} else { //find ALL objects of a particular BioPAX class (+ filters by organism, datasource)
-				if(filterByType==null) 
-					filterByType = Level3Element.class;
-
-				//replace q="*" with a search for the class or its sub-class name in the TYPE field
-				BooleanQuery luceneQuery = new BooleanQuery();
-				for(Class<? extends BioPAXElement> subType : SimpleEditorMap.L3.getKnownSubClassesOf(filterByType)) {
-					luceneQuery.add(new TermQuery(new Term(FIELD_TYPE, subType.getSimpleName().toLowerCase())), Occur.SHOULD);
-				}
-				Filter filter = createFilter(null, datasources, organisms);
-				
-				//get the first page of top hits
-				TopDocs topDocs = searcher.search(luceneQuery, filter, maxHitsPerPage);
-				//get the required hits page if page>0
-				if(page>0) {
-					TopScoreDocCollector collector = TopScoreDocCollector.create(maxHitsPerPage*(page+1), true);  
-					searcher.search(luceneQuery, filter, collector);
-					topDocs = collector.topDocs(page * maxHitsPerPage, maxHitsPerPage);	
-				}
-				
-				//convert
-				response = transform(luceneQuery, searcher, false, topDocs);			
-			}	
+			//get the first page of top hits
+			TopDocs topDocs = searcher.search(luceneQuery, filter, maxHitsPerPage);
+			//get the required hits page if page>0
+			if(page>0) {
+				TopScoreDocCollector collector = TopScoreDocCollector.create(maxHitsPerPage*(page+1), true);  
+				searcher.search(luceneQuery, filter, collector);
+				topDocs = collector.topDocs(page * maxHitsPerPage, maxHitsPerPage);
+			}
+			
+			//transform docs to hits, use a highlighter to get excerpts (unless it's the "*" query)
+			response = transform(luceneQuery, searcher, !all, topDocs);
 			
 		} catch (ParseException e) {
 			throw new RuntimeException("getTopDocs: failed to parse the query string.", e);
@@ -258,10 +378,75 @@ public class SearchEngine implements Indexer, Searcher {
 		}
 		
 		response.setPage(page);
+		resultCache.put(key, new CachedResult(response), generation);
 		
 		return response;
 	}
 
+	/**
+	 * Finds all the hits, in batches of {@link #getMaxHitsPerPage()}, using 
+	 * Lucene's searchAfter, i.e., at constant memory and without re-collecting 
+	 * the previous hits for each batch (unlike {@link #search(String, int, Class, String[], String[])}
+	 * does for page N). The hits are iterated lazily, and only their stored fields 
+	 * (except for keywords) are loaded; there is no highlighting, and there is no 
+	 * scoring (hits in the index order) unless requested. The cursor uses the same 
+	 * index searcher till the end, and must be closed if not iterated to the end.
+	 *
+	 * @param query String (keywords or Lucene query string)
+	 * @param filterByType - class filter
+	 * @param datasources  - filter by datasource
+	 * @param organisms - filter by organism
+	 * @param scored true - hits by score (relevance); false - in the index order (faster)
+	 * @return hits iterator
+	 */
+	public SearchCursor cursor(String query, Class<? extends BioPAXElement> filterByType, 
+			String[] datasources, String[] organisms, boolean scored) 
+	{
+		LOG.debug("cursor: " + query + ", filterBy: " + filterByType
+			+ "; extra filters: ds in (" + Arrays.toString(datasources)
+			+ "), org. in (" + Arrays.toString(organisms) + ")");
+		try {
+			Query luceneQuery = createQuery(query, filterByType);
+			Filter filter = createFilter((query.trim().equals("*")) ? null : filterByType, datasources, organisms);
+			int batchSize = (maxHitsPerPage > 0) ? maxHitsPerPage : DEFAULT_MAX_HITS_PER_PAGE;
+			return new SearchCursor(searcherManager, luceneQuery, filter, batchSize, scored);
+		} catch (ParseException e) {
+			throw new RuntimeException("cursor: failed to parse the query string.", e);
+		}
+	}
+
+	/*
+	 * Parses the query string, or, for the "*" query, makes a search 
+	 * for the type or its sub-type names in the TYPE field.
+	 */
+	private Query createQuery(String query, Class<? extends BioPAXElement> filterByType) throws ParseException {
+		if(!query.trim().equals("*")) {
+			QueryParser queryParser = new MultiFieldQueryParser(DEFAULT_FIELDS, analyzer);
+			queryParser.setAllowLeadingWildcard(true);//TODO do we really want leading wildcards (e.g. *sulin)?
+			Query luceneQuery = queryParser.parse(query);
+//do NOT (Lucene 4.1), or scoring/highlighting won't work for wildcard queries...				
+//luceneQuery = searcher.rewrite(luceneQuery); 
+			LOG.debug("parsed lucene query is " + luceneQuery.getClass().getSimpleName());
+			return luceneQuery;
+		} else { //find ALL objects of a particular BioPAX class
+			if(filterByType==null) 
+				filterByType = Level3Element.class;
+			BooleanQuery luceneQuery = new BooleanQuery();
+			for(Class<? extends BioPAXElement> subType : SimpleEditorMap.L3.getKnownSubClassesOf(filterByType)) {
+				luceneQuery.add(new TermQuery(new Term(FIELD_TYPE, subType.getSimpleName().toLowerCase())), Occur.SHOULD);
+			}
+			return luceneQuery;
+		}
+	}
+
+	private static String sorted(String[] values) {
+		if(values == null)
+			return "";
+		String[] copy = values.clone();
+		Arrays.sort(copy);
+		return Arrays.toString(copy);
+	}
+
 	
 	/**
 	 * Returns a SearchResult
@@ -365,80 +550,382 @@ public class SearchEngine implements Indexer, Searcher {
 	}
 
 
-	public void index() {
+	/**
+	 * Sets the number of threads that create and write the index documents.
+	 *
+	 * @param indexThreads positive int value
+	 */
+	public void setIndexThreads(int indexThreads) {
+		if(indexThreads < 1)
+			throw new IllegalArgumentException("indexThreads must be positive: " + indexThreads);
+		this.indexThreads = indexThreads;
+	}
+
+	/**
+	 * Gets the number of indexing threads.
+	 * @return int value
+	 */
+	public int getIndexThreads() {
+		return indexThreads;
+	}
+
+	/**
+	 * Sets the number of BioPAX objects per indexing task,
+	 * i.e., per {@link IndexWriter#addDocuments(Iterable)} call.
+	 *
+	 * @param indexBatchSize positive int value
+	 */
+	public void setIndexBatchSize(int indexBatchSize) {
+		if(indexBatchSize < 1)
+			throw new IllegalArgumentException("indexBatchSize must be positive: " + indexBatchSize);
+		this.indexBatchSize = indexBatchSize;
+	}
+
+	/**
+	 * Gets the number of BioPAX objects per indexing task.
+	 * @return int value
+	 */
+	public int getIndexBatchSize() {
+		return indexBatchSize;
+	}
+
+	/**
+	 * Gets the number of BioPAX objects to be indexed by
+	 * the running (or last) {@link #index()} call.
+	 * @return int value
+	 */
+	public int getNumToIndex() {
+		return numToIndex;
+	}
+
+	/**
+	 * Gets the number of BioPAX objects indexed so far
+	 * by the running (or last) {@link #index()} call.
+	 * @return int value
+	 */
+	public int getNumIndexed() {
+		return numIndexed.get();
+	}
+
+	/**
+	 * Gets the indexing throughput of the running (or last) {@link #index()} call.
+	 * @return BioPAX objects indexed per second
+	 */
+	public double getIndexRate() {
+		long start = indexStartTime;
+		if(start == 0L)
+			return 0.0;
+		long end = (indexEndTime > 0L) ? indexEndTime : System.currentTimeMillis();
+		return numIndexed.get() * 1000.0 / Math.max(1L, end - start);
+	}
+
+
+	/**
+	 * Re-creates the index of all the objects in the model.
+	 *
+	 * The objects are passed, in batches of {@link #getIndexBatchSize()}, via a bounded queue
+	 * to {@link #getIndexThreads()} threads that create and write the documents;
+	 * the progress can be checked with {@link #getNumIndexed()} and {@link #getIndexRate()}.
+	 */
+	public synchronized void index() {
 		final int numObjects =  model.getObjects().size();
 		LOG.info("index(), there are " + numObjects + " BioPAX objects to be (re-)indexed.");		
-		IndexWriter iw;		
+		// parent pathways, data sources and organisms of all the objects, computed once (on first use)
+		ModelContext context = new ModelContext(model);
+		// the number of member interactions or pathways of all the processes, in one pass
+		// (before the writer is opened, which would not be closed if this failed)
+		Map<BioPAXElement, Integer> sizes = new Fetcher(SimpleEditorMap.L3, Fetcher.nextStepFilter)
+				.count(model.getObjects(Process.class), Process.class);
+
+		IndexWriter indexWriter;		
 		try {
-			//close the searcher manager if the old index exists
-			if(searcherManager != null) {
-				searcherManager.close();
-				searcherManager = null;
-			}
-			IndexWriterConfig conf = new IndexWriterConfig(Version.LATEST, analyzer);
-			iw = new IndexWriter(FSDirectory.open(indexFile), conf);
-			//cleanup
-			iw.deleteAll();
-			iw.commit();
+			indexWriter = openIndexWriter();
 		} catch (IOException e) {
 			throw new RuntimeException("Failed to create a new IndexWriter.", e);
-		}		
-		final IndexWriter indexWriter = iw;
+		}
+		try {
+			//cleanup; committed together with the new documents (the old index is kept if indexing fails)
+			indexWriter.deleteAll();
+		} catch (IOException e) {
+			rollback(indexWriter);
+			throw new RuntimeException("Failed to clear the index.", e);
+		}
 
-		ExecutorService exec = Executors.newFixedThreadPool(30);
-		
-		final AtomicInteger numLeft = new AtomicInteger(numObjects);
-		for(final BioPAXElement bpe : model.getObjects()) {	
-			// prepare & index each element in a separate thread
-			exec.execute(new Runnable() {
-				public void run() {					
-					// get or infer some important values if possible from this, child or parent objects:
-					Set<String> keywords = ModelUtils.getKeywords(bpe, 3); //TODO use Filter<DataPropertyEditor>... args
-					
-					// a hack to remove special (debugging) biopax comments
-					for(String s : new HashSet<String>(keywords)) {
-						//exclude additional comments generated by normalizer, merger, etc.
-						if(s.startsWith("REPLACED ") || s.contains("ADDED"))
-							keywords.remove(s);
-					}
-					
-					bpe.getAnnotations().put(FIELD_KEYWORD, keywords);
-					bpe.getAnnotations().put(FIELD_DATASOURCE, ModelUtils.getDatasources(bpe));
-					bpe.getAnnotations().put(FIELD_ORGANISM, ModelUtils.getOrganisms(bpe));
-					bpe.getAnnotations().put(FIELD_PATHWAY, ModelUtils.getParentPathways(bpe)); //- includes itself if bpe is a pathway
-
-					// for bio processes, also save the total number of member interactions or pathways:
-					if(bpe instanceof org.biopax.paxtools.model.level3.Process) {
-						int size = new Fetcher(SimpleEditorMap.L3, Fetcher.nextStepFilter)
-								.fetch(bpe, Process.class).size();						
-						bpe.getAnnotations().put(FIELD_SIZE, Integer.toString(size)); 
-					}
+		try {
+			write(model.getObjects(), indexWriter, context, sizes, false);
+		} finally {
+			//searches continue with the new index, or with the old one if this failed
+			refreshSearcherManager();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The documents of all the parent (recursively) and child (as the {@link Fetcher} finds) 
+	 * objects of the given ones are re-created as well, because their inferred values
+	 * may depend on the changed objects. The searcher is refreshed (open searches are not affected).
+	 */
+	public synchronized void update(Collection<? extends BioPAXElement> elements) {
+		// the changed objects that are still in the model, and the URIs of removed ones
+		Set<BioPAXElement> changed = Collections.newSetFromMap(new IdentityHashMap<BioPAXElement, Boolean>());
+		Set<String> removed = new HashSet<String>();
+		for(BioPAXElement bpe : elements) {
+			if(model.contains(bpe))
+				changed.add(bpe);
+			else
+				removed.add(bpe.getUri());
+		}
+
+		Set<BioPAXElement> affected = Collections.newSetFromMap(new IdentityHashMap<BioPAXElement, Boolean>());
+		affected.addAll(changed);
+		// child objects get parent pathways, data sources, organisms from the changed ones
+		Fetcher fetcher = new Fetcher(SimpleEditorMap.L3, Fetcher.nextStepFilter);
+		for(BioPAXElement bpe : changed) {
+			for(BioPAXElement child : fetcher.fetch(bpe)) {
+				if(model.contains(child))
+					affected.add(child);
+			}
+		}
+		// parent objects get keywords, organisms, size from the changed ones
+		Set<BioPAXElement> parents = changed;
+		while(!parents.isEmpty()) {
+			Set<BioPAXElement> next = Collections.newSetFromMap(new IdentityHashMap<BioPAXElement, Boolean>());
+			for(BioPAXElement parent : ModelUtils.findReferrers(model, parents)) {
+				if(affected.add(parent))
+					next.add(parent);
+			}
+			parents = next;
+		}
+		LOG.info("update(), " + changed.size() + " changed and " + removed.size() 
+			+ " removed BioPAX objects; " + affected.size() + " to be re-indexed.");
+
+		ModelContext context = new ModelContext(model);
+		Map<BioPAXElement, Integer> sizes = fetcher.count(
+			new ClassFilterSet<BioPAXElement, Process>(affected, Process.class), Process.class);
+
+		IndexWriter indexWriter;
+		try {
+			indexWriter = openIndexWriter();
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to open IndexWriter.", e);
+		}
+		try {
+			for(String uri : removed)
+				indexWriter.deleteDocuments(new Term(FIELD_URI, uri));
+		} catch (IOException e) {
+			rollback(indexWriter);
+			throw new RuntimeException("Failed to delete from the index.", e);
+		}
+		try {
+			write(affected, indexWriter, context, sizes, true);
+		} finally {
+			refreshSearcherManager();
+		}
+	}
+
+	public synchronized void delete(Collection<String> uris) {
+		try {
+			IndexWriter indexWriter = openIndexWriter();
+			try {
+				for(String uri : uris)
+					indexWriter.deleteDocuments(new Term(FIELD_URI, uri));
+			} finally {
+				indexWriter.close();
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to delete from the index.", e);
+		}
+		refreshSearcherManager();
+	}
+
+	/**
+	 * Saves a copy of the index, merged into one segment, at the location 
+	 * (replaces the index there if any). It can be opened later, possibly 
+	 * in another process, with {@link #importSnapshot(File)}, or used as is,
+	 * e.g., with a {@link MMapDirectory}.
+	 *
+	 * @param location snapshot directory
+	 */
+	public synchronized void exportSnapshot(File location) {
+		try {
+			Directory target = FSDirectory.open(location);
+			IndexWriter indexWriter = openIndexWriter(target, OpenMode.CREATE);
+			try {
+				indexWriter.addIndexes(directory);
+				indexWriter.forceMerge(1);
+			} finally {
+				indexWriter.close();
+				target.close();
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to export the index to " + location, e);
+		}
+		LOG.info("exportSnapshot(), saved the index to " + location);
+	}
+
+	/**
+	 * Replaces the index with a copy of the snapshot (see {@link #exportSnapshot(File)}),
+	 * which must have been created for the same model.
+	 *
+	 * @param location snapshot directory
+	 */
+	public synchronized void importSnapshot(File location) {
+		try {
+			Directory source = FSDirectory.open(location);
+			IndexWriter indexWriter = openIndexWriter(directory, OpenMode.CREATE);
+			try {
+				indexWriter.addIndexes(source);
+			} finally {
+				indexWriter.close();
+				source.close();
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to import the index from " + location, e);
+		}
+		LOG.info("importSnapshot(), loaded the index from " + location);
+		refreshSearcherManager();
+	}
+
+	private IndexWriter openIndexWriter() throws IOException {
+		return openIndexWriter(directory, OpenMode.CREATE_OR_APPEND);
+	}
+
+	private IndexWriter openIndexWriter(Directory dir, OpenMode mode) throws IOException {
+		IndexWriterConfig conf = new IndexWriterConfig(Version.LATEST, analyzer);
+		conf.setOpenMode(mode);
+		return new IndexWriter(dir, conf);
+	}
+
+	private void refreshSearcherManager() {
+		if(searcherManager == null) {
+			initSearcherManager();
+		} else {
+			try {
+				searcherManager.maybeRefresh();
+			} catch (IOException e) {
+				throw new RuntimeException("Failed to refresh the searcher.", e);
+			}
+		}
+	}
 
-					index(bpe, indexWriter);
-					
-					//count, log a progress message
-					int left = numLeft.decrementAndGet();
-					if(left % 10000 == 0)
-						LOG.info("index(), biopax objects left to index: " + left);
+	/*
+	 * Creates and writes (adds or updates) the documents, and closes the index writer.
+	 * The elements are passed in batches via a bounded queue to the indexing threads.
+	 * If anything fails, the indexing threads are stopped and the writer is rolled back
+	 * (nothing is committed, i.e., the index stays as it was before).
+	 */
+	private void write(Collection<BioPAXElement> elements, final IndexWriter indexWriter,
+			final ModelContext context, final Map<BioPAXElement, Integer> sizes, final boolean update)
+	{
+		final int numObjects = elements.size();
+		numToIndex = numObjects;
+		numIndexed.set(0);
+		indexEndTime = 0L;
+		indexStartTime = System.currentTimeMillis();
+
+		// a few batches per thread at most are waiting in the queue; an empty batch means 'stop'
+		final int threads = indexThreads;
+		final BlockingQueue<List<BioPAXElement>> queue = new ArrayBlockingQueue<List<BioPAXElement>>(2 * threads);
+		ExecutorService exec = Executors.newFixedThreadPool(threads);
+		List<Future<?>> workers = new ArrayList<Future<?>>();
+		for(int i = 0; i < threads; i++) {
+			workers.add(exec.submit(new Callable<Void>() {
+				public Void call() throws Exception {
+					List<Document> docs = new ArrayList<Document>();
+					for(List<BioPAXElement> batch = queue.take(); !batch.isEmpty(); batch = queue.take()) {
+						for(BioPAXElement bpe : batch)
+							docs.add(createDocument(bpe, context, sizes));
+						if(update) {
+							for(Document doc : docs)
+								indexWriter.updateDocument(new Term(FIELD_URI, doc.get(FIELD_URI)), doc);
+						} else {
+							indexWriter.addDocuments(docs);
+						}
+						docs.clear();
+
+						//count, log a progress message
+						int done = numIndexed.addAndGet(batch.size());
+						if(done / 10000 > (done - batch.size()) / 10000)
+							LOG.info("index(), biopax objects left to index: " + (numObjects - done));
+					}
+					return null;
 				}
-			});
+			}));
 		}
-		
-		exec.shutdown(); //stop accepting new tasks	
-		try { //wait
-			exec.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+		exec.shutdown(); //no more tasks
+
+		boolean done = false;
+		try {
+			List<BioPAXElement> batch = new ArrayList<BioPAXElement>(indexBatchSize);
+			for(BioPAXElement bpe : elements) {
+				batch.add(bpe);
+				if(batch.size() == indexBatchSize) {
+					enqueue(queue, batch, workers);
+					batch = new ArrayList<BioPAXElement>(indexBatchSize);
+				}
+			}
+			if(!batch.isEmpty())
+				enqueue(queue, batch, workers);
+			for(int i = 0; i < threads; i++)
+				enqueue(queue, Collections.<BioPAXElement>emptyList(), workers);
+			for(Future<?> worker : workers)
+				worker.get();
+			done = true;
 		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 			throw new RuntimeException("Interrupted!", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Failed to index.", e.getCause());
+		} finally {
+			indexEndTime = System.currentTimeMillis();
+			if(!done) {
+				//also when the producer (this thread) has thrown a RuntimeException or Error
+				exec.shutdownNow();
+				try {
+					//stop writing before the rollback
+					if(!exec.awaitTermination(1, TimeUnit.MINUTES))
+						LOG.warn("write(), indexing threads did not stop.");
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				rollback(indexWriter);
+			}
 		}
-		
 		try {
 			indexWriter.close(); //wait for pending op., auto-commit, close.
 		} catch (IOException e) {
 			throw new RuntimeException("Failed to close IndexWriter.", e);
-		} 
-		
-		//finally, create a new searcher manager
-		initSearcherManager();
+		}
+		LOG.info("index(), indexed " + numIndexed.get() + " biopax objects; "
+			+ Math.round(getIndexRate()) + " per second.");
+	}
+
+	/*
+	 * Discards the uncommitted changes and closes the writer;
+	 * does not throw (not to hide the exception that caused it).
+	 */
+	private static void rollback(IndexWriter indexWriter) {
+		try {
+			indexWriter.rollback();
+		} catch (IOException e) {
+			LOG.error("Failed to roll back IndexWriter.", e);
+		}
+	}
+
+	/*
+	 * Waits for free space in the queue; fails if an indexing thread has failed
+	 * (otherwise, the queue would never be consumed).
+	 */
+	private static void enqueue(BlockingQueue<List<BioPAXElement>> queue, List<BioPAXElement> batch,
+			List<Future<?>> workers) throws InterruptedException, ExecutionException
+	{
+		while(!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+			for(Future<?> worker : workers) {
+				if(worker.isDone())
+					worker.get();
+			}
+		}
 	}
 	
 	
@@ -446,14 +933,14 @@ public class SearchEngine implements Indexer, Searcher {
 	
 	/**
 	 * Creates a new Lucene Document that corresponds to a BioPAX object.
-	 * It does not check whether the document exists (should not be there,
-	 * because the {@link #index()} method cleans up the index)
+	 * It does not check whether the document exists (the {@link #index()} method 
+	 * cleans up the index, and {@link #update(Collection)} replaces the document)
 	 * 
 	 * Some fields also include biopax data type property values not only from 
-	 * the biopax object but also from its child elements, up to some depth 
-	 * (using key-value pairs in the pre-computed bpe.annotations map):
+	 * the biopax object but also from its child elements, up to some depth,
+	 * or from its parent elements (using the model context):
 	 * 
-	 *  'uri' - biopax object's absolute URI, analyze=no, store=yes;
+	 *  'uri' - biopax object's absolute URI, index=yes, analyze=no, store=yes;
 	 * 
 	 *  'name' - names, analyze=yes, store=yes; boosted;
 	 * 
@@ -469,46 +956,42 @@ public class SearchEngine implements Indexer, Searcher {
 	 *  'size' - number of child processes, an integer as string; analyze=no, store=yes
 	 * 
 	 * @param bpe BioPAX object
-	 * @param indexWriter index writer
+	 * @param context parent pathways, data sources and organisms of the model objects
+	 * @param sizes the number of child processes of the model processes
+	 * @return new document
 	*/
-	void index(BioPAXElement bpe, IndexWriter indexWriter) {		
+	Document createDocument(BioPAXElement bpe, ModelContext context, Map<BioPAXElement, Integer> sizes) {
 		// create a new document
 		final Document doc = new Document();
 		
-		// save URI (not indexed field)
-		Field field = new StoredField(FIELD_URI, bpe.getUri());
+		// save URI (indexed, not analyzed - to update or delete the document)
+		Field field = new StringField(FIELD_URI, bpe.getUri(), Field.Store.YES);
 		doc.add(field);
 		
 		// index and store but not analyze/tokenize the biopax class name:
 		field = new StringField(FIELD_TYPE, bpe.getModelInterface().getSimpleName().toLowerCase(), Field.Store.YES);
 		doc.add(field);
 		
-		// make index fields from the annotations map (of pre-calculated/inferred values)
-		if(!bpe.getAnnotations().isEmpty()) {
-			if(bpe.getAnnotations().containsKey(FIELD_PATHWAY)) {
-				addPathways((Set<Pathway>)bpe.getAnnotations().get(FIELD_PATHWAY), doc);
-			}
-			if(bpe.getAnnotations().containsKey(FIELD_ORGANISM)) {
-				addOrganisms((Set<BioSource>)bpe.getAnnotations().get(FIELD_ORGANISM), doc);
-			}
-			if(bpe.getAnnotations().containsKey(FIELD_DATASOURCE)) {
-				addDatasources((Set<Provenance>)bpe.getAnnotations().get(FIELD_DATASOURCE), doc);
-			}
-			if(bpe.getAnnotations().containsKey(FIELD_KEYWORD)) {
-				addKeywords((Set<String>)bpe.getAnnotations().get(FIELD_KEYWORD), doc);
-			}
-			if(bpe.getAnnotations().containsKey(FIELD_SIZE)) {
-				field = new IntField(FIELD_SIZE, 
-					Integer.parseInt((String)bpe.getAnnotations()
-					.get(FIELD_SIZE)), Field.Store.YES);
-				doc.add(field);
-			}
+		// get or infer some important values if possible from this, child or parent objects:
+		addPathways(context.getParentPathways(bpe), doc); //- includes itself if bpe is a pathway
+		addOrganisms(context.getOrganisms(bpe), doc);
+		addDatasources(context.getDatasources(bpe), doc);
+
+		Set<String> keywords = ModelUtils.getKeywords(bpe, 3); //TODO use Filter<DataPropertyEditor>... args
+		// a hack to remove special (debugging) biopax comments
+		for(String s : new HashSet<String>(keywords)) {
+			//exclude additional comments generated by normalizer, merger, etc.
+			if(s.startsWith("REPLACED ") || s.contains("ADDED"))
+				keywords.remove(s);
+		}
+		addKeywords(keywords, doc);
+
+		// for bio processes, also save the total number of member interactions or pathways:
+		Integer size = sizes.get(bpe);
+		if(size != null) {
+			field = new IntField(FIELD_SIZE, size, Field.Store.YES);
+			doc.add(field);
 		}
-		bpe.getAnnotations().remove(FIELD_KEYWORD);
-		bpe.getAnnotations().remove(FIELD_DATASOURCE);
-		bpe.getAnnotations().remove(FIELD_ORGANISM);
-		bpe.getAnnotations().remove(FIELD_PATHWAY);
-		bpe.getAnnotations().remove(FIELD_SIZE);
 			
 		// name
 		if(bpe instanceof Named) {
@@ -559,12 +1042,7 @@ public class SearchEngine implements Indexer, Searcher {
 			}
 		}
 		
-		// write
-		try {
-			indexWriter.addDocument(doc);
-		} catch (IOException e) {
-			throw new RuntimeException("Failed to index; " + bpe.getUri(), e);
-		}
+		return doc;
 	}
 
 	private void addKeywords(Set<String> keywords, Document doc) {
@@ -668,32 +1146,119 @@ public class SearchEngine implements Indexer, Searcher {
 	private Filter createFilter(Class<? extends BioPAXElement> type, 
 			String[] datasources, String[] organisms) {
 		
-		BooleanQuery filterQuery = new BooleanQuery();
+		List<Filter> filters = new ArrayList<Filter>();
 		
 		//AND datasources	
 		if (datasources != null && datasources.length > 0) {
-			filterQuery.add(subQuery(datasources, FIELD_DATASOURCE), Occur.MUST);
+			filters.add(cachedFilter(FIELD_DATASOURCE, datasources, null));
 		}
 		//AND organisms
 		if (organisms != null && organisms.length > 0) {
-			filterQuery.add(subQuery(organisms, FIELD_ORGANISM), Occur.MUST);
+			filters.add(cachedFilter(FIELD_ORGANISM, organisms, null));
 		}		
 		//AND type	
 		if(type != null) { //add biopax class filter
-			BooleanQuery query = new BooleanQuery();
-			query.add(new TermQuery(new Term(FIELD_TYPE, type.getSimpleName().toLowerCase())), Occur.SHOULD);//OR
-			//for each biopax subclass (interface), add the name to the filter query
-			for(Class<? extends BioPAXElement> subType : SimpleEditorMap.L3.getKnownSubClassesOf(type)) {
-				query.add(new TermQuery(new Term(FIELD_TYPE, subType.getSimpleName().toLowerCase())), Occur.SHOULD);//OR
-			}		
-			filterQuery.add(query, Occur.MUST);
+			filters.add(cachedFilter(FIELD_TYPE, null, type));
 		}
 		
-		if(!filterQuery.clauses().isEmpty()) {
-			LOG.debug("filterQuery: " + filterQuery.toString());
-			return new CachingWrapperFilter( new QueryWrapperFilter(filterQuery) ); //TODO why CachingWrapperFilter, QueryWrapperFilter?
-		} else 
+		if(filters.isEmpty())
 			return null;
+		else if(filters.size() == 1)
+			return filters.get(0);
+		else
+			return new AndFilter(filters);
+	}
+
+	/*
+	 * Gets or creates a cached filter by data source or organism names/URIs (any of),
+	 * or by biopax type (incl. sub-types).
+	 */
+	private Filter cachedFilter(String field, String[] values, Class<? extends BioPAXElement> type) {
+		final String key = field + ":" + ((type != null) ? type.getSimpleName() : sorted(values));
+		final long generation = filterCache.generation();
+		Filter filter = filterCache.get(key);
+		if(filter == null) {
+			Query query;
+			if(type != null) {
+				BooleanQuery bq = new BooleanQuery();
+				bq.add(new TermQuery(new Term(FIELD_TYPE, type.getSimpleName().toLowerCase())), Occur.SHOULD);//OR
+				//for each biopax subclass (interface), add the name to the filter query
+				for(Class<? extends BioPAXElement> subType : SimpleEditorMap.L3.getKnownSubClassesOf(type)) {
+					bq.add(new TermQuery(new Term(FIELD_TYPE, subType.getSimpleName().toLowerCase())), Occur.SHOULD);//OR
+				}
+				query = bq;
+			} else {
+				query = subQuery(values, field);
+			}
+			LOG.debug("filterQuery: " + query.toString());
+			// the same filter instance caches the matching docs (for each index segment)
+			filter = new CachingWrapperFilter(new QueryWrapperFilter(query));
+			filterCache.put(key, filter, generation);
+		}
+		return filter;
+	}
+
+	/*
+	 * Matches the docs that pass all the filters.
+	 */
+	private static final class AndFilter extends Filter {
+		private final List<Filter> filters;
+
+		AndFilter(List<Filter> filters) {
+			this.filters = filters;
+		}
+
+		@Override
+		public DocIdSet getDocIdSet(AtomicReaderContext context, Bits acceptDocs) throws IOException {
+			FixedBitSet result = null;
+			for(Filter filter : filters) {
+				DocIdSet docs = filter.getDocIdSet(context, acceptDocs);
+				DocIdSetIterator it = (docs != null) ? docs.iterator() : null;
+				if(it == null)
+					return null; //no docs
+				if(result == null) {
+					result = new FixedBitSet(context.reader().maxDoc());
+					result.or(it);
+				} else {
+					result.and(it);
+				}
+			}
+			return result;
+		}
+	}
+
+	/*
+	 * A page of hits, with their excerpts (these depend on the query).
+	 */
+	private static final class CachedResult {
+		private final List<BioPAXElement> hits;
+		private final List<Object> excerpts;
+		private final long totalHits;
+		private final long maxHitsPerPage;
+		private final int page;
+
+		CachedResult(SearchResult result) {
+			hits = new ArrayList<BioPAXElement>(result.getHits());
+			excerpts = new ArrayList<Object>(hits.size());
+			for(BioPAXElement bpe : hits)
+				excerpts.add(bpe.getAnnotations().get(HitAnnotation.HIT_EXCERPT.name()));
+			totalHits = result.getTotalHits();
+			maxHitsPerPage = result.getMaxHitsPerPage();
+			page = result.getPage();
+		}
+
+		SearchResult toSearchResult() {
+			SearchResult result = new SearchResult();
+			for(int i = 0; i < hits.size(); i++) {
+				if(excerpts.get(i) != null)
+					hits.get(i).getAnnotations().put(HitAnnotation.HIT_EXCERPT.name(), excerpts.get(i));
+			}
+			result.setHits(new ArrayList<BioPAXElement>(hits));
+			result.setTotalHits(totalHits);
+			result.setMaxHitsPerPage(maxHitsPerPage);
+			result.setPage(page);
+			return result;
+		}
 	}
 
 	/**
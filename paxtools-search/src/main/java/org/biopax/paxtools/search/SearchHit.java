@@ -0,0 +1,83 @@
+package org.biopax.paxtools.search;
+
+import java.util.Set;
+
+/**
+ * A search hit, as stored in the index: the BioPAX object URI and 
+ * type, and the URIs of its (inferred) data sources, organisms, parent pathways.
+ */
+public class SearchHit {
+	
+	private final String uri;
+	private final String type;
+	private final float score;
+	private final Set<String> datasources;
+	private final Set<String> organisms;
+	private final Set<String> pathways;
+	private final Integer size;
+	
+	SearchHit(String uri, String type, float score, Set<String> datasources,
+			Set<String> organisms, Set<String> pathways, Integer size) {
+		this.uri = uri;
+		this.type = type;
+		this.score = score;
+		this.datasources = datasources;
+		this.organisms = organisms;
+		this.pathways = pathways;
+		this.size = size;
+	}
+
+	/**
+	 * @return BioPAX object URI
+	 */
+	public String getUri() {
+		return uri;
+	}
+
+	/**
+	 * @return BioPAX type (lowercase simple name of the interface)
+	 */
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * @return relevance score, or NaN if the hits were not scored
+	 */
+	public float getScore() {
+		return score;
+	}
+
+	/**
+	 * @return data source URIs
+	 */
+	public Set<String> getDatasources() {
+		return datasources;
+	}
+
+	/**
+	 * @return organism URIs
+	 */
+	public Set<String> getOrganisms() {
+		return organisms;
+	}
+
+	/**
+	 * @return parent pathway URIs (excluding itself)
+	 */
+	public Set<String> getPathways() {
+		return pathways;
+	}
+
+	/**
+	 * @return number of child processes, or null (not a process)
+	 */
+	public Integer getSize() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return uri;
+	}
+}
@@ -7,14 +7,30 @@ import static org.junit.Assert.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.zip.GZIPInputStream;
 
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.store.RAMDirectory;
+import org.biopax.paxtools.impl.ModelImpl;
 import org.biopax.paxtools.io.SimpleIOHandler;
 import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXLevel;
 import org.biopax.paxtools.model.Model;
 import org.biopax.paxtools.model.level3.Interaction;
 import org.biopax.paxtools.model.level3.Pathway;
 import org.biopax.paxtools.model.level3.PhysicalEntity;
+import org.biopax.paxtools.model.level3.Protein;
+import org.biopax.paxtools.model.level3.ProteinReference;
 import org.biopax.paxtools.model.level3.Provenance;
 import org.biopax.paxtools.model.level3.SmallMoleculeReference;
 import org.biopax.paxtools.search.SearchEngine.HitAnnotation;
@@ -32,8 +48,15 @@ public class SearchEngineTest {
 		SimpleIOHandler reader = new SimpleIOHandler();
 		Model model = reader.convertFromOWL(getClass().getResourceAsStream("/pathwaydata1.owl"));
 		SearchEngine searchEngine = new SearchEngine(model, indexLocation + "index1");
+		searchEngine.setIndexThreads(3);
+		searchEngine.setIndexBatchSize(7); //several batches, the last one is incomplete
 		searchEngine.index();
 		assertTrue(new File(indexLocation + "index1").exists());
+		assertEquals(50, searchEngine.getNumToIndex());
+		assertEquals(50, searchEngine.getNumIndexed());
+		assertTrue(searchEngine.getIndexRate() > 0);
+		for(BioPAXElement bpe : model.getObjects())
+			assertTrue(bpe.getAnnotations().isEmpty()); //the model is not modified
 		
 		SearchResult response = searchEngine.search("ATP", 0, null, null, null);
 		assertNotNull(response);
@@ -45,6 +68,12 @@ public class SearchEngineTest {
 		assertNotNull(response);
 		assertEquals(2, response.getHits().size());
 		
+		//same (normalized) query and filter - from the cache
+		long cacheHits = searchEngine.getResultCacheHits();
+		response = searchEngine.search(" ATP  ", 0, Interaction.class, null, null);
+		assertEquals(2, response.getHits().size());
+		assertEquals(cacheHits + 1, searchEngine.getResultCacheHits());
+		
 		response = searchEngine.search("ATP", 0, Pathway.class, null, null);
 		assertNotNull(response);
 		assertEquals(1, response.getHits().size());
@@ -105,6 +134,209 @@ public class SearchEngineTest {
 		response = searchEngine.search("*", 1, null, null, null);
 		assertEquals(10, response.getHits().size());
 		
+		//the type filter was reused with different organism filters
+		assertTrue(searchEngine.getFilterCacheHits() > 0);
+		
+	}
+	
+	@Test
+	public final void testUpdate() throws IOException {
+		SimpleIOHandler reader = new SimpleIOHandler();
+		Model model = reader.convertFromOWL(getClass().getResourceAsStream("/pathwaydata1.owl"));
+		SearchEngine searchEngine = new SearchEngine(model, indexLocation + "index3");
+		searchEngine.index();
+		assertEquals(50, searchEngine.search("*", 0, null, null, null).getTotalHits());
+		assertTrue(searchEngine.search("zyxin1", 0, null, null, null).getHits().isEmpty());
+		
+		//a new name of an entity reference is found in its document and in those of its parents
+		ProteinReference pr = (ProteinReference) model.getByID("http://identifiers.org/uniprot/P27797");
+		pr.addName("Zyxin1");
+		searchEngine.update(Collections.singleton(pr));
+		SearchResult response = searchEngine.search("zyxin1", 0, null, null, null);
+		assertTrue(response.getHits().contains(pr));
+		assertTrue(response.getHits().size() > 1);
+		assertTrue(response.getHits().containsAll(pr.getEntityReferenceOf()));
+		assertEquals(50, searchEngine.search("*", 0, null, null, null).getTotalHits()); //no new documents
+		
+		//a new pathway name is indexed in the 'pathway' field of its child objects
+		Pathway pathway = model.getObjects(Pathway.class).iterator().next();
+		pathway.addName("Zzpathway");
+		searchEngine.update(Collections.singleton(pathway));
+		response = searchEngine.search("pathway:zzpathway", 0, SmallMoleculeReference.class, null, null);
+		assertEquals(5, response.getHits().size());
+		
+		//add, then remove an object
+		Protein protein = model.addNew(Protein.class, "http://biopax.org/test/Qwertase");
+		protein.addName("Qwertase");
+		searchEngine.update(Collections.singleton(protein));
+		assertEquals(51, searchEngine.search("*", 0, null, null, null).getTotalHits());
+		assertEquals(1, searchEngine.search("qwertase", 0, null, null, null).getTotalHits());
+		model.remove(protein);
+		searchEngine.update(Collections.singleton(protein));
+		assertEquals(50, searchEngine.search("*", 0, null, null, null).getTotalHits());
+		assertEquals(0, searchEngine.search("qwertase", 0, null, null, null).getTotalHits());
+		
+		searchEngine.delete(Collections.singleton(pr.getUri()));
+		assertEquals(49, searchEngine.search("*", 0, null, null, null).getTotalHits());
+		assertFalse(searchEngine.search("zyxin1", 0, null, null, null).getHits().contains(pr));
+	}
+	
+	@Test
+	public final void testCursor() throws IOException {
+		SimpleIOHandler reader = new SimpleIOHandler();
+		Model model = reader.convertFromOWL(getClass().getResourceAsStream("/pathwaydata1.owl"));
+		SearchEngine searchEngine = new SearchEngine(model, indexLocation + "index4");
+		searchEngine.index();
+		searchEngine.setMaxHitsPerPage(7); //the cursor batch size
+		
+		//all the objects, in several batches
+		SearchCursor cursor = searchEngine.cursor("*", null, null, null, false);
+		Set<String> uris = new HashSet<String>();
+		while(cursor.hasNext()) {
+			SearchHit hit = cursor.next();
+			assertNotNull(model.getByID(hit.getUri()));
+			assertTrue(Float.isNaN(hit.getScore()));
+			uris.add(hit.getUri());
+		}
+		assertEquals(50, cursor.getTotalHits());
+		assertEquals(50, uris.size());
+		assertFalse(cursor.hasNext());
+		
+		//same hits, in the same order, as the search returns (exactly one batch, then an empty one)
+		searchEngine.setMaxHitsPerPage(10);
+		SearchResult response = searchEngine.search("ATP", 0, null, null, null);
+		searchEngine.setMaxHitsPerPage(7);
+		cursor = searchEngine.cursor("ATP", null, null, null, true);
+		List<String> hits = new ArrayList<String>();
+		float score = Float.MAX_VALUE;
+		while(cursor.hasNext()) {
+			SearchHit hit = cursor.next();
+			assertTrue(hit.getScore() <= score);
+			score = hit.getScore();
+			hits.add(hit.getUri());
+		}
+		assertEquals(7, hits.size());
+		for(int i = 0; i < hits.size(); i++)
+			assertEquals(response.getHits().get(i).getUri(), hits.get(i));
+		
+		//with filters; stored values
+		cursor = searchEngine.cursor("*", PhysicalEntity.class, null, new String[] {"562"}, false);
+		assertEquals(2, cursor.getTotalHits());
+		SearchHit hit = cursor.next();
+		assertEquals(Collections.singleton("http://identifiers.org/taxonomy/562"), hit.getOrganisms());
+		cursor.close();
+		assertFalse(cursor.hasNext());
+		
+		cursor = searchEngine.cursor("*", Pathway.class, null, null, false);
+		hit = cursor.next();
+		assertEquals(4, hit.getSize().intValue());
+		assertFalse(cursor.hasNext());
+	}
+	
+	@Test
+	public final void testSnapshot() throws IOException {
+		SimpleIOHandler reader = new SimpleIOHandler();
+		Model model = reader.convertFromOWL(getClass().getResourceAsStream("/pathwaydata1.owl"));
+		//in-memory index
+		SearchEngine searchEngine = new SearchEngine(model, new RAMDirectory());
+		searchEngine.setIndexBatchSize(5); //to get several segments
+		searchEngine.index();
+		assertEquals(7, searchEngine.search("ATP", 0, null, null, null).getTotalHits());
+		
+		File snapshot = new File(indexLocation + "snapshot5");
+		searchEngine.exportSnapshot(snapshot);
+		Directory directory = MMapDirectory.open(snapshot);
+		DirectoryReader snapshotReader = DirectoryReader.open(directory);
+		assertEquals(1, snapshotReader.leaves().size()); //merged
+		assertEquals(50, snapshotReader.numDocs());
+		snapshotReader.close();
+		
+		//use the snapshot as is
+		SearchEngine searchEngine2 = new SearchEngine(model, directory);
+		assertEquals(7, searchEngine2.search("ATP", 0, null, null, null).getTotalHits());
+		assertEquals(50, searchEngine2.search("*", 0, null, null, null).getTotalHits());
+		
+		//or load it into another in-memory index
+		SearchEngine searchEngine3 = new SearchEngine(model, new RAMDirectory());
+		searchEngine3.importSnapshot(snapshot);
+		assertEquals(7, searchEngine3.search("ATP", 0, null, null, null).getTotalHits());
+		assertEquals(50, searchEngine3.search("*", 0, null, null, null).getTotalHits());
+		//replace the index (not add to it)
+		searchEngine3.importSnapshot(snapshot);
+		assertEquals(50, searchEngine3.search("*", 0, null, null, null).getTotalHits());
+	}
+	
+	@Test
+	public final void testIndexFailure() throws Exception {
+		SimpleIOHandler reader = new SimpleIOHandler();
+		final Thread caller = Thread.currentThread();
+		final AtomicBoolean failing = new AtomicBoolean();
+		//a model that fails (in the caller's thread only) when iterated over while indexing
+		Model model = new ModelImpl(BioPAXLevel.L3.getDefaultFactory()) {
+			public Set<BioPAXElement> getObjects() {
+				final Set<BioPAXElement> objects = super.getObjects();
+				if(!failing.get())
+					return objects;
+				return new AbstractSet<BioPAXElement>() {
+					public Iterator<BioPAXElement> iterator() {
+						final Iterator<BioPAXElement> it = objects.iterator();
+						return new Iterator<BioPAXElement>() {
+							int n = 0;
+							public boolean hasNext() {
+								return it.hasNext();
+							}
+							public BioPAXElement next() {
+								if(++n > 20 && Thread.currentThread() == caller)
+									throw new IllegalStateException("test");
+								return it.next();
+							}
+							public void remove() {
+								throw new UnsupportedOperationException();
+							}
+						};
+					}
+					public int size() {
+						return objects.size();
+					}
+				};
+			}
+		};
+		model.merge(reader.convertFromOWL(getClass().getResourceAsStream("/pathwaydata1.owl")));
+		SearchEngine searchEngine = new SearchEngine(model, new RAMDirectory());
+		searchEngine.setIndexThreads(3);
+		searchEngine.setIndexBatchSize(7);
+		searchEngine.index();
+		assertEquals(50, searchEngine.search("*", 0, null, null, null).getTotalHits());
+
+		Set<Thread> before = new HashSet<Thread>(Thread.getAllStackTraces().keySet());
+		failing.set(true);
+		try {
+			searchEngine.index();
+			fail("the producer should have failed");
+		} catch (IllegalStateException e) {
+			assertEquals("test", e.getMessage());
+		}
+		failing.set(false);
+
+		//the indexing threads are stopped (a thread may be about to exit after the pool has terminated)
+		Set<Thread> left = new HashSet<Thread>();
+		for(int i = 0; i < 50; i++) {
+			left.clear();
+			for(Thread thread : Thread.getAllStackTraces().keySet()) {
+				if(!before.contains(thread) && thread.isAlive() && thread.getName().startsWith("pool-"))
+					left.add(thread);
+			}
+			if(left.isEmpty())
+				break;
+			Thread.sleep(100);
+		}
+		assertTrue("threads left: " + left, left.isEmpty());
+		//nothing was committed (the old index is not deleted), and it can be searched
+		assertEquals(50, searchEngine.search("*", 0, null, null, null).getTotalHits());
+		assertEquals(7, searchEngine.search("ATP", 0, null, null, null).getTotalHits());
+		//and re-indexed
+		searchEngine.index();
+		assertEquals(50, searchEngine.search("*", 0, null, null, null).getTotalHits());
 	}
 	
 	@Test